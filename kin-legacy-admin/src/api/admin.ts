@@ -19,6 +19,21 @@ export interface PageResult<T> {
   size: number
 }
 
+export interface CursorPageResult<T> {
+  records: T[]
+  nextCursor: string | null
+  hasMore: boolean
+  size: number
+  total: number | null
+  totalEstimated: boolean | null
+}
+
+export interface CursorParams {
+  cursor?: string
+  size?: number
+  withTotal?: boolean
+}
+
 export const getUserList = (page = 1, size = 10) => {
   return request.get<PageResult<User>>('/admin/user/list/paged', { params: { page, size } })
 }
@@ -62,3 +77,25 @@ export const getApprovalList = (params: { page?: number; size?: number; type?: s
 export const handleApproval = (familyId: number, requestId: number, data: { approved: boolean }) => {
   return request.post(`/admin/approval/${familyId}/${requestId}/handle`, { action: data.approved ? 'approve' : 'reject' })
 }
+
+export interface ApprovalBatchItem {
+  requestId: number
+  type: string | null
+  success: boolean
+  message: string | null
+}
+
+export interface ApprovalBatchResult {
+  successCount: number
+  failCount: number
+  items: ApprovalBatchItem[]
+}
+
+export const batchHandleApproval = (familyId: number, data: { requestIds: number[]; type?: string; approved: boolean; remark?: string }) => {
+  return request.post<ApprovalBatchResult>(`/admin/approval/${familyId}/batch-handle`, {
+    requestIds: data.requestIds,
+    type: data.type,
+    action: data.approved ? 'approve' : 'reject',
+    remark: data.remark
+  })
+}
@@ -1,4 +1,5 @@
 import request from '@/utils/request'
+import type { CursorPageResult } from './admin'
 
 export interface Approval {
   id: number
@@ -21,10 +22,29 @@ export const getApprovalList = (familyId: number, type?: string, status?: string
   })
 }
 
+export const getApprovalListByCursor = (params: { familyId?: number; type?: string; status?: string; cursor?: string; size?: number } = {}) => {
+  return request.get<CursorPageResult<Approval>>('/admin/approvals/cursor', { params })
+}
+
 export const getAllApprovalList = (type?: string, status?: string, page = 1, size = 10) => {
   return request.get<Approval[]>('/admin/approvals', {
     params: { type, status, page, size }
   })
 }
 
+export interface FamilyPending {
+  familyId: number
+  joinCount: number
+  editCount: number
+}
 
+export interface PendingBadge {
+  joinCount: number
+  editCount: number
+  totalCount: number
+  families: FamilyPending[]
+}
+
+export const getPendingBadge = () => {
+  return request.get<PendingBadge>('/approvals/badge')
+}
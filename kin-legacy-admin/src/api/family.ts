@@ -1,6 +1,7 @@
 import request from '@/utils/request'
 import { useUserStore } from '@/stores/user'
-import type { Family, FamilyDetail } from '@/types/family'
+import type { Family, FamilyDetail, FamilyStatistics } from '@/types/family'
+import type { CursorPageResult, CursorParams } from './admin'
 
 export interface PageResult<T> {
   records: T[]
@@ -20,6 +21,10 @@ export const getFamilyList = (page = 1, size = 10) => {
   }
 }
 
+export const getFamilyListByCursor = (params: CursorParams = {}) => {
+  return request.get<CursorPageResult<Family>>('/admin/family/list/cursor', { params })
+}
+
 export const getMyFamilyList = () => {
   return request.get<Family[]>('/family/mine')
 }
@@ -28,6 +33,10 @@ export const getFamilyById = (id: number) => {
   return request.get<FamilyDetail>(`/family/${id}`)
 }
 
+export const getFamilyStatistics = (id: number) => {
+  return request.get<FamilyStatistics>(`/family/${id}/statistics`)
+}
+
 export const createFamily = (data: { name: string; description?: string; avatar?: string }) => {
   return request.post('/family/create', data)
 }
@@ -1,5 +1,6 @@
 import request from '@/utils/request'
 import { useUserStore } from '@/stores/user'
+import type { CursorPageResult } from './admin'
 
 export interface Member {
   id: number
@@ -13,6 +14,7 @@ export interface Member {
   bio: string
   isCreator: number
   createTime: string
+  generation?: number
   genealogyId?: number
   genealogyName?: string
   accountRole?: string
@@ -39,6 +41,8 @@ export interface MemberQueryParams {
   birthDateStart?: string
   birthDateEnd?: string
   genealogyId?: number
+  generation?: number
+  sortBy?: 'generation' | 'generationDesc'
   createTimeStart?: string
   createTimeEnd?: string
 }
@@ -71,6 +75,36 @@ export interface MemberTransferCheck {
   affectedRelations: number
 }
 
+export interface MemberSearchResult {
+  memberId: number
+  familyId: number
+  familyName: string
+  name: string
+  gender: string
+  avatar?: string
+  birthDate?: string
+  score: number
+}
+
+export interface MemberImportJob {
+  id: number
+  familyId: number
+  fileName: string
+  fileFormat: 'csv' | 'xlsx' | 'gedcom'
+  status: 'pending' | 'validating' | 'importing' | 'done' | 'failed'
+  totalMembers: number
+  importedMembers: number
+  totalRelations: number
+  importedRelations: number
+  percent: number
+  resumable: boolean
+  errorCount: number
+  errors: { line: number; message: string }[]
+  errorMessage?: string
+  createTime: string
+  updateTime: string
+}
+
 export interface PageResult<T> {
   records: T[]
   total: number
@@ -89,6 +123,14 @@ export const getMemberList = (params: MemberQueryParams = {}) => {
   }
 }
 
+export const searchMembers = (q: string, familyId?: number, limit?: number) => {
+  return request.get<MemberSearchResult[]>('/admin/member/search', { params: { q, familyId, limit } })
+}
+
+export const queryMembersByCursor = (params: MemberQueryParams & { cursor?: string; withTotal?: boolean } = {}) => {
+  return request.get<CursorPageResult<Member>>('/admin/member/cursor', { params })
+}
+
 export const getFamilyMembers = (familyId: number) => {
   return request.get<Member[]>(`/family/${familyId}/members`)
 }
@@ -124,3 +166,31 @@ export const checkMemberTransfer = (memberId: number, targetGenealogyId: number)
     params: { memberId, targetGenealogyId }
   })
 }
+
+export const detectDuplicates = () => {
+  return request.post('/admin/duplicate/detect')
+}
+
+export const getDuplicateCandidates = (familyId: number, status?: string) => {
+  return request.get(`/admin/duplicate/family/${familyId}`, { params: { status } })
+}
+
+export const reviewDuplicate = (id: number, status: 'confirmed' | 'dismissed') => {
+  return request.put(`/admin/duplicate/${id}`, null, { params: { status } })
+}
+
+export const importMembers = (familyId: number, file: File) => {
+  const formData = new FormData()
+  formData.append('file', file)
+  return request.post<MemberImportJob>(`/family/${familyId}/members/import`, formData, {
+    headers: { 'Content-Type': 'multipart/form-data' }
+  })
+}
+
+export const getImportJob = (familyId: number, jobId: number) => {
+  return request.get<MemberImportJob>(`/family/${familyId}/members/import/${jobId}`)
+}
+
+export const resumeImport = (familyId: number, jobId: number) => {
+  return request.post<MemberImportJob>(`/family/${familyId}/members/import/${jobId}/resume`)
+}
@@ -1,5 +1,5 @@
 import request from '@/utils/request'
-import type { PageResult } from './admin'
+import type { CursorPageResult, CursorParams, PageResult } from './admin'
 
 export interface User {
   id: number
@@ -31,3 +31,7 @@ export const enableUser = (id: number) => {
 export const updateUserName = (name: string) => {
   return request.put('/user/name', { name })
 }
+
+export const getUserListByCursor = (params: CursorParams = {}) => {
+  return request.get<CursorPageResult<User>>('/admin/user/list/cursor', { params })
+}
@@ -12,3 +12,21 @@ export interface Family {
 export interface FamilyDetail extends Family {
   // 详情可能包含更多字段
 }
+
+export interface FamilyStatistics {
+  familyId: number
+  memberCount: number
+  maleCount: number
+  femaleCount: number
+  unknownGenderCount: number
+  genderRatio: number | null
+  livingCount: number
+  deceasedCount: number
+  averageLifespan: number | null
+  lifespanSampleCount: number
+  generationCount: number
+  branchCount: number
+  largestBranchMemberId: number | null
+  largestBranchMemberName: string | null
+  largestBranchSize: number | null
+}
@@ -3,6 +3,7 @@ package com.kin.family;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 家谱应用启动类
@@ -11,6 +12,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  */
 @SpringBootApplication
 @MapperScan("com.kin.family.mapper")
+@EnableScheduling
 public class FamilyTreeApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,105 @@
+package com.kin.family.cache;
+
+import com.kin.family.constant.GenderEnum;
+import com.kin.family.entity.FamilyMember;
+import com.kin.family.vo.CompactTreeVO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 列式家谱树编码
+ * 把关系图索引和成员资料写成平行数组，重复字符串只保存一次
+ *
+ * @author candong
+ */
+class CompactTreeEncoder {
+
+    private final Map<String, Integer> stringIndexes = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    CompactTreeVO encode(long[] ids, int[] childOffsets, int[] childTargets, int[] spouses, int[] roots,
+                         int[] generations, List<FamilyMember> snapshot, Set<Long> markedIds, String markedLabel) {
+        int size = ids.length;
+        String[] names = new String[size];
+        int[] genders = new int[size];
+        int[] birthDates = new int[size];
+        int[] birthPlaces = new int[size];
+        int[] avatarPrefixes = new int[size];
+        String[] avatarSuffixes = new String[size];
+        String[] bios = new String[size];
+        Long[] userIds = new Long[size];
+        List<Integer> creators = new ArrayList<>();
+        List<Integer> currentUsers = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            FamilyMember member = snapshot.get(i);
+            names[i] = member.getName();
+            genders[i] = member.getGender() == null ? 0 : member.getGender() == GenderEnum.MALE ? 1 : 2;
+            LocalDate birthDate = member.getBirthDate();
+            birthDates[i] = birthDate == null ? 0
+                    : birthDate.getYear() * 10000 + birthDate.getMonthValue() * 100 + birthDate.getDayOfMonth();
+            birthPlaces[i] = intern(member.getBirthPlace());
+            String avatar = member.getAvatar();
+            int slash = avatar == null ? -1 : avatar.lastIndexOf('/');
+            avatarPrefixes[i] = slash < 0 ? -1 : intern(avatar.substring(0, slash + 1));
+            avatarSuffixes[i] = slash < 0 ? avatar : avatar.substring(slash + 1);
+            bios[i] = member.getBio();
+            userIds[i] = member.getUserId();
+            if (Integer.valueOf(1).equals(member.getIsCreator())) {
+                creators.add(i);
+            }
+            if (markedIds.contains(member.getId())) {
+                currentUsers.add(i);
+            }
+        }
+
+        int[] parents = new int[size];
+        Arrays.fill(parents, -1);
+        for (int parent = 0; parent < size; parent++) {
+            for (int c = childOffsets[parent]; c < childOffsets[parent + 1]; c++) {
+                if (parents[childTargets[c]] < 0) {
+                    parents[childTargets[c]] = parent;
+                }
+            }
+        }
+
+        return CompactTreeVO.builder()
+                .size(size)
+                .ids(ids)
+                .names(names)
+                .genders(genders)
+                .birthDates(birthDates)
+                .birthPlaces(birthPlaces)
+                .avatarPrefixes(avatarPrefixes)
+                .avatarSuffixes(avatarSuffixes)
+                .bios(bios)
+                .userIds(userIds)
+                .generations(generations)
+                .parents(parents)
+                .spouses(spouses)
+                .roots(roots)
+                .childOffsets(childOffsets)
+                .children(childTargets)
+                .creators(creators.stream().mapToInt(Integer::intValue).toArray())
+                .currentUsers(currentUsers.stream().mapToInt(Integer::intValue).toArray())
+                .currentUserLabel(currentUsers.isEmpty() ? null : markedLabel)
+                .strings(strings.toArray(new String[0]))
+                .build();
+    }
+
+    private int intern(String value) {
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+        return stringIndexes.computeIfAbsent(value, v -> {
+            strings.add(v);
+            return strings.size() - 1;
+        });
+    }
+}
@@ -0,0 +1,1224 @@
+package com.kin.family.cache;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.kin.family.constant.RelationTypeEnum;
+import com.kin.family.entity.FamilyMember;
+import com.kin.family.entity.MemberRelation;
+import com.kin.family.vo.CompactTreeVO;
+import com.kin.family.vo.FamilyStatisticsVO;
+import com.kin.family.vo.TreeLayoutVO;
+import com.kin.family.vo.TreeNodeVO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 家谱关系图
+ * 缓存单个家谱的成员与关系，成员或关系变化时原地修补，派生的邻接索引和家谱树在下次读取时重建
+ *
+ * @author candong
+ */
+@Slf4j
+public class FamilyGraph {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final Long familyId;
+
+    private final TreeMap<Long, FamilyMember> members = new TreeMap<>();
+
+    private final TreeMap<Long, MemberRelation> relations = new TreeMap<>();
+
+    /**
+     * 当前结构版本的索引快照，亲属邻接表和主血脉跳表随快照按需建立，结构变化时整体替换
+     */
+    private Index index;
+
+    private List<TreeNodeVO> forest;
+
+    /**
+     * 家谱树节点，按索引位置编号，与 forest 同时建立
+     */
+    private TreeNodeVO[] forestNodes;
+
+    /**
+     * 结构版本，成员增删和关系变化时递增，仅修改成员资料时不变
+     */
+    private long structureVersion;
+
+    private TreeLayoutVO layout;
+
+    private long layoutVersion = -1;
+
+    /**
+     * 成员资料计数，成员变化时增量维护；无法得知旧资料时标记失效，下次读取时全量重算
+     */
+    private final MemberTally tally = new MemberTally();
+
+    private boolean tallyStale;
+
+    private Branches branches;
+
+    private long branchesVersion = -1;
+
+    public FamilyGraph(Long familyId, List<FamilyMember> members, List<MemberRelation> relations) {
+        this.familyId = familyId;
+        for (FamilyMember member : members) {
+            this.members.put(member.getId(), member);
+            tally.add(member);
+        }
+        for (MemberRelation relation : relations) {
+            this.relations.put(relation.getId(), relation);
+        }
+    }
+
+    public Long getFamilyId() {
+        return familyId;
+    }
+
+    public synchronized int memberCount() {
+        return members.size();
+    }
+
+    public synchronized FamilyMember getMember(Long memberId) {
+        return members.get(memberId);
+    }
+
+    public synchronized List<FamilyMember> getMembers() {
+        return new ArrayList<>(members.values());
+    }
+
+    public synchronized List<MemberRelation> getRelations() {
+        return new ArrayList<>(relations.values());
+    }
+
+    /**
+     * 子女成员ID，按关系录入顺序
+     */
+    public long[] getChildIds(Long memberId) {
+        Index index = index();
+        Integer position = index.positions.get(memberId);
+        if (position == null) {
+            return EMPTY;
+        }
+        int from = index.childOffsets[position];
+        int to = index.childOffsets[position + 1];
+        long[] childIds = new long[to - from];
+        for (int i = from; i < to; i++) {
+            childIds[i - from] = index.ids[index.childTargets[i]];
+        }
+        return childIds;
+    }
+
+    public int getChildCount(Long memberId) {
+        Index index = index();
+        Integer position = index.positions.get(memberId);
+        return position == null ? 0 : index.childOffsets[position + 1] - index.childOffsets[position];
+    }
+
+    /**
+     * 配偶成员ID，多个配偶时取最早录入的一个
+     */
+    public Long getSpouseId(Long memberId) {
+        Index index = index();
+        Integer position = index.positions.get(memberId);
+        if (position == null || index.spouses[position] < 0) {
+            return null;
+        }
+        return index.ids[index.spouses[position]];
+    }
+
+    /**
+     * 根成员ID，创建者在前
+     */
+    public long[] getRootIds() {
+        Index index = index();
+        long[] rootIds = new long[index.roots.length];
+        for (int i = 0; i < rootIds.length; i++) {
+            rootIds[i] = index.ids[index.roots[i]];
+        }
+        return rootIds;
+    }
+
+    /**
+     * 成员世代，根成员为第1世，无法从根到达的成员返回 null
+     */
+    public Integer getGeneration(Long memberId) {
+        Index index = index();
+        Integer position = index.positions.get(memberId);
+        if (position == null || index.generations[position] == 0) {
+            return null;
+        }
+        return index.generations[position];
+    }
+
+    public boolean containsUser(Long userId) {
+        return index().userMembers.containsKey(userId);
+    }
+
+    /**
+     * 用户在本家谱中对应的成员ID，未绑定时返回 null
+     */
+    public Long getMemberIdByUser(Long userId) {
+        return index().userMembers.get(userId);
+    }
+
+    /**
+     * 沿父母、子女、配偶、兄弟姐妹关系查找两个成员之间的最短路径
+     * 从两端同时按层扩展，每次扩展当前较小的一侧
+     *
+     * @return 不含起点的路径，每一步记录到达的成员及与上一成员的关系；两人相同时为空列表，无法到达时返回 null
+     */
+    public List<PathStep> findPath(Long fromId, Long toId) {
+        Index index = index();
+        Links links = index.links();
+        Integer from = index.positions.get(fromId);
+        Integer to = index.positions.get(toId);
+        if (from == null || to == null) {
+            return null;
+        }
+        if (from.equals(to)) {
+            return Collections.emptyList();
+        }
+
+        int size = index.ids.length;
+        // 前驱位置，-1 表示未访问；起点和终点指向自身
+        int[] forwardPrev = new int[size];
+        int[] backwardPrev = new int[size];
+        Arrays.fill(forwardPrev, -1);
+        Arrays.fill(backwardPrev, -1);
+        forwardPrev[from] = from;
+        backwardPrev[to] = to;
+
+        int[] forwardQueue = new int[size];
+        int[] backwardQueue = new int[size];
+        int forwardHead = 0;
+        int forwardTail = 0;
+        int backwardHead = 0;
+        int backwardTail = 0;
+        forwardQueue[forwardTail++] = from;
+        backwardQueue[backwardTail++] = to;
+
+        int meet = -1;
+        while (meet < 0 && forwardHead < forwardTail && backwardHead < backwardTail) {
+            if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                int levelEnd = forwardTail;
+                while (meet < 0 && forwardHead < levelEnd) {
+                    int current = forwardQueue[forwardHead++];
+                    for (int l = links.offsets[current]; l < links.offsets[current + 1]; l++) {
+                        int next = links.targets[l];
+                        if (forwardPrev[next] >= 0) {
+                            continue;
+                        }
+                        forwardPrev[next] = current;
+                        if (backwardPrev[next] >= 0) {
+                            meet = next;
+                            break;
+                        }
+                        forwardQueue[forwardTail++] = next;
+                    }
+                }
+            } else {
+                int levelEnd = backwardTail;
+                while (meet < 0 && backwardHead < levelEnd) {
+                    int current = backwardQueue[backwardHead++];
+                    for (int l = links.offsets[current]; l < links.offsets[current + 1]; l++) {
+                        int next = links.targets[l];
+                        if (backwardPrev[next] >= 0) {
+                            continue;
+                        }
+                        backwardPrev[next] = current;
+                        if (forwardPrev[next] >= 0) {
+                            meet = next;
+                            break;
+                        }
+                        backwardQueue[backwardTail++] = next;
+                    }
+                }
+            }
+        }
+        if (meet < 0) {
+            return null;
+        }
+
+        List<Integer> positions = new ArrayList<>();
+        for (int p = meet; p != from; p = forwardPrev[p]) {
+            positions.add(p);
+        }
+        positions.add(from);
+        Collections.reverse(positions);
+        for (int p = meet; p != to; ) {
+            p = backwardPrev[p];
+            positions.add(p);
+        }
+
+        List<PathStep> steps = new ArrayList<>(positions.size() - 1);
+        for (int i = 1; i < positions.size(); i++) {
+            int previous = positions.get(i - 1);
+            int current = positions.get(i);
+            steps.add(new PathStep(index.ids[current], links.kindOf(previous, current)));
+        }
+        return steps;
+    }
+
+    /**
+     * 家谱树根节点列表，所有请求共享同一份，调用方不得修改返回的节点
+     */
+    public synchronized List<TreeNodeVO> getForest() {
+        if (forest == null) {
+            forest = buildForest();
+        }
+        return forest;
+    }
+
+    /**
+     * 叠加当前用户标记的家谱树：只复制从根到被标记成员的路径上的节点，其余节点与 {@link #getForest()} 共享
+     *
+     * @param markedIds    标记为当前用户的成员
+     * @param markedLabel  当前用户的角色标签
+     */
+    public List<TreeNodeVO> getForest(Set<Long> markedIds, String markedLabel) {
+        List<TreeNodeVO> rootNodes;
+        TreeNodeVO[] nodes;
+        Index index;
+        synchronized (this) {
+            rootNodes = getForest();
+            nodes = forestNodes;
+            index = index();
+        }
+        if (markedIds.isEmpty()) {
+            return rootNodes;
+        }
+
+        Map<Integer, TreeNodeVO> copies = new HashMap<>();
+        for (int position : index.referrers().pathsTo(index, markedIds)) {
+            copies.put(position, copyTreeNode(nodes[position]));
+        }
+        for (Map.Entry<Integer, TreeNodeVO> entry : copies.entrySet()) {
+            int position = entry.getKey();
+            TreeNodeVO copy = entry.getValue();
+            int from = index.childOffsets[position];
+            int to = index.childOffsets[position + 1];
+            List<TreeNodeVO> children = null;
+            for (int c = from; c < to; c++) {
+                TreeNodeVO child = copies.get(index.childTargets[c]);
+                if (child != null) {
+                    if (children == null) {
+                        children = new ArrayList<>(copy.getChildren());
+                    }
+                    children.set(c - from, child);
+                }
+            }
+            if (children != null) {
+                copy.setChildren(children);
+            }
+            // 配偶节点只输出自身字段，标记时浅复制即可
+            int spouse = index.spouses[position];
+            if (spouse >= 0 && markedIds.contains(index.ids[spouse])) {
+                TreeNodeVO markedSpouse = copyTreeNode(nodes[spouse]);
+                markedSpouse.setCurrentUser(true);
+                markedSpouse.setCurrentUserLabel(markedLabel);
+                copy.setSpouse(markedSpouse);
+            }
+            if (markedIds.contains(index.ids[position])) {
+                copy.setCurrentUser(true);
+                copy.setCurrentUserLabel(markedLabel);
+            }
+        }
+
+        List<TreeNodeVO> result = new ArrayList<>(rootNodes.size());
+        for (int i = 0; i < rootNodes.size(); i++) {
+            TreeNodeVO copy = copies.get(index.roots[i]);
+            result.add(copy != null ? copy : rootNodes.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * 家谱树中需要标记为当前用户的成员
+     * 先序遍历家谱树，某一层命中后不再检查该层其后的兄弟节点，也不再深入命中节点的子女
+     */
+    public synchronized Set<Long> findCurrentUserMembers(Long userId) {
+        Set<Long> matched = new HashSet<>();
+        if (userId == null || !containsUser(userId)) {
+            return matched;
+        }
+        Index index = index();
+        boolean[] visited = new boolean[index.ids.length];
+        // 每层记录 {游标, 结束位置, 所属成员位置}，根节点层的所属成员为 -1
+        Deque<int[]> levels = new ArrayDeque<>();
+        levels.push(new int[]{0, index.roots.length, -1});
+        while (!levels.isEmpty()) {
+            int[] level = levels.peek();
+            if (level[0] >= level[1]) {
+                levels.pop();
+                continue;
+            }
+            int position = level[2] < 0 ? index.roots[level[0]++] : index.childTargets[level[0]++];
+            if (visited[position]) {
+                continue;
+            }
+            visited[position] = true;
+            FamilyMember member = members.get(index.ids[position]);
+            if (userId.equals(member.getUserId())) {
+                matched.add(member.getId());
+                levels.pop();
+            } else if (index.childOffsets[position] < index.childOffsets[position + 1]) {
+                levels.push(new int[]{index.childOffsets[position], index.childOffsets[position + 1], position});
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * 直接按索引把家谱树写为 JSON 数组，输出与序列化 {@link #getForest()} 的结果一致，不创建树节点对象
+     *
+     * @param generator    JSON 输出
+     * @param markedIds    标记为当前用户的成员
+     * @param markedLabel  当前用户的角色标签
+     */
+    public void writeForest(JsonGenerator generator, Set<Long> markedIds, String markedLabel) throws IOException {
+        Index index;
+        List<FamilyMember> snapshot;
+        synchronized (this) {
+            index = index();
+            snapshot = new ArrayList<>(members.values());
+        }
+        generator.writeStartArray();
+        for (int root : index.roots) {
+            writeNode(generator, index, snapshot, root, markedIds, markedLabel, true);
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * 列式家谱树，数组与索引共享，调用方不得修改
+     *
+     * @param markedIds    标记为当前用户的成员
+     * @param markedLabel  当前用户的角色标签
+     */
+    public CompactTreeVO getCompactTree(Set<Long> markedIds, String markedLabel) {
+        Index index;
+        List<FamilyMember> snapshot;
+        synchronized (this) {
+            index = index();
+            snapshot = new ArrayList<>(members.values());
+        }
+        return new CompactTreeEncoder().encode(index.ids, index.childOffsets, index.childTargets, index.spouses,
+                index.roots, index.generations, snapshot, markedIds, markedLabel);
+    }
+
+    private void writeNode(JsonGenerator generator, Index index, List<FamilyMember> snapshot, int position,
+                           Set<Long> markedIds, String markedLabel, boolean withRelatives) throws IOException {
+        FamilyMember member = snapshot.get(position);
+        boolean marked = markedIds.contains(member.getId());
+        generator.writeStartObject();
+        writeNumber(generator, "id", member.getId());
+        writeString(generator, "name", member.getName());
+        generator.writeObjectField("gender", member.getGender());
+        writeString(generator, "avatar", member.getAvatar());
+        generator.writeObjectField("birthDate", member.getBirthDate());
+        writeString(generator, "bio", member.getBio());
+        writeNumber(generator, "isCreator", member.getIsCreator());
+        writeNumber(generator, "userId", member.getUserId());
+        if (marked) {
+            generator.writeBooleanField("currentUser", true);
+            writeString(generator, "currentUserLabel", markedLabel);
+        } else {
+            generator.writeNullField("currentUser");
+            generator.writeNullField("currentUserLabel");
+        }
+        writeNumber(generator, "generation", index.generations[position] > 0 ? index.generations[position] : null);
+        if (withRelatives) {
+            generator.writeFieldName("spouse");
+            if (index.spouses[position] >= 0) {
+                writeNode(generator, index, snapshot, index.spouses[position], markedIds, markedLabel, false);
+            } else {
+                generator.writeNull();
+            }
+            generator.writeArrayFieldStart("children");
+            for (int c = index.childOffsets[position]; c < index.childOffsets[position + 1]; c++) {
+                writeNode(generator, index, snapshot, index.childTargets[c], markedIds, markedLabel, true);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator generator, String field, String value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeStringField(field, value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator generator, String field, Number value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else if (value instanceof Long) {
+            generator.writeNumberField(field, value.longValue());
+        } else {
+            generator.writeNumberField(field, value.intValue());
+        }
+    }
+
+    /**
+     * 家谱统计；成员资料计数增量维护，世代数和分支大小在结构变化后重新计算
+     */
+    public synchronized FamilyStatisticsVO getStatistics() {
+        if (tallyStale) {
+            tally.clear();
+            members.values().forEach(tally::add);
+            tallyStale = false;
+        }
+        if (branches == null || branchesVersion != structureVersion) {
+            branches = buildBranches(index());
+            branchesVersion = structureVersion;
+        }
+
+        int memberCount = members.size();
+        FamilyMember largest = branches.largestHeadId == null ? null : members.get(branches.largestHeadId);
+        return FamilyStatisticsVO.builder()
+                .familyId(familyId)
+                .memberCount(memberCount)
+                .maleCount(tally.males)
+                .femaleCount(tally.females)
+                .unknownGenderCount(tally.unknownGenders)
+                .genderRatio(tally.females == 0 ? null : Math.round(tally.males * 100.0 / tally.females) / 100.0)
+                .livingCount(memberCount - tally.deceased)
+                .deceasedCount(tally.deceased)
+                .averageLifespan(tally.lifespanSamples == 0 ? null
+                        : Math.round(tally.lifespanDays / 365.2425 / tally.lifespanSamples * 10) / 10.0)
+                .lifespanSampleCount(tally.lifespanSamples)
+                .generationCount(branches.generationCount)
+                .branchCount(branches.count)
+                .largestBranchMemberId(largest == null ? null : largest.getId())
+                .largestBranchMemberName(largest == null ? null : largest.getName())
+                .largestBranchSize(largest == null ? null : branches.largestSize)
+                .build();
+    }
+
+    /**
+     * 从根成员按层遍历，成员归属首次到达它的父母，逆序累加子树大小；第二世成员的子树即为分支
+     */
+    private Branches buildBranches(Index index) {
+        int size = index.ids.length;
+        int[] discoveredBy = new int[size];
+        Arrays.fill(discoveredBy, -2);
+        int[] order = new int[size];
+        int tail = 0;
+        for (int root : index.roots) {
+            discoveredBy[root] = -1;
+            order[tail++] = root;
+        }
+        for (int head = 0; head < tail; head++) {
+            int current = order[head];
+            for (int c = index.childOffsets[current]; c < index.childOffsets[current + 1]; c++) {
+                int child = index.childTargets[c];
+                if (discoveredBy[child] == -2) {
+                    discoveredBy[child] = current;
+                    order[tail++] = child;
+                }
+            }
+        }
+
+        int[] subtreeSizes = new int[size];
+        int generationCount = 0;
+        int count = 0;
+        int largestHead = -1;
+        for (int i = tail - 1; i >= 0; i--) {
+            int member = order[i];
+            subtreeSizes[member]++;
+            generationCount = Math.max(generationCount, index.generations[member]);
+            int parent = discoveredBy[member];
+            if (parent >= 0) {
+                subtreeSizes[parent] += subtreeSizes[member];
+                if (discoveredBy[parent] == -1) {
+                    count++;
+                    if (largestHead < 0 || subtreeSizes[member] >= subtreeSizes[largestHead]) {
+                        largestHead = member;
+                    }
+                }
+            }
+        }
+        return largestHead < 0 ? new Branches(generationCount, count, null, 0)
+                : new Branches(generationCount, count, index.ids[largestHead], subtreeSizes[largestHead]);
+    }
+
+    /**
+     * 家谱树布局，结构未变化时复用上次的计算结果，所有请求共享同一份
+     */
+    public synchronized TreeLayoutVO getLayout() {
+        if (layout == null || layoutVersion != structureVersion) {
+            long start = System.nanoTime();
+            Index index = index();
+            layout = new FamilyTreeLayout(index.ids, index.childOffsets, index.childTargets, index.spouses, index.roots).layout();
+            layoutVersion = structureVersion;
+            log.debug("计算家谱树布局: familyId={}, members={}, cost={}ms",
+                    familyId, index.ids.length, (System.nanoTime() - start) / 1_000_000);
+        }
+        return layout;
+    }
+
+    synchronized void putMember(FamilyMember member) {
+        FamilyMember previous = members.put(member.getId(), member);
+        if (previous == null) {
+            structureVersion++;
+        } else if (previous == member) {
+            // 调用方原地修改了缓存中的成员，旧资料已不可知
+            tallyStale = true;
+        } else {
+            tally.remove(previous);
+        }
+        if (previous != member) {
+            tally.add(member);
+        }
+        invalidate();
+    }
+
+    synchronized void removeMember(Long memberId) {
+        FamilyMember previous = members.remove(memberId);
+        if (previous != null) {
+            tally.remove(previous);
+        }
+        relations.values().removeIf(r -> memberId.equals(r.getFromMemberId()) || memberId.equals(r.getToMemberId()));
+        structureVersion++;
+        invalidate();
+    }
+
+    synchronized void putRelation(MemberRelation relation) {
+        relations.put(relation.getId(), relation);
+        structureVersion++;
+        invalidate();
+    }
+
+    synchronized void removeRelation(Long relationId) {
+        relations.remove(relationId);
+        structureVersion++;
+        invalidate();
+    }
+
+    private void invalidate() {
+        index = null;
+        forest = null;
+        forestNodes = null;
+    }
+
+    private synchronized Index index() {
+        if (index == null || index.version != structureVersion) {
+            index = buildIndex();
+        }
+        return index;
+    }
+
+    /**
+     * 两个成员在主血脉上的最近共同祖先，倍增法 O(log n) 查询
+     * 主血脉只沿父子/母子关系向上，有父亲时取父亲，否则取母亲
+     *
+     * @return 任一成员不存在或没有共同祖先时返回 null
+     */
+    public CommonAncestor findCommonAncestor(Long memberId, Long otherMemberId) {
+        Index index = index();
+        Lineage lineage = index.lineage();
+        Integer a = index.positions.get(memberId);
+        Integer b = index.positions.get(otherMemberId);
+        if (a == null || b == null) {
+            return null;
+        }
+
+        int u = a;
+        int v = b;
+        if (lineage.depths[u] < lineage.depths[v]) {
+            int t = u;
+            u = v;
+            v = t;
+        }
+        int diff = lineage.depths[u] - lineage.depths[v];
+        for (int k = 0; diff > 0; k++, diff >>= 1) {
+            if ((diff & 1) != 0) {
+                u = lineage.up[k][u];
+            }
+        }
+        if (u != v) {
+            for (int k = lineage.up.length - 1; k >= 0; k--) {
+                if (lineage.up[k][u] != lineage.up[k][v]) {
+                    u = lineage.up[k][u];
+                    v = lineage.up[k][v];
+                }
+            }
+            if (lineage.up[0][u] != lineage.up[0][v] || lineage.up[0][u] == u) {
+                return null;
+            }
+            u = lineage.up[0][u];
+        }
+        return new CommonAncestor(index.ids[u],
+                lineage.depths[a] - lineage.depths[u],
+                lineage.depths[b] - lineage.depths[u]);
+    }
+
+    /**
+     * 一次遍历关系表建立按位置编号的 CSR 邻接数组，按入度确定根节点并计算世代
+     */
+    private Index buildIndex() {
+        int size = members.size();
+        long[] ids = new long[size];
+        Map<Long, Integer> positions = new HashMap<>(size * 2);
+        Map<Long, Long> userMembers = new HashMap<>();
+        int position = 0;
+        for (FamilyMember member : members.values()) {
+            ids[position] = member.getId();
+            positions.put(member.getId(), position);
+            if (member.getUserId() != null) {
+                userMembers.putIfAbsent(member.getUserId(), member.getId());
+            }
+            position++;
+        }
+
+        int[] inDegrees = new int[size];
+        int[] spouses = new int[size];
+        Arrays.fill(spouses, -1);
+        int[] childOffsets = new int[size + 1];
+        List<MemberRelation> parentRelations = new ArrayList<>();
+        List<MemberRelation> relationSnapshot = new ArrayList<>(relations.values());
+
+        for (MemberRelation r : relationSnapshot) {
+            Integer from = positions.get(r.getFromMemberId());
+            Integer to = positions.get(r.getToMemberId());
+            if (isParentRelation(r)) {
+                if (to != null) {
+                    inDegrees[to]++;
+                }
+                if (from != null && to != null) {
+                    childOffsets[from + 1]++;
+                    parentRelations.add(r);
+                }
+            } else if (r.getRelationType() == RelationTypeEnum.HUSBAND_WIFE && from != null && to != null) {
+                if (spouses[from] < 0) {
+                    spouses[from] = to;
+                }
+                if (spouses[to] < 0) {
+                    spouses[to] = from;
+                }
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            childOffsets[i + 1] += childOffsets[i];
+        }
+        int[] childTargets = new int[parentRelations.size()];
+        int[] cursor = Arrays.copyOf(childOffsets, size);
+        for (MemberRelation r : parentRelations) {
+            childTargets[cursor[positions.get(r.getFromMemberId())]++] = positions.get(r.getToMemberId());
+        }
+
+        // 入度为零的成员作为根节点，创建者排在最前
+        List<Integer> rootList = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (inDegrees[i] == 0 && Integer.valueOf(1).equals(members.get(ids[i]).getIsCreator())) {
+                rootList.add(i);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (inDegrees[i] == 0 && !Integer.valueOf(1).equals(members.get(ids[i]).getIsCreator())) {
+                rootList.add(i);
+            }
+        }
+        int[] roots = rootList.stream().mapToInt(Integer::intValue).toArray();
+
+        // 从根节点按层遍历，成员首次被访问时确定世代，关系成环时不会重复访问
+        int[] generations = new int[size];
+        int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        for (int root : roots) {
+            generations[root] = 1;
+            queue[tail++] = root;
+        }
+        while (head < tail) {
+            int current = queue[head++];
+            for (int c = childOffsets[current]; c < childOffsets[current + 1]; c++) {
+                int child = childTargets[c];
+                if (generations[child] == 0) {
+                    generations[child] = generations[current] + 1;
+                    queue[tail++] = child;
+                }
+            }
+        }
+
+        return new Index(structureVersion, relationSnapshot, ids, positions, childOffsets, childTargets,
+                spouses, roots, generations, userMembers);
+    }
+
+    /**
+     * 建立亲属关系邻接表，父子/父女/母子/母女关系双向各记一条边，夫妻和兄弟姐妹关系对称记边
+     */
+    private static Links buildLinks(Index index) {
+        int size = index.ids.length;
+        int[] offsets = new int[size + 1];
+        List<MemberRelation> linked = new ArrayList<>();
+        for (MemberRelation r : index.relations) {
+            Integer from = index.positions.get(r.getFromMemberId());
+            Integer to = index.positions.get(r.getToMemberId());
+            if (from == null || to == null || from.equals(to) || r.getRelationType() == null) {
+                continue;
+            }
+            offsets[from + 1]++;
+            offsets[to + 1]++;
+            linked.add(r);
+        }
+        for (int i = 0; i < size; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        int[] targets = new int[offsets[size]];
+        Link[] kinds = new Link[offsets[size]];
+        int[] cursor = Arrays.copyOf(offsets, size);
+        for (MemberRelation r : linked) {
+            int from = index.positions.get(r.getFromMemberId());
+            int to = index.positions.get(r.getToMemberId());
+            Link forward;
+            Link backward;
+            switch (r.getRelationType()) {
+                case HUSBAND_WIFE -> {
+                    forward = Link.SPOUSE;
+                    backward = Link.SPOUSE;
+                }
+                case SIBLING -> {
+                    forward = Link.SIBLING;
+                    backward = Link.SIBLING;
+                }
+                default -> {
+                    forward = Link.CHILD;
+                    backward = Link.PARENT;
+                }
+            }
+            targets[cursor[from]] = to;
+            kinds[cursor[from]++] = forward;
+            targets[cursor[to]] = from;
+            kinds[cursor[to]++] = backward;
+        }
+        return new Links(offsets, targets, kinds);
+    }
+
+    /**
+     * 为每个成员选定主父母，按层计算深度并建立倍增跳表；历史数据成环时在环上断开
+     */
+    private static Lineage buildLineage(Index index) {
+        int size = index.ids.length;
+        int[] parents = new int[size];
+        Arrays.fill(parents, -1);
+        for (MemberRelation r : index.relations) {
+            if (r.getRelationType() == RelationTypeEnum.FATHER_SON) {
+                linkParent(index, parents, r);
+            }
+        }
+        for (MemberRelation r : index.relations) {
+            if (r.getRelationType() == RelationTypeEnum.MOTHER_SON) {
+                linkParent(index, parents, r);
+            }
+        }
+
+        int[] childOffsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            if (parents[i] >= 0) {
+                childOffsets[parents[i] + 1]++;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            childOffsets[i + 1] += childOffsets[i];
+        }
+        int[] children = new int[childOffsets[size]];
+        int[] cursor = Arrays.copyOf(childOffsets, size);
+        for (int i = 0; i < size; i++) {
+            if (parents[i] >= 0) {
+                children[cursor[parents[i]]++] = i;
+            }
+        }
+
+        int[] depths = new int[size];
+        Arrays.fill(depths, -1);
+        int[] queue = new int[size];
+        int tail = 0;
+        for (int i = 0; i < size; i++) {
+            if (parents[i] < 0) {
+                depths[i] = 0;
+                queue[tail++] = i;
+            }
+        }
+        int head = 0;
+        int maxDepth = 0;
+        int scan = 0;
+        while (true) {
+            while (head < tail) {
+                int current = queue[head++];
+                for (int c = childOffsets[current]; c < childOffsets[current + 1]; c++) {
+                    int child = children[c];
+                    if (depths[child] < 0) {
+                        depths[child] = depths[current] + 1;
+                        maxDepth = Math.max(maxDepth, depths[child]);
+                        queue[tail++] = child;
+                    }
+                }
+            }
+            if (tail == size) {
+                break;
+            }
+            while (depths[scan] >= 0) {
+                scan++;
+            }
+            parents[scan] = -1;
+            depths[scan] = 0;
+            queue[tail++] = scan;
+        }
+
+        int levels = Math.max(1, 32 - Integer.numberOfLeadingZeros(maxDepth));
+        int[][] up = new int[levels][];
+        up[0] = new int[size];
+        for (int i = 0; i < size; i++) {
+            up[0][i] = parents[i] < 0 ? i : parents[i];
+        }
+        for (int k = 1; k < levels; k++) {
+            int[] previous = up[k - 1];
+            int[] current = new int[size];
+            for (int i = 0; i < size; i++) {
+                current[i] = previous[previous[i]];
+            }
+            up[k] = current;
+        }
+        return new Lineage(depths, up);
+    }
+
+    private static void linkParent(Index index, int[] parents, MemberRelation r) {
+        Integer from = index.positions.get(r.getFromMemberId());
+        Integer to = index.positions.get(r.getToMemberId());
+        if (from != null && to != null && !from.equals(to) && parents[to] < 0) {
+            parents[to] = from;
+        }
+    }
+
+    /**
+     * 按索引线性组装家谱树，根节点与世代取自索引
+     */
+    private List<TreeNodeVO> buildForest() {
+        long start = System.nanoTime();
+        Index index = index();
+        int size = index.ids.length;
+
+        TreeNodeVO[] nodes = new TreeNodeVO[size];
+        int position = 0;
+        for (FamilyMember member : members.values()) {
+            TreeNodeVO node = convertToTreeNode(member);
+            if (index.generations[position] > 0) {
+                node.setGeneration(index.generations[position]);
+            }
+            nodes[position++] = node;
+        }
+
+        for (int i = 0; i < size; i++) {
+            TreeNodeVO node = nodes[i];
+            if (index.spouses[i] >= 0) {
+                node.setSpouse(nodes[index.spouses[i]]);
+            }
+            int from = index.childOffsets[i];
+            int to = index.childOffsets[i + 1];
+            List<TreeNodeVO> children = new ArrayList<>(to - from);
+            for (int c = from; c < to; c++) {
+                children.add(nodes[index.childTargets[c]]);
+            }
+            node.setChildren(children);
+        }
+
+        List<TreeNodeVO> rootNodes = new ArrayList<>(index.roots.length);
+        for (int root : index.roots) {
+            rootNodes.add(nodes[root]);
+        }
+
+        forestNodes = nodes;
+        log.debug("组装家谱树: familyId={}, members={}, roots={}, cost={}ms",
+                familyId, size, rootNodes.size(), (System.nanoTime() - start) / 1_000_000);
+        return Collections.unmodifiableList(rootNodes);
+    }
+
+    private static TreeNodeVO copyTreeNode(TreeNodeVO node) {
+        return TreeNodeVO.builder()
+                .id(node.getId())
+                .name(node.getName())
+                .gender(node.getGender())
+                .avatar(node.getAvatar())
+                .birthDate(node.getBirthDate())
+                .bio(node.getBio())
+                .isCreator(node.getIsCreator())
+                .userId(node.getUserId())
+                .currentUser(node.getCurrentUser())
+                .currentUserLabel(node.getCurrentUserLabel())
+                .generation(node.getGeneration())
+                .spouse(node.getSpouse())
+                .children(node.getChildren())
+                .build();
+    }
+
+    private TreeNodeVO convertToTreeNode(FamilyMember member) {
+        return TreeNodeVO.builder()
+                .id(member.getId())
+                .name(member.getName())
+                .gender(member.getGender())
+                .avatar(member.getAvatar())
+                .birthDate(member.getBirthDate())
+                .bio(member.getBio())
+                .isCreator(member.getIsCreator())
+                .userId(member.getUserId())
+                .build();
+    }
+
+    private static boolean isParentRelation(MemberRelation r) {
+        return r.getRelationType() == RelationTypeEnum.FATHER_SON ||
+               r.getRelationType() == RelationTypeEnum.MOTHER_SON;
+    }
+
+    /**
+     * @param largestHeadId 最大分支的第二世成员ID，没有分支时为 null
+     */
+    private record Branches(int generationCount, int count, Long largestHeadId, int largestSize) {
+    }
+
+    private static final class Index {
+        private final long version;
+        private final List<MemberRelation> relations;
+        private final long[] ids;
+        private final Map<Long, Integer> positions;
+        private final int[] childOffsets;
+        private final int[] childTargets;
+        private final int[] spouses;
+        private final int[] roots;
+        private final int[] generations;
+        private final Map<Long, Long> userMembers;
+        private Links links;
+        private Lineage lineage;
+        private Referrers referrers;
+
+        private Index(long version, List<MemberRelation> relations, long[] ids, Map<Long, Integer> positions,
+                      int[] childOffsets, int[] childTargets, int[] spouses, int[] roots, int[] generations,
+                      Map<Long, Long> userMembers) {
+            this.version = version;
+            this.relations = relations;
+            this.ids = ids;
+            this.positions = positions;
+            this.childOffsets = childOffsets;
+            this.childTargets = childTargets;
+            this.spouses = spouses;
+            this.roots = roots;
+            this.generations = generations;
+            this.userMembers = userMembers;
+        }
+
+        /**
+         * 按本快照的成员和关系建立亲属邻接表，与快照内的位置编号一致
+         */
+        private synchronized Links links() {
+            if (links == null) {
+                links = buildLinks(this);
+            }
+            return links;
+        }
+
+        /**
+         * 按本快照的子女和配偶数组建立反向索引
+         */
+        private synchronized Referrers referrers() {
+            if (referrers == null) {
+                referrers = Referrers.build(this);
+            }
+            return referrers;
+        }
+
+        /**
+         * 按本快照的成员和关系建立主血脉跳表
+         */
+        private synchronized Lineage lineage() {
+            if (lineage == null) {
+                lineage = buildLineage(this);
+            }
+            return lineage;
+        }
+    }
+
+    /**
+     * 路径上相邻两个成员的关系，表示后一成员是前一成员的什么人
+     */
+    public enum Link {
+        PARENT, CHILD, SPOUSE, SIBLING
+    }
+
+    /**
+     * 路径中的一步
+     */
+    public static final class PathStep {
+        private final Long memberId;
+        private final Link link;
+
+        private PathStep(Long memberId, Link link) {
+            this.memberId = memberId;
+            this.link = link;
+        }
+
+        public Long getMemberId() {
+            return memberId;
+        }
+
+        public Link getLink() {
+            return link;
+        }
+    }
+
+    /**
+     * 最近共同祖先及两个成员各自与其相隔的世代数
+     */
+    public static final class CommonAncestor {
+        private final Long ancestorId;
+        private final int distance;
+        private final int otherDistance;
+
+        private CommonAncestor(Long ancestorId, int distance, int otherDistance) {
+            this.ancestorId = ancestorId;
+            this.distance = distance;
+            this.otherDistance = otherDistance;
+        }
+
+        public Long getAncestorId() {
+            return ancestorId;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+
+        public int getOtherDistance() {
+            return otherDistance;
+        }
+    }
+
+    private static final class Lineage {
+        private final int[] depths;
+        private final int[][] up;
+
+        private Lineage(int[] depths, int[][] up) {
+            this.depths = depths;
+            this.up = up;
+        }
+    }
+
+    /**
+     * 家谱树中引用某个节点的节点：以其为子女的父母，以及以其为配偶显示的成员
+     */
+    private static final class Referrers {
+        private final int[] parentOffsets;
+        private final int[] parents;
+        private final int[] spouseOffsets;
+        private final int[] spouseOf;
+
+        private Referrers(int[] parentOffsets, int[] parents, int[] spouseOffsets, int[] spouseOf) {
+            this.parentOffsets = parentOffsets;
+            this.parents = parents;
+            this.spouseOffsets = spouseOffsets;
+            this.spouseOf = spouseOf;
+        }
+
+        private static Referrers build(Index index) {
+            int size = index.ids.length;
+            int[] parentOffsets = new int[size + 1];
+            int[] spouseOffsets = new int[size + 1];
+            for (int c : index.childTargets) {
+                parentOffsets[c + 1]++;
+            }
+            for (int spouse : index.spouses) {
+                if (spouse >= 0) {
+                    spouseOffsets[spouse + 1]++;
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                parentOffsets[i + 1] += parentOffsets[i];
+                spouseOffsets[i + 1] += spouseOffsets[i];
+            }
+
+            int[] parents = new int[parentOffsets[size]];
+            int[] spouseOf = new int[spouseOffsets[size]];
+            int[] parentCursor = Arrays.copyOf(parentOffsets, size);
+            int[] spouseCursor = Arrays.copyOf(spouseOffsets, size);
+            for (int i = 0; i < size; i++) {
+                for (int c = index.childOffsets[i]; c < index.childOffsets[i + 1]; c++) {
+                    parents[parentCursor[index.childTargets[c]]++] = i;
+                }
+                if (index.spouses[i] >= 0) {
+                    spouseOf[spouseCursor[index.spouses[i]]++] = i;
+                }
+            }
+            return new Referrers(parentOffsets, parents, spouseOffsets, spouseOf);
+        }
+
+        /**
+         * 标记成员节点、以其为配偶显示的节点，以及这些节点沿父母向上的全部祖先，即叠加标记时需要复制的节点
+         */
+        private List<Integer> pathsTo(Index index, Set<Long> memberIds) {
+            Set<Integer> seen = new HashSet<>();
+            Deque<Integer> stack = new ArrayDeque<>();
+            for (Long memberId : memberIds) {
+                Integer position = index.positions.get(memberId);
+                if (position == null) {
+                    continue;
+                }
+                if (seen.add(position)) {
+                    stack.push(position);
+                }
+                for (int s = spouseOffsets[position]; s < spouseOffsets[position + 1]; s++) {
+                    if (seen.add(spouseOf[s])) {
+                        stack.push(spouseOf[s]);
+                    }
+                }
+            }
+            List<Integer> result = new ArrayList<>(seen);
+            while (!stack.isEmpty()) {
+                int current = stack.pop();
+                for (int p = parentOffsets[current]; p < parentOffsets[current + 1]; p++) {
+                    if (seen.add(parents[p])) {
+                        result.add(parents[p]);
+                        stack.push(parents[p]);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class Links {
+        private final int[] offsets;
+        private final int[] targets;
+        private final Link[] kinds;
+
+        private Links(int[] offsets, int[] targets, Link[] kinds) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.kinds = kinds;
+        }
+
+        private Link kindOf(int from, int to) {
+            for (int l = offsets[from]; l < offsets[from + 1]; l++) {
+                if (targets[l] == to) {
+                    return kinds[l];
+                }
+            }
+            throw new IllegalStateException("成员之间没有关系: " + from + " -> " + to);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.kin.family.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.kin.family.constant.ChangeEntityEnum;
+import com.kin.family.constant.ChangeOperationEnum;
+import com.kin.family.entity.FamilyChangeLog;
+import com.kin.family.entity.FamilyMember;
+import com.kin.family.entity.MemberRelation;
+import com.kin.family.mapper.FamilyChangeLogMapper;
+import com.kin.family.mapper.FamilyMapper;
+import com.kin.family.mapper.FamilyMemberMapper;
+import com.kin.family.mapper.MemberRelationMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 家谱关系图缓存
+ * 按家谱ID缓存 {@link FamilyGraph}，超出容量时淘汰最近最少使用的家谱；加载超过有效期后重新从数据库加载，
+ * 绕过缓存的修改（如关系修复、成员数校准、手工订正）最迟在有效期后生效；
+ * 成员、关系写入在事务提交后原地修补已缓存的关系图并同步成员搜索索引，并在写入事务内递增家谱数据版本、追加变更日志
+ *
+ * @author candong
+ */
+@Slf4j
+@Component
+public class FamilyGraphCache {
+
+    private static final Object BUMPED_VERSIONS = new Object();
+
+    private final FamilyMapper familyMapper;
+    private final FamilyChangeLogMapper changeLogMapper;
+    private final FamilyMemberMapper memberMapper;
+    private final MemberRelationMapper relationMapper;
+    private final MemberSearchIndex searchIndex;
+    private final int maxFamilies;
+    private final long expireMillis;
+
+    private final Map<Long, Entry> graphs;
+
+    /**
+     * 每个家谱的修改计数，用于丢弃加载期间发生过写入的关系图
+     */
+    private final Map<Long, AtomicLong> modCounts = new ConcurrentHashMap<>();
+
+    public FamilyGraphCache(FamilyMapper familyMapper,
+                            FamilyChangeLogMapper changeLogMapper,
+                            FamilyMemberMapper memberMapper,
+                            MemberRelationMapper relationMapper,
+                            MemberSearchIndex searchIndex,
+                            @Value("${family.graph-cache.max-families:200}") int maxFamilies,
+                            @Value("${family.graph-cache.expire-minutes:30}") long expireMinutes) {
+        this.familyMapper = familyMapper;
+        this.changeLogMapper = changeLogMapper;
+        this.memberMapper = memberMapper;
+        this.relationMapper = relationMapper;
+        this.searchIndex = searchIndex;
+        this.maxFamilies = maxFamilies;
+        this.expireMillis = expireMinutes * 60_000L;
+        this.graphs = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > FamilyGraphCache.this.maxFamilies;
+            }
+        };
+    }
+
+    /**
+     * 获取家谱关系图，未缓存或加载已超过有效期时从数据库加载
+     */
+    public FamilyGraph get(Long familyId) {
+        long now = System.currentTimeMillis();
+        synchronized (graphs) {
+            Entry entry = graphs.get(familyId);
+            if (entry != null && now - entry.loadedAt < expireMillis) {
+                return entry.graph;
+            }
+        }
+
+        long modCount = modCount(familyId).get();
+        List<FamilyMember> members = memberMapper.selectList(
+                new LambdaQueryWrapper<FamilyMember>()
+                        .eq(FamilyMember::getFamilyId, familyId)
+        );
+        List<MemberRelation> relations = relationMapper.selectList(
+                new LambdaQueryWrapper<MemberRelation>()
+                        .eq(MemberRelation::getFamilyId, familyId)
+        );
+        FamilyGraph graph = new FamilyGraph(familyId, members, relations);
+
+        synchronized (graphs) {
+            if (modCount(familyId).get() == modCount) {
+                graphs.put(familyId, new Entry(graph, now));
+            }
+        }
+        log.debug("加载家谱关系图: familyId={}, members={}, relations={}", familyId, members.size(), relations.size());
+        return graph;
+    }
+
+    /**
+     * 新增或更新成员
+     */
+    public void putMember(FamilyMember member) {
+        logChange(member.getFamilyId(), ChangeEntityEnum.MEMBER, member.getId(), ChangeOperationEnum.UPSERT);
+        afterCommit(member.getFamilyId(), graph -> graph.putMember(member));
+        afterCommit(() -> searchIndex.put(member));
+    }
+
+    /**
+     * 批量新增或更新成员，变更日志按批写入
+     */
+    public void putMembers(List<FamilyMember> members) {
+        List<FamilyChangeLog> logs = new ArrayList<>(members.size());
+        for (FamilyMember member : members) {
+            logs.add(changeLog(member.getFamilyId(), ChangeEntityEnum.MEMBER, member.getId(), ChangeOperationEnum.UPSERT));
+        }
+        changeLogMapper.saveBatch(logs);
+        members.stream()
+                .collect(Collectors.groupingBy(FamilyMember::getFamilyId))
+                .forEach((familyId, list) -> afterCommit(familyId, graph -> list.forEach(graph::putMember)));
+        afterCommit(() -> members.forEach(searchIndex::put));
+    }
+
+    /**
+     * 删除成员及其关联的关系
+     */
+    public void removeMember(Long familyId, Long memberId) {
+        logChange(familyId, ChangeEntityEnum.MEMBER, memberId, ChangeOperationEnum.DELETE);
+        afterCommit(familyId, graph -> graph.removeMember(memberId));
+        afterCommit(() -> searchIndex.remove(memberId));
+    }
+
+    /**
+     * 新增关系
+     */
+    public void putRelation(MemberRelation relation) {
+        logChange(relation.getFamilyId(), ChangeEntityEnum.RELATION, relation.getId(), ChangeOperationEnum.UPSERT);
+        afterCommit(relation.getFamilyId(), graph -> graph.putRelation(relation));
+    }
+
+    /**
+     * 批量新增关系，变更日志按批写入
+     */
+    public void putRelations(List<MemberRelation> relations) {
+        List<FamilyChangeLog> logs = new ArrayList<>(relations.size());
+        for (MemberRelation relation : relations) {
+            logs.add(changeLog(relation.getFamilyId(), ChangeEntityEnum.RELATION, relation.getId(), ChangeOperationEnum.UPSERT));
+        }
+        changeLogMapper.saveBatch(logs);
+        relations.stream()
+                .collect(Collectors.groupingBy(MemberRelation::getFamilyId))
+                .forEach((familyId, list) -> afterCommit(familyId, graph -> list.forEach(graph::putRelation)));
+    }
+
+    /**
+     * 删除关系
+     */
+    public void removeRelation(Long familyId, Long relationId) {
+        logChange(familyId, ChangeEntityEnum.RELATION, relationId, ChangeOperationEnum.DELETE);
+        afterCommit(familyId, graph -> graph.removeRelation(relationId));
+    }
+
+    /**
+     * 批量删除同一家谱的关系，变更日志按批写入
+     */
+    public void removeRelations(Long familyId, List<Long> relationIds) {
+        if (relationIds.isEmpty()) {
+            return;
+        }
+        List<FamilyChangeLog> logs = new ArrayList<>(relationIds.size());
+        for (Long relationId : relationIds) {
+            logs.add(changeLog(familyId, ChangeEntityEnum.RELATION, relationId, ChangeOperationEnum.DELETE));
+        }
+        changeLogMapper.saveBatch(logs);
+        afterCommit(familyId, graph -> relationIds.forEach(graph::removeRelation));
+    }
+
+    /**
+     * 整体淘汰某个家谱的关系图
+     */
+    public void evict(Long familyId) {
+        bumpVersion(familyId);
+        afterCommit(familyId, graph -> {
+            synchronized (graphs) {
+                graphs.remove(familyId);
+            }
+        });
+    }
+
+    /**
+     * 家谱已删除：淘汰关系图并移出其成员的搜索索引
+     */
+    public void removeFamily(Long familyId) {
+        evict(familyId);
+        afterCommit(() -> searchIndex.removeFamily(familyId));
+    }
+
+    /**
+     * 家谱数据有变化但关系图不受影响（如成员角色变化）时，仅递增数据版本
+     */
+    public void touch(Long familyId) {
+        logChange(familyId, ChangeEntityEnum.FAMILY, familyId, ChangeOperationEnum.UPSERT);
+    }
+
+    /**
+     * 递增数据版本并以新版本记录一条变更日志
+     */
+    private void logChange(Long familyId, ChangeEntityEnum entityType, Long entityId, ChangeOperationEnum operation) {
+        changeLogMapper.insert(changeLog(familyId, entityType, entityId, operation));
+    }
+
+    private FamilyChangeLog changeLog(Long familyId, ChangeEntityEnum entityType, Long entityId, ChangeOperationEnum operation) {
+        return FamilyChangeLog.builder()
+                .familyId(familyId)
+                .version(bumpVersion(familyId))
+                .entityType(entityType)
+                .entityId(entityId)
+                .operation(operation)
+                .build();
+    }
+
+    /**
+     * 同一事务内每个家谱只递增一次数据版本，返回递增后的版本；
+     * 递增语句会锁住家谱行直到事务结束，因此同一家谱的版本按提交顺序单调递增
+     */
+    @SuppressWarnings("unchecked")
+    private Long bumpVersion(Long familyId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            familyMapper.incrementDataVersion(familyId);
+            return familyMapper.selectDataVersion(familyId);
+        }
+        Map<Long, Long> bumped = (Map<Long, Long>) TransactionSynchronizationManager.getResource(BUMPED_VERSIONS);
+        if (bumped == null) {
+            bumped = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(BUMPED_VERSIONS, bumped);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BUMPED_VERSIONS);
+                }
+            });
+        }
+        return bumped.computeIfAbsent(familyId, id -> {
+            familyMapper.incrementDataVersion(id);
+            return familyMapper.selectDataVersion(id);
+        });
+    }
+
+    private void afterCommit(Long familyId, Consumer<FamilyGraph> patch) {
+        afterCommit(() -> apply(familyId, patch));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void apply(Long familyId, Consumer<FamilyGraph> patch) {
+        modCount(familyId).incrementAndGet();
+        Entry entry;
+        synchronized (graphs) {
+            entry = graphs.get(familyId);
+        }
+        if (entry != null) {
+            patch.accept(entry.graph);
+        }
+    }
+
+    private AtomicLong modCount(Long familyId) {
+        return modCounts.computeIfAbsent(familyId, id -> new AtomicLong());
+    }
+
+    private static final class Entry {
+        private final FamilyGraph graph;
+        private final long loadedAt;
+
+        private Entry(FamilyGraph graph, long loadedAt) {
+            this.graph = graph;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.kin.family.cache;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Set;
+
+/**
+ * 家谱树流式输出
+ * 按 Result 的字段顺序写出外层结构，data 直接由 {@link FamilyGraph#writeForest} 写入响应流
+ *
+ * @author candong
+ */
+@Component
+@RequiredArgsConstructor
+public class FamilyTreeJsonWriter {
+
+    private final ObjectMapper objectMapper;
+
+    public StreamingResponseBody stream(FamilyGraph graph, Set<Long> markedIds, String markedLabel) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(StreamUtils.nonClosing(outputStream), JsonEncoding.UTF8)) {
+                generator.writeStartObject();
+                generator.writeNumberField("code", 200);
+                generator.writeStringField("message", "success");
+                generator.writeFieldName("data");
+                graph.writeForest(generator, markedIds, markedLabel);
+                generator.writeNumberField("timestamp", System.currentTimeMillis());
+                generator.writeEndObject();
+            }
+        };
+    }
+}
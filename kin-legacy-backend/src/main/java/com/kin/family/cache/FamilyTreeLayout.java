@@ -0,0 +1,287 @@
+package com.kin.family.cache;
+
+import com.kin.family.vo.TreeLayoutVO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 家谱树布局
+ * 以“成员 + 配偶”为一个单元做 Reingold–Tilford 整齐树布局：自底向上合并子树轮廓，
+ * 兄弟子树按轮廓尽量靠拢，父单元居中于首尾子单元之上
+ *
+ * @author candong
+ */
+class FamilyTreeLayout {
+
+    static final int NODE_WIDTH = 120;
+    static final int NODE_HEIGHT = 60;
+    static final int SPOUSE_GAP = 16;
+    static final int SIBLING_GAP = 24;
+    static final int LEVEL_HEIGHT = 140;
+
+    private final long[] ids;
+    private final int[] childOffsets;
+    private final int[] childTargets;
+    private final int[] spouses;
+    private final int[] roots;
+
+    /**
+     * 成员所在单元的主成员位置，未放入布局的成员为 -1
+     */
+    private final int[] unitOf;
+    /**
+     * 单元中并排显示的配偶位置，没有时为 -1
+     */
+    private final int[] partnerOf;
+    /**
+     * 成员在布局中的父成员位置，根单元为 -1
+     */
+    private final int[] layoutParents;
+
+    FamilyTreeLayout(long[] ids, int[] childOffsets, int[] childTargets, int[] spouses, int[] roots) {
+        this.ids = ids;
+        this.childOffsets = childOffsets;
+        this.childTargets = childTargets;
+        this.spouses = spouses;
+        this.roots = roots;
+        int size = ids.length;
+        this.unitOf = new int[size];
+        this.partnerOf = new int[size];
+        this.layoutParents = new int[size];
+        Arrays.fill(unitOf, -1);
+        Arrays.fill(partnerOf, -1);
+        Arrays.fill(layoutParents, -1);
+    }
+
+    TreeLayoutVO layout() {
+        List<int[]> unitChildren = new ArrayList<>();
+        List<Integer> units = new ArrayList<>();
+        List<Integer> rootUnits = buildUnits(units, unitChildren);
+
+        int unitCount = units.size();
+        double[] offsets = new double[unitCount];
+        double[][] leftContours = new double[unitCount][];
+        double[][] rightContours = new double[unitCount][];
+
+        // 单元按层序编号，倒序处理即可保证子单元先于父单元完成
+        for (int u = unitCount - 1; u >= 0; u--) {
+            double halfWidth = unitWidth(units.get(u)) / 2.0;
+            int[] children = unitChildren.get(u);
+            if (children.length == 0) {
+                leftContours[u] = new double[]{-halfWidth};
+                rightContours[u] = new double[]{halfWidth};
+                continue;
+            }
+            Contour merged = merge(children, offsets, leftContours, rightContours);
+            leftContours[u] = prepend(-halfWidth, merged.left);
+            rightContours[u] = prepend(halfWidth, merged.right);
+            for (int c : children) {
+                leftContours[c] = null;
+                rightContours[c] = null;
+            }
+        }
+
+        // 根单元视作同一虚拟根的子单元并排摆放
+        int[] rootArray = rootUnits.stream().mapToInt(Integer::intValue).toArray();
+        double[] centers = new double[unitCount];
+        double minLeft = 0;
+        double maxRight = 0;
+        if (rootArray.length > 0) {
+            Contour forest = merge(rootArray, offsets, leftContours, rightContours);
+            minLeft = Arrays.stream(forest.left).min().orElse(0);
+            maxRight = Arrays.stream(forest.right).max().orElse(0);
+        }
+        for (int r : rootArray) {
+            centers[r] = offsets[r] - minLeft;
+        }
+
+        int[] levels = new int[unitCount];
+        int maxLevel = 0;
+        for (int u = 0; u < unitCount; u++) {
+            for (int c : unitChildren.get(u)) {
+                centers[c] = centers[u] + offsets[c];
+                levels[c] = levels[u] + 1;
+                maxLevel = Math.max(maxLevel, levels[c]);
+            }
+        }
+
+        List<TreeLayoutVO.LayoutNode> nodes = new ArrayList<>();
+        for (int u = 0; u < unitCount; u++) {
+            int member = units.get(u);
+            int partner = partnerOf[member];
+            int y = levels[u] * LEVEL_HEIGHT;
+            double shift = partner < 0 ? 0 : (NODE_WIDTH + SPOUSE_GAP) / 2.0;
+            nodes.add(node(member, centers[u] - shift, y, partner));
+            if (partner >= 0) {
+                nodes.add(node(partner, centers[u] + shift, y, member));
+            }
+        }
+
+        return TreeLayoutVO.builder()
+                .width((int) Math.ceil(maxRight - minLeft))
+                .height(rootArray.length == 0 ? 0 : maxLevel * LEVEL_HEIGHT + NODE_HEIGHT)
+                .nodeWidth(NODE_WIDTH)
+                .nodeHeight(NODE_HEIGHT)
+                .nodes(Collections.unmodifiableList(nodes))
+                .build();
+    }
+
+    /**
+     * 从根成员按层遍历划分单元，成员在第一次被访问到的父母下方落位；
+     * 没有父母的配偶并入伴侣的单元，不再单独作为根
+     *
+     * @return 根单元编号
+     */
+    private List<Integer> buildUnits(List<Integer> units, List<int[]> unitChildren) {
+        boolean[] isRoot = new boolean[ids.length];
+        for (int root : roots) {
+            isRoot[root] = true;
+        }
+
+        List<Integer> rootUnits = new ArrayList<>();
+        List<Integer> deferred = new ArrayList<>();
+        for (int root : roots) {
+            if (unitOf[root] >= 0) {
+                continue;
+            }
+            int spouse = spouses[root];
+            // 配偶有父母时，该根成员随配偶出现在配偶父母的子树里
+            if (spouse >= 0 && !isRoot[spouse] && spouses[spouse] == root) {
+                deferred.add(root);
+                continue;
+            }
+            rootUnits.add(openUnit(root, isRoot, units, unitChildren));
+        }
+
+        int u = 0;
+        while (true) {
+            for (; u < units.size(); u++) {
+                int member = units.get(u);
+                List<Integer> children = new ArrayList<>();
+                collectChildren(member, isRoot, units, unitChildren, children);
+                int partner = partnerOf[member];
+                if (partner >= 0) {
+                    collectChildren(partner, isRoot, units, unitChildren, children);
+                }
+                unitChildren.set(u, children.stream().mapToInt(Integer::intValue).toArray());
+            }
+            // 配偶不在树中（如关系成环）时，暂缓的根成员仍单独作为根
+            int before = units.size();
+            for (int root : deferred) {
+                if (unitOf[root] < 0) {
+                    rootUnits.add(openUnit(root, isRoot, units, unitChildren));
+                }
+            }
+            deferred.clear();
+            if (units.size() == before) {
+                return rootUnits;
+            }
+        }
+    }
+
+    private void collectChildren(int parent, boolean[] isRoot, List<Integer> units,
+                                 List<int[]> unitChildren, List<Integer> children) {
+        for (int c = childOffsets[parent]; c < childOffsets[parent + 1]; c++) {
+            int child = childTargets[c];
+            if (unitOf[child] >= 0) {
+                continue;
+            }
+            layoutParents[child] = parent;
+            children.add(openUnit(child, isRoot, units, unitChildren));
+        }
+    }
+
+    private int openUnit(int member, boolean[] isRoot, List<Integer> units, List<int[]> unitChildren) {
+        int unit = units.size();
+        units.add(member);
+        unitChildren.add(null);
+        unitOf[member] = unit;
+        int spouse = spouses[member];
+        if (spouse >= 0 && isRoot[spouse] && unitOf[spouse] < 0) {
+            partnerOf[member] = spouse;
+            unitOf[spouse] = unit;
+        }
+        return unit;
+    }
+
+    /**
+     * 依次把子树靠向左侧已摆好的子树，返回以首尾子树中点为原点的合并轮廓，并写入各子树相对该原点的偏移
+     */
+    private Contour merge(int[] children, double[] offsets, double[][] leftContours, double[][] rightContours) {
+        double[] left = leftContours[children[0]].clone();
+        double[] right = rightContours[children[0]].clone();
+        offsets[children[0]] = 0;
+        for (int i = 1; i < children.length; i++) {
+            int child = children[i];
+            double[] childLeft = leftContours[child];
+            double[] childRight = rightContours[child];
+            double offset = Double.NEGATIVE_INFINITY;
+            for (int level = 0; level < Math.min(right.length, childLeft.length); level++) {
+                offset = Math.max(offset, right[level] - childLeft[level] + SIBLING_GAP);
+            }
+            offsets[child] = offset;
+
+            if (childRight.length >= right.length) {
+                right = shifted(childRight, offset);
+            } else {
+                for (int level = 0; level < childRight.length; level++) {
+                    right[level] = childRight[level] + offset;
+                }
+            }
+            if (childLeft.length > left.length) {
+                int depth = left.length;
+                left = Arrays.copyOf(left, childLeft.length);
+                for (int level = depth; level < childLeft.length; level++) {
+                    left[level] = childLeft[level] + offset;
+                }
+            }
+        }
+
+        double middle = offsets[children[children.length - 1]] / 2.0;
+        for (int c : children) {
+            offsets[c] -= middle;
+        }
+        for (int level = 0; level < left.length; level++) {
+            left[level] -= middle;
+        }
+        for (int level = 0; level < right.length; level++) {
+            right[level] -= middle;
+        }
+        return new Contour(left, right);
+    }
+
+    private double unitWidth(int member) {
+        return partnerOf[member] < 0 ? NODE_WIDTH : NODE_WIDTH * 2 + SPOUSE_GAP;
+    }
+
+    private TreeLayoutVO.LayoutNode node(int member, double center, int y, int spouse) {
+        return TreeLayoutVO.LayoutNode.builder()
+                .id(ids[member])
+                .x((int) Math.round(center - NODE_WIDTH / 2.0))
+                .y(y)
+                .parentId(layoutParents[member] < 0 ? null : ids[layoutParents[member]])
+                .spouseId(spouse < 0 ? null : ids[spouse])
+                .build();
+    }
+
+    private static double[] prepend(double head, double[] tail) {
+        double[] result = new double[tail.length + 1];
+        result[0] = head;
+        System.arraycopy(tail, 0, result, 1, tail.length);
+        return result;
+    }
+
+    private static double[] shifted(double[] contour, double offset) {
+        double[] result = new double[contour.length];
+        for (int i = 0; i < contour.length; i++) {
+            result[i] = contour[i] + offset;
+        }
+        return result;
+    }
+
+    private record Contour(double[] left, double[] right) {
+    }
+}
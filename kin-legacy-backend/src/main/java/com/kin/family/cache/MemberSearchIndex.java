@@ -0,0 +1,650 @@
+package com.kin.family.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.kin.family.entity.FamilyMember;
+import com.kin.family.mapper.FamilyMemberMapper;
+import com.kin.family.util.PinyinUtil;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 成员姓名搜索索引
+ * 进程内倒排索引，覆盖全部家谱的成员姓名：汉字一元、二元组，拼音首字母二元组，全拼三元组及前缀；
+ * 文档只追加，修改成员时旧文档标记删除，删除过多时整体压缩。
+ * 查询先按各元组倒排表求交集得到包含匹配，结果不足时再按元组命中数筛选候选做编辑距离不超过一（长拼音不超过二）的模糊匹配，
+ * 模糊匹配按命中数从多到少检查候选，凑满结果即停止，因此同分结果不保证最优的先后次序
+ *
+ * @author candong
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemberSearchIndex {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    private static final char NAME = 'n';
+    private static final char INITIALS = 'i';
+    private static final char PINYIN = 'p';
+    private static final char PINYIN_PREFIX = '^';
+
+    /**
+     * 编辑距离为一的模糊匹配得分；编辑距离为零的已在包含匹配中命中
+     */
+    private static final int FUZZY_SCORE = 30;
+
+    /**
+     * 超过该长度的拼音查询不再匹配首字母
+     */
+    private static final int MAX_INITIALS_QUERY = 6;
+
+    private static final Comparator<Hit> RANK = Comparator.comparingInt(Hit::getScore).reversed()
+            .thenComparingInt(hit -> hit.getName().length())
+            .thenComparingLong(Hit::getMemberId);
+
+    private static final ThreadLocal<int[]> COUNTS = ThreadLocal.withInitial(() -> new int[0]);
+
+    private final FamilyMemberMapper memberMapper;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Data data = new Data();
+
+    /**
+     * 重建期间到达的写入，重建完成后在新索引上重放
+     */
+    private List<Consumer<Data>> pending;
+
+    private volatile boolean ready;
+
+    /**
+     * 全量重建是否已完成；未完成时调用方应退回数据库查询
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 新增或更新成员
+     */
+    public void put(FamilyMember member) {
+        if (member.getId() == null || member.getFamilyId() == null) {
+            return;
+        }
+        write(data -> data.put(member.getId(), member.getFamilyId(), member.getName()));
+    }
+
+    /**
+     * 删除成员
+     */
+    public void remove(Long memberId) {
+        write(data -> data.remove(memberId));
+    }
+
+    /**
+     * 删除某个家谱的全部成员
+     */
+    public void removeFamily(Long familyId) {
+        write(data -> data.removeFamily(familyId));
+    }
+
+    /**
+     * 按成员ID分批从数据库全量重建
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                return;
+            }
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Data rebuilt = new Data();
+        try {
+            long lastId = 0;
+            while (true) {
+                List<FamilyMember> batch = memberMapper.selectList(
+                        new LambdaQueryWrapper<FamilyMember>()
+                                .select(FamilyMember::getId, FamilyMember::getFamilyId, FamilyMember::getName)
+                                .gt(FamilyMember::getId, lastId)
+                                .orderByAsc(FamilyMember::getId)
+                                .last("LIMIT " + REBUILD_BATCH_SIZE)
+                );
+                for (FamilyMember member : batch) {
+                    rebuilt.put(member.getId(), member.getFamilyId(), member.getName());
+                }
+                if (batch.size() < REBUILD_BATCH_SIZE) {
+                    break;
+                }
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pending.forEach(op -> op.accept(rebuilt));
+            pending = null;
+            data = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("成员搜索索引重建完成: members={}, grams={}, 耗时{}ms",
+                rebuilt.live(), rebuilt.postings.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 按姓名、全拼或拼音首字母搜索成员，按匹配程度降序
+     *
+     * @param familyId 为空时搜索全部家谱
+     * @param limit    为空时取 {@link #DEFAULT_LIMIT}，最多 {@link #MAX_LIMIT}
+     */
+    public List<Hit> search(String query, Long familyId, Integer limit) {
+        return search(query, familyId, limit == null ? DEFAULT_LIMIT : Math.min(Math.max(limit, 1), MAX_LIMIT), true);
+    }
+
+    /**
+     * 为分页查询取候选成员ID，只做包含匹配，最多返回 limit 个
+     */
+    public List<Long> searchIds(String query, Long familyId, int limit) {
+        return search(query, familyId, limit, false).stream().map(Hit::getMemberId).toList();
+    }
+
+    private List<Hit> search(String query, Long familyId, int limit, boolean fuzzy) {
+        if (query == null) {
+            return List.of();
+        }
+        String q = query.strip();
+        if (q.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return hasHan(q)
+                    ? data.searchName(q, familyId, limit, fuzzy)
+                    : data.searchPinyin(normalize(q), familyId, limit, fuzzy);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Consumer<Data> op) {
+        lock.writeLock().lock();
+        try {
+            op.accept(data);
+            if (pending != null) {
+                pending.add(op);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean hasHan(String text) {
+        return text.codePoints().anyMatch(c -> Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN);
+    }
+
+    private static String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * q 与 text 任意子串的最小编辑距离
+     */
+    static int substringDistance(String q, String text) {
+        int[] prev = new int[q.length() + 1];
+        int[] cur = new int[q.length() + 1];
+        for (int i = 0; i <= q.length(); i++) {
+            prev[i] = i;
+        }
+        int best = prev[q.length()];
+        for (int j = 1; j <= text.length(); j++) {
+            cur[0] = 0;
+            char c = text.charAt(j - 1);
+            for (int i = 1; i <= q.length(); i++) {
+                int cost = q.charAt(i - 1) == c ? 0 : 1;
+                cur[i] = Math.min(prev[i - 1] + cost, Math.min(prev[i], cur[i - 1]) + 1);
+            }
+            best = Math.min(best, cur[q.length()]);
+            int[] tmp = prev;
+            prev = cur;
+            cur = tmp;
+        }
+        return best;
+    }
+
+    /**
+     * 搜索结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Hit {
+        private final Long memberId;
+        private final Long familyId;
+        private final String name;
+        private final int score;
+    }
+
+    private static final class Data {
+        private long[] memberIds = new long[1024];
+        private long[] familyIds = new long[1024];
+        private String[] names = new String[1024];
+        private String[] fulls = new String[1024];
+        private String[] initials = new String[1024];
+        private int size;
+        private final BitSet dead = new BitSet();
+        private int deadCount;
+        private final Map<Long, Integer> docs = new HashMap<>();
+        private final Map<String, IntList> postings = new HashMap<>();
+
+        private int live() {
+            return size - deadCount;
+        }
+
+        private void put(Long memberId, Long familyId, String name) {
+            String value = name == null ? "" : name;
+            Integer doc = docs.get(memberId);
+            if (doc != null && familyIds[doc] == familyId && names[doc].equals(value)) {
+                return;
+            }
+            if (doc != null) {
+                kill(doc);
+            }
+            append(memberId, familyId, value);
+            compactIfNeeded();
+        }
+
+        private void remove(Long memberId) {
+            Integer doc = docs.remove(memberId);
+            if (doc != null) {
+                kill(doc);
+                compactIfNeeded();
+            }
+        }
+
+        private void removeFamily(Long familyId) {
+            for (int doc = dead.nextClearBit(0); doc < size; doc = dead.nextClearBit(doc + 1)) {
+                if (familyIds[doc] == familyId) {
+                    docs.remove(memberIds[doc]);
+                    kill(doc);
+                }
+            }
+            compactIfNeeded();
+        }
+
+        private void kill(int doc) {
+            dead.set(doc);
+            deadCount++;
+        }
+
+        private void append(long memberId, long familyId, String name) {
+            if (size == memberIds.length) {
+                int capacity = size + (size >> 1);
+                memberIds = Arrays.copyOf(memberIds, capacity);
+                familyIds = Arrays.copyOf(familyIds, capacity);
+                names = Arrays.copyOf(names, capacity);
+                fulls = Arrays.copyOf(fulls, capacity);
+                initials = Arrays.copyOf(initials, capacity);
+            }
+            int doc = size++;
+            String[] pinyin = PinyinUtil.toPinyin(name);
+            memberIds[doc] = memberId;
+            familyIds[doc] = familyId;
+            names[doc] = name;
+            fulls[doc] = pinyin[0];
+            initials[doc] = pinyin[1];
+            docs.put(memberId, doc);
+
+            Set<String> grams = new LinkedHashSet<>();
+            addGrams(grams, NAME, name, 1);
+            addGrams(grams, NAME, name, 2);
+            addGrams(grams, INITIALS, pinyin[1], 2);
+            addGrams(grams, PINYIN, pinyin[0], 3);
+            for (int n = 1; n <= 2 && n <= pinyin[0].length(); n++) {
+                grams.add(PINYIN_PREFIX + pinyin[0].substring(0, n));
+            }
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, k -> new IntList()).add(doc);
+            }
+        }
+
+        /**
+         * 标记删除的文档超过存活文档的四分之一时，按原顺序重新编号
+         */
+        private void compactIfNeeded() {
+            if (deadCount < 1024 || deadCount * 4L < live()) {
+                return;
+            }
+            int[] remap = new int[size];
+            int next = 0;
+            for (int doc = 0; doc < size; doc++) {
+                if (dead.get(doc)) {
+                    remap[doc] = -1;
+                    continue;
+                }
+                remap[doc] = next;
+                memberIds[next] = memberIds[doc];
+                familyIds[next] = familyIds[doc];
+                names[next] = names[doc];
+                fulls[next] = fulls[doc];
+                initials[next] = initials[doc];
+                docs.put(memberIds[next], next);
+                next++;
+            }
+            Arrays.fill(names, next, size, null);
+            Arrays.fill(fulls, next, size, null);
+            Arrays.fill(initials, next, size, null);
+            postings.values().removeIf(list -> list.remap(remap) == 0);
+            size = next;
+            dead.clear();
+            deadCount = 0;
+        }
+
+        private List<Hit> searchName(String q, Long familyId, int limit, boolean fuzzy) {
+            PriorityQueue<Hit> top = new PriorityQueue<>(RANK.reversed());
+            BitSet seen = new BitSet();
+            List<String> grams = grams(NAME, q, Math.min(q.length(), 2));
+            intersect(grams, familyId, doc -> {
+                String name = names[doc];
+                int score = name.equals(q) ? 100 : name.startsWith(q) ? 80 : name.contains(q) ? 60 : 0;
+                if (score > 0) {
+                    seen.set(doc);
+                    offer(top, doc, score, limit);
+                }
+            });
+            if (fuzzy && top.size() < limit && q.length() >= 2) {
+                List<String> unigrams = grams(NAME, q, 1);
+                count(unigrams, familyId, Math.max(1, unigrams.size() - 1), seen, doc -> {
+                    if (substringDistance(q, names[doc]) <= 1) {
+                        offer(top, doc, FUZZY_SCORE, limit);
+                    }
+                    return full(top, limit, FUZZY_SCORE);
+                });
+            }
+            return drain(top);
+        }
+
+        private List<Hit> searchPinyin(String q, Long familyId, int limit, boolean fuzzy) {
+            PriorityQueue<Hit> top = new PriorityQueue<>(RANK.reversed());
+            if (q.isEmpty()) {
+                return List.of();
+            }
+            BitSet seen = new BitSet();
+            Consumer<Integer> exact = doc -> {
+                if (seen.get(doc)) {
+                    return;
+                }
+                int score = pinyinScore(q, fulls[doc], initials[doc]);
+                if (score > 0) {
+                    seen.set(doc);
+                    offer(top, doc, score, limit);
+                }
+            };
+            if (q.length() <= 2) {
+                intersect(List.of(PINYIN_PREFIX + q), familyId, exact::accept);
+            }
+            if (q.length() == 1) {
+                return drain(top);
+            }
+            if (q.length() <= MAX_INITIALS_QUERY) {
+                intersect(grams(INITIALS, q, 2), familyId, exact::accept);
+            }
+            if (q.length() >= 3) {
+                intersect(grams(PINYIN, q, 3), familyId, exact::accept);
+            }
+            if (fuzzy && top.size() < limit && q.length() >= 4) {
+                int maxDistance = q.length() >= 8 ? 2 : 1;
+                List<String> trigrams = grams(PINYIN, q, 3);
+                count(trigrams, familyId, Math.max(1, trigrams.size() - 3 * maxDistance), seen, doc -> {
+                    int distance = substringDistance(q, fulls[doc]);
+                    if (distance <= maxDistance) {
+                        offer(top, doc, FUZZY_SCORE + 10 - 10 * distance, limit);
+                    }
+                    return full(top, limit, FUZZY_SCORE);
+                });
+            }
+            return drain(top);
+        }
+
+        private static int pinyinScore(String q, String full, String initials) {
+            if (full.equals(q)) {
+                return 100;
+            }
+            if (initials.equals(q)) {
+                return 95;
+            }
+            if (full.startsWith(q)) {
+                return 85;
+            }
+            if (initials.startsWith(q)) {
+                return 80;
+            }
+            if (full.contains(q)) {
+                return 60;
+            }
+            return initials.contains(q) ? 55 : 0;
+        }
+
+        /**
+         * 所有元组都命中的存活文档；倒排表按文档号递增，从最短的表出发二分查找其余表
+         */
+        private void intersect(List<String> grams, Long familyId, IntConsumer action) {
+            if (grams.isEmpty()) {
+                return;
+            }
+            IntList[] lists = new IntList[grams.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postings.get(grams.get(i));
+                if (lists[i] == null) {
+                    return;
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            int[] cursors = new int[lists.length];
+            IntList shortest = lists[0];
+            outer:
+            for (int k = 0; k < shortest.size; k++) {
+                int doc = shortest.values[k];
+                if (dead.get(doc) || (familyId != null && familyIds[doc] != familyId)) {
+                    continue;
+                }
+                for (int i = 1; i < lists.length; i++) {
+                    int pos = lists[i].seek(doc, cursors[i]);
+                    cursors[i] = pos;
+                    if (pos == lists[i].size) {
+                        break outer;
+                    }
+                    if (lists[i].values[pos] != doc) {
+                        continue outer;
+                    }
+                }
+                action.accept(doc);
+            }
+        }
+
+        /**
+         * 命中元组数不少于 threshold 的存活文档，跳过已在 seen 中的文档；
+         * 按命中数从多到少回调，回调返回 true 时停止
+         */
+        private void count(List<String> grams, Long familyId, int threshold, BitSet seen, IntPredicate action) {
+            int[] counts = COUNTS.get();
+            if (counts.length < size) {
+                counts = new int[size + (size >> 2)];
+                COUNTS.set(counts);
+            }
+            IntList touched = new IntList();
+            for (String gram : grams) {
+                IntList list = postings.get(gram);
+                if (list == null) {
+                    continue;
+                }
+                for (int k = 0; k < list.size; k++) {
+                    int doc = list.values[k];
+                    if (dead.get(doc) || seen.get(doc) || (familyId != null && familyIds[doc] != familyId)) {
+                        continue;
+                    }
+                    if (counts[doc]++ == 0) {
+                        touched.add(doc);
+                    }
+                }
+            }
+            IntList[] buckets = new IntList[grams.size() + 1];
+            for (int k = 0; k < touched.size; k++) {
+                int doc = touched.values[k];
+                if (counts[doc] >= threshold) {
+                    if (buckets[counts[doc]] == null) {
+                        buckets[counts[doc]] = new IntList();
+                    }
+                    buckets[counts[doc]].add(doc);
+                }
+                counts[doc] = 0;
+            }
+            for (int hits = buckets.length - 1; hits >= threshold; hits--) {
+                IntList bucket = buckets[hits];
+                for (int k = 0; bucket != null && k < bucket.size; k++) {
+                    if (action.test(bucket.values[k])) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * 结果已满且最差结果的得分已达到 score，后续同档次候选无法再进入
+         */
+        private static boolean full(PriorityQueue<Hit> top, int limit, int score) {
+            return top.size() >= limit && top.peek().getScore() >= score;
+        }
+
+        private void offer(PriorityQueue<Hit> top, int doc, int score, int limit) {
+            if (top.size() >= limit) {
+                Hit worst = top.peek();
+                int order = score != worst.getScore() ? Integer.compare(worst.getScore(), score)
+                        : names[doc].length() != worst.getName().length()
+                        ? Integer.compare(names[doc].length(), worst.getName().length())
+                        : Long.compare(memberIds[doc], worst.getMemberId());
+                if (order >= 0) {
+                    return;
+                }
+                top.poll();
+            }
+            top.add(new Hit(memberIds[doc], familyIds[doc], names[doc], score));
+        }
+
+        private static List<Hit> drain(PriorityQueue<Hit> top) {
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(RANK);
+            return hits;
+        }
+
+        private static void addGrams(Set<String> grams, char type, String text, int n) {
+            for (int i = 0; i + n <= text.length(); i++) {
+                grams.add(type + text.substring(i, i + n));
+            }
+        }
+
+        private static List<String> grams(char type, String text, int n) {
+            Set<String> grams = new LinkedHashSet<>();
+            addGrams(grams, type, text, n);
+            return new ArrayList<>(grams);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IntConsumer {
+        void accept(int value);
+    }
+
+    @FunctionalInterface
+    private interface IntPredicate {
+        boolean test(int value);
+    }
+
+    /**
+     * 递增的文档号列表
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * 从 from 起第一个不小于 target 的位置
+         */
+        private int seek(int target, int from) {
+            int low = from;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * 按新编号改写并去掉已删除的文档，返回剩余个数
+         */
+        private int remap(int[] remap) {
+            int next = 0;
+            for (int k = 0; k < size; k++) {
+                int doc = remap[values[k]];
+                if (doc >= 0) {
+                    values[next++] = doc;
+                }
+            }
+            size = next;
+            if (values.length > 4 && size < values.length >> 2) {
+                values = Arrays.copyOf(values, Math.max(4, size));
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.kin.family.cache;
+
+import com.kin.family.constant.GenderEnum;
+import com.kin.family.entity.FamilyMember;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 成员资料计数
+ * 按成员逐个加减，成员新增、修改、删除时只需撤销旧资料的计数再计入新资料
+ *
+ * @author candong
+ */
+class MemberTally {
+
+    int males;
+    int females;
+    int unknownGenders;
+    int deceased;
+    /**
+     * 出生和去世日期都已知的已故成员数及其寿命天数之和
+     */
+    int lifespanSamples;
+    long lifespanDays;
+
+    void add(FamilyMember member) {
+        apply(member, 1);
+    }
+
+    void remove(FamilyMember member) {
+        apply(member, -1);
+    }
+
+    void clear() {
+        males = 0;
+        females = 0;
+        unknownGenders = 0;
+        deceased = 0;
+        lifespanSamples = 0;
+        lifespanDays = 0;
+    }
+
+    private void apply(FamilyMember member, int sign) {
+        if (member.getGender() == GenderEnum.MALE) {
+            males += sign;
+        } else if (member.getGender() == GenderEnum.FEMALE) {
+            females += sign;
+        } else {
+            unknownGenders += sign;
+        }
+        LocalDate deathDate = member.getDeathDate();
+        if (deathDate != null) {
+            deceased += sign;
+            LocalDate birthDate = member.getBirthDate();
+            if (birthDate != null && !deathDate.isBefore(birthDate)) {
+                lifespanSamples += sign;
+                lifespanDays += sign * ChronoUnit.DAYS.between(birthDate, deathDate);
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.kin.family.cache;
+
+import com.kin.family.dto.PendingBadgeVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 待审批计数器
+ * 按家谱和申请类型（join / edit）计数，申请创建、审批的事务提交后增减；
+ * 计数存 Redis 供多实例共享，同时在本地内存保留一份，Redis 不可用时读写本地计数，
+ * 恢复后仍读本地直到下一次校准把两边改写为数据库中的实际值
+ *
+ * @author candong
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PendingApprovalCounter {
+
+    public static final String JOIN = "join";
+    public static final String EDIT = "edit";
+
+    private static final String KEY_PREFIX = "approval:pending:";
+    private static final String FAMILIES_KEY = KEY_PREFIX + "families";
+    private static final long REDIS_RETRY_MILLIS = 30_000L;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final Map<String, AtomicLong> localCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Redis 故障后暂停访问的截止时间，避免每次计数都等待连接超时
+     */
+    private volatile long redisPausedUntil;
+
+    /**
+     * Redis 漏记过增减，读数以本地为准，校准成功后复位
+     */
+    private volatile boolean redisStale = true;
+
+    public void increment(Long familyId, String type) {
+        afterCommit(() -> add(familyId, type, 1));
+    }
+
+    public void decrement(Long familyId, String type) {
+        decrement(familyId, type, 1);
+    }
+
+    public void decrement(Long familyId, String type, long count) {
+        if (count > 0) {
+            afterCommit(() -> add(familyId, type, -count));
+        }
+    }
+
+    /**
+     * 全部家谱的待审批数
+     */
+    public PendingBadgeVO.FamilyPending getTotal() {
+        List<Long> values = read(List.of(totalKey(JOIN), totalKey(EDIT)));
+        return new PendingBadgeVO.FamilyPending(null, values.get(0), values.get(1));
+    }
+
+    /**
+     * 指定家谱的待审批数，按传入顺序返回
+     */
+    public List<PendingBadgeVO.FamilyPending> getFamilies(Collection<Long> familyIds) {
+        List<String> keys = new ArrayList<>(familyIds.size() * 2);
+        for (Long familyId : familyIds) {
+            keys.add(familyKey(familyId, JOIN));
+            keys.add(familyKey(familyId, EDIT));
+        }
+        List<Long> values = read(keys);
+        List<PendingBadgeVO.FamilyPending> result = new ArrayList<>(familyIds.size());
+        int i = 0;
+        for (Long familyId : familyIds) {
+            result.add(new PendingBadgeVO.FamilyPending(familyId, values.get(i), values.get(i + 1)));
+            i += 2;
+        }
+        return result;
+    }
+
+    /**
+     * 以数据库统计的待审批数覆盖计数；统计与覆盖之间发生的增减可能丢失，由下一次校准修正
+     */
+    public void reconcile(List<PendingBadgeVO.FamilyPending> actual) {
+        Map<String, Long> values = new LinkedHashMap<>();
+        long join = 0;
+        long edit = 0;
+        for (PendingBadgeVO.FamilyPending p : actual) {
+            values.put(familyKey(p.getFamilyId(), JOIN), p.getJoinCount());
+            values.put(familyKey(p.getFamilyId(), EDIT), p.getEditCount());
+            join += p.getJoinCount();
+            edit += p.getEditCount();
+        }
+        values.put(totalKey(JOIN), join);
+        values.put(totalKey(EDIT), edit);
+
+        localCounts.keySet().removeIf(key -> !values.containsKey(key));
+        values.forEach((key, value) -> localCounts.computeIfAbsent(key, k -> new AtomicLong()).set(value));
+
+        if (!redisAvailable()) {
+            return;
+        }
+        try {
+            Set<String> families = new HashSet<>();
+            for (PendingBadgeVO.FamilyPending p : actual) {
+                families.add(String.valueOf(p.getFamilyId()));
+            }
+            Set<String> known = redisTemplate.opsForSet().members(FAMILIES_KEY);
+            List<String> staleKeys = new ArrayList<>();
+            List<String> staleFamilies = new ArrayList<>();
+            if (known != null) {
+                for (String familyId : known) {
+                    if (!families.contains(familyId)) {
+                        staleKeys.add(KEY_PREFIX + familyId + ":" + JOIN);
+                        staleKeys.add(KEY_PREFIX + familyId + ":" + EDIT);
+                        staleFamilies.add(familyId);
+                    }
+                }
+            }
+
+            Map<String, String> strings = new HashMap<>(values.size() * 2);
+            values.forEach((key, value) -> strings.put(key, String.valueOf(value)));
+            redisTemplate.opsForValue().multiSet(strings);
+            if (!families.isEmpty()) {
+                redisTemplate.opsForSet().add(FAMILIES_KEY, families.toArray(new String[0]));
+            }
+            if (!staleKeys.isEmpty()) {
+                redisTemplate.delete(staleKeys);
+                redisTemplate.opsForSet().remove(FAMILIES_KEY, staleFamilies.toArray());
+            }
+            redisStale = false;
+        } catch (DataAccessException e) {
+            pauseRedis(e);
+        }
+    }
+
+    private void add(Long familyId, String type, long delta) {
+        String familyKey = familyKey(familyId, type);
+        String totalKey = totalKey(type);
+        localCounts.computeIfAbsent(familyKey, k -> new AtomicLong()).addAndGet(delta);
+        localCounts.computeIfAbsent(totalKey, k -> new AtomicLong()).addAndGet(delta);
+
+        if (!redisAvailable()) {
+            redisStale = true;
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().increment(familyKey, delta);
+            redisTemplate.opsForValue().increment(totalKey, delta);
+            redisTemplate.opsForSet().add(FAMILIES_KEY, String.valueOf(familyId));
+        } catch (DataAccessException e) {
+            redisStale = true;
+            pauseRedis(e);
+        }
+    }
+
+    private List<Long> read(List<String> keys) {
+        List<Long> values = new ArrayList<>(keys.size());
+        if (keys.isEmpty()) {
+            return values;
+        }
+        if (!redisStale && redisAvailable()) {
+            try {
+                List<String> strings = redisTemplate.opsForValue().multiGet(keys);
+                if (strings != null) {
+                    for (String s : strings) {
+                        values.add(s == null ? 0L : Math.max(0L, Long.parseLong(s)));
+                    }
+                    return values;
+                }
+            } catch (DataAccessException e) {
+                pauseRedis(e);
+            }
+        }
+        for (String key : keys) {
+            AtomicLong count = localCounts.get(key);
+            values.add(count == null ? 0L : Math.max(0L, count.get()));
+        }
+        return values;
+    }
+
+    private boolean redisAvailable() {
+        return System.currentTimeMillis() >= redisPausedUntil;
+    }
+
+    private void pauseRedis(DataAccessException e) {
+        redisPausedUntil = System.currentTimeMillis() + REDIS_RETRY_MILLIS;
+        log.warn("待审批计数访问Redis失败，暂时改用本地计数: {}", e.getMessage());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String familyKey(Long familyId, String type) {
+        return KEY_PREFIX + familyId + ":" + type;
+    }
+
+    private static String totalKey(String type) {
+        return KEY_PREFIX + "all:" + type;
+    }
+}
@@ -2,8 +2,10 @@ package com.kin.family.config;
 
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
+import com.baomidou.mybatisplus.core.injector.ISqlInjector;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.kin.family.config.mybatis.BatchSqlInjector;
 import org.apache.ibatis.reflection.MetaObject;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -25,6 +27,11 @@ public class MyBatisPlusConfig {
         return interceptor;
     }
 
+    @Bean
+    public ISqlInjector sqlInjector() {
+        return new BatchSqlInjector();
+    }
+
     @Bean
     public MetaObjectHandler metaObjectHandler() {
         return new MetaObjectHandler() {
@@ -14,6 +14,7 @@ import org.aspectj.lang.annotation.Aspect;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.multipart.MultipartFile;
 
 /**
  * 操作日志切面
@@ -109,6 +110,11 @@ public class OperationLogAspect {
                 if (sb.length() > 0) {
                     sb.append(", ");
                 }
+                // 上传文件只记录文件名，避免序列化时读入整个文件
+                if (args[i] instanceof MultipartFile file) {
+                    sb.append(paramNames[i]).append("=").append(objectMapper.writeValueAsString(file.getOriginalFilename()));
+                    continue;
+                }
                 sb.append(paramNames[i]).append("=").append(objectMapper.writeValueAsString(args[i]));
             }
             return sb.toString();
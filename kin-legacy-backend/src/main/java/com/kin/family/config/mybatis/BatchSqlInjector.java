@@ -0,0 +1,25 @@
+package com.kin.family.config.mybatis;
+
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.injector.DefaultSqlInjector;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.kin.family.mapper.BatchMapper;
+
+import java.util.List;
+
+/**
+ * 在默认方法之外，为继承 {@link BatchMapper} 的 Mapper 注入多行 INSERT
+ *
+ * @author candong
+ */
+public class BatchSqlInjector extends DefaultSqlInjector {
+
+    @Override
+    public List<AbstractMethod> getMethodList(Class<?> mapperClass, TableInfo tableInfo) {
+        List<AbstractMethod> methods = super.getMethodList(mapperClass, tableInfo);
+        if (BatchMapper.class.isAssignableFrom(mapperClass)) {
+            methods.add(new InsertBatch());
+        }
+        return methods;
+    }
+}
@@ -0,0 +1,70 @@
+package com.kin.family.config.mybatis;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.toolkit.sql.SqlScriptUtils;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 多行 INSERT：一条语句写入整批实体，列取表的全部字段；
+ * 与 insert 一样，值为 null 的字段使用列默认值（MySQL 的 DEFAULT 关键字），不会把 NOT NULL 列写成 NULL；
+ * 自增主键由驱动按行回填到实体
+ *
+ * @author candong
+ */
+public class InsertBatch extends AbstractMethod {
+
+    public static final String METHOD_NAME = "insertBatch";
+
+    public InsertBatch() {
+        super(METHOD_NAME);
+    }
+
+    @Override
+    public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
+        List<String> columns = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        if (tableInfo.havePK()) {
+            columns.add(tableInfo.getKeyColumn());
+            values.add(valueOrDefault(tableInfo.getKeyProperty()));
+        }
+        for (TableFieldInfo field : tableInfo.getFieldList()) {
+            columns.add(field.getColumn());
+            // 自动填充发生在 SQL 生成之后，填充字段与 insert 一样直接绑定
+            values.add(field.isWithInsertFill() ? SqlScriptUtils.safeParam("et." + field.getEl()) : valueOrDefault(field.getEl()));
+        }
+        String sql = "<script>INSERT INTO " + tableInfo.getTableName()
+                + " (" + String.join(COMMA, columns) + ") VALUES "
+                + SqlScriptUtils.convertForeach("(" + String.join(COMMA, values) + ")", "list", null, "et", COMMA)
+                + "</script>";
+        SqlSource sqlSource = languageDriver.createSqlSource(configuration, sql, modelClass);
+
+        KeyGenerator keyGenerator = NoKeyGenerator.INSTANCE;
+        String keyProperty = null;
+        String keyColumn = null;
+        if (tableInfo.havePK() && tableInfo.getIdType() == IdType.AUTO) {
+            keyGenerator = Jdbc3KeyGenerator.INSTANCE;
+            keyProperty = tableInfo.getKeyProperty();
+            keyColumn = tableInfo.getKeyColumn();
+        }
+        return addInsertMappedStatement(mapperClass, modelClass, methodName, sqlSource, keyGenerator, keyProperty, keyColumn);
+    }
+
+    /**
+     * el 可能带 typeHandler 等参数，判空只用属性名
+     */
+    private static String valueOrDefault(String el) {
+        String property = "et." + el.split(COMMA, 2)[0];
+        return "<choose><when test=\"" + property + " != null\">" + SqlScriptUtils.safeParam("et." + el)
+                + "</when><otherwise>DEFAULT</otherwise></choose>";
+    }
+}
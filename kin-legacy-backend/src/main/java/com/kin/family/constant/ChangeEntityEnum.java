@@ -0,0 +1,27 @@
+package com.kin.family.constant;
+
+import com.baomidou.mybatisplus.annotation.EnumValue;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+
+/**
+ * 变更日志对象类型枚举
+ *
+ * @author candong
+ */
+@Getter
+public enum ChangeEntityEnum {
+    MEMBER("member", "成员"),
+    RELATION("relation", "关系"),
+    FAMILY("family", "家谱");
+
+    @EnumValue
+    @JsonValue
+    private final String value;
+    private final String description;
+
+    ChangeEntityEnum(String value, String description) {
+        this.value = value;
+        this.description = description;
+    }
+}
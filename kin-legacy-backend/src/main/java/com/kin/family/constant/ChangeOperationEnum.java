@@ -0,0 +1,26 @@
+package com.kin.family.constant;
+
+import com.baomidou.mybatisplus.annotation.EnumValue;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+
+/**
+ * 变更日志操作类型枚举
+ *
+ * @author candong
+ */
+@Getter
+public enum ChangeOperationEnum {
+    UPSERT("upsert", "新增或更新"),
+    DELETE("delete", "删除");
+
+    @EnumValue
+    @JsonValue
+    private final String value;
+    private final String description;
+
+    ChangeOperationEnum(String value, String description) {
+        this.value = value;
+        this.description = description;
+    }
+}
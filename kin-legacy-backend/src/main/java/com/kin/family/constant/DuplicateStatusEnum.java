@@ -0,0 +1,27 @@
+package com.kin.family.constant;
+
+import com.baomidou.mybatisplus.annotation.EnumValue;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+
+/**
+ * 疑似重复成员审核状态枚举
+ *
+ * @author candong
+ */
+@Getter
+public enum DuplicateStatusEnum {
+    PENDING("pending", "待审核"),
+    CONFIRMED("confirmed", "确认重复"),
+    DISMISSED("dismissed", "已忽略");
+
+    @EnumValue
+    @JsonValue
+    private final String value;
+    private final String description;
+
+    DuplicateStatusEnum(String value, String description) {
+        this.value = value;
+        this.description = description;
+    }
+}
@@ -0,0 +1,47 @@
+package com.kin.family.constant;
+
+import com.baomidou.mybatisplus.annotation.EnumValue;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+
+/**
+ * 成员导入文件格式枚举
+ *
+ * @author candong
+ */
+@Getter
+public enum ImportFormatEnum {
+    CSV("csv", "CSV"),
+    XLSX("xlsx", "Excel"),
+    GEDCOM("gedcom", "GEDCOM");
+
+    @EnumValue
+    @JsonValue
+    private final String value;
+    private final String description;
+
+    ImportFormatEnum(String value, String description) {
+        this.value = value;
+        this.description = description;
+    }
+
+    /**
+     * 按文件扩展名识别格式，无法识别时返回 null
+     */
+    public static ImportFormatEnum fromFileName(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        String lower = fileName.toLowerCase();
+        if (lower.endsWith(".csv")) {
+            return CSV;
+        }
+        if (lower.endsWith(".xlsx")) {
+            return XLSX;
+        }
+        if (lower.endsWith(".ged") || lower.endsWith(".gedcom")) {
+            return GEDCOM;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.kin.family.constant;
+
+import com.baomidou.mybatisplus.annotation.EnumValue;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+
+/**
+ * 成员导入任务状态枚举
+ *
+ * @author candong
+ */
+@Getter
+public enum ImportStatusEnum {
+    PENDING("pending", "排队中"),
+    VALIDATING("validating", "校验中"),
+    IMPORTING("importing", "写入中"),
+    DONE("done", "已完成"),
+    FAILED("failed", "失败");
+
+    @EnumValue
+    @JsonValue
+    private final String value;
+    private final String description;
+
+    ImportStatusEnum(String value, String description) {
+        this.value = value;
+        this.description = description;
+    }
+}
@@ -0,0 +1,30 @@
+package com.kin.family.constant;
+
+import com.baomidou.mybatisplus.annotation.EnumValue;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+
+/**
+ * 关系完整性问题类型枚举
+ *
+ * @author candong
+ */
+@Getter
+public enum IntegrityIssueEnum {
+    SELF_LOOP("self_loop", "关系两端是同一成员"),
+    DANGLING("dangling", "关系指向不存在的成员"),
+    CROSS_FAMILY("cross_family", "关系指向其他家谱的成员"),
+    DUPLICATE("duplicate", "重复的关系"),
+    MULTIPLE_PARENTS("multiple_parents", "同一成员有多位父亲或母亲"),
+    CYCLE("cycle", "父母子女关系成环");
+
+    @EnumValue
+    @JsonValue
+    private final String value;
+    private final String description;
+
+    IntegrityIssueEnum(String value, String description) {
+        this.value = value;
+        this.description = description;
+    }
+}
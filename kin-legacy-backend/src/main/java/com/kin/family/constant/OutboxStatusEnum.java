@@ -0,0 +1,28 @@
+package com.kin.family.constant;
+
+import com.baomidou.mybatisplus.annotation.EnumValue;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+
+/**
+ * 发件箱事件状态枚举
+ *
+ * @author candong
+ */
+@Getter
+public enum OutboxStatusEnum {
+    PENDING("pending", "待处理"),
+    PROCESSING("processing", "处理中"),
+    DONE("done", "已完成"),
+    FAILED("failed", "已放弃");
+
+    @EnumValue
+    @JsonValue
+    private final String value;
+    private final String description;
+
+    OutboxStatusEnum(String value, String description) {
+        this.value = value;
+        this.description = description;
+    }
+}
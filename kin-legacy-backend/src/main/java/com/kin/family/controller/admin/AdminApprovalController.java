@@ -5,6 +5,7 @@ import com.kin.family.annotation.RequireRole;
 import com.kin.family.annotation.OperationLogger;
 import com.kin.family.dto.*;
 import com.kin.family.service.ApprovalService;
+import com.kin.family.util.UserContextUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -32,6 +33,19 @@ public class AdminApprovalController {
         return Result.success(approvalService.getAllApprovals(type, status, page, size));
     }
 
+    @GetMapping("/approvals/cursor")
+    @RequireLogin
+    @RequireRole("SUPER_ADMIN")
+    @OperationLogger(module = "审批管理", operation = "游标查询所有审批")
+    public Result<CursorPageResult<ApprovalDetailDTO>> getApprovalsByCursor(
+            @RequestParam(required = false) Long familyId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size) {
+        return Result.success(approvalService.getApprovalsByCursor(familyId, type, status, cursor, size));
+    }
+
     @PostMapping("/approval/{familyId}/{requestId}/handle")
     @RequireLogin
     @RequireRole("SUPER_ADMIN")
@@ -43,4 +57,14 @@ public class AdminApprovalController {
         approvalService.handleApprovalAdmin(familyId, requestId, request);
         return Result.success();
     }
+
+    @PostMapping("/approval/{familyId}/batch-handle")
+    @RequireLogin
+    @RequireRole("SUPER_ADMIN")
+    @OperationLogger(module = "审批管理", operation = "管理员批量处理审批", saveResult = true)
+    public Result<ApprovalBatchResultVO> handleApprovalBatch(
+            @PathVariable Long familyId,
+            @RequestBody ApprovalBatchHandleDTO request) {
+        return Result.success(approvalService.handleApprovalBatch(familyId, request, UserContextUtil.getUserId()));
+    }
 }
@@ -0,0 +1,52 @@
+package com.kin.family.controller.admin;
+
+import com.kin.family.annotation.OperationLogger;
+import com.kin.family.annotation.RequireLogin;
+import com.kin.family.annotation.RequireRole;
+import com.kin.family.dto.DuplicateCandidateVO;
+import com.kin.family.dto.DuplicateReportVO;
+import com.kin.family.dto.Result;
+import com.kin.family.service.MemberDuplicateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 管理员重复成员控制器
+ *
+ * @author candong
+ */
+@RestController
+@RequestMapping("/api/admin/duplicate")
+@RequiredArgsConstructor
+public class AdminDuplicateController {
+
+    private final MemberDuplicateService memberDuplicateService;
+
+    @PostMapping("/detect")
+    @RequireLogin
+    @RequireRole("SUPER_ADMIN")
+    @OperationLogger(module = "成员管理", operation = "成员查重")
+    public Result<DuplicateReportVO> detect() {
+        return Result.success(memberDuplicateService.detectAll());
+    }
+
+    @GetMapping("/family/{familyId}")
+    @RequireLogin
+    @RequireRole("SUPER_ADMIN")
+    @OperationLogger(module = "成员管理", operation = "查看疑似重复成员")
+    public Result<List<DuplicateCandidateVO>> getCandidates(@PathVariable Long familyId,
+                                                            @RequestParam(required = false) String status) {
+        return Result.success(memberDuplicateService.getCandidates(familyId, status));
+    }
+
+    @PutMapping("/{id}")
+    @RequireLogin
+    @RequireRole("SUPER_ADMIN")
+    @OperationLogger(module = "成员管理", operation = "审核疑似重复成员")
+    public Result<Void> review(@PathVariable Long id, @RequestParam String status) {
+        memberDuplicateService.review(id, status);
+        return Result.success();
+    }
+}
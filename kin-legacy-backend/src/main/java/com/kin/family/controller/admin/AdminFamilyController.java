@@ -39,4 +39,15 @@ public class AdminFamilyController {
             @RequestParam(defaultValue = "10") Integer size) {
         return Result.success(familyService.getFamiliesPaged(page, size));
     }
+
+    @GetMapping("/family/list/cursor")
+    @RequireLogin
+    @RequireRole("SUPER_ADMIN")
+    @OperationLogger(module = "家谱管理", operation = "游标查询家谱")
+    public Result<CursorPageResult<FamilyDetailDTO>> getFamiliesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(defaultValue = "false") Boolean withTotal) {
+        return Result.success(familyService.getFamiliesByCursor(cursor, size, withTotal));
+    }
 }
@@ -0,0 +1,43 @@
+package com.kin.family.controller.admin;
+
+import com.kin.family.annotation.OperationLogger;
+import com.kin.family.annotation.RequireLogin;
+import com.kin.family.annotation.RequireRole;
+import com.kin.family.dto.IntegrityReportVO;
+import com.kin.family.dto.Result;
+import com.kin.family.entity.RelationIntegrityIssue;
+import com.kin.family.service.RelationIntegrityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 管理员关系完整性控制器
+ *
+ * @author candong
+ */
+@RestController
+@RequestMapping("/api/admin/integrity")
+@RequiredArgsConstructor
+public class AdminIntegrityController {
+
+    private final RelationIntegrityService relationIntegrityService;
+
+    @PostMapping("/family/{familyId}/check")
+    @RequireLogin
+    @RequireRole("SUPER_ADMIN")
+    @OperationLogger(module = "家谱管理", operation = "检查关系完整性")
+    public Result<IntegrityReportVO> checkFamily(@PathVariable Long familyId,
+                                                 @RequestParam(defaultValue = "false") Boolean repair) {
+        return Result.success(relationIntegrityService.checkFamily(familyId, repair));
+    }
+
+    @GetMapping("/family/{familyId}/issues")
+    @RequireLogin
+    @RequireRole("SUPER_ADMIN")
+    @OperationLogger(module = "家谱管理", operation = "查看关系完整性问题")
+    public Result<List<RelationIntegrityIssue>> getIssues(@PathVariable Long familyId) {
+        return Result.success(relationIntegrityService.getIssues(familyId));
+    }
+}
@@ -41,6 +41,17 @@ public class AdminMemberController {
         return Result.success(memberService.getMembersPaged(page, size));
     }
 
+    @GetMapping("/member/list/cursor")
+    @RequireLogin
+    @RequireRole("SUPER_ADMIN")
+    @OperationLogger(module = "成员管理", operation = "游标查询成员")
+    public Result<CursorPageResult<MemberDetailDTO>> getMembersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(defaultValue = "false") Boolean withTotal) {
+        return Result.success(memberService.getMembersByCursor(cursor, size, withTotal));
+    }
+
     @GetMapping("/member")
     @RequireLogin
     @RequireRole("SUPER_ADMIN")
@@ -49,6 +60,28 @@ public class AdminMemberController {
         return Result.success(memberService.queryMembers(query));
     }
 
+    @GetMapping("/member/cursor")
+    @RequireLogin
+    @RequireRole("SUPER_ADMIN")
+    @OperationLogger(module = "成员管理", operation = "多条件游标查询成员")
+    public Result<CursorPageResult<MemberVO>> queryMembersByCursor(
+            MemberQueryRequest query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") Boolean withTotal) {
+        return Result.success(memberService.queryMembersByCursor(query, cursor, withTotal));
+    }
+
+    @GetMapping("/member/search")
+    @RequireLogin
+    @RequireRole("SUPER_ADMIN")
+    @OperationLogger(module = "成员管理", operation = "搜索成员")
+    public Result<List<MemberSearchVO>> searchMembers(
+            @RequestParam String q,
+            @RequestParam(required = false) Long familyId,
+            @RequestParam(required = false) Integer limit) {
+        return Result.success(memberService.searchMembers(q, familyId, limit));
+    }
+
     @PostMapping("/member")
     @RequireLogin
     @RequireRole("SUPER_ADMIN")
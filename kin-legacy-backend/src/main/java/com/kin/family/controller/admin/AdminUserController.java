@@ -57,6 +57,17 @@ public class AdminUserController {
         return Result.success(userService.getUsersPaged(page, size));
     }
 
+    @GetMapping("/user/list/cursor")
+    @RequireLogin
+    @RequireRole("SUPER_ADMIN")
+    @OperationLogger(module = "用户管理", operation = "游标查询用户")
+    public Result<CursorPageResult<UserDetailDTO>> getUsersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(defaultValue = "false") Boolean withTotal) {
+        return Result.success(userService.getUsersByCursor(cursor, size, withTotal));
+    }
+
     @PutMapping("/user/{id}")
     @RequireLogin
     @RequireRole("SUPER_ADMIN")
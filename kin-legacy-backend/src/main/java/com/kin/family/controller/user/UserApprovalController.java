@@ -36,6 +36,23 @@ public class UserApprovalController {
         }
     }
 
+    @GetMapping("/cursor")
+    @RequireLogin
+    public Result<CursorPageResult<ApprovalDetailDTO>> getApprovalsByCursor(
+            @RequestParam(required = false) Long familyId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size) {
+        return Result.success(approvalService.getApprovalsByCursor(familyId, type, status, cursor, size));
+    }
+
+    @GetMapping("/badge")
+    @RequireLogin
+    public Result<PendingBadgeVO> getPendingBadge() {
+        return Result.success(approvalService.getPendingBadge(UserContextUtil.getUserId(), UserContextUtil.getGlobalRole()));
+    }
+
     @GetMapping("/family/{familyId}")
     @RequireLogin
     public Result<PageResult<ApprovalDetailDTO>> getFamilyApprovals(
@@ -47,6 +64,17 @@ public class UserApprovalController {
         return Result.success(approvalService.getApprovals(familyId, type, status, page, size));
     }
 
+    @PostMapping("/batch-handle")
+    @RequireLogin
+    @RequireAdmin(familyIdParam = "familyId")
+    @OperationLogger(module = "审批管理", operation = "批量处理审批", saveResult = true)
+    public Result<ApprovalBatchResultVO> handleApprovalBatch(
+            @RequestParam Long familyId,
+            @RequestBody ApprovalBatchHandleDTO request) {
+        Long userId = UserContextUtil.getUserId();
+        return Result.success(approvalService.handleApprovalBatch(familyId, request, userId));
+    }
+
     @PostMapping("/{requestId}/handle")
     @RequireLogin
     @OperationLogger(module = "审批管理", operation = "处理审批")
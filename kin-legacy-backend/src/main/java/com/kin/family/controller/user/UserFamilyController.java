@@ -5,7 +5,9 @@ import com.kin.family.annotation.RequireLogin;
 import com.kin.family.annotation.OperationLogger;
 import com.kin.family.dto.*;
 import com.kin.family.service.FamilyService;
+import com.kin.family.util.HttpCacheUtil;
 import com.kin.family.util.UserContextUtil;
+import com.kin.family.vo.FamilyStatisticsVO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -47,6 +49,17 @@ public class UserFamilyController {
         return Result.success(familyService.getFamilyById(id));
     }
 
+    @GetMapping("/{id}/statistics")
+    @RequireLogin
+    @OperationLogger(module = "家谱管理", operation = "查看家谱统计")
+    public Result<FamilyStatisticsVO> getFamilyStatistics(@PathVariable Long id) {
+        String etag = HttpCacheUtil.familyETag(id, familyService.getDataVersion(id), null, "stats");
+        if (HttpCacheUtil.checkNotModified(etag)) {
+            return null;
+        }
+        return Result.success(familyService.getFamilyStatistics(id));
+    }
+
     @GetMapping("/mine")
     @RequireLogin
     @OperationLogger(module = "家谱管理", operation = "查询我的家谱")
@@ -4,11 +4,26 @@ import com.kin.family.annotation.RequireAdmin;
 import com.kin.family.annotation.RequireLogin;
 import com.kin.family.annotation.OperationLogger;
 import com.kin.family.dto.*;
+import com.kin.family.service.FamilyExportService;
+import com.kin.family.service.FamilyService;
+import com.kin.family.service.MemberImportService;
 import com.kin.family.service.MemberService;
+import com.kin.family.util.HttpCacheUtil;
 import com.kin.family.util.UserContextUtil;
+import com.kin.family.vo.CompactTreeVO;
+import com.kin.family.vo.FamilyDeltaVO;
+import com.kin.family.vo.SubtreeNodeVO;
+import com.kin.family.vo.TreeLayoutVO;
 import com.kin.family.vo.TreeNodeVO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,21 +37,96 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserMemberController {
 
+    /**
+     * 列式家谱树格式，见 {@link CompactTreeVO}
+     */
+    public static final String COMPACT_TREE_TYPE = "application/vnd.kin.tree-compact+json";
+
     private final MemberService memberService;
+    private final FamilyService familyService;
+    private final MemberImportService memberImportService;
+    private final FamilyExportService familyExportService;
+
+    @Value("${family.tree.streaming:true}")
+    private boolean treeStreaming;
 
     @GetMapping("/members")
     @RequireLogin
     @OperationLogger(module = "成员管理", operation = "查询成员列表")
     public Result<List<MemberDetailDTO>> getMembers(@PathVariable Long familyId) {
+        String etag = HttpCacheUtil.familyETag(familyId, familyService.getDataVersion(familyId), null);
+        if (HttpCacheUtil.checkNotModified(etag)) {
+            return null;
+        }
         return Result.success(memberService.getMembers(familyId));
     }
 
     @GetMapping("/tree")
     @RequireLogin
     @OperationLogger(module = "成员管理", operation = "查看家谱树")
-    public Result<List<TreeNodeVO>> getFamilyTree(@PathVariable Long familyId) {
+    public ResponseEntity<?> getFamilyTree(@PathVariable Long familyId,
+                                           @RequestParam(required = false) String format,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Long currentUserId = UserContextUtil.getUserId();
+        boolean compact = "compact".equals(format) || (accept != null && accept.contains(COMPACT_TREE_TYPE));
+        String etag = HttpCacheUtil.familyETag(familyId, familyService.getDataVersion(familyId), currentUserId,
+                compact ? "compact" : null);
+        if (HttpCacheUtil.checkNotModified(etag)) {
+            return null;
+        }
+        if (compact) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(COMPACT_TREE_TYPE))
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .body(Result.success(memberService.getCompactFamilyTree(familyId, currentUserId)));
+        }
+        if (treeStreaming) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .body(memberService.streamFamilyTree(familyId, currentUserId));
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(Result.success(memberService.getFamilyTree(familyId, currentUserId)));
+    }
+
+    @GetMapping("/tree/layout")
+    @RequireLogin
+    @OperationLogger(module = "成员管理", operation = "查看家谱树布局")
+    public Result<TreeLayoutVO> getTreeLayout(@PathVariable Long familyId) {
+        return Result.success(memberService.getTreeLayout(familyId));
+    }
+
+    @GetMapping("/tree/delta")
+    @RequireLogin
+    @OperationLogger(module = "成员管理", operation = "增量同步家谱树")
+    public Result<FamilyDeltaVO> getTreeDelta(@PathVariable Long familyId,
+                                              @RequestParam(required = false) Long since) {
+        return Result.success(memberService.getTreeDelta(familyId, since));
+    }
+
+    @GetMapping("/members/search")
+    @RequireLogin
+    @OperationLogger(module = "成员管理", operation = "搜索成员")
+    public Result<List<MemberSearchVO>> searchMembers(
+            @PathVariable Long familyId,
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return Result.success(memberService.searchMembers(q, familyId, limit));
+    }
+
+    @GetMapping("/tree/subtree")
+    @RequireLogin
+    @OperationLogger(module = "成员管理", operation = "按需展开家谱树")
+    public Result<List<SubtreeNodeVO>> getSubtree(
+            @PathVariable Long familyId,
+            @RequestParam(required = false) Long rootId,
+            @RequestParam(required = false) Integer maxDepth,
+            @RequestParam(required = false) Integer maxChildren,
+            @RequestParam(defaultValue = "0") Integer childOffset) {
         Long currentUserId = UserContextUtil.getUserId();
-        return Result.success(memberService.getFamilyTree(familyId, currentUserId));
+        return Result.success(memberService.getSubtree(familyId, rootId, maxDepth, maxChildren, childOffset, currentUserId));
     }
 
     @GetMapping("/member/{id}")
@@ -57,6 +147,26 @@ public class UserMemberController {
         return Result.success(memberService.getMemberDetail(familyId, id));
     }
 
+    @GetMapping("/member/{id}/ancestors")
+    @RequireLogin
+    @OperationLogger(module = "成员管理", operation = "查询成员祖先")
+    public Result<List<MemberDetailDTO>> getAncestors(
+            @PathVariable Long familyId,
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer maxDepth) {
+        return Result.success(memberService.getAncestors(familyId, id, maxDepth));
+    }
+
+    @GetMapping("/member/{id}/descendants")
+    @RequireLogin
+    @OperationLogger(module = "成员管理", operation = "查询成员后代")
+    public Result<List<MemberDetailDTO>> getDescendants(
+            @PathVariable Long familyId,
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer maxDepth) {
+        return Result.success(memberService.getDescendants(familyId, id, maxDepth));
+    }
+
     @PostMapping("/member")
     @RequireLogin
     @RequireAdmin
@@ -68,6 +178,56 @@ public class UserMemberController {
         return Result.success(memberService.addMember(familyId, request, userId));
     }
 
+    @GetMapping("/export")
+    @RequireLogin
+    @RequireAdmin
+    @OperationLogger(module = "成员管理", operation = "导出家谱")
+    public ResponseEntity<StreamingResponseBody> exportFamily(
+            @PathVariable Long familyId,
+            @RequestParam(defaultValue = FamilyExportService.FORMAT_GEDCOM) String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = familyExportService.export(familyId, format, gzip);
+        boolean gedcom = FamilyExportService.FORMAT_GEDCOM.equals(format);
+        String fileName = "family-" + familyId + (gedcom ? ".ged" : ".ndjson") + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : gedcom ? MediaType.parseMediaType("text/plain;charset=UTF-8")
+                : MediaType.parseMediaType("application/x-ndjson;charset=UTF-8");
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    @PostMapping("/members/import")
+    @RequireLogin
+    @RequireAdmin
+    @OperationLogger(module = "成员管理", operation = "批量导入成员")
+    public Result<MemberImportJobVO> importMembers(
+            @PathVariable Long familyId,
+            @RequestParam("file") MultipartFile file) {
+        Long userId = UserContextUtil.getUserId();
+        return Result.success(memberImportService.submit(familyId, file, userId));
+    }
+
+    @GetMapping("/members/import/{jobId}")
+    @RequireLogin
+    @RequireAdmin
+    public Result<MemberImportJobVO> getImportJob(
+            @PathVariable Long familyId,
+            @PathVariable Long jobId) {
+        return Result.success(memberImportService.getJob(familyId, jobId));
+    }
+
+    @PostMapping("/members/import/{jobId}/resume")
+    @RequireLogin
+    @RequireAdmin
+    @OperationLogger(module = "成员管理", operation = "续传成员导入")
+    public Result<MemberImportJobVO> resumeImport(
+            @PathVariable Long familyId,
+            @PathVariable Long jobId) {
+        return Result.success(memberImportService.resume(familyId, jobId));
+    }
+
     @PostMapping("/member/{id}/add-child")
     @RequireLogin
     @RequireAdmin(familyIdParam = "familyId")
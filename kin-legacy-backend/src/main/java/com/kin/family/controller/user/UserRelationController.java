@@ -2,10 +2,14 @@ package com.kin.family.controller.user;
 
 import com.kin.family.annotation.RequireLogin;
 import com.kin.family.annotation.OperationLogger;
+import com.kin.family.dto.CommonAncestorQueryDTO;
+import com.kin.family.dto.CommonAncestorVO;
+import com.kin.family.dto.KinshipVO;
 import com.kin.family.dto.RelationCreateDTO;
 import com.kin.family.dto.RelationVO;
 import com.kin.family.dto.Result;
 import com.kin.family.service.MemberRelationService;
+import com.kin.family.util.UserContextUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
@@ -48,4 +52,24 @@ public class UserRelationController {
         memberRelationService.deleteRelation(familyId, relationId);
         return Result.success();
     }
+
+    @GetMapping("/kinship")
+    @RequireLogin
+    @OperationLogger(module = "关系管理", operation = "查询亲属称谓")
+    public Result<KinshipVO> getKinship(
+            @PathVariable Long familyId,
+            @RequestParam(required = false) Long fromMemberId,
+            @RequestParam Long toMemberId) {
+        Long currentUserId = UserContextUtil.getUserId();
+        return Result.success(memberRelationService.getKinship(familyId, fromMemberId, toMemberId, currentUserId));
+    }
+
+    @PostMapping("/common-ancestors")
+    @RequireLogin
+    @OperationLogger(module = "关系管理", operation = "批量查询共同祖先")
+    public Result<List<CommonAncestorVO>> getCommonAncestors(
+            @PathVariable Long familyId,
+            @Valid @RequestBody CommonAncestorQueryDTO query) {
+        return Result.success(memberRelationService.getCommonAncestors(familyId, query));
+    }
 }
@@ -0,0 +1,21 @@
+package com.kin.family.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量处理审批请求DTO
+ *
+ * @author candong
+ */
+@Data
+public class ApprovalBatchHandleDTO {
+    private List<Long> requestIds;
+    /**
+     * 申请类型 join / edit，为空时先按加入申请再按编辑申请匹配
+     */
+    private String type;
+    private String action;
+    private String remark;
+}
@@ -0,0 +1,33 @@
+package com.kin.family.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量处理审批结果VO
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApprovalBatchResultVO {
+    private Integer successCount;
+    private Integer failCount;
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long requestId;
+        private String type;
+        private Boolean success;
+        private String message;
+    }
+}
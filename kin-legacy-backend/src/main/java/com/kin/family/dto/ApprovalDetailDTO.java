@@ -1,5 +1,6 @@
 package com.kin.family.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.kin.family.constant.RequestStatusEnum;
 import lombok.Data;
 
@@ -13,6 +14,11 @@ import java.time.LocalDateTime;
 @Data
 public class ApprovalDetailDTO {
     private Long id;
+    /**
+     * 审批收件箱记录ID，仅用于排序和游标
+     */
+    @JsonIgnore
+    private Long inboxId;
     private String type;
     private Long familyId;
     private Long applicantUserId;
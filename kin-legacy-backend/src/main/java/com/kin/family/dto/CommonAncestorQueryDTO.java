@@ -0,0 +1,31 @@
+package com.kin.family.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量查询共同祖先请求
+ *
+ * @author candong
+ */
+@Data
+public class CommonAncestorQueryDTO {
+    @NotEmpty(message = "成员对不能为空")
+    @Size(max = 1000, message = "单次最多查询1000对成员")
+    @Valid
+    private List<MemberPair> pairs;
+
+    @Data
+    public static class MemberPair {
+        @NotNull(message = "成员ID不能为空")
+        private Long memberId;
+
+        @NotNull(message = "成员ID不能为空")
+        private Long otherMemberId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.kin.family.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 共同祖先查询结果
+ * distance/otherDistance 为两位成员与共同祖先相隔的世代数，
+ * cousinDegree 为堂表亲的代数（同胞为0，直系为 null），removal 为两人相差的辈分
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommonAncestorVO {
+    private Long memberId;
+    private Long otherMemberId;
+    private Long ancestorId;
+    private String ancestorName;
+    private Integer distance;
+    private Integer otherDistance;
+    private Integer cousinDegree;
+    private Integer removal;
+    private String description;
+}
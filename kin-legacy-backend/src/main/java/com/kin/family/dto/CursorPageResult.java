@@ -0,0 +1,50 @@
+package com.kin.family.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果
+ * nextCursor 原样传回即可取下一页，为空表示已到末尾；
+ * total 仅在请求精确总数或列表无筛选条件时返回，后者取自表统计信息，totalEstimated 为 true
+ *
+ * @author candong
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResult<T> {
+    private List<T> records;
+    private String nextCursor;
+    private Boolean hasMore;
+    private Integer size;
+    private Long total;
+    private Boolean totalEstimated;
+
+    /**
+     * 由多取一条的查询结果构造，多出的一条只用于判断是否还有下一页
+     *
+     * @param rows     按排序键取出的至多 size + 1 条记录
+     * @param cursorOf 记录对应的游标
+     */
+    public static <T> CursorPageResult<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> records = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(records.get(size - 1)) : null;
+        return new CursorPageResult<>(records, nextCursor, hasMore, size, null, null);
+    }
+
+    public CursorPageResult<T> withTotal(Long total, boolean estimated) {
+        this.total = total;
+        this.totalEstimated = total != null && estimated;
+        return this;
+    }
+
+    public <R> CursorPageResult<R> map(Function<T, R> mapper) {
+        return new CursorPageResult<>(records.stream().map(mapper).toList(), nextCursor, hasMore, size, total, totalEstimated);
+    }
+}
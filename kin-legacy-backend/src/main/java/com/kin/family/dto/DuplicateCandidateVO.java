@@ -0,0 +1,46 @@
+package com.kin.family.dto;
+
+import com.kin.family.constant.DuplicateStatusEnum;
+import com.kin.family.constant.GenderEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 疑似重复成员VO
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateCandidateVO {
+    private Long id;
+    private Integer score;
+    private String reasons;
+    private DuplicateStatusEnum status;
+    private LocalDateTime updateTime;
+    private Member member;
+    private Member otherMember;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Member {
+        private Long id;
+        private Long familyId;
+        private String familyName;
+        private String name;
+        private GenderEnum gender;
+        private LocalDate birthDate;
+        private String birthPlace;
+        private LocalDate deathDate;
+        private Long userId;
+    }
+}
@@ -0,0 +1,31 @@
+package com.kin.family.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 重复成员检测结果VO
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateReportVO {
+    private Integer memberCount;
+    private Integer blockCount;
+    /**
+     * 成员过多而未比较的分块数
+     */
+    private Integer skippedBlockCount;
+    private Long comparisonCount;
+    private Integer candidateCount;
+    /**
+     * 本次不再命中而删除的待审核记录数
+     */
+    private Integer removedCount;
+    private Long costMillis;
+}
@@ -0,0 +1,16 @@
+package com.kin.family.dto;
+
+import lombok.Data;
+
+/**
+ * GEDCOM 导出的家庭成员行，按 (fatherId, motherId) 连续排列，
+ * childId 为空的行表示只有夫妻关系
+ *
+ * @author candong
+ */
+@Data
+public class GedcomFamilyDTO {
+    private Long fatherId;
+    private Long motherId;
+    private Long childId;
+}
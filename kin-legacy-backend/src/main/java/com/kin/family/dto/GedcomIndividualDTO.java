@@ -0,0 +1,29 @@
+package com.kin.family.dto;
+
+import com.kin.family.constant.GenderEnum;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * GEDCOM 导出的个人记录，附带所在父母家庭和作为配偶的家庭
+ *
+ * @author candong
+ */
+@Data
+public class GedcomIndividualDTO {
+    private Long id;
+    private String name;
+    private GenderEnum gender;
+    private LocalDate birthDate;
+    private String birthPlace;
+    private LocalDate deathDate;
+    private String bio;
+    private Long fatherId;
+    private Long motherId;
+
+    /**
+     * 作为父亲或母亲的家庭键，逗号分隔，键为 父亲ID_母亲ID，缺少一方时为 0
+     */
+    private String familyKeys;
+}
@@ -0,0 +1,29 @@
+package com.kin.family.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 关系完整性检查结果VO
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntegrityReportVO {
+    private Integer familyCount;
+    private Integer relationCount;
+    private Integer issueCount;
+    private Integer repairedCount;
+    /**
+     * 各问题类型的数量
+     */
+    private Map<String, Integer> issueCounts;
+    private Long costMillis;
+}
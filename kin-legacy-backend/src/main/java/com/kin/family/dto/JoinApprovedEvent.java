@@ -0,0 +1,22 @@
+package com.kin.family.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 加入申请通过事件
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JoinApprovedEvent {
+    private Long familyId;
+    private Long userId;
+    private Long memberId;
+    private Long reviewerId;
+}
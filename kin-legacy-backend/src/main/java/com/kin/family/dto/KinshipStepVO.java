@@ -0,0 +1,23 @@
+package com.kin.family.dto;
+
+import com.kin.family.constant.GenderEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 亲属关系路径中的一步，relation 表示该成员是上一成员的什么人
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KinshipStepVO {
+    private Long memberId;
+    private String name;
+    private GenderEnum gender;
+    private String relation;
+}
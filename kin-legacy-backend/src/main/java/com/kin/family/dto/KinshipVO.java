@@ -0,0 +1,30 @@
+package com.kin.family.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 亲属关系视图对象
+ * generationDiff 为正表示对方是长辈，path 从起点成员开始
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KinshipVO {
+    private Long fromMemberId;
+    private String fromMemberName;
+    private Long toMemberId;
+    private String toMemberName;
+    private String title;
+    private String description;
+    private Integer generationDiff;
+    private Integer distance;
+    private List<KinshipStepVO> path;
+}
@@ -0,0 +1,56 @@
+package com.kin.family.dto;
+
+import com.kin.family.constant.ImportFormatEnum;
+import com.kin.family.constant.ImportStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 成员导入任务进度VO
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberImportJobVO {
+    private Long id;
+    private Long familyId;
+    private String fileName;
+    private ImportFormatEnum fileFormat;
+    private ImportStatusEnum status;
+    private Integer totalMembers;
+    private Integer importedMembers;
+    private Integer totalRelations;
+    private Integer importedRelations;
+
+    /**
+     * 总体进度百分比，成员与关系按条数合计
+     */
+    private Integer percent;
+
+    /**
+     * 失败后是否可以续传，校验未通过的需修正文件后重新导入
+     */
+    private Boolean resumable;
+
+    private Integer errorCount;
+    private List<RowError> errors;
+    private String errorMessage;
+    private LocalDateTime createTime;
+    private LocalDateTime updateTime;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private Integer line;
+        private String message;
+    }
+}
@@ -11,6 +11,8 @@ public class MemberQueryRequest {
     private String birthDateStart;
     private String birthDateEnd;
     private Long genealogyId;
+    private Integer generation;
+    private String sortBy;
     private String createTimeStart;
     private String createTimeEnd;
 }
@@ -0,0 +1,30 @@
+package com.kin.family.dto;
+
+import com.kin.family.constant.GenderEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 成员搜索结果
+ * score 为匹配程度：100 姓名或全拼完全相同，95 首字母相同，80~85 前缀匹配，55~60 包含，40 以下为模糊匹配
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberSearchVO {
+    private Long memberId;
+    private Long familyId;
+    private String familyName;
+    private String name;
+    private GenderEnum gender;
+    private String avatar;
+    private LocalDate birthDate;
+    private Integer score;
+}
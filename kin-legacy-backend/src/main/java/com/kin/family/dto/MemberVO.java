@@ -22,6 +22,7 @@ public class MemberVO {
     private LocalDate deathDate;
     private String bio;
     private String avatar;
+    private Integer generation;
     private Long genealogyId;
     private String genealogyName;
     private Long userId;
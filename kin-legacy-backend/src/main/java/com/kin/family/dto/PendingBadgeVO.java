@@ -0,0 +1,36 @@
+package com.kin.family.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 待审批角标VO
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingBadgeVO {
+    private Long joinCount;
+    private Long editCount;
+    private Long totalCount;
+    /**
+     * 当前用户管理的各家谱待审批数
+     */
+    private List<FamilyPending> families;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FamilyPending {
+        private Long familyId;
+        private Long joinCount;
+        private Long editCount;
+    }
+}
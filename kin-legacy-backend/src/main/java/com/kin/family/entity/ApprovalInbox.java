@@ -0,0 +1,61 @@
+package com.kin.family.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.kin.family.constant.RequestStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 审批收件箱实体，由加入申请和编辑申请同步而来
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("approval_inbox")
+public class ApprovalInbox {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 申请类型：join / edit
+     */
+    private String requestType;
+
+    private Long requestId;
+
+    private Long familyId;
+
+    private Long applicantUserId;
+
+    private String applicantName;
+
+    private String relationDesc;
+
+    private String joinType;
+
+    private Long memberId;
+
+    private String memberName;
+
+    private String changesJson;
+
+    private RequestStatusEnum status;
+
+    private String rejectReason;
+
+    private Long reviewerId;
+
+    private LocalDateTime createTime;
+
+    private LocalDateTime reviewedAt;
+}
@@ -34,8 +34,18 @@ public class Family {
     @TableField("creator_id")
     private Long creatorId;
 
+    /**
+     * 成员数，随成员增删、迁移在同一事务内增减，普通更新不写入，由定时任务校准
+     */
+    @TableField(updateStrategy = FieldStrategy.NEVER)
     private Integer memberCount;
 
+    /**
+     * 数据版本，成员、关系变化时递增，普通更新不写入
+     */
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Long dataVersion;
+
     @TableField(fill = FieldFill.INSERT)
     private LocalDateTime createTime;
 
@@ -0,0 +1,44 @@
+package com.kin.family.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.kin.family.constant.ChangeEntityEnum;
+import com.kin.family.constant.ChangeOperationEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 家谱变更日志实体
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("family_change_log")
+public class FamilyChangeLog {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private Long familyId;
+
+    /**
+     * 写入后的家谱数据版本，同一事务内的变更共用一个版本
+     */
+    private Long version;
+
+    private ChangeEntityEnum entityType;
+
+    private Long entityId;
+
+    private ChangeOperationEnum operation;
+
+    private LocalDateTime createTime;
+}
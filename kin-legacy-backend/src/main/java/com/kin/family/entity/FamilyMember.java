@@ -46,6 +46,12 @@ public class FamilyMember {
     @TableField("is_creator")
     private Integer isCreator;
 
+    /**
+     * 世代，由祖先索引随关系变化维护，普通更新不写入
+     */
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Integer generation;
+
     @TableField(fill = FieldFill.INSERT)
     private LocalDateTime createTime;
 
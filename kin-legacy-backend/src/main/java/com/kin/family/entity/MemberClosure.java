@@ -0,0 +1,28 @@
+package com.kin.family.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 成员祖先闭包实体
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("member_closure")
+public class MemberClosure {
+
+    private Long ancestorId;
+
+    private Long descendantId;
+
+    private Long familyId;
+
+    private Integer depth;
+}
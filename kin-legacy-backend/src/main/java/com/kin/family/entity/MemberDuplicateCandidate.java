@@ -0,0 +1,49 @@
+package com.kin.family.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.kin.family.constant.DuplicateStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 疑似重复成员实体
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("member_duplicate_candidate")
+public class MemberDuplicateCandidate {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private Long familyId;
+
+    /**
+     * 成员对中ID较小的一方
+     */
+    private Long memberId;
+
+    private Long otherFamilyId;
+
+    private Long otherMemberId;
+
+    private Integer score;
+
+    private String reasons;
+
+    private DuplicateStatusEnum status;
+
+    private LocalDateTime createTime;
+
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,72 @@
+package com.kin.family.entity;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.kin.family.constant.ImportFormatEnum;
+import com.kin.family.constant.ImportStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 成员导入任务实体
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("member_import_job")
+public class MemberImportJob {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private Long familyId;
+
+    private Long operatorId;
+
+    private String fileName;
+
+    private ImportFormatEnum fileFormat;
+
+    private String filePath;
+
+    private ImportStatusEnum status;
+
+    private Integer totalMembers;
+
+    /**
+     * 已提交的成员数，即成员阶段的续传位置
+     */
+    private Integer importedMembers;
+
+    private Integer totalRelations;
+
+    /**
+     * 已提交的关系数，即关系阶段的续传位置
+     */
+    private Integer importedRelations;
+
+    private Integer errorCount;
+
+    /**
+     * 前若干条校验错误JSON
+     */
+    private String errors;
+
+    private String errorMessage;
+
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,29 @@
+package com.kin.family.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 成员导入编号映射实体
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("member_import_ref")
+public class MemberImportRef {
+
+    private Long jobId;
+
+    /**
+     * 文件内编号
+     */
+    private String refKey;
+
+    private Long memberId;
+}
@@ -0,0 +1,52 @@
+package com.kin.family.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.kin.family.constant.OutboxStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 发件箱事件实体
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("outbox_event")
+public class OutboxEvent {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private String eventType;
+
+    /**
+     * 幂等键，同一键只登记一次
+     */
+    private String eventKey;
+
+    private String payload;
+
+    private OutboxStatusEnum status;
+
+    private Integer attempts;
+
+    /**
+     * 下次可领取时间，处理中时为租约到期时间
+     */
+    private LocalDateTime nextAttemptTime;
+
+    private String lastError;
+
+    private LocalDateTime createTime;
+
+    private LocalDateTime updateTime;
+}
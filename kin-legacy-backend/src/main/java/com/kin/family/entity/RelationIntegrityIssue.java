@@ -0,0 +1,50 @@
+package com.kin.family.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.kin.family.constant.IntegrityIssueEnum;
+import com.kin.family.constant.RelationTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 关系完整性问题实体
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("relation_integrity_issue")
+public class RelationIntegrityIssue {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private Long familyId;
+
+    private Long relationId;
+
+    private Long fromMemberId;
+
+    private Long toMemberId;
+
+    private RelationTypeEnum relationType;
+
+    private IntegrityIssueEnum issueType;
+
+    private String detail;
+
+    /**
+     * 是否已删除该关系修复：0-否，1-是
+     */
+    private Integer repaired;
+
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,115 @@
+package com.kin.family.importer;
+
+import com.kin.family.exception.BusinessException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV 导入文件读取器，UTF-8 编码（可带 BOM），按 RFC 4180 处理引号、转义引号和引号内换行
+ *
+ * @author candong
+ */
+public class CsvMemberReader extends TabularMemberReader {
+
+    private final BufferedReader reader;
+    private final StringBuilder field = new StringBuilder();
+    private int line = 1;
+    private int recordLine;
+    private boolean eof;
+
+    public CsvMemberReader(Path file) throws IOException {
+        this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+    }
+
+    @Override
+    protected String[] nextRecord() throws IOException {
+        if (eof) {
+            return null;
+        }
+        recordLine = line;
+        List<String> values = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        while (true) {
+            int c = reader.read();
+            if (c == -1) {
+                if (quoted) {
+                    throw new BusinessException("第" + recordLine + "行引号未闭合");
+                }
+                eof = true;
+                if (values.isEmpty() && !fieldStarted) {
+                    return null;
+                }
+                values.add(field.toString());
+                return values.toArray(new String[0]);
+            }
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    quoted = true;
+                    fieldStarted = true;
+                }
+                case ',' -> {
+                    values.add(field.toString());
+                    field.setLength(0);
+                    fieldStarted = true;
+                }
+                case '\r' -> {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                    line++;
+                    values.add(field.toString());
+                    return values.toArray(new String[0]);
+                }
+                case '\n' -> {
+                    line++;
+                    values.add(field.toString());
+                    return values.toArray(new String[0]);
+                }
+                default -> {
+                    field.append((char) c);
+                    fieldStarted = true;
+                }
+            }
+        }
+    }
+
+    @Override
+    protected int recordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,225 @@
+package com.kin.family.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * GEDCOM 导入文件读取器，UTF-8 编码
+ * 逐条读取 0 级记录：INDI 记录转为成员记录，编号取其 xref；
+ * FAM 记录转为仅关联记录，为每个 CHIL 补充父母引用，并为 HUSB、WIFE 补充配偶引用。
+ * 只接受精确到日的日期，ABT、BET 等近似日期和只有年月的日期不导入
+ *
+ * @author candong
+ */
+public class GedcomMemberReader implements MemberImportReader {
+
+    private static final Pattern LINE = Pattern.compile("^\\s*(\\d+)\\s+(?:@([^@]+)@\\s+)?(\\S+)(?: (.*))?$");
+    private static final DateTimeFormatter DATE = new DateTimeFormatterBuilder()
+            .parseCaseInsensitive()
+            .appendPattern("d MMM uuuu")
+            .toFormatter(Locale.ENGLISH);
+
+    private final BufferedReader reader;
+    private final Deque<MemberImportRow> pending = new ArrayDeque<>();
+    private final List<String[]> record = new ArrayList<>();
+    private String[] lookahead;
+    private int line;
+    private int recordLine;
+
+    public GedcomMemberReader(Path file) throws IOException {
+        this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+    }
+
+    @Override
+    public MemberImportRow next() throws IOException {
+        while (pending.isEmpty()) {
+            if (!readRecord()) {
+                return null;
+            }
+            String[] head = record.get(0);
+            if ("INDI".equals(head[2])) {
+                pending.add(individual(head[1]));
+            } else if ("FAM".equals(head[2])) {
+                family();
+            }
+        }
+        return pending.poll();
+    }
+
+    /**
+     * 读取一条 0 级记录及其下属各行，每行拆为 {层级, xref, 标签, 值}
+     */
+    private boolean readRecord() throws IOException {
+        record.clear();
+        String[] current = lookahead != null ? lookahead : readLine();
+        lookahead = null;
+        while (current != null && !"0".equals(current[0])) {
+            current = readLine();
+        }
+        if (current == null) {
+            return false;
+        }
+        recordLine = line;
+        record.add(current);
+        while ((current = readLine()) != null && !"0".equals(current[0])) {
+            record.add(current);
+        }
+        lookahead = current;
+        return true;
+    }
+
+    private String[] readLine() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            Matcher m = LINE.matcher(text);
+            if (m.matches()) {
+                return new String[]{m.group(1), m.group(2), m.group(3), m.group(4)};
+            }
+        }
+        return null;
+    }
+
+    private MemberImportRow individual(String xref) {
+        MemberImportRow row = new MemberImportRow();
+        row.setLine(recordLine);
+        row.setRef(xref);
+        String event = null;
+        String noteTarget = null;
+        for (int i = 1; i < record.size(); i++) {
+            String[] l = record.get(i);
+            String tag = l[2];
+            String value = l[3];
+            if ("1".equals(l[0])) {
+                event = tag;
+                noteTarget = null;
+                switch (tag) {
+                    case "NAME" -> {
+                        if (row.getName() == null && value != null) {
+                            row.setName(personalName(value));
+                        }
+                    }
+                    case "SEX" -> row.setGender(value == null ? null : switch (value.trim()) {
+                        case "M" -> "male";
+                        case "F" -> "female";
+                        default -> value.trim();
+                    });
+                    case "NOTE" -> {
+                        if (value != null && !value.startsWith("@")) {
+                            row.setBio(row.getBio() == null ? value : row.getBio() + "\n" + value);
+                            noteTarget = "NOTE";
+                        }
+                    }
+                    default -> { }
+                }
+            } else if ("2".equals(l[0])) {
+                if ("NOTE".equals(noteTarget) && ("CONT".equals(tag) || "CONC".equals(tag))) {
+                    row.setBio(row.getBio() + ("CONT".equals(tag) ? "\n" : "") + (value == null ? "" : value));
+                } else if ("BIRT".equals(event) && "DATE".equals(tag)) {
+                    row.setBirthDate(exactDate(value));
+                } else if ("BIRT".equals(event) && "PLAC".equals(tag)) {
+                    row.setBirthPlace(value);
+                } else if ("DEAT".equals(event) && "DATE".equals(tag)) {
+                    row.setDeathDate(exactDate(value));
+                }
+            }
+        }
+        return row;
+    }
+
+    private void family() {
+        String husband = null;
+        String wife = null;
+        List<String> children = new ArrayList<>();
+        for (int i = 1; i < record.size(); i++) {
+            String[] l = record.get(i);
+            if (!"1".equals(l[0]) || l[3] == null) {
+                continue;
+            }
+            String ref = pointer(l[3]);
+            switch (l[2]) {
+                case "HUSB" -> husband = ref;
+                case "WIFE" -> wife = ref;
+                case "CHIL" -> children.add(ref);
+                default -> { }
+            }
+        }
+        if (husband != null && wife != null) {
+            MemberImportRow row = link(husband);
+            row.getSpouseRefs().add(wife);
+            pending.add(row);
+        }
+        for (String child : children) {
+            MemberImportRow row = link(child);
+            row.setFatherRef(husband);
+            row.setMotherRef(wife);
+            pending.add(row);
+        }
+    }
+
+    private MemberImportRow link(String ref) {
+        MemberImportRow row = new MemberImportRow();
+        row.setLine(recordLine);
+        row.setLinkOnly(true);
+        row.setRef(ref);
+        return row;
+    }
+
+    private static String pointer(String value) {
+        String v = value.trim();
+        return v.length() > 2 && v.startsWith("@") && v.endsWith("@") ? v.substring(1, v.length() - 1) : v;
+    }
+
+    /**
+     * "名 /姓/" 转为姓名：含汉字时姓在前且不加空格，否则按原顺序以空格连接
+     */
+    static String personalName(String value) {
+        int start = value.indexOf('/');
+        int end = start >= 0 ? value.indexOf('/', start + 1) : -1;
+        if (start < 0 || end < 0) {
+            return value.replace("/", "").trim();
+        }
+        String surname = value.substring(start + 1, end).trim();
+        String given = (value.substring(0, start) + " " + value.substring(end + 1)).trim();
+        if (surname.isEmpty() || given.isEmpty()) {
+            return surname + given;
+        }
+        boolean cjk = (surname + given).codePoints()
+                .anyMatch(c -> Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN);
+        return cjk ? surname + given : given + " " + surname;
+    }
+
+    static String exactDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim(), DATE).toString();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
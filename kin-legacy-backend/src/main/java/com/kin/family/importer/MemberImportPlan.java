@@ -0,0 +1,423 @@
+package com.kin.family.importer;
+
+import com.kin.family.constant.GenderEnum;
+import com.kin.family.constant.RelationTypeEnum;
+import com.kin.family.dto.MemberImportJobVO.RowError;
+import com.kin.family.entity.FamilyMember;
+import com.kin.family.exception.BusinessException;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 成员导入计划
+ * 一次流式读取导入文件完成校验：逐条检查成员字段，记录文件内编号到成员序号的映射，
+ * 读完后解析父母、配偶引用，检查重复父母、性别不符和父母子女成环，并按世代排好关系的写入顺序。
+ * 内存中只保留编号和序号数组，成员字段在写入阶段重新读取文件获得；
+ * 同一文件每次生成的成员顺序和关系顺序一致，已写入的条数可直接作为续传位置
+ *
+ * @author candong
+ */
+public class MemberImportPlan {
+
+    public static final int MAX_NAME_LENGTH = 64;
+    public static final int MAX_REF_LENGTH = 100;
+    private static final int MAX_PLACE_LENGTH = 255;
+
+    private static final Pattern NUMERIC_DATE = Pattern.compile("(\\d{4})[-/.年](\\d{1,2})[-/.月](\\d{1,2})日?");
+    private static final DateTimeFormatter COMPACT_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final byte FATHER = 0;
+    private static final byte MOTHER = 1;
+    private static final byte SPOUSE = 2;
+
+    private final int maxMembers;
+    private final int maxErrors;
+
+    @Getter
+    private final List<RowError> errors = new ArrayList<>();
+    @Getter
+    private int errorCount;
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final List<String> refs = new ArrayList<>();
+    private final List<GenderEnum> genders = new ArrayList<>();
+    private final List<Reference> references = new ArrayList<>();
+
+    private int[] relationFrom = new int[0];
+    private int[] relationTo = new int[0];
+    private byte[] relationKind = new byte[0];
+    private int[] relationGroup = new int[0];
+
+    private MemberImportPlan(int maxMembers, int maxErrors) {
+        this.maxMembers = maxMembers;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * 读取整个文件生成导入计划，文件本身无法解析时抛出异常，数据问题记入 {@link #getErrors()}
+     */
+    public static MemberImportPlan build(MemberImportReader reader, int maxMembers, int maxErrors) throws IOException {
+        MemberImportPlan plan = new MemberImportPlan(maxMembers, maxErrors);
+        MemberImportRow row;
+        while ((row = reader.next()) != null) {
+            plan.accept(row);
+        }
+        plan.resolve();
+        return plan;
+    }
+
+    public int getMemberCount() {
+        return refs.size();
+    }
+
+    public int getRelationCount() {
+        return relationFrom.length;
+    }
+
+    public boolean isValid() {
+        return errorCount == 0;
+    }
+
+    /**
+     * 成员序号对应的文件内编号
+     */
+    public String getRef(int slot) {
+        return refs.get(slot);
+    }
+
+    /**
+     * 编号对应的成员序号，不存在返回 null
+     */
+    public Integer getSlot(String ref) {
+        return slots.get(ref);
+    }
+
+    public int getRelationFrom(int index) {
+        return relationFrom[index];
+    }
+
+    public int getRelationTo(int index) {
+        return relationTo[index];
+    }
+
+    /**
+     * 父母关系统一记为 FATHER_SON、MOTHER_SON，与关系图和祖先索引识别父母的方式一致
+     */
+    public RelationTypeEnum getRelationType(int index) {
+        return switch (relationKind[index]) {
+            case FATHER -> RelationTypeEnum.FATHER_SON;
+            case MOTHER -> RelationTypeEnum.MOTHER_SON;
+            default -> RelationTypeEnum.HUSBAND_WIFE;
+        };
+    }
+
+    /**
+     * 关系所在的写入分组：父母关系按子女所在世代分组，配偶关系在最后一组；
+     * 同一组的父母关系可一次性建立祖先索引
+     */
+    public int getRelationGroup(int index) {
+        return relationGroup[index];
+    }
+
+    public boolean isParentRelation(int index) {
+        return relationKind[index] != SPOUSE;
+    }
+
+    /**
+     * 由已通过校验的成员记录生成成员实体
+     */
+    public static FamilyMember toMember(Long familyId, MemberImportRow row) {
+        return FamilyMember.builder()
+                .familyId(familyId)
+                .name(row.getName())
+                .gender(parseGender(row.getGender()))
+                .birthDate(parseDate(row.getBirthDate()))
+                .birthPlace(row.getBirthPlace())
+                .deathDate(parseDate(row.getDeathDate()))
+                .bio(row.getBio())
+                .isCreator(0)
+                .build();
+    }
+
+    /**
+     * 没有编号的成员按序号自动编号，与写入阶段保持一致
+     */
+    public static String refOf(MemberImportRow row, int slot) {
+        return row.getRef() != null ? row.getRef() : "#" + (slot + 1);
+    }
+
+    public static GenderEnum parseGender(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.trim().toLowerCase()) {
+            case "male", "m", "男" -> GenderEnum.MALE;
+            case "female", "f", "女" -> GenderEnum.FEMALE;
+            default -> null;
+        };
+    }
+
+    /**
+     * 支持 yyyy-M-d、yyyy/M/d、yyyy.M.d、yyyy年M月d日 和 yyyyMMdd，无法解析返回 null
+     */
+    public static LocalDate parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        String v = value.trim();
+        try {
+            Matcher m = NUMERIC_DATE.matcher(v);
+            if (m.matches()) {
+                return LocalDate.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)), Integer.parseInt(m.group(3)));
+            }
+            if (v.length() == 8) {
+                return LocalDate.parse(v, COMPACT_DATE);
+            }
+        } catch (DateTimeException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private void accept(MemberImportRow row) {
+        if (row.isLinkOnly()) {
+            addReferences(row.getLine(), row.getRef(), row);
+            return;
+        }
+        int slot = refs.size();
+        if (slot >= maxMembers) {
+            throw new BusinessException("单次导入成员不能超过 " + maxMembers + " 人");
+        }
+        String ref = refOf(row, slot);
+        validate(row, ref);
+        if (slots.putIfAbsent(ref, slot) != null) {
+            error(row.getLine(), "编号 " + ref + " 重复");
+        }
+        refs.add(ref);
+        genders.add(parseGender(row.getGender()));
+        addReferences(row.getLine(), ref, row);
+    }
+
+    private void validate(MemberImportRow row, String ref) {
+        int line = row.getLine();
+        if (ref.length() > MAX_REF_LENGTH) {
+            error(line, "编号长度不能超过 " + MAX_REF_LENGTH);
+        }
+        if (row.getName() == null) {
+            error(line, "姓名不能为空");
+        } else if (row.getName().length() > MAX_NAME_LENGTH) {
+            error(line, "姓名长度不能超过 " + MAX_NAME_LENGTH);
+        }
+        if (row.getGender() == null) {
+            error(line, "性别不能为空");
+        } else if (parseGender(row.getGender()) == null) {
+            error(line, "无法识别的性别：" + row.getGender());
+        }
+        LocalDate birth = checkDate(line, "出生日期", row.getBirthDate());
+        LocalDate death = checkDate(line, "去世日期", row.getDeathDate());
+        if (birth != null && death != null && death.isBefore(birth)) {
+            error(line, "去世日期早于出生日期");
+        }
+        if (row.getBirthPlace() != null && row.getBirthPlace().length() > MAX_PLACE_LENGTH) {
+            error(line, "出生地长度不能超过 " + MAX_PLACE_LENGTH);
+        }
+    }
+
+    private LocalDate checkDate(int line, String label, String value) {
+        if (value == null) {
+            return null;
+        }
+        LocalDate date = parseDate(value);
+        if (date == null) {
+            error(line, "无法识别的" + label + "：" + value);
+        }
+        return date;
+    }
+
+    private void addReferences(int line, String subject, MemberImportRow row) {
+        if (row.getFatherRef() != null) {
+            references.add(new Reference(line, subject, FATHER, row.getFatherRef()));
+        }
+        if (row.getMotherRef() != null) {
+            references.add(new Reference(line, subject, MOTHER, row.getMotherRef()));
+        }
+        for (String spouse : row.getSpouseRefs()) {
+            references.add(new Reference(line, subject, SPOUSE, spouse));
+        }
+    }
+
+    /**
+     * 解析引用，计算世代并生成关系写入顺序
+     */
+    private void resolve() {
+        int size = refs.size();
+        int[] father = new int[size];
+        int[] mother = new int[size];
+        Arrays.fill(father, -1);
+        Arrays.fill(mother, -1);
+        Set<Long> spouses = new LinkedHashSet<>();
+
+        for (Reference reference : references) {
+            Integer subject = slots.get(reference.subject);
+            Integer target = slots.get(reference.target);
+            if (subject == null || target == null) {
+                error(reference.line, "引用了不存在的成员编号：" + (subject == null ? reference.subject : reference.target));
+                continue;
+            }
+            if (subject.equals(target)) {
+                error(reference.line, "成员 " + reference.subject + " 不能引用自己");
+                continue;
+            }
+            switch (reference.kind) {
+                case FATHER -> linkParent(reference, father, subject, target, GenderEnum.MALE, "父亲");
+                case MOTHER -> linkParent(reference, mother, subject, target, GenderEnum.FEMALE, "母亲");
+                default -> spouses.add(((long) Math.min(subject, target) << 32) | Math.max(subject, target));
+            }
+        }
+        references.clear();
+
+        int[] level = levels(father, mother);
+        if (level == null) {
+            return;
+        }
+
+        int maxLevel = 0;
+        for (int l : level) {
+            maxLevel = Math.max(maxLevel, l);
+        }
+        int[] levelCounts = new int[maxLevel + 2];
+        int parentRelations = 0;
+        for (int i = 0; i < size; i++) {
+            int edges = (father[i] >= 0 ? 1 : 0) + (mother[i] >= 0 ? 1 : 0);
+            levelCounts[level[i] + 1] += edges;
+            parentRelations += edges;
+        }
+        for (int l = 1; l < levelCounts.length; l++) {
+            levelCounts[l] += levelCounts[l - 1];
+        }
+
+        int total = parentRelations + spouses.size();
+        relationFrom = new int[total];
+        relationTo = new int[total];
+        relationKind = new byte[total];
+        relationGroup = new int[total];
+        for (int i = 0; i < size; i++) {
+            if (father[i] >= 0) {
+                putRelation(levelCounts[level[i]]++, father[i], i, FATHER, level[i]);
+            }
+            if (mother[i] >= 0) {
+                putRelation(levelCounts[level[i]]++, mother[i], i, MOTHER, level[i]);
+            }
+        }
+        int index = parentRelations;
+        for (long pair : spouses) {
+            int a = (int) (pair >>> 32);
+            int b = (int) pair;
+            boolean aIsHusband = genders.get(a) == GenderEnum.MALE || genders.get(b) != GenderEnum.MALE;
+            putRelation(index++, aIsHusband ? a : b, aIsHusband ? b : a, SPOUSE, maxLevel + 1);
+        }
+    }
+
+    private void linkParent(Reference reference, int[] parents, int child, int parent, GenderEnum gender, String label) {
+        if (genders.get(parent) != null && genders.get(parent) != gender) {
+            error(reference.line, label + " " + reference.target + " 的性别不符");
+        } else if (parents[child] >= 0 && parents[child] != parent) {
+            error(reference.line, "成员 " + reference.subject + " 有多位" + label);
+        } else {
+            parents[child] = parent;
+        }
+    }
+
+    /**
+     * 按拓扑顺序计算世代层级：没有父母的成员为 0 层，其余为父母最大层级加一；成环时记错误并返回 null
+     */
+    private int[] levels(int[] father, int[] mother) {
+        int size = father.length;
+        int[] pendingParents = new int[size];
+        int[] childOffsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            if (father[i] >= 0) {
+                pendingParents[i]++;
+                childOffsets[father[i] + 1]++;
+            }
+            if (mother[i] >= 0) {
+                pendingParents[i]++;
+                childOffsets[mother[i] + 1]++;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            childOffsets[i + 1] += childOffsets[i];
+        }
+        int[] children = new int[childOffsets[size]];
+        int[] fill = Arrays.copyOf(childOffsets, size);
+        for (int i = 0; i < size; i++) {
+            if (father[i] >= 0) {
+                children[fill[father[i]]++] = i;
+            }
+            if (mother[i] >= 0) {
+                children[fill[mother[i]]++] = i;
+            }
+        }
+
+        int[] level = new int[size];
+        int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < size; i++) {
+            if (pendingParents[i] == 0) {
+                queue[tail++] = i;
+            }
+        }
+        while (head < tail) {
+            int parent = queue[head++];
+            for (int c = childOffsets[parent]; c < childOffsets[parent + 1]; c++) {
+                int child = children[c];
+                level[child] = Math.max(level[child], level[parent] + 1);
+                if (--pendingParents[child] == 0) {
+                    queue[tail++] = child;
+                }
+            }
+        }
+        if (tail < size) {
+            List<String> cycle = new ArrayList<>();
+            for (int i = 0; i < size && cycle.size() < 5; i++) {
+                if (pendingParents[i] > 0) {
+                    cycle.add(refs.get(i));
+                }
+            }
+            error(0, "父母子女关系成环，涉及 " + (size - tail) + " 名成员，如：" + String.join("、", cycle));
+            return null;
+        }
+        return level;
+    }
+
+    private void putRelation(int index, int from, int to, byte kind, int group) {
+        relationFrom[index] = from;
+        relationTo[index] = to;
+        relationKind[index] = kind;
+        relationGroup[index] = group;
+    }
+
+    private void error(int line, String message) {
+        errorCount++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    private record Reference(int line, String subject, byte kind, String target) {
+    }
+}
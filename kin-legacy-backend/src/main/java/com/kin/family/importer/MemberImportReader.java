@@ -0,0 +1,28 @@
+package com.kin.family.importer;
+
+import com.kin.family.constant.ImportFormatEnum;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 导入文件流式读取器，逐条读出记录，不把整个文件载入内存
+ *
+ * @author candong
+ */
+public interface MemberImportReader extends Closeable {
+
+    /**
+     * 读取下一条记录，读完返回 null；文件格式错误时抛出 {@link com.kin.family.exception.BusinessException}
+     */
+    MemberImportRow next() throws IOException;
+
+    static MemberImportReader open(ImportFormatEnum format, Path file) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvMemberReader(file);
+            case XLSX -> new XlsxMemberReader(file);
+            case GEDCOM -> new GedcomMemberReader(file);
+        };
+    }
+}
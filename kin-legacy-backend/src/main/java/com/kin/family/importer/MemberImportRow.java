@@ -0,0 +1,52 @@
+package com.kin.family.importer;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 导入文件中的一条记录
+ * 成员记录携带成员字段及其父母、配偶的文件内编号；仅关联记录（如 GEDCOM 的 FAM 记录）只补充编号为 ref 的成员的引用
+ *
+ * @author candong
+ */
+@Data
+public class MemberImportRow {
+
+    /**
+     * 在文件中的行号或记录号，用于定位错误
+     */
+    private int line;
+
+    /**
+     * 是否仅为关联记录
+     */
+    private boolean linkOnly;
+
+    /**
+     * 文件内编号，为空时按成员顺序自动编号
+     */
+    private String ref;
+
+    private String name;
+
+    private String gender;
+
+    /**
+     * 日期统一为 yyyy-MM-dd 等可解析文本，见 {@link MemberImportPlan#parseDate}
+     */
+    private String birthDate;
+
+    private String birthPlace;
+
+    private String deathDate;
+
+    private String bio;
+
+    private String fatherRef;
+
+    private String motherRef;
+
+    private List<String> spouseRefs = new ArrayList<>();
+}
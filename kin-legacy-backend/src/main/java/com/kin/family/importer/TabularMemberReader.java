@@ -0,0 +1,116 @@
+package com.kin.family.importer;
+
+import com.kin.family.exception.BusinessException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 表格类导入文件（CSV、Excel）读取器基类
+ * 第一条非空记录为表头，按列名（中英文均可）定位字段；父母、配偶列填写对方的编号，多个配偶用分号分隔
+ *
+ * @author candong
+ */
+public abstract class TabularMemberReader implements MemberImportReader {
+
+    private static final Map<String, String> COLUMN_ALIASES = new HashMap<>();
+
+    static {
+        alias("ref", "编号", "id", "ref");
+        alias("name", "姓名", "name");
+        alias("gender", "性别", "gender", "sex");
+        alias("birthDate", "出生日期", "生日", "birthdate", "birth_date", "birth date");
+        alias("birthPlace", "出生地", "birthplace", "birth_place", "birth place");
+        alias("deathDate", "去世日期", "deathdate", "death_date", "death date");
+        alias("bio", "简介", "bio");
+        alias("father", "父亲编号", "父亲", "father", "father_ref", "father_id");
+        alias("mother", "母亲编号", "母亲", "mother", "mother_ref", "mother_id");
+        alias("spouse", "配偶编号", "配偶", "spouse", "spouse_ref", "spouse_id");
+    }
+
+    private Map<String, Integer> columns;
+
+    private static void alias(String field, String... names) {
+        for (String name : names) {
+            COLUMN_ALIASES.put(name, field);
+        }
+    }
+
+    /**
+     * 读取下一条原始记录，读完返回 null
+     */
+    protected abstract String[] nextRecord() throws IOException;
+
+    /**
+     * 最近一条原始记录在文件中的行号
+     */
+    protected abstract int recordLine();
+
+    @Override
+    public MemberImportRow next() throws IOException {
+        String[] record;
+        while ((record = nextRecord()) != null && isBlank(record)) {
+            // 跳过空行
+        }
+        if (record == null) {
+            return null;
+        }
+        if (columns == null) {
+            columns = parseHeader(record);
+            return next();
+        }
+
+        MemberImportRow row = new MemberImportRow();
+        row.setLine(recordLine());
+        row.setRef(cell(record, "ref"));
+        row.setName(cell(record, "name"));
+        row.setGender(cell(record, "gender"));
+        row.setBirthDate(cell(record, "birthDate"));
+        row.setBirthPlace(cell(record, "birthPlace"));
+        row.setDeathDate(cell(record, "deathDate"));
+        row.setBio(cell(record, "bio"));
+        row.setFatherRef(cell(record, "father"));
+        row.setMotherRef(cell(record, "mother"));
+        String spouse = cell(record, "spouse");
+        if (spouse != null) {
+            for (String ref : spouse.split("[;；|]")) {
+                if (!ref.isBlank()) {
+                    row.getSpouseRefs().add(ref.trim());
+                }
+            }
+        }
+        return row;
+    }
+
+    private Map<String, Integer> parseHeader(String[] header) {
+        Map<String, Integer> result = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            if (header[i] == null) {
+                continue;
+            }
+            String field = COLUMN_ALIASES.get(header[i].trim().toLowerCase());
+            if (field != null) {
+                result.putIfAbsent(field, i);
+            }
+        }
+        if (!result.containsKey("name")) {
+            throw new BusinessException("第" + recordLine() + "行表头缺少姓名列（姓名/name）");
+        }
+        return result;
+    }
+
+    private String cell(String[] record, String field) {
+        Integer index = columns.get(field);
+        if (index == null || index >= record.length || record[index] == null) {
+            return null;
+        }
+        String value = record[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static boolean isBlank(String[] record) {
+        return Arrays.stream(record).allMatch(v -> v == null || v.isBlank());
+    }
+}
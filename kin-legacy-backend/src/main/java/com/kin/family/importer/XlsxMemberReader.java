@@ -0,0 +1,306 @@
+package com.kin.family.importer;
+
+import com.kin.family.exception.BusinessException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Excel（xlsx）导入文件读取器，读取第一个工作表
+ * 直接用 StAX 流式解析工作表 XML，只把共享字符串表和单元格样式载入内存；
+ * 日期格式的数字单元格按 Excel 序列日期转换为 yyyy-MM-dd
+ *
+ * @author candong
+ */
+public class XlsxMemberReader extends TabularMemberReader {
+
+    private static final XMLInputFactory XML_FACTORY = XMLInputFactory.newFactory();
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+
+    static {
+        XML_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final ZipFile zip;
+    private final List<String> sharedStrings;
+    private final BitSet dateStyles;
+    private final InputStream sheetStream;
+    private final XMLStreamReader sheet;
+    private int recordLine;
+
+    public XlsxMemberReader(Path file) throws IOException {
+        try {
+            this.zip = new ZipFile(file.toFile());
+        } catch (IOException e) {
+            throw new BusinessException("无法读取 Excel 文件，请确认为 xlsx 格式");
+        }
+        try {
+            this.sharedStrings = readSharedStrings();
+            this.dateStyles = readDateStyles();
+            ZipEntry entry = zip.getEntry(firstSheetPath());
+            if (entry == null) {
+                throw new BusinessException("Excel 文件中没有工作表");
+            }
+            this.sheetStream = zip.getInputStream(entry);
+            this.sheet = XML_FACTORY.createXMLStreamReader(sheetStream);
+        } catch (XMLStreamException e) {
+            zip.close();
+            throw new BusinessException("Excel 文件内容损坏");
+        } catch (IOException | RuntimeException e) {
+            zip.close();
+            throw e;
+        }
+    }
+
+    @Override
+    protected String[] nextRecord() throws IOException {
+        try {
+            while (sheet.hasNext()) {
+                if (sheet.next() == XMLStreamConstants.START_ELEMENT && "row".equals(sheet.getLocalName())) {
+                    return readRow();
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new BusinessException("Excel 文件内容损坏：" + e.getMessage());
+        }
+    }
+
+    private String[] readRow() throws XMLStreamException {
+        String r = sheet.getAttributeValue(null, "r");
+        recordLine = r != null ? Integer.parseInt(r) : recordLine + 1;
+        List<String> values = new ArrayList<>();
+        int nextColumn = 0;
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "row".equals(sheet.getLocalName())) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT || !"c".equals(sheet.getLocalName())) {
+                continue;
+            }
+            String cellRef = sheet.getAttributeValue(null, "r");
+            int column = cellRef != null ? columnIndex(cellRef) : nextColumn;
+            String type = sheet.getAttributeValue(null, "t");
+            String style = sheet.getAttributeValue(null, "s");
+            String value = readCell(type, style != null ? Integer.parseInt(style) : 0);
+            while (values.size() < column) {
+                values.add(null);
+            }
+            values.add(value);
+            nextColumn = column + 1;
+        }
+        return values.toArray(new String[0]);
+    }
+
+    /**
+     * 读取单元格内容，读完后停在单元格结束标签
+     */
+    private String readCell(String type, int style) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        boolean inValue = false;
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = sheet.getLocalName();
+                inValue = "v".equals(name) || "t".equals(name);
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                if (inValue) {
+                    text.append(sheet.getText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if ("c".equals(sheet.getLocalName())) {
+                    break;
+                }
+                inValue = false;
+            }
+        }
+        if (text.isEmpty()) {
+            return null;
+        }
+        String raw = text.toString();
+        if (type == null || "n".equals(type)) {
+            return numericValue(raw, style);
+        }
+        return switch (type) {
+            case "s" -> sharedStrings.get(Integer.parseInt(raw.trim()));
+            case "b" -> "1".equals(raw) ? "TRUE" : "FALSE";
+            default -> raw;
+        };
+    }
+
+    private String numericValue(String raw, int style) {
+        BigDecimal number = new BigDecimal(raw.trim());
+        if (dateStyles.get(style)) {
+            return EXCEL_EPOCH.plusDays(number.longValue()).toString();
+        }
+        return number.stripTrailingZeros().toPlainString();
+    }
+
+    private static int columnIndex(String cellRef) {
+        int column = 0;
+        for (int i = 0; i < cellRef.length() && Character.isLetter(cellRef.charAt(i)); i++) {
+            column = column * 26 + (Character.toUpperCase(cellRef.charAt(i)) - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    private List<String> readSharedStrings() throws IOException, XMLStreamException {
+        List<String> strings = new ArrayList<>();
+        ZipEntry entry = zip.getEntry("xl/sharedStrings.xml");
+        if (entry == null) {
+            return strings;
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader xml = XML_FACTORY.createXMLStreamReader(in);
+            StringBuilder text = new StringBuilder();
+            boolean inText = false;
+            int phonetic = 0;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "si" -> text.setLength(0);
+                        case "rPh" -> phonetic++;
+                        case "t" -> inText = phonetic == 0;
+                        default -> { }
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                    if (inText) {
+                        text.append(xml.getText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "si" -> strings.add(text.toString());
+                        case "rPh" -> phonetic--;
+                        case "t" -> inText = false;
+                        default -> { }
+                    }
+                }
+            }
+            xml.close();
+        }
+        return strings;
+    }
+
+    /**
+     * 标记使用日期数字格式的单元格样式下标
+     */
+    private BitSet readDateStyles() throws IOException, XMLStreamException {
+        BitSet result = new BitSet();
+        ZipEntry entry = zip.getEntry("xl/styles.xml");
+        if (entry == null) {
+            return result;
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader xml = XML_FACTORY.createXMLStreamReader(in);
+            Map<Integer, String> customFormats = new HashMap<>();
+            boolean inCellXfs = false;
+            int xfIndex = 0;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "numFmt" -> customFormats.put(
+                                Integer.parseInt(xml.getAttributeValue(null, "numFmtId")),
+                                xml.getAttributeValue(null, "formatCode"));
+                        case "cellXfs" -> inCellXfs = true;
+                        case "xf" -> {
+                            if (inCellXfs) {
+                                String id = xml.getAttributeValue(null, "numFmtId");
+                                if (id != null && isDateFormat(Integer.parseInt(id), customFormats)) {
+                                    result.set(xfIndex);
+                                }
+                                xfIndex++;
+                            }
+                        }
+                        default -> { }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "cellXfs".equals(xml.getLocalName())) {
+                    break;
+                }
+            }
+            xml.close();
+        }
+        return result;
+    }
+
+    private static boolean isDateFormat(int numFmtId, Map<Integer, String> customFormats) {
+        if ((numFmtId >= 14 && numFmtId <= 17) || (numFmtId >= 27 && numFmtId <= 31)
+                || (numFmtId >= 34 && numFmtId <= 36) || (numFmtId >= 50 && numFmtId <= 58)) {
+            return true;
+        }
+        String code = customFormats.get(numFmtId);
+        if (code == null) {
+            return false;
+        }
+        String stripped = code.replaceAll("\"[^\"]*\"|\\[[^]]*]", "").toLowerCase();
+        return stripped.contains("y") || stripped.contains("d");
+    }
+
+    private String firstSheetPath() throws IOException, XMLStreamException {
+        String relationId = null;
+        ZipEntry workbook = zip.getEntry("xl/workbook.xml");
+        if (workbook != null) {
+            try (InputStream in = zip.getInputStream(workbook)) {
+                XMLStreamReader xml = XML_FACTORY.createXMLStreamReader(in);
+                while (xml.hasNext() && relationId == null) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT && "sheet".equals(xml.getLocalName())) {
+                        for (int i = 0; i < xml.getAttributeCount(); i++) {
+                            if ("id".equals(xml.getAttributeLocalName(i))) {
+                                relationId = xml.getAttributeValue(i);
+                            }
+                        }
+                    }
+                }
+                xml.close();
+            }
+        }
+        ZipEntry rels = zip.getEntry("xl/_rels/workbook.xml.rels");
+        if (relationId != null && rels != null) {
+            try (InputStream in = zip.getInputStream(rels)) {
+                XMLStreamReader xml = XML_FACTORY.createXMLStreamReader(in);
+                while (xml.hasNext()) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT && "Relationship".equals(xml.getLocalName())
+                            && relationId.equals(xml.getAttributeValue(null, "Id"))) {
+                        String target = xml.getAttributeValue(null, "Target");
+                        return target.startsWith("/") ? target.substring(1) : "xl/" + target;
+                    }
+                }
+                xml.close();
+            }
+        }
+        return "xl/worksheets/sheet1.xml";
+    }
+
+    @Override
+    protected int recordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sheet.close();
+        } catch (XMLStreamException ignored) {
+            // 关闭底层流即可
+        }
+        sheetStream.close();
+        zip.close();
+    }
+}
@@ -0,0 +1,66 @@
+package com.kin.family.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.kin.family.dto.PendingBadgeVO;
+import com.kin.family.entity.ApprovalInbox;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 审批收件箱Mapper
+ *
+ * @author candong
+ */
+@Mapper
+public interface ApprovalInboxMapper extends BaseMapper<ApprovalInbox> {
+
+    String SYNC_JOIN = "INSERT INTO approval_inbox (request_type, request_id, family_id, applicant_user_id, applicant_name, " +
+            "relation_desc, join_type, changes_json, status, reviewer_id, create_time, reviewed_at) " +
+            "SELECT 'join', id, family_id, applicant_user_id, applicant_name, relation_desc, join_type, " +
+            "changes_json, LOWER(status), reviewer_id, create_time, reviewed_at FROM join_request ";
+
+    String SYNC_JOIN_UPDATE = " ON DUPLICATE KEY UPDATE family_id = VALUES(family_id), applicant_name = VALUES(applicant_name), " +
+            "relation_desc = VALUES(relation_desc), join_type = VALUES(join_type), changes_json = VALUES(changes_json), " +
+            "status = VALUES(status), reviewer_id = VALUES(reviewer_id), reviewed_at = VALUES(reviewed_at)";
+
+    String SYNC_EDIT = "INSERT INTO approval_inbox (request_type, request_id, family_id, applicant_user_id, member_id, " +
+            "member_name, changes_json, status, reject_reason, reviewer_id, create_time, reviewed_at) " +
+            "SELECT 'edit', id, family_id, applicant_user_id, member_id, member_name, changes_json, " +
+            "LOWER(status), reject_reason, reviewer_id, create_time, reviewed_at FROM edit_request ";
+
+    String SYNC_EDIT_UPDATE = " ON DUPLICATE KEY UPDATE family_id = VALUES(family_id), member_id = VALUES(member_id), " +
+            "member_name = VALUES(member_name), changes_json = VALUES(changes_json), status = VALUES(status), " +
+            "reject_reason = VALUES(reject_reason), reviewer_id = VALUES(reviewer_id), reviewed_at = VALUES(reviewed_at)";
+
+    String IN_REQUEST_IDS = "WHERE id IN " +
+            "<foreach collection='requestIds' item='requestId' open='(' separator=',' close=')'>#{requestId}</foreach>";
+
+    /**
+     * 按加入申请当前内容写入或刷新收件箱记录
+     */
+    @Insert(SYNC_JOIN + "WHERE id = #{requestId}" + SYNC_JOIN_UPDATE)
+    int syncJoinRequest(@Param("requestId") Long requestId);
+
+    @Insert("<script>" + SYNC_JOIN + IN_REQUEST_IDS + SYNC_JOIN_UPDATE + "</script>")
+    int syncJoinRequests(@Param("requestIds") List<Long> requestIds);
+
+    /**
+     * 按编辑申请当前内容写入或刷新收件箱记录
+     */
+    @Insert(SYNC_EDIT + "WHERE id = #{requestId}" + SYNC_EDIT_UPDATE)
+    int syncEditRequest(@Param("requestId") Long requestId);
+
+    @Insert("<script>" + SYNC_EDIT + IN_REQUEST_IDS + SYNC_EDIT_UPDATE + "</script>")
+    int syncEditRequests(@Param("requestIds") List<Long> requestIds);
+
+    /**
+     * 按家谱统计待审批数，用于校准待审批计数
+     */
+    @Select("SELECT family_id, SUM(request_type = 'join') AS join_count, SUM(request_type = 'edit') AS edit_count " +
+            "FROM approval_inbox WHERE status = 'pending' GROUP BY family_id")
+    List<PendingBadgeVO.FamilyPending> selectPendingCounts();
+}
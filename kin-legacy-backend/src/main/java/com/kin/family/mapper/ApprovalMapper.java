@@ -3,6 +3,7 @@ package com.kin.family.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.kin.family.dto.ApprovalDetailDTO;
+import com.kin.family.util.CursorUtil;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -17,4 +18,11 @@ import java.util.List;
 public interface ApprovalMapper extends BaseMapper<ApprovalDetailDTO> {
     List<ApprovalDetailDTO> getApprovalsByFamilyId(Page<ApprovalDetailDTO> page, @Param("familyId") Long familyId, @Param("type") String type, @Param("status") String status);
     List<ApprovalDetailDTO> getAllApprovals(Page<ApprovalDetailDTO> page, @Param("type") String type, @Param("status") String status);
+
+    /**
+     * 按 (create_time, inboxId) 倒序取游标之后的 limit 条，familyId 为空时不限家谱
+     */
+    List<ApprovalDetailDTO> getApprovalsSeek(@Param("familyId") Long familyId, @Param("type") String type,
+                                             @Param("status") String status, @Param("cursor") CursorUtil.Cursor cursor,
+                                             @Param("limit") int limit);
 }
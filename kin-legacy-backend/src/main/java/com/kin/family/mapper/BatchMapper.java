@@ -0,0 +1,41 @@
+package com.kin.family.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 支持多行 INSERT 的 Mapper，由 {@link com.kin.family.config.mybatis.BatchSqlInjector} 注入
+ *
+ * @author candong
+ */
+public interface BatchMapper<T> extends BaseMapper<T> {
+
+    /**
+     * 单条语句的行数上限，避免语句超过 max_allowed_packet
+     */
+    int BATCH_SIZE = 1000;
+
+    /**
+     * 一条 INSERT 写入整批实体，null 字段取列默认值，自增主键回填到实体；列表不能为空
+     *
+     * @param list 实体列表
+     * @return 插入行数
+     */
+    int insertBatch(@Param("list") List<T> list);
+
+    /**
+     * 按 {@link #BATCH_SIZE} 分段执行 {@link #insertBatch}，空列表直接返回
+     *
+     * @param list 实体列表
+     * @return 插入行数
+     */
+    default int saveBatch(List<T> list) {
+        int rows = 0;
+        for (int from = 0; from < list.size(); from += BATCH_SIZE) {
+            rows += insertBatch(list.subList(from, Math.min(list.size(), from + BATCH_SIZE)));
+        }
+        return rows;
+    }
+}
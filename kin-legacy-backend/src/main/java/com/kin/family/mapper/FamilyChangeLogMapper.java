@@ -0,0 +1,34 @@
+package com.kin.family.mapper;
+
+import com.kin.family.entity.FamilyChangeLog;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 家谱变更日志Mapper
+ *
+ * @author candong
+ */
+@Mapper
+public interface FamilyChangeLogMapper extends BatchMapper<FamilyChangeLog> {
+
+    @Select("SELECT * FROM family_change_log WHERE family_id = #{familyId} " +
+            "AND version > #{since} AND version <= #{until} ORDER BY version, id")
+    List<FamilyChangeLog> selectBetween(@Param("familyId") Long familyId,
+                                        @Param("since") Long since,
+                                        @Param("until") Long until);
+
+    /**
+     * 家谱仍保留的最早版本，没有日志时返回 null
+     */
+    @Select("SELECT MIN(version) FROM family_change_log WHERE family_id = #{familyId}")
+    Long selectMinVersion(@Param("familyId") Long familyId);
+
+    @Delete("DELETE FROM family_change_log WHERE create_time < #{before} LIMIT #{limit}")
+    int deleteBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
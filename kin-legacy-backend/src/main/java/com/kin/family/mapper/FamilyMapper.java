@@ -3,6 +3,11 @@ package com.kin.family.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.kin.family.entity.Family;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 /**
  * 家谱Mapper
@@ -11,4 +16,30 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface FamilyMapper extends BaseMapper<Family> {
+
+    @Update("UPDATE family SET data_version = data_version + 1 WHERE id = #{familyId}")
+    int incrementDataVersion(@Param("familyId") Long familyId);
+
+    @Select("SELECT data_version FROM family WHERE id = #{familyId}")
+    Long selectDataVersion(@Param("familyId") Long familyId);
+
+    @Update("UPDATE family SET member_count = member_count + #{delta} WHERE id = #{familyId}")
+    int addMemberCount(@Param("familyId") Long familyId, @Param("delta") int delta);
+
+    /**
+     * 成员数与实际不符的家谱ID，一致性读，不加锁
+     */
+    @Select("SELECT f.id FROM family f " +
+            "LEFT JOIN (SELECT family_id, COUNT(*) AS cnt FROM family_member GROUP BY family_id) m ON m.family_id = f.id " +
+            "WHERE f.member_count <> IFNULL(m.cnt, 0)")
+    List<Long> selectMemberCountDrift();
+
+    /**
+     * 按实际成员数改写，只用于 {@link #selectMemberCountDrift} 找出的家谱
+     */
+    @Update("<script>" +
+            "UPDATE family f SET f.member_count = (SELECT COUNT(*) FROM family_member m WHERE m.family_id = f.id) " +
+            "WHERE f.id IN <foreach collection='familyIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int recountMembers(@Param("familyIds") List<Long> familyIds);
 }
@@ -1,13 +1,22 @@
 package com.kin.family.mapper;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.kin.family.dto.GedcomFamilyDTO;
+import com.kin.family.dto.GedcomIndividualDTO;
 import com.kin.family.dto.MemberQueryRequest;
 import com.kin.family.dto.MemberVO;
 import com.kin.family.entity.FamilyMember;
+import com.kin.family.util.CursorUtil;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+
+import java.util.List;
 
 /**
  * 家族成员Mapper
@@ -15,6 +24,51 @@ import org.apache.ibatis.annotations.Param;
  * @author candong
  */
 @Mapper
-public interface FamilyMemberMapper extends BaseMapper<FamilyMember> {
-    IPage<MemberVO> selectMemberPage(Page<?> page, @Param("query") MemberQueryRequest query);
+public interface FamilyMemberMapper extends BatchMapper<FamilyMember> {
+    /**
+     * memberIds 不为空时按成员ID筛选（来自搜索索引），否则按姓名模糊匹配
+     */
+    IPage<MemberVO> selectMemberPage(Page<?> page, @Param("query") MemberQueryRequest query,
+                                     @Param("memberIds") List<Long> memberIds);
+
+    /**
+     * 与 {@link #selectMemberPage} 条件相同，按 (create_time, id) 倒序取游标之后的 limit 条
+     */
+    List<MemberVO> selectMemberSeek(@Param("query") MemberQueryRequest query,
+                                    @Param("memberIds") List<Long> memberIds,
+                                    @Param("cursor") CursorUtil.Cursor cursor,
+                                    @Param("limit") int limit);
+
+    Long countMembers(@Param("query") MemberQueryRequest query, @Param("memberIds") List<Long> memberIds);
+
+    List<FamilyMember> selectAncestors(@Param("memberId") Long memberId, @Param("maxDepth") Integer maxDepth);
+
+    List<FamilyMember> selectDescendants(@Param("memberId") Long memberId, @Param("maxDepth") Integer maxDepth);
+
+    int updateSubtreeGenerations(@Param("rootId") Long rootId);
+
+    int updateGenerations(@Param("memberIds") List<Long> memberIds);
+
+    /**
+     * 用户改名后同步其在各家谱中的成员姓名，一条语句完成
+     */
+    @Update("UPDATE family_member SET name = #{name}, update_time = NOW() WHERE user_id = #{userId}")
+    int updateNameByUser(@Param("userId") Long userId, @Param("name") String name);
+
+    /**
+     * 按ID顺序流式读取家谱全部成员，需在事务内读完并关闭；读取期间同一连接不能执行其他语句
+     */
+    @Select("SELECT * FROM family_member WHERE family_id = #{familyId} ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<FamilyMember> selectCursorByFamily(@Param("familyId") Long familyId);
+
+    /**
+     * 按ID顺序流式读取 GEDCOM 个人记录，用法同 {@link #selectCursorByFamily}
+     */
+    Cursor<GedcomIndividualDTO> selectGedcomIndividuals(@Param("familyId") Long familyId);
+
+    /**
+     * 按 (父亲, 母亲) 顺序流式读取 GEDCOM 家庭成员行，用法同 {@link #selectCursorByFamily}
+     */
+    Cursor<GedcomFamilyDTO> selectGedcomFamilies(@Param("familyId") Long familyId);
 }
@@ -1,6 +1,5 @@
 package com.kin.family.mapper;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.kin.family.entity.LoginLog;
 import org.apache.ibatis.annotations.Mapper;
 
@@ -10,5 +9,5 @@ import org.apache.ibatis.annotations.Mapper;
  * @author candong
  */
 @Mapper
-public interface LoginLogMapper extends BaseMapper<LoginLog> {
+public interface LoginLogMapper extends BatchMapper<LoginLog> {
 }
@@ -0,0 +1,97 @@
+package com.kin.family.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.kin.family.entity.MemberClosure;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 成员祖先闭包Mapper
+ *
+ * @author candong
+ */
+@Mapper
+public interface MemberClosureMapper extends BaseMapper<MemberClosure> {
+
+    @Insert("INSERT IGNORE INTO member_closure (family_id, ancestor_id, descendant_id, depth) " +
+            "VALUES (#{familyId}, #{memberId}, #{memberId}, 0)")
+    int insertSelf(@Param("familyId") Long familyId, @Param("memberId") Long memberId);
+
+    @Insert("<script>" +
+            "INSERT IGNORE INTO member_closure (family_id, ancestor_id, descendant_id, depth) VALUES " +
+            "<foreach collection='memberIds' item='memberId' separator=','>" +
+            "(#{familyId}, #{memberId}, #{memberId}, 0)" +
+            "</foreach>" +
+            "</script>")
+    int insertSelfBatch(@Param("familyId") Long familyId, @Param("memberIds") List<Long> memberIds);
+
+    /**
+     * 父成员的所有祖先 × 子成员的所有后代，建立祖先-后代对
+     */
+    @Insert("INSERT INTO member_closure (family_id, ancestor_id, descendant_id, depth) " +
+            "SELECT #{familyId}, a.ancestor_id, d.descendant_id, a.depth + d.depth + 1 " +
+            "FROM member_closure a JOIN member_closure d " +
+            "WHERE a.descendant_id = #{parentId} AND d.ancestor_id = #{childId} " +
+            "ON DUPLICATE KEY UPDATE depth = LEAST(depth, VALUES(depth))")
+    int insertLinks(@Param("familyId") Long familyId, @Param("parentId") Long parentId, @Param("childId") Long childId);
+
+    /**
+     * 批量为一组父子/母子关系建立祖先-后代对，只处理子成员一侧：要求子成员尚无后代，
+     * 且同一批内的父成员不是本批的子成员（按世代逐层调用），同一语句内新插入的行对本语句不可见
+     */
+    @Insert("<script>" +
+            "INSERT INTO member_closure (family_id, ancestor_id, descendant_id, depth) " +
+            "SELECT r.family_id, a.ancestor_id, r.to_member_id, MIN(a.depth + 1) " +
+            "FROM member_relation r JOIN member_closure a ON a.descendant_id = r.from_member_id " +
+            "WHERE r.id IN <foreach collection='relationIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "GROUP BY r.family_id, a.ancestor_id, r.to_member_id " +
+            "ON DUPLICATE KEY UPDATE depth = LEAST(depth, VALUES(depth))" +
+            "</script>")
+    int insertChildLinksBatch(@Param("relationIds") List<Long> relationIds);
+
+    /**
+     * 删除经由父成员到子成员可能形成的祖先-后代对，随后需调用 {@link #relinkDescendants} 恢复仍然连通的部分
+     */
+    @Delete("DELETE mc FROM member_closure mc " +
+            "JOIN member_closure a ON a.ancestor_id = mc.ancestor_id AND a.descendant_id = #{parentId} " +
+            "JOIN member_closure d ON d.descendant_id = mc.descendant_id AND d.ancestor_id = #{childId}")
+    int deleteLinks(@Param("parentId") Long parentId, @Param("childId") Long childId);
+
+    /**
+     * 删除成员的祖先与其后代之间的祖先-后代对，成员自身的行保留
+     */
+    @Delete("DELETE mc FROM member_closure mc " +
+            "JOIN member_closure a ON a.ancestor_id = mc.ancestor_id AND a.descendant_id = #{memberId} AND a.depth > 0 " +
+            "JOIN member_closure d ON d.descendant_id = mc.descendant_id AND d.ancestor_id = #{memberId}")
+    int deleteLinksThrough(@Param("memberId") Long memberId);
+
+    /**
+     * 对从子树外部指向子树内部的其余父子/母子关系重新建立祖先-后代对
+     */
+    @Insert("INSERT INTO member_closure (family_id, ancestor_id, descendant_id, depth) " +
+            "SELECT sub.family_id, a.ancestor_id, d.descendant_id, MIN(a.depth + d.depth + 1) " +
+            "FROM member_closure sub " +
+            "JOIN member_relation r ON r.to_member_id = sub.descendant_id " +
+            "JOIN member_closure a ON a.descendant_id = r.from_member_id " +
+            "JOIN member_closure d ON d.ancestor_id = r.to_member_id " +
+            "WHERE sub.ancestor_id = #{rootId} " +
+            "AND r.relation_type IN ('father_son', 'mother_son') " +
+            "AND NOT EXISTS (SELECT 1 FROM member_closure x WHERE x.ancestor_id = #{rootId} AND x.descendant_id = r.from_member_id) " +
+            "GROUP BY sub.family_id, a.ancestor_id, d.descendant_id " +
+            "ON DUPLICATE KEY UPDATE depth = LEAST(depth, VALUES(depth))")
+    int relinkDescendants(@Param("rootId") Long rootId);
+
+    @Delete("DELETE FROM member_closure WHERE ancestor_id = #{memberId} OR descendant_id = #{memberId}")
+    int deleteByMember(@Param("memberId") Long memberId);
+
+    @Select("SELECT descendant_id FROM member_closure WHERE ancestor_id = #{memberId} AND depth > 0")
+    List<Long> selectDescendantIds(@Param("memberId") Long memberId);
+
+    @Select("SELECT COUNT(*) FROM member_closure WHERE ancestor_id = #{ancestorId} AND descendant_id = #{descendantId}")
+    int countLink(@Param("ancestorId") Long ancestorId, @Param("descendantId") Long descendantId);
+}
@@ -0,0 +1,41 @@
+package com.kin.family.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.kin.family.entity.MemberDuplicateCandidate;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 疑似重复成员Mapper
+ *
+ * @author candong
+ */
+@Mapper
+public interface MemberDuplicateCandidateMapper extends BaseMapper<MemberDuplicateCandidate> {
+
+    /**
+     * 批量写入查重结果；成员对已存在时刷新得分和命中项，审核状态不变
+     */
+    @Insert("<script>" +
+            "INSERT INTO member_duplicate_candidate " +
+            "(family_id, member_id, other_family_id, other_member_id, score, reasons, status, update_time) VALUES " +
+            "<foreach collection='candidates' item='c' separator=','>" +
+            "(#{c.familyId}, #{c.memberId}, #{c.otherFamilyId}, #{c.otherMemberId}, #{c.score}, #{c.reasons}, 'pending', #{detectTime})" +
+            "</foreach> " +
+            "ON DUPLICATE KEY UPDATE family_id = VALUES(family_id), other_family_id = VALUES(other_family_id), " +
+            "score = VALUES(score), reasons = VALUES(reasons), update_time = VALUES(update_time)" +
+            "</script>")
+    int upsertBatch(@Param("candidates") List<MemberDuplicateCandidate> candidates,
+                    @Param("detectTime") LocalDateTime detectTime);
+
+    /**
+     * 删除本次查重未再命中的待审核记录
+     */
+    @Delete("DELETE FROM member_duplicate_candidate WHERE status = 'pending' AND update_time < #{detectTime}")
+    int deleteStalePending(@Param("detectTime") LocalDateTime detectTime);
+}
@@ -0,0 +1,23 @@
+package com.kin.family.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.kin.family.entity.MemberImportJob;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 成员导入任务Mapper
+ *
+ * @author candong
+ */
+@Mapper
+public interface MemberImportJobMapper extends BaseMapper<MemberImportJob> {
+
+    /**
+     * 进程重启时仍在执行中的任务已被中断，标记为失败以便续传
+     */
+    @Update("UPDATE member_import_job SET status = 'failed', error_message = #{message} " +
+            "WHERE status IN ('pending', 'validating', 'importing')")
+    int markInterrupted(@Param("message") String message);
+}
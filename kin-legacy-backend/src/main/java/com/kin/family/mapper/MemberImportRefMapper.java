@@ -0,0 +1,34 @@
+package com.kin.family.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.kin.family.entity.MemberImportRef;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 成员导入编号映射Mapper
+ *
+ * @author candong
+ */
+@Mapper
+public interface MemberImportRefMapper extends BaseMapper<MemberImportRef> {
+
+    @Insert("<script>" +
+            "INSERT INTO member_import_ref (job_id, ref_key, member_id) VALUES " +
+            "<foreach collection='refs' item='r' separator=','>" +
+            "(#{r.jobId}, #{r.refKey}, #{r.memberId})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("refs") List<MemberImportRef> refs);
+
+    @Select("SELECT job_id, ref_key, member_id FROM member_import_ref WHERE job_id = #{jobId}")
+    List<MemberImportRef> selectByJob(@Param("jobId") Long jobId);
+
+    @Delete("DELETE FROM member_import_ref WHERE job_id = #{jobId}")
+    int deleteByJob(@Param("jobId") Long jobId);
+}
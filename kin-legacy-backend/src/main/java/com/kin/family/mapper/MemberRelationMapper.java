@@ -1,8 +1,14 @@
 package com.kin.family.mapper;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.kin.family.entity.MemberRelation;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+
+import java.util.List;
 
 /**
  * 成员关系Mapper
@@ -10,5 +16,21 @@ import org.apache.ibatis.annotations.Mapper;
  * @author candong
  */
 @Mapper
-public interface MemberRelationMapper extends BaseMapper<MemberRelation> {
+public interface MemberRelationMapper extends BatchMapper<MemberRelation> {
+
+    /**
+     * 按ID顺序流式读取家谱全部关系，需在事务内读完并关闭；读取期间同一连接不能执行其他语句
+     */
+    @Select("SELECT * FROM member_relation WHERE family_id = #{familyId} ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<MemberRelation> selectCursorByFamily(@Param("familyId") Long familyId);
+
+    /**
+     * 加锁重读一批关系，已删除的不返回；需在事务内调用
+     */
+    @Select("<script>" +
+            "SELECT * FROM member_relation WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach> FOR UPDATE" +
+            "</script>")
+    List<MemberRelation> selectByIdsForUpdate(@Param("ids") List<Long> ids);
 }
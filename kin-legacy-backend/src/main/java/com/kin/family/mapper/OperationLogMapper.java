@@ -1,6 +1,5 @@
 package com.kin.family.mapper;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.kin.family.entity.OperationLog;
 import org.apache.ibatis.annotations.Mapper;
 
@@ -10,5 +9,5 @@ import org.apache.ibatis.annotations.Mapper;
  * @author candong
  */
 @Mapper
-public interface OperationLogMapper extends BaseMapper<OperationLog> {
+public interface OperationLogMapper extends BatchMapper<OperationLog> {
 }
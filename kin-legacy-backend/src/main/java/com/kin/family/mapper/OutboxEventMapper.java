@@ -0,0 +1,49 @@
+package com.kin.family.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.kin.family.entity.OutboxEvent;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 发件箱事件Mapper
+ *
+ * @author candong
+ */
+@Mapper
+public interface OutboxEventMapper extends BaseMapper<OutboxEvent> {
+
+    /**
+     * 批量登记事件，幂等键已存在的忽略
+     */
+    @Insert("<script>" +
+            "INSERT IGNORE INTO outbox_event (event_type, event_key, payload, status, attempts, next_attempt_time) VALUES " +
+            "<foreach collection='events' item='e' separator=','>" +
+            "(#{e.eventType}, #{e.eventKey}, #{e.payload}, 'pending', 0, #{now})" +
+            "</foreach>" +
+            "</script>")
+    int insertIgnoreBatch(@Param("events") List<OutboxEvent> events, @Param("now") LocalDateTime now);
+
+    /**
+     * 锁定到期的待处理事件和租约已过期的处理中事件，其他实例已锁定的跳过；需在事务内调用
+     */
+    @Select("SELECT * FROM outbox_event WHERE status IN ('pending', 'processing') AND next_attempt_time <= #{now} " +
+            "ORDER BY next_attempt_time, id LIMIT #{limit} FOR UPDATE SKIP LOCKED")
+    List<OutboxEvent> selectDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Update("<script>" +
+            "UPDATE outbox_event SET status = 'processing', attempts = attempts + 1, next_attempt_time = #{leaseUntil} " +
+            "WHERE id IN <foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int markProcessing(@Param("ids") List<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Delete("DELETE FROM outbox_event WHERE status = 'done' AND update_time < #{before} LIMIT #{limit}")
+    int deleteDoneBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,14 @@
+package com.kin.family.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.kin.family.entity.RelationIntegrityIssue;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 关系完整性问题Mapper
+ *
+ * @author candong
+ */
+@Mapper
+public interface RelationIntegrityIssueMapper extends BaseMapper<RelationIntegrityIssue> {
+}
@@ -0,0 +1,20 @@
+package com.kin.family.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 表统计信息Mapper
+ *
+ * @author candong
+ */
+@Mapper
+public interface TableStatMapper {
+
+    /**
+     * InnoDB 统计的估算行数，无需扫描全表
+     */
+    @Select("SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = #{table}")
+    Long selectEstimatedRows(@Param("table") String table);
+}
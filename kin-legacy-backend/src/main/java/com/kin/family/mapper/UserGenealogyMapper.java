@@ -6,6 +6,8 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.List;
+
 /**
  * 用户-家谱关联 Mapper
  *
@@ -19,4 +21,7 @@ public interface UserGenealogyMapper extends BaseMapper<UserGenealogy> {
 
     @Select("SELECT * FROM user_genealogy WHERE user_id = #{userId} AND genealogy_id = #{genealogyId}")
     UserGenealogy selectByUserAndGenealogy(@Param("userId") Long userId, @Param("genealogyId") Long genealogyId);
+
+    @Select("SELECT genealogy_id FROM user_genealogy WHERE user_id = #{userId} AND role = 'ADMIN'")
+    List<Long> selectAdminGenealogyIds(@Param("userId") Long userId);
 }
@@ -1,8 +1,12 @@
 package com.kin.family.mapper;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.kin.family.entity.User;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 /**
  * 用户Mapper
@@ -10,5 +14,21 @@ import org.apache.ibatis.annotations.Mapper;
  * @author candong
  */
 @Mapper
-public interface UserMapper extends BaseMapper<User> {
+public interface UserMapper extends BatchMapper<User> {
+
+    /**
+     * 只取尚未加密的用户（BCrypt 密文以 $2a$ 开头），且只取迁移需要的列
+     */
+    @Select("SELECT id, username, password FROM user WHERE password IS NOT NULL AND password NOT LIKE '$2a$%'")
+    List<User> selectPlainPasswordUsers();
+
+    /**
+     * 一条语句按ID批量更新密码，调用方控制每批行数
+     */
+    @Update("<script>" +
+            "UPDATE user SET update_time = NOW(), password = CASE id " +
+            "<foreach collection='users' item='u'>WHEN #{u.id} THEN #{u.password} </foreach>" +
+            "END WHERE id IN <foreach collection='users' item='u' open='(' separator=',' close=')'>#{u.id}</foreach>" +
+            "</script>")
+    int updatePasswordBatch(@Param("users") List<User> users);
 }
@@ -0,0 +1,31 @@
+package com.kin.family.runner;
+
+import com.kin.family.service.MemberImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * 成员导入任务恢复运行器
+ * 导入任务在进程内执行，启动时把上次未执行完的任务标记为失败，由管理员续传
+ *
+ * @author candong
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemberImportRunner implements ApplicationRunner {
+
+    private final MemberImportService memberImportService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            memberImportService.markInterrupted();
+        } catch (RuntimeException e) {
+            log.error("标记中断的导入任务失败", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.kin.family.runner;
+
+import com.kin.family.cache.MemberSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * 成员搜索索引构建运行器
+ * 启动后在后台线程全量构建索引，构建完成前成员搜索退回数据库查询
+ *
+ * @author candong
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemberSearchIndexRunner implements ApplicationRunner {
+
+    private final MemberSearchIndex memberSearchIndex;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread thread = new Thread(() -> {
+            try {
+                memberSearchIndex.rebuild();
+            } catch (RuntimeException e) {
+                log.error("成员搜索索引构建失败", e);
+            }
+        }, "member-search-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
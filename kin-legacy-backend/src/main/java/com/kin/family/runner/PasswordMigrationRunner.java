@@ -1,6 +1,7 @@
 package com.kin.family.runner;
 
 import com.kin.family.entity.User;
+import com.kin.family.mapper.BatchMapper;
 import com.kin.family.mapper.UserMapper;
 import com.kin.family.util.PasswordUtil;
 import lombok.RequiredArgsConstructor;
@@ -27,18 +28,17 @@ public class PasswordMigrationRunner implements CommandLineRunner {
     public void run(String... args) {
         log.info("开始检查用户密码加密状态...");
 
-        List<User> users = userMapper.selectList(null);
+        List<User> users = userMapper.selectPlainPasswordUsers();
         int migratedCount = 0;
 
-        for (User user : users) {
-            String password = user.getPassword();
-            if (password != null && !PasswordUtil.isEncoded(password)) {
-                String encoded = PasswordUtil.encode(password);
-                user.setPassword(encoded);
-                userMapper.updateById(user);
-                migratedCount++;
+        for (int from = 0; from < users.size(); from += BatchMapper.BATCH_SIZE) {
+            List<User> batch = users.subList(from, Math.min(users.size(), from + BatchMapper.BATCH_SIZE));
+            for (User user : batch) {
+                user.setPassword(PasswordUtil.encode(user.getPassword()));
                 log.info("已加密用户 {} 的密码", user.getUsername());
             }
+            userMapper.updatePasswordBatch(batch);
+            migratedCount += batch.size();
         }
 
         if (migratedCount > 0) {
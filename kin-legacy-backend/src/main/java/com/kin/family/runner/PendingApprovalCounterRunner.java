@@ -0,0 +1,31 @@
+package com.kin.family.runner;
+
+import com.kin.family.service.ApprovalService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * 待审批计数初始化运行器
+ * 启动时校准一次，本地计数和 Redis 计数从数据库中的实际值开始增减
+ *
+ * @author candong
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PendingApprovalCounterRunner implements ApplicationRunner {
+
+    private final ApprovalService approvalService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            approvalService.reconcilePendingCounts();
+        } catch (RuntimeException e) {
+            log.error("待审批计数初始化失败", e);
+        }
+    }
+}
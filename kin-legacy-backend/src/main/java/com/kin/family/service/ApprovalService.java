@@ -1,8 +1,12 @@
 package com.kin.family.service;
 
+import com.kin.family.dto.ApprovalBatchHandleDTO;
+import com.kin.family.dto.ApprovalBatchResultVO;
 import com.kin.family.dto.ApprovalDetailDTO;
 import com.kin.family.dto.ApprovalHandleDTO;
+import com.kin.family.dto.CursorPageResult;
 import com.kin.family.dto.PageResult;
+import com.kin.family.dto.PendingBadgeVO;
 
 /**
  * 审批服务接口
@@ -12,6 +16,22 @@ import com.kin.family.dto.PageResult;
 public interface ApprovalService {
     PageResult<ApprovalDetailDTO> getApprovals(Long familyId, String type, String status, Integer page, Integer size);
     PageResult<ApprovalDetailDTO> getAllApprovals(String type, String status, Integer page, Integer size);
+    CursorPageResult<ApprovalDetailDTO> getApprovalsByCursor(Long familyId, String type, String status, String cursor, Integer size);
     void handleApproval(Long familyId, Long requestId, ApprovalHandleDTO request, Long userId);
     void handleApprovalAdmin(Long familyId, Long requestId, ApprovalHandleDTO request);
+
+    /**
+     * 在一个事务内批量处理同一家谱的申请，不存在、已处理或内容无效的申请跳过并在结果中标明原因
+     */
+    ApprovalBatchResultVO handleApprovalBatch(Long familyId, ApprovalBatchHandleDTO request, Long userId);
+
+    /**
+     * 待审批角标：超级管理员统计全部家谱，其余用户统计其管理的家谱，只读计数不查申请表
+     */
+    PendingBadgeVO getPendingBadge(Long userId, String globalRole);
+
+    /**
+     * 按收件箱中的实际待审批数校准计数
+     */
+    void reconcilePendingCounts();
 }
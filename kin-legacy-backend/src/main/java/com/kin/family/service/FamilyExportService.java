@@ -0,0 +1,24 @@
+package com.kin.family.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * 家谱导出服务
+ *
+ * @author candong
+ */
+public interface FamilyExportService {
+
+    String FORMAT_GEDCOM = "gedcom";
+    String FORMAT_NDJSON = "ndjson";
+
+    /**
+     * 流式导出整个家谱，成员和关系边读边写，内存占用与家谱规模无关
+     *
+     * @param familyId 家谱ID
+     * @param format   gedcom（GEDCOM 5.5.1）或 ndjson（每行一个 JSON 对象）
+     * @param gzip     是否 gzip 压缩
+     * @return 响应流
+     */
+    StreamingResponseBody export(Long familyId, String format, boolean gzip);
+}
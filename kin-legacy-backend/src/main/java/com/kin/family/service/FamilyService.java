@@ -1,9 +1,11 @@
 package com.kin.family.service;
 
+import com.kin.family.dto.CursorPageResult;
 import com.kin.family.dto.FamilyCreateDTO;
 import com.kin.family.dto.FamilyDetailDTO;
 import com.kin.family.dto.FamilyJoinDTO;
 import com.kin.family.dto.PageResult;
+import com.kin.family.vo.FamilyStatisticsVO;
 
 import java.util.List;
 
@@ -16,10 +18,14 @@ public interface FamilyService {
     FamilyDetailDTO createFamily(FamilyCreateDTO request, Long userId);
     void joinFamily(FamilyJoinDTO request, Long userId);
     FamilyDetailDTO getFamilyById(Long id);
+    Long getDataVersion(Long id);
+    FamilyStatisticsVO getFamilyStatistics(Long id);
     List<FamilyDetailDTO> getMyFamilies(Long userId);
     FamilyDetailDTO getFamilyByCode(String code);
     List<FamilyDetailDTO> getAllFamilies();
     PageResult<FamilyDetailDTO> getFamiliesPaged(Integer page, Integer size);
+    CursorPageResult<FamilyDetailDTO> getFamiliesByCursor(String cursor, Integer size, boolean withTotal);
     FamilyDetailDTO updateFamily(Long id, FamilyCreateDTO request, Long userId);
     void deleteFamily(Long id, Long userId);
+    int reconcileMemberCounts();
 }
@@ -0,0 +1,68 @@
+package com.kin.family.service;
+
+import com.kin.family.entity.MemberRelation;
+
+import java.util.List;
+
+/**
+ * 成员祖先索引服务
+ * 维护 member_closure 闭包表和成员世代，需在写入成员、关系的同一事务内调用
+ *
+ * @author candong
+ */
+public interface MemberAncestryService {
+
+    /**
+     * 新成员写入后登记自身
+     *
+     * @param familyId 家谱ID
+     * @param memberId 成员ID
+     */
+    void addMember(Long familyId, Long memberId);
+
+    /**
+     * 一批尚无关系的新成员写入后批量登记自身
+     *
+     * @param familyId  家谱ID
+     * @param memberIds 成员ID列表
+     */
+    void addMembers(Long familyId, List<Long> memberIds);
+
+    /**
+     * 成员的关系已全部删除后，移除该成员并修正经由其连接的祖先-后代对
+     *
+     * @param memberId 成员ID
+     */
+    void removeMember(Long memberId);
+
+    /**
+     * 新增关系写入后调用，非父子/母子关系忽略
+     *
+     * @param relation 关系
+     */
+    void linkRelation(MemberRelation relation);
+
+    /**
+     * 一批新增关系写入后调用，非父子/母子关系忽略；子成员须尚无后代，且本批的父成员不在子成员之列，
+     * 批量导入时按子成员世代逐层调用即可满足
+     *
+     * @param relations 关系列表
+     */
+    void linkChildRelations(List<MemberRelation> relations);
+
+    /**
+     * 关系删除后调用，非父子/母子关系忽略
+     *
+     * @param relation 关系
+     */
+    void unlinkRelation(MemberRelation relation);
+
+    /**
+     * 判断 ancestorId 是否为 descendantId 的祖先（含自身）
+     *
+     * @param ancestorId   祖先成员ID
+     * @param descendantId 后代成员ID
+     * @return 是否为祖先
+     */
+    boolean isAncestor(Long ancestorId, Long descendantId);
+}
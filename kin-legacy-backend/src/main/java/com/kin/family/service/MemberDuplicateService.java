@@ -0,0 +1,39 @@
+package com.kin.family.service;
+
+import com.kin.family.dto.DuplicateCandidateVO;
+import com.kin.family.dto.DuplicateReportVO;
+
+import java.util.List;
+
+/**
+ * 重复成员检测服务
+ * 在全部家谱内及跨家谱查找疑似同一人的成员，生成待审核的合并候选
+ *
+ * @author candong
+ */
+public interface MemberDuplicateService {
+
+    /**
+     * 对全部成员查重，刷新待审核的候选
+     *
+     * @return 汇总结果
+     */
+    DuplicateReportVO detectAll();
+
+    /**
+     * 涉及某个家谱成员的疑似重复记录，按得分降序
+     *
+     * @param familyId 家谱ID
+     * @param status   pending/confirmed/dismissed，为空时返回全部状态
+     * @return 候选列表
+     */
+    List<DuplicateCandidateVO> getCandidates(Long familyId, String status);
+
+    /**
+     * 审核疑似重复记录
+     *
+     * @param id     记录ID
+     * @param status confirmed-确认重复，dismissed-忽略
+     */
+    void review(Long id, String status);
+}
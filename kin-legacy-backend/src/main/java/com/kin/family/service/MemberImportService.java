@@ -0,0 +1,45 @@
+package com.kin.family.service;
+
+import com.kin.family.dto.MemberImportJobVO;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * 成员批量导入服务
+ *
+ * @author candong
+ */
+public interface MemberImportService {
+
+    /**
+     * 暂存导入文件并创建导入任务，任务在后台执行，通过 {@link #getJob} 查询进度
+     *
+     * @param familyId 家谱ID
+     * @param file     CSV、xlsx 或 GEDCOM 文件
+     * @param userId   发起人用户ID
+     * @return 导入任务
+     */
+    MemberImportJobVO submit(Long familyId, MultipartFile file, Long userId);
+
+    /**
+     * 写入阶段失败的任务从已提交的进度继续执行
+     *
+     * @param familyId 家谱ID
+     * @param jobId    导入任务ID
+     * @return 导入任务
+     */
+    MemberImportJobVO resume(Long familyId, Long jobId);
+
+    /**
+     * 查询导入任务进度
+     *
+     * @param familyId 家谱ID
+     * @param jobId    导入任务ID
+     * @return 导入任务
+     */
+    MemberImportJobVO getJob(Long familyId, Long jobId);
+
+    /**
+     * 启动时将上次进程中断的任务标记为失败，以便续传
+     */
+    void markInterrupted();
+}
@@ -1,5 +1,8 @@
 package com.kin.family.service;
 
+import com.kin.family.dto.CommonAncestorQueryDTO;
+import com.kin.family.dto.CommonAncestorVO;
+import com.kin.family.dto.KinshipVO;
 import com.kin.family.dto.RelationCreateDTO;
 import com.kin.family.dto.RelationVO;
 
@@ -11,4 +14,8 @@ public interface MemberRelationService {
     List<RelationVO> getMemberRelations(Long familyId, Long memberId);
 
     void deleteRelation(Long familyId, Long relationId);
+
+    KinshipVO getKinship(Long familyId, Long fromMemberId, Long toMemberId, Long currentUserId);
+
+    List<CommonAncestorVO> getCommonAncestors(Long familyId, CommonAncestorQueryDTO query);
 }
@@ -1,8 +1,14 @@
 package com.kin.family.service;
 
 import com.kin.family.dto.*;
+import com.kin.family.vo.CompactTreeVO;
+import com.kin.family.vo.FamilyDeltaVO;
+import com.kin.family.vo.SubtreeNodeVO;
+import com.kin.family.vo.TreeLayoutVO;
 import com.kin.family.vo.TreeNodeVO;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import java.util.List;
 
 /**
@@ -14,18 +20,28 @@ public interface MemberService {
     List<MemberDetailDTO> getMembers(Long familyId);
     MemberDetailDTO getMemberById(Long familyId, Long memberId);
     MemberDetailDTO getMemberDetail(Long familyId, Long memberId);
+    List<MemberDetailDTO> getAncestors(Long familyId, Long memberId, Integer maxDepth);
+    List<MemberDetailDTO> getDescendants(Long familyId, Long memberId, Integer maxDepth);
     MemberDetailDTO addMember(Long familyId, MemberCreateDTO request, Long userId);
     void addChildMember(Long familyId, Long parentId, MemberCreateDTO request, Long userId);
     void addParentMember(Long familyId, Long childId, MemberCreateDTO request, Long userId);
     void applyEditMember(Long familyId, Long memberId, MemberEditDTO request, Long userId);
     List<TreeNodeVO> getFamilyTree(Long familyId, Long currentUserId);
+    StreamingResponseBody streamFamilyTree(Long familyId, Long currentUserId);
+    CompactTreeVO getCompactFamilyTree(Long familyId, Long currentUserId);
+    TreeLayoutVO getTreeLayout(Long familyId);
+    FamilyDeltaVO getTreeDelta(Long familyId, Long since);
+    List<MemberSearchVO> searchMembers(String query, Long familyId, Integer limit);
+    List<SubtreeNodeVO> getSubtree(Long familyId, Long rootId, Integer maxDepth, Integer maxChildren, Integer childOffset, Long currentUserId);
     MemberDetailDTO updateMember(Long familyId, Long memberId, MemberCreateDTO request, Long userId);
     void deleteMember(Long familyId, Long memberId, Long userId, String globalRole);
     List<MemberDetailDTO> getAllMembers();
     PageResult<MemberDetailDTO> getMembersPaged(Integer page, Integer size);
+    CursorPageResult<MemberDetailDTO> getMembersByCursor(String cursor, Integer size, boolean withTotal);
     MemberDetailDTO addMemberByUser(Long familyId, Long userId, MemberCreateByAdminDTO request);
     
     PageResult<MemberVO> queryMembers(MemberQueryRequest query);
+    CursorPageResult<MemberVO> queryMembersByCursor(MemberQueryRequest query, String cursor, boolean withTotal);
     MemberDetailDTO updateMemberByAdmin(Long memberId, MemberEditByAdminDTO request);
     MemberTransferCheckDTO checkMemberTransfer(Long memberId, Long targetGenealogyId);
     void deleteMemberByAdmin(Long familyId, Long memberId);
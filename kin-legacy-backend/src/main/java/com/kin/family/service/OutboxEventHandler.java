@@ -0,0 +1,22 @@
+package com.kin.family.service;
+
+import com.kin.family.entity.OutboxEvent;
+
+/**
+ * 发件箱事件处理器
+ * 事件至少处理一次，租约过期或失败重试时可能重复执行，实现需保证幂等
+ *
+ * @author candong
+ */
+public interface OutboxEventHandler {
+
+    /**
+     * 处理的事件类型
+     */
+    String getEventType();
+
+    /**
+     * 处理事件，抛出异常视为失败并稍后重试
+     */
+    void handle(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,61 @@
+package com.kin.family.service;
+
+import com.kin.family.entity.OutboxEvent;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 事务发件箱服务
+ *
+ * @author candong
+ */
+public interface OutboxService {
+
+    /**
+     * 在当前事务内登记事件，事务提交后由后台任务异步处理；同一幂等键只登记一次
+     *
+     * @param eventType 事件类型
+     * @param eventKey  幂等键
+     * @param payload   事件内容，按JSON保存
+     */
+    void publish(String eventType, String eventKey, Object payload);
+
+    /**
+     * 在当前事务内批量登记同一类型的事件
+     *
+     * @param eventType 事件类型
+     * @param payloads  幂等键 -> 事件内容
+     */
+    void publishAll(String eventType, Map<String, ?> payloads);
+
+    /**
+     * 领取一批到期事件并加租约，其他实例不会同时领取
+     *
+     * @param limit 最多领取条数
+     * @return 已领取的事件
+     */
+    List<OutboxEvent> claim(int limit);
+
+    /**
+     * 标记事件处理完成
+     *
+     * @param id 事件ID
+     */
+    void complete(Long id);
+
+    /**
+     * 记录处理失败，未超过最大次数时按指数退避重新排期，否则放弃
+     *
+     * @param event 事件
+     * @param error 失败原因
+     */
+    void fail(OutboxEvent event, Throwable error);
+
+    /**
+     * 删除超过保留期的已完成事件
+     *
+     * @return 删除条数
+     */
+    int purgeDone();
+}
@@ -0,0 +1,41 @@
+package com.kin.family.service;
+
+import com.kin.family.dto.IntegrityReportVO;
+import com.kin.family.entity.RelationIntegrityIssue;
+
+import java.util.List;
+
+/**
+ * 关系完整性服务
+ * 检查成员关系中的自环、悬空引用、跨家谱引用、重复关系、多位父亲/母亲以及父母子女关系成环，
+ * 可选地删除有问题的关系进行修复
+ *
+ * @author candong
+ */
+public interface RelationIntegrityService {
+
+    /**
+     * 逐个家谱检查全部关系，同一时间只在内存中保留一个家谱的关系
+     *
+     * @param repair 是否删除有问题的关系
+     * @return 汇总结果
+     */
+    IntegrityReportVO checkAll(boolean repair);
+
+    /**
+     * 检查单个家谱的关系
+     *
+     * @param familyId 家谱ID
+     * @param repair   是否删除有问题的关系
+     * @return 检查结果
+     */
+    IntegrityReportVO checkFamily(Long familyId, boolean repair);
+
+    /**
+     * 家谱最近一次检查发现的问题，含已修复的记录
+     *
+     * @param familyId 家谱ID
+     * @return 问题列表
+     */
+    List<RelationIntegrityIssue> getIssues(Long familyId);
+}
@@ -2,6 +2,7 @@ package com.kin.family.service;
 
 import com.kin.family.dto.AuthTokenDTO;
 import com.kin.family.dto.AuthWxLoginDTO;
+import com.kin.family.dto.CursorPageResult;
 import com.kin.family.dto.PageResult;
 import com.kin.family.dto.UserDetailDTO;
 
@@ -22,6 +23,7 @@ public interface UserService {
     List<UserDetailDTO> getAllUsers();
     List<UserDetailDTO> getNonAdminUsers();
     PageResult<UserDetailDTO> getUsersPaged(Integer page, Integer size);
+    CursorPageResult<UserDetailDTO> getUsersByCursor(String cursor, Integer size, boolean withTotal);
     UserDetailDTO updateUser(Long userId, UserDetailDTO request);
     void disableUser(Long userId);
     void enableUser(Long userId);
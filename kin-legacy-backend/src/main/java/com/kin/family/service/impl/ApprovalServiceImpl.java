@@ -1,14 +1,22 @@
 package com.kin.family.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kin.family.cache.FamilyGraphCache;
+import com.kin.family.cache.PendingApprovalCounter;
+import com.kin.family.dto.ApprovalBatchHandleDTO;
+import com.kin.family.dto.ApprovalBatchResultVO;
 import com.kin.family.dto.ApprovalDetailDTO;
 import com.kin.family.dto.ApprovalHandleDTO;
+import com.kin.family.dto.CursorPageResult;
+import com.kin.family.dto.JoinApprovedEvent;
 import com.kin.family.dto.MemberEditDTO;
 import com.kin.family.dto.PageResult;
+import com.kin.family.dto.PendingBadgeVO;
 import com.kin.family.entity.EditRequest;
 import com.kin.family.entity.Family;
 import com.kin.family.entity.FamilyMember;
@@ -16,23 +24,33 @@ import com.kin.family.entity.JoinRequest;
 import com.kin.family.constant.GenderEnum;
 import com.kin.family.constant.RelationTypeEnum;
 import com.kin.family.constant.RequestStatusEnum;
+import com.kin.family.constant.UserRoleEnum;
 import com.kin.family.entity.MemberRelation;
 import com.kin.family.exception.BusinessException;
+import com.kin.family.mapper.ApprovalInboxMapper;
 import com.kin.family.mapper.ApprovalMapper;
 import com.kin.family.mapper.EditRequestMapper;
 import com.kin.family.mapper.FamilyMapper;
 import com.kin.family.mapper.FamilyMemberMapper;
 import com.kin.family.mapper.JoinRequestMapper;
 import com.kin.family.mapper.MemberRelationMapper;
+import com.kin.family.mapper.UserGenealogyMapper;
 import com.kin.family.service.ApprovalService;
+import com.kin.family.service.MemberAncestryService;
+import com.kin.family.service.OutboxService;
+import com.kin.family.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * 审批服务实现
@@ -43,6 +61,8 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ApprovalServiceImpl implements ApprovalService {
 
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final JoinRequestMapper joinRequestMapper;
     private final EditRequestMapper editRequestMapper;
     private final FamilyMapper familyMapper;
@@ -50,6 +70,12 @@ public class ApprovalServiceImpl implements ApprovalService {
     private final MemberRelationMapper relationMapper;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final ApprovalMapper approvalMapper;
+    private final ApprovalInboxMapper approvalInboxMapper;
+    private final UserGenealogyMapper userGenealogyMapper;
+    private final PendingApprovalCounter pendingApprovalCounter;
+    private final OutboxService outboxService;
+    private final FamilyGraphCache familyGraphCache;
+    private final MemberAncestryService memberAncestryService;
 
     private GenderEnum getGenderEnum(String value) {
         if (value == null) {
@@ -71,7 +97,7 @@ public class ApprovalServiceImpl implements ApprovalService {
         }
 
         Page<ApprovalDetailDTO> pageParam = new Page<>(page, size);
-        List<ApprovalDetailDTO> records = approvalMapper.getApprovalsByFamilyId(pageParam, familyId, type, status);
+        List<ApprovalDetailDTO> records = approvalMapper.getApprovalsByFamilyId(pageParam, familyId, type, normalizeStatus(status));
 
         return PageResult.of(records, pageParam.getTotal(), page, size);
     }
@@ -79,11 +105,64 @@ public class ApprovalServiceImpl implements ApprovalService {
     @Override
     public PageResult<ApprovalDetailDTO> getAllApprovals(String type, String status, Integer page, Integer size) {
         Page<ApprovalDetailDTO> pageParam = new Page<>(page, size);
-        List<ApprovalDetailDTO> records = approvalMapper.getAllApprovals(pageParam, type, status);
+        List<ApprovalDetailDTO> records = approvalMapper.getAllApprovals(pageParam, type, normalizeStatus(status));
 
         return PageResult.of(records, pageParam.getTotal(), page, size);
     }
 
+    @Override
+    public CursorPageResult<ApprovalDetailDTO> getApprovalsByCursor(Long familyId, String type, String status, String cursor, Integer size) {
+        if (familyId != null && familyMapper.selectById(familyId) == null) {
+            throw new BusinessException("家谱不存在");
+        }
+        if (type != null && !type.isEmpty() && !"join".equals(type) && !"edit".equals(type)) {
+            throw new BusinessException("type必须是join或edit");
+        }
+
+        int limit = CursorUtil.size(size);
+        List<ApprovalDetailDTO> rows = approvalMapper.getApprovalsSeek(familyId, type, normalizeStatus(status),
+                CursorUtil.decode(cursor), limit + 1);
+        return CursorPageResult.of(rows, limit, a -> CursorUtil.encode(a.getCreateTime(), a.getInboxId()));
+    }
+
+    @Override
+    public PendingBadgeVO getPendingBadge(Long userId, String globalRole) {
+        List<PendingBadgeVO.FamilyPending> families = pendingApprovalCounter.getFamilies(
+                userGenealogyMapper.selectAdminGenealogyIds(userId));
+
+        long joinCount = 0;
+        long editCount = 0;
+        if (UserRoleEnum.SUPER_ADMIN.getValue().equals(globalRole)) {
+            PendingBadgeVO.FamilyPending total = pendingApprovalCounter.getTotal();
+            joinCount = total.getJoinCount();
+            editCount = total.getEditCount();
+        } else {
+            for (PendingBadgeVO.FamilyPending family : families) {
+                joinCount += family.getJoinCount();
+                editCount += family.getEditCount();
+            }
+        }
+
+        return PendingBadgeVO.builder()
+                .joinCount(joinCount)
+                .editCount(editCount)
+                .totalCount(joinCount + editCount)
+                .families(families)
+                .build();
+    }
+
+    @Override
+    public void reconcilePendingCounts() {
+        pendingApprovalCounter.reconcile(approvalInboxMapper.selectPendingCounts());
+    }
+
+    /**
+     * 收件箱中状态统一存小写，兼容前端传入的大写状态
+     */
+    private String normalizeStatus(String status) {
+        return status == null || status.isEmpty() ? null : status.toLowerCase();
+    }
+
     @Override
     @Transactional
     public void handleApproval(Long familyId, Long requestId, ApprovalHandleDTO request, Long userId) {
@@ -112,14 +191,239 @@ public class ApprovalServiceImpl implements ApprovalService {
         throw new BusinessException("申请不存在");
     }
 
+    @Override
+    @Transactional
+    public ApprovalBatchResultVO handleApprovalBatch(Long familyId, ApprovalBatchHandleDTO request, Long userId) {
+        Family family = familyMapper.selectById(familyId);
+        if (family == null) {
+            throw new BusinessException("家谱不存在");
+        }
+        if (request.getAction() == null ||
+            (!request.getAction().equals("approve") && !request.getAction().equals("reject"))) {
+            throw new BusinessException("action必须是approve或reject");
+        }
+        String type = request.getType() == null || request.getType().isEmpty() ? null : request.getType();
+        if (type != null && !"join".equals(type) && !"edit".equals(type)) {
+            throw new BusinessException("type必须是join或edit");
+        }
+        if (request.getRequestIds() == null || request.getRequestIds().isEmpty()) {
+            throw new BusinessException("申请ID不能为空");
+        }
+        List<Long> requestIds = request.getRequestIds().stream().filter(Objects::nonNull).distinct().toList();
+        if (requestIds.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException("单次最多处理" + MAX_BATCH_SIZE + "条申请");
+        }
+        boolean approve = "approve".equals(request.getAction());
+
+        // 与单条处理一致：同一ID先按加入申请匹配，再按编辑申请匹配
+        Map<Long, JoinRequest> joins = new HashMap<>();
+        if (!"edit".equals(type)) {
+            joinRequestMapper.selectList(new LambdaQueryWrapper<JoinRequest>()
+                            .eq(JoinRequest::getFamilyId, familyId)
+                            .in(JoinRequest::getId, requestIds))
+                    .forEach(r -> joins.put(r.getId(), r));
+        }
+        Map<Long, EditRequest> edits = new HashMap<>();
+        List<Long> restIds = requestIds.stream().filter(id -> !joins.containsKey(id)).toList();
+        if (!"join".equals(type) && !restIds.isEmpty()) {
+            editRequestMapper.selectList(new LambdaQueryWrapper<EditRequest>()
+                            .eq(EditRequest::getFamilyId, familyId)
+                            .in(EditRequest::getId, restIds))
+                    .forEach(r -> edits.put(r.getId(), r));
+        }
+
+        List<ApprovalBatchResultVO.Item> items = new ArrayList<>(requestIds.size());
+        List<JoinRequest> acceptedJoins = new ArrayList<>();
+        List<EditRequest> acceptedEdits = new ArrayList<>();
+        // 同意时直接批量插入的成员（普通加入、录入子嗣），以及录入子嗣的父成员ID，均按申请ID登记
+        Map<Long, FamilyMember> newMembers = new LinkedHashMap<>();
+        Map<Long, Long> parentIds = new LinkedHashMap<>();
+        for (Long requestId : requestIds) {
+            JoinRequest joinRequest = joins.get(requestId);
+            EditRequest editRequest = joinRequest == null ? edits.get(requestId) : null;
+            String error;
+            if (joinRequest == null && editRequest == null) {
+                error = "申请不存在";
+            } else if ((joinRequest != null ? joinRequest.getStatus() : editRequest.getStatus()) != RequestStatusEnum.PENDING) {
+                error = "申请已处理";
+            } else if (!approve) {
+                error = null;
+            } else if (joinRequest != null) {
+                error = prepareJoinRequest(joinRequest, newMembers, parentIds);
+            } else {
+                error = checkEditRequest(editRequest);
+            }
+
+            if (error == null) {
+                if (joinRequest != null) {
+                    acceptedJoins.add(joinRequest);
+                } else {
+                    acceptedEdits.add(editRequest);
+                }
+            }
+            String itemType = joinRequest != null ? "join" : editRequest != null ? "edit" : type;
+            items.add(new ApprovalBatchResultVO.Item(requestId, itemType, error == null, error));
+        }
+
+        RequestStatusEnum newStatus = approve ? RequestStatusEnum.APPROVED : RequestStatusEnum.REJECTED;
+        LocalDateTime now = LocalDateTime.now();
+        if (!acceptedJoins.isEmpty()) {
+            List<Long> ids = acceptedJoins.stream().map(JoinRequest::getId).toList();
+            int updated = joinRequestMapper.update(null, new LambdaUpdateWrapper<JoinRequest>()
+                    .set(JoinRequest::getStatus, newStatus)
+                    .set(JoinRequest::getReviewerId, userId)
+                    .set(JoinRequest::getReviewedAt, now)
+                    .in(JoinRequest::getId, ids)
+                    .eq(JoinRequest::getStatus, RequestStatusEnum.PENDING));
+            if (updated != ids.size()) {
+                throw new BusinessException("部分申请已被他人处理，请刷新后重试");
+            }
+            approvalInboxMapper.syncJoinRequests(ids);
+            pendingApprovalCounter.decrement(familyId, PendingApprovalCounter.JOIN, ids.size());
+        }
+        if (!acceptedEdits.isEmpty()) {
+            List<Long> ids = acceptedEdits.stream().map(EditRequest::getId).toList();
+            int updated = editRequestMapper.update(null, new LambdaUpdateWrapper<EditRequest>()
+                    .set(EditRequest::getStatus, newStatus)
+                    .set(EditRequest::getReviewerId, userId)
+                    .set(EditRequest::getReviewedAt, now)
+                    .set(!approve && request.getRemark() != null, EditRequest::getRejectReason, request.getRemark())
+                    .in(EditRequest::getId, ids)
+                    .eq(EditRequest::getStatus, RequestStatusEnum.PENDING));
+            if (updated != ids.size()) {
+                throw new BusinessException("部分申请已被他人处理，请刷新后重试");
+            }
+            approvalInboxMapper.syncEditRequests(ids);
+            pendingApprovalCounter.decrement(familyId, PendingApprovalCounter.EDIT, ids.size());
+        }
+
+        if (approve) {
+            List<FamilyMember> members = new ArrayList<>(newMembers.values());
+            if (!members.isEmpty()) {
+                memberMapper.saveBatch(members);
+                memberAncestryService.addMembers(familyId, members.stream().map(FamilyMember::getId).toList());
+                familyMapper.addMemberCount(familyId, members.size());
+                familyGraphCache.putMembers(members);
+
+                Map<String, JoinApprovedEvent> joinedEvents = new LinkedHashMap<>();
+                for (JoinRequest joinRequest : acceptedJoins) {
+                    FamilyMember member = newMembers.get(joinRequest.getId());
+                    if (member != null && !"add_child".equals(joinRequest.getJoinType())) {
+                        joinedEvents.put(JoinApprovedEventHandler.eventKey(joinRequest.getId()),
+                                joinApprovedEvent(joinRequest, member, userId));
+                    }
+                }
+                outboxService.publishAll(JoinApprovedEventHandler.EVENT_TYPE, joinedEvents);
+            }
+
+            List<MemberRelation> relations = new ArrayList<>(parentIds.size());
+            parentIds.forEach((requestId, parentId) -> {
+                FamilyMember child = newMembers.get(requestId);
+                relations.add(MemberRelation.builder()
+                        .familyId(familyId)
+                        .fromMemberId(parentId)
+                        .toMemberId(child.getId())
+                        .relationType(child.getGender() == GenderEnum.MALE ?
+                                RelationTypeEnum.FATHER_SON : RelationTypeEnum.MOTHER_SON)
+                        .build());
+            });
+            if (!relations.isEmpty()) {
+                relationMapper.saveBatch(relations);
+                // 子成员均为本批新建，尚无后代，可整批建立祖先索引
+                memberAncestryService.linkChildRelations(relations);
+                familyGraphCache.putRelations(relations);
+            }
+
+            // 追溯先祖会改挂原有父子关系，编辑申请需读取成员当前数据，均逐条处理
+            for (JoinRequest joinRequest : acceptedJoins) {
+                if ("add_parent".equals(joinRequest.getJoinType())) {
+                    handleAddChildOrParentRequest(joinRequest);
+                }
+            }
+            for (EditRequest editRequest : acceptedEdits) {
+                applyEditRequest(editRequest);
+            }
+        }
+
+        int successCount = acceptedJoins.size() + acceptedEdits.size();
+        return ApprovalBatchResultVO.builder()
+                .successCount(successCount)
+                .failCount(items.size() - successCount)
+                .items(items)
+                .build();
+    }
+
+    /**
+     * 校验待同意的加入申请并准备要插入的成员，返回失败原因，校验通过返回 null
+     */
+    private String prepareJoinRequest(JoinRequest joinRequest, Map<Long, FamilyMember> newMembers, Map<Long, Long> parentIds) {
+        String joinType = joinRequest.getJoinType();
+        if (!"add_child".equals(joinType) && !"add_parent".equals(joinType)) {
+            newMembers.put(joinRequest.getId(), FamilyMember.builder()
+                    .familyId(joinRequest.getFamilyId())
+                    .userId(joinRequest.getApplicantUserId())
+                    .name(joinRequest.getApplicantName())
+                    .gender(GenderEnum.MALE)
+                    .isCreator(0)
+                    .build());
+            return null;
+        }
+        if (joinRequest.getChangesJson() == null) {
+            return null;
+        }
+
+        FamilyMember member;
+        Map<String, Object> memberInfo;
+        try {
+            memberInfo = objectMapper.readValue(joinRequest.getChangesJson(), new TypeReference<Map<String, Object>>() {});
+            member = buildMember(joinRequest.getFamilyId(), memberInfo);
+        } catch (JsonProcessingException | RuntimeException e) {
+            return "成员信息无效";
+        }
+        if ("add_child".equals(joinType)) {
+            newMembers.put(joinRequest.getId(), member);
+            if (memberInfo.get("parentId") instanceof Number parentId) {
+                parentIds.put(joinRequest.getId(), parentId.longValue());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 校验待同意的编辑申请，返回失败原因，校验通过返回 null
+     */
+    private String checkEditRequest(EditRequest editRequest) {
+        if (editRequest.getChangesJson() == null) {
+            return null;
+        }
+        try {
+            objectMapper.readValue(editRequest.getChangesJson(), new TypeReference<Map<String, Object>>() {});
+            return null;
+        } catch (JsonProcessingException e) {
+            return "修改内容无效";
+        }
+    }
+
     private void handleJoinRequest(JoinRequest joinRequest, ApprovalHandleDTO request, Long userId) {
         RequestStatusEnum newStatus = "approve".equals(request.getAction()) ?
                 RequestStatusEnum.APPROVED : RequestStatusEnum.REJECTED;
 
+        LocalDateTime now = LocalDateTime.now();
+        // 与批量处理一致，只处理仍待审批的申请，避免重复同意时再插入一名成员
+        int updated = joinRequestMapper.update(null, new LambdaUpdateWrapper<JoinRequest>()
+                .set(JoinRequest::getStatus, newStatus)
+                .set(JoinRequest::getReviewerId, userId)
+                .set(JoinRequest::getReviewedAt, now)
+                .eq(JoinRequest::getId, joinRequest.getId())
+                .eq(JoinRequest::getStatus, RequestStatusEnum.PENDING));
+        if (updated == 0) {
+            throw new BusinessException("申请已处理");
+        }
         joinRequest.setStatus(newStatus);
         joinRequest.setReviewerId(userId);
-        joinRequest.setReviewedAt(LocalDateTime.now());
-        joinRequestMapper.updateById(joinRequest);
+        joinRequest.setReviewedAt(now);
+        approvalInboxMapper.syncJoinRequest(joinRequest.getId());
+        pendingApprovalCounter.decrement(joinRequest.getFamilyId(), PendingApprovalCounter.JOIN);
 
         if ("approve".equals(request.getAction())) {
             String joinType = joinRequest.getJoinType();
@@ -134,10 +438,25 @@ public class ApprovalServiceImpl implements ApprovalService {
                         .isCreator(0)
                         .build();
                 memberMapper.insert(member);
+                memberAncestryService.addMember(member.getFamilyId(), member.getId());
+                familyMapper.addMemberCount(member.getFamilyId(), 1);
+                familyGraphCache.putMember(member);
+                outboxService.publish(JoinApprovedEventHandler.EVENT_TYPE,
+                        JoinApprovedEventHandler.eventKey(joinRequest.getId()),
+                        joinApprovedEvent(joinRequest, member, userId));
             }
         }
     }
 
+    private JoinApprovedEvent joinApprovedEvent(JoinRequest joinRequest, FamilyMember member, Long reviewerId) {
+        return JoinApprovedEvent.builder()
+                .familyId(joinRequest.getFamilyId())
+                .userId(joinRequest.getApplicantUserId())
+                .memberId(member.getId())
+                .reviewerId(reviewerId)
+                .build();
+    }
+
     private void handleAddChildOrParentRequest(JoinRequest joinRequest) {
         if (joinRequest.getChangesJson() == null) {
             return;
@@ -153,21 +472,11 @@ public class ApprovalServiceImpl implements ApprovalService {
                 Long parentId = memberInfo.get("parentId") instanceof Number ?
                         ((Number) memberInfo.get("parentId")).longValue() : null;
 
-                FamilyMember child = FamilyMember.builder()
-                        .familyId(joinRequest.getFamilyId())
-                        .userId(memberInfo.get("userId") instanceof Number ?
-                                ((Number) memberInfo.get("userId")).longValue() : null)
-                        .name((String) memberInfo.get("name"))
-                        .gender(getGenderEnum((String) memberInfo.get("gender")))
-                        .avatar((String) memberInfo.get("avatar"))
-                        .birthDate(memberInfo.get("birthDate") != null ?
-                                LocalDate.parse((String) memberInfo.get("birthDate")) : null)
-                        .birthPlace((String) memberInfo.get("birthPlace"))
-                        .bio((String) memberInfo.get("bio"))
-                        .isCreator(0)
-                        .createTime(LocalDateTime.now())
-                        .build();
+                FamilyMember child = buildMember(joinRequest.getFamilyId(), memberInfo);
                 memberMapper.insert(child);
+                memberAncestryService.addMember(child.getFamilyId(), child.getId());
+                familyMapper.addMemberCount(child.getFamilyId(), 1);
+                familyGraphCache.putMember(child);
 
                 if (parentId != null) {
                     RelationTypeEnum relationType = child.getGender() == GenderEnum.MALE ?
@@ -180,26 +489,18 @@ public class ApprovalServiceImpl implements ApprovalService {
                             .relationType(relationType)
                             .build();
                     relationMapper.insert(relation);
+                    memberAncestryService.linkRelation(relation);
+                    familyGraphCache.putRelation(relation);
                 }
             } else if ("add_parent".equals(joinType)) {
                 Long childId = memberInfo.get("childId") instanceof Number ?
                         ((Number) memberInfo.get("childId")).longValue() : null;
 
-                FamilyMember parent = FamilyMember.builder()
-                        .familyId(joinRequest.getFamilyId())
-                        .userId(memberInfo.get("userId") instanceof Number ?
-                                ((Number) memberInfo.get("userId")).longValue() : null)
-                        .name((String) memberInfo.get("name"))
-                        .gender(getGenderEnum((String) memberInfo.get("gender")))
-                        .avatar((String) memberInfo.get("avatar"))
-                        .birthDate(memberInfo.get("birthDate") != null ?
-                                LocalDate.parse((String) memberInfo.get("birthDate")) : null)
-                        .birthPlace((String) memberInfo.get("birthPlace"))
-                        .bio((String) memberInfo.get("bio"))
-                        .isCreator(0)
-                        .createTime(LocalDateTime.now())
-                        .build();
+                FamilyMember parent = buildMember(joinRequest.getFamilyId(), memberInfo);
                 memberMapper.insert(parent);
+                memberAncestryService.addMember(parent.getFamilyId(), parent.getId());
+                familyMapper.addMemberCount(parent.getFamilyId(), 1);
+                familyGraphCache.putMember(parent);
 
                 if (childId != null) {
                     // 1. 找到目标成员的原父亲
@@ -216,6 +517,8 @@ public class ApprovalServiceImpl implements ApprovalService {
                         // 2. 删除原父亲与目标成员的关系
                         for (MemberRelation oldRel : oldParentRelations) {
                             relationMapper.deleteById(oldRel.getId());
+                            memberAncestryService.unlinkRelation(oldRel);
+                            familyGraphCache.removeRelation(oldRel.getFamilyId(), oldRel.getId());
                         }
                     }
 
@@ -230,6 +533,8 @@ public class ApprovalServiceImpl implements ApprovalService {
                             .relationType(relationType)
                             .build();
                     relationMapper.insert(newRelation);
+                    memberAncestryService.linkRelation(newRelation);
+                    familyGraphCache.putRelation(newRelation);
 
                     // 4. 如果有原父亲，建立原父亲 -> 新父亲的关系
                     if (oldParentId != null) {
@@ -244,6 +549,8 @@ public class ApprovalServiceImpl implements ApprovalService {
                                     .relationType(oldRelationType)
                                     .build();
                             relationMapper.insert(oldToNewRelation);
+                            memberAncestryService.linkRelation(oldToNewRelation);
+                            familyGraphCache.putRelation(oldToNewRelation);
                         }
                     }
                 }
@@ -253,10 +560,31 @@ public class ApprovalServiceImpl implements ApprovalService {
         }
     }
 
+    /**
+     * 按申请中的成员信息构建待插入的成员
+     */
+    private FamilyMember buildMember(Long familyId, Map<String, Object> memberInfo) {
+        return FamilyMember.builder()
+                .familyId(familyId)
+                .userId(memberInfo.get("userId") instanceof Number ?
+                        ((Number) memberInfo.get("userId")).longValue() : null)
+                .name((String) memberInfo.get("name"))
+                .gender(getGenderEnum((String) memberInfo.get("gender")))
+                .avatar((String) memberInfo.get("avatar"))
+                .birthDate(memberInfo.get("birthDate") != null ?
+                        LocalDate.parse((String) memberInfo.get("birthDate")) : null)
+                .birthPlace((String) memberInfo.get("birthPlace"))
+                .bio((String) memberInfo.get("bio"))
+                .isCreator(0)
+                .createTime(LocalDateTime.now())
+                .build();
+    }
+
     private void handleEditRequest(EditRequest editRequest, ApprovalHandleDTO request, Long userId) {
         RequestStatusEnum newStatus = "approve".equals(request.getAction()) ?
                 RequestStatusEnum.APPROVED : RequestStatusEnum.REJECTED;
 
+        boolean wasPending = editRequest.getStatus() == RequestStatusEnum.PENDING;
         editRequest.setStatus(newStatus);
         editRequest.setReviewerId(userId);
         editRequest.setReviewedAt(LocalDateTime.now());
@@ -266,8 +594,18 @@ public class ApprovalServiceImpl implements ApprovalService {
         }
         
         editRequestMapper.updateById(editRequest);
+        approvalInboxMapper.syncEditRequest(editRequest.getId());
+        if (wasPending) {
+            pendingApprovalCounter.decrement(editRequest.getFamilyId(), PendingApprovalCounter.EDIT);
+        }
+
+        if ("approve".equals(request.getAction())) {
+            applyEditRequest(editRequest);
+        }
+    }
 
-        if ("approve".equals(request.getAction()) && editRequest.getChangesJson() != null) {
+    private void applyEditRequest(EditRequest editRequest) {
+        if (editRequest.getChangesJson() != null) {
             try {
                 Map<String, Object> memberInfo = objectMapper.readValue(
                         editRequest.getChangesJson(),
@@ -310,6 +648,9 @@ public class ApprovalServiceImpl implements ApprovalService {
                 .isCreator(0)
                 .build();
         memberMapper.insert(child);
+        memberAncestryService.addMember(child.getFamilyId(), child.getId());
+        familyMapper.addMemberCount(child.getFamilyId(), 1);
+        familyGraphCache.putMember(child);
 
         RelationTypeEnum relationType = child.getGender() == GenderEnum.MALE ?
                 RelationTypeEnum.FATHER_SON : RelationTypeEnum.MOTHER_SON;
@@ -321,6 +662,8 @@ public class ApprovalServiceImpl implements ApprovalService {
                 .relationType(relationType)
                 .build();
         relationMapper.insert(relation);
+        memberAncestryService.linkRelation(relation);
+        familyGraphCache.putRelation(relation);
     }
 
     private void handleAddParentRequest(EditRequest editRequest, Map<String, Object> memberInfo) {
@@ -341,6 +684,9 @@ public class ApprovalServiceImpl implements ApprovalService {
                 .isCreator(0)
                 .build();
         memberMapper.insert(parent);
+        memberAncestryService.addMember(parent.getFamilyId(), parent.getId());
+        familyMapper.addMemberCount(parent.getFamilyId(), 1);
+        familyGraphCache.putMember(parent);
 
         RelationTypeEnum relationType = parent.getGender() == GenderEnum.MALE ?
                 RelationTypeEnum.FATHER_SON : RelationTypeEnum.MOTHER_SON;
@@ -352,6 +698,8 @@ public class ApprovalServiceImpl implements ApprovalService {
                 .relationType(relationType)
                 .build();
         relationMapper.insert(relation);
+        memberAncestryService.linkRelation(relation);
+        familyGraphCache.putRelation(relation);
     }
 
     private void handleEditMemberRequest(EditRequest editRequest, Map<String, Object> changes) {
@@ -366,6 +714,7 @@ public class ApprovalServiceImpl implements ApprovalService {
             }
         }
         memberMapper.updateById(member);
+        familyGraphCache.putMember(member);
     }
     
     private void applyFieldChange(FamilyMember member, String fieldName, String newValue) {
@@ -382,6 +731,7 @@ public class ApprovalServiceImpl implements ApprovalService {
     }
 
     @Override
+    @Transactional
     public void handleApprovalAdmin(Long familyId, Long requestId, ApprovalHandleDTO request) {
         Family family = familyMapper.selectById(familyId);
         if (family == null) {
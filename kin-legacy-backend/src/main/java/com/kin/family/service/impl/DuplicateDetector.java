@@ -0,0 +1,363 @@
+package com.kin.family.service.impl;
+
+import com.kin.family.constant.GenderEnum;
+import com.kin.family.entity.FamilyMember;
+import com.kin.family.entity.MemberDuplicateCandidate;
+import com.kin.family.util.PinyinUtil;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 重复成员检测器
+ * 按阻塞键把成员分块，只比较同一块内的成员对：关联同一用户、同家谱同音姓名、姓氏加出生年、同音姓名加出生年；
+ * 同一对成员若在更靠前的阻塞键下已同块则不再重复比较，成员数超过 {@link #MAX_BLOCK_SIZE} 的块过于宽泛，直接跳过。
+ * 各块的成员对切成工作单元，由 ForkJoin 并行打分
+ *
+ * @author candong
+ */
+final class DuplicateDetector {
+
+    static final int MAX_BLOCK_SIZE = 1000;
+    static final int THRESHOLD = 60;
+
+    private static final int UNIT_PAIRS = 8192;
+
+    private static final Set<String> COMPOUND_SURNAMES = Set.of(
+            "欧阳", "司马", "诸葛", "上官", "东方", "皇甫", "尉迟", "公孙", "慕容", "长孙",
+            "宇文", "司徒", "夏侯", "令狐", "端木", "独孤", "南宫", "西门", "轩辕", "申屠");
+
+    private static final int SAME_USER = 1;
+    private static final int SAME_NAME = 1 << 1;
+    private static final int SAME_PINYIN = 1 << 2;
+    private static final int SIMILAR_NAME = 1 << 3;
+    private static final int SAME_BIRTH_DATE = 1 << 4;
+    private static final int SAME_BIRTH_YEAR = 1 << 5;
+    private static final int SAME_BIRTH_PLACE = 1 << 6;
+    private static final int SAME_DEATH_DATE = 1 << 7;
+    private static final String[] REASONS = {
+            "关联同一用户", "姓名相同", "姓名同音", "姓名相近", "出生日期相同", "出生年份相同", "出生地相同", "去世日期相同"};
+
+    private static final int KEY_TYPES = 4;
+
+    private int size;
+    private long[] ids;
+    private long[] familyIds;
+    private String[] names;
+    private String[] pinyins;
+    private String[] surnames;
+    private byte[] genders;
+    private int[] birthDates;
+    private int[] deathDates;
+    private String[] birthPlaces;
+    private long[] userIds;
+
+    private int[][] blocks;
+    private int[] blockTypes;
+    /**
+     * 每种阻塞键下成员所在的块，未分块或块被跳过时为 -1
+     */
+    private int[][] blockOf;
+    private int skippedBlocks;
+    private final LongAdder comparisons = new LongAdder();
+
+    DuplicateDetector(int capacity) {
+        int n = Math.max(capacity, 16);
+        ids = new long[n];
+        familyIds = new long[n];
+        names = new String[n];
+        pinyins = new String[n];
+        surnames = new String[n];
+        genders = new byte[n];
+        birthDates = new int[n];
+        deathDates = new int[n];
+        birthPlaces = new String[n];
+        userIds = new long[n];
+    }
+
+    void add(FamilyMember member) {
+        if (size == ids.length) {
+            int n = size + (size >> 1);
+            ids = Arrays.copyOf(ids, n);
+            familyIds = Arrays.copyOf(familyIds, n);
+            names = Arrays.copyOf(names, n);
+            pinyins = Arrays.copyOf(pinyins, n);
+            surnames = Arrays.copyOf(surnames, n);
+            genders = Arrays.copyOf(genders, n);
+            birthDates = Arrays.copyOf(birthDates, n);
+            deathDates = Arrays.copyOf(deathDates, n);
+            birthPlaces = Arrays.copyOf(birthPlaces, n);
+            userIds = Arrays.copyOf(userIds, n);
+        }
+        int i = size++;
+        String name = member.getName() == null ? "" : member.getName().replaceAll("\\s+", "");
+        ids[i] = member.getId();
+        familyIds[i] = member.getFamilyId();
+        names[i] = name;
+        pinyins[i] = PinyinUtil.toPinyin(name)[0];
+        surnames[i] = name.length() > 2 && COMPOUND_SURNAMES.contains(name.substring(0, 2))
+                ? name.substring(0, 2) : name.isEmpty() ? "" : name.substring(0, 1);
+        genders[i] = member.getGender() == GenderEnum.MALE ? (byte) 1 : member.getGender() == GenderEnum.FEMALE ? (byte) 2 : 0;
+        birthDates[i] = toInt(member.getBirthDate());
+        deathDates[i] = toInt(member.getDeathDate());
+        birthPlaces[i] = member.getBirthPlace() == null || member.getBirthPlace().isBlank() ? null : member.getBirthPlace().strip();
+        userIds[i] = member.getUserId() == null ? 0 : member.getUserId();
+    }
+
+    int size() {
+        return size;
+    }
+
+    int blockCount() {
+        return blocks == null ? 0 : blocks.length;
+    }
+
+    int skippedBlockCount() {
+        return skippedBlocks;
+    }
+
+    long comparisonCount() {
+        return comparisons.sum();
+    }
+
+    /**
+     * 分块并行比较，返回得分达到 {@link #THRESHOLD} 的成员对
+     */
+    List<MemberDuplicateCandidate> detect(ForkJoinPool pool) {
+        buildBlocks();
+
+        List<int[]> units = new ArrayList<>();
+        for (int b = 0; b < blocks.length; b++) {
+            int k = blocks[b].length;
+            int from = 0;
+            long pairs = 0;
+            for (int row = 0; row < k - 1; row++) {
+                pairs += k - 1 - row;
+                if (pairs >= UNIT_PAIRS) {
+                    units.add(new int[]{b, from, row + 1});
+                    from = row + 1;
+                    pairs = 0;
+                }
+            }
+            if (from < k - 1) {
+                units.add(new int[]{b, from, k - 1});
+            }
+        }
+        return pool.invoke(new PairTask(units, 0, units.size()));
+    }
+
+    private void buildBlocks() {
+        List<int[]> all = new ArrayList<>();
+        List<Integer> types = new ArrayList<>();
+        blockOf = new int[KEY_TYPES][size];
+        for (int type = 0; type < KEY_TYPES; type++) {
+            Arrays.fill(blockOf[type], -1);
+            String[] keys = new String[size];
+            List<Integer> order = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                keys[i] = key(type, i);
+                if (keys[i] != null) {
+                    order.add(i);
+                }
+            }
+            order.sort((a, b) -> keys[a].compareTo(keys[b]));
+            int start = 0;
+            for (int end = 1; end <= order.size(); end++) {
+                if (end < order.size() && keys[order.get(end)].equals(keys[order.get(start)])) {
+                    continue;
+                }
+                int k = end - start;
+                if (k > MAX_BLOCK_SIZE) {
+                    skippedBlocks++;
+                } else if (k > 1) {
+                    int[] block = new int[k];
+                    for (int j = 0; j < k; j++) {
+                        block[j] = order.get(start + j);
+                        blockOf[type][block[j]] = all.size();
+                    }
+                    all.add(block);
+                    types.add(type);
+                }
+                start = end;
+            }
+        }
+        blocks = all.toArray(new int[0][]);
+        blockTypes = types.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private String key(int type, int i) {
+        int year = birthDates[i] / 10000;
+        return switch (type) {
+            case 0 -> userIds[i] == 0 ? null : Long.toString(userIds[i]);
+            case 1 -> pinyins[i].isEmpty() ? null : familyIds[i] + ":" + pinyins[i];
+            case 2 -> surnames[i].isEmpty() || year == 0 ? null : surnames[i] + ":" + year;
+            default -> pinyins[i].isEmpty() || year == 0 ? null : pinyins[i] + ":" + year;
+        };
+    }
+
+    /**
+     * 两位成员在更靠前的阻塞键下已同块，说明已经比较过
+     */
+    private boolean comparedBefore(int type, int a, int b) {
+        for (int t = 0; t < type; t++) {
+            if (blockOf[t][a] >= 0 && blockOf[t][a] == blockOf[t][b]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private MemberDuplicateCandidate score(int a, int b) {
+        int flags = 0;
+        int score = 0;
+        if (userIds[a] != 0 && userIds[a] == userIds[b]) {
+            flags |= SAME_USER;
+            score += 60;
+        }
+
+        if (names[a].equals(names[b])) {
+            flags |= SAME_NAME;
+            score += 40;
+        } else if (!pinyins[a].isEmpty() && pinyins[a].equals(pinyins[b])) {
+            flags |= SAME_PINYIN;
+            score += 30;
+        } else if (names[a].length() >= 2 && names[b].length() >= 2 && withinOneEdit(names[a], names[b])) {
+            flags |= SIMILAR_NAME;
+            score += 20;
+        } else if ((flags & SAME_USER) == 0) {
+            return null;
+        }
+
+        if (birthDates[a] != 0 && birthDates[b] != 0) {
+            int yearGap = Math.abs(birthDates[a] / 10000 - birthDates[b] / 10000);
+            if (birthDates[a] == birthDates[b]) {
+                flags |= SAME_BIRTH_DATE;
+                score += 30;
+            } else if (yearGap == 0) {
+                flags |= SAME_BIRTH_YEAR;
+                score += 10;
+            } else if (yearGap > 1) {
+                score -= 40;
+            }
+        }
+        if (birthPlaces[a] != null && birthPlaces[a].equals(birthPlaces[b])) {
+            flags |= SAME_BIRTH_PLACE;
+            score += 10;
+        }
+        if (deathDates[a] != 0 && deathDates[b] != 0) {
+            if (deathDates[a] == deathDates[b]) {
+                flags |= SAME_DEATH_DATE;
+                score += 10;
+            } else {
+                score -= 20;
+            }
+        }
+        if (genders[a] != 0 && genders[b] != 0 && genders[a] != genders[b]) {
+            score -= 50;
+        }
+        if (score < THRESHOLD) {
+            return null;
+        }
+
+        StringBuilder reasons = new StringBuilder();
+        for (int bit = 0; bit < REASONS.length; bit++) {
+            if ((flags & (1 << bit)) != 0) {
+                if (reasons.length() > 0) {
+                    reasons.append('、');
+                }
+                reasons.append(REASONS[bit]);
+            }
+        }
+        int first = ids[a] < ids[b] ? a : b;
+        int second = first == a ? b : a;
+        return MemberDuplicateCandidate.builder()
+                .familyId(familyIds[first])
+                .memberId(ids[first])
+                .otherFamilyId(familyIds[second])
+                .otherMemberId(ids[second])
+                .score(Math.min(score, 100))
+                .reasons(reasons.toString())
+                .build();
+    }
+
+    private static boolean withinOneEdit(String a, String b) {
+        if (Math.abs(a.length() - b.length()) > 1) {
+            return false;
+        }
+        String shorter = a.length() <= b.length() ? a : b;
+        String longer = shorter == a ? b : a;
+        int i = 0;
+        while (i < shorter.length() && shorter.charAt(i) == longer.charAt(i)) {
+            i++;
+        }
+        if (shorter.length() == longer.length()) {
+            return shorter.regionMatches(i + 1, longer, i + 1, shorter.length() - i - 1);
+        }
+        return shorter.regionMatches(i, longer, i + 1, shorter.length() - i);
+    }
+
+    private static int toInt(LocalDate date) {
+        return date == null ? 0 : date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+
+    /**
+     * 把工作单元二分到只剩一个后逐对打分
+     */
+    private final class PairTask extends RecursiveTask<List<MemberDuplicateCandidate>> {
+        private final List<int[]> units;
+        private final int lo;
+        private final int hi;
+
+        private PairTask(List<int[]> units, int lo, int hi) {
+            this.units = units;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected List<MemberDuplicateCandidate> compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                PairTask left = new PairTask(units, lo, mid);
+                left.fork();
+                List<MemberDuplicateCandidate> right = new PairTask(units, mid, hi).compute();
+                List<MemberDuplicateCandidate> result = left.join();
+                if (result.isEmpty()) {
+                    return right;
+                }
+                result.addAll(right);
+                return result;
+            }
+            List<MemberDuplicateCandidate> result = new ArrayList<>();
+            if (lo == hi) {
+                return result;
+            }
+            int[] unit = units.get(lo);
+            int[] block = blocks[unit[0]];
+            int type = blockTypes[unit[0]];
+            long compared = 0;
+            for (int row = unit[1]; row < unit[2]; row++) {
+                int a = block[row];
+                for (int col = row + 1; col < block.length; col++) {
+                    int b = block[col];
+                    if (comparedBefore(type, a, b)) {
+                        continue;
+                    }
+                    compared++;
+                    MemberDuplicateCandidate candidate = score(a, b);
+                    if (candidate != null) {
+                        result.add(candidate);
+                    }
+                }
+            }
+            comparisons.add(compared);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.kin.family.service.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kin.family.constant.GenderEnum;
+import com.kin.family.dto.GedcomFamilyDTO;
+import com.kin.family.dto.GedcomIndividualDTO;
+import com.kin.family.entity.Family;
+import com.kin.family.entity.FamilyMember;
+import com.kin.family.entity.MemberRelation;
+import com.kin.family.exception.BusinessException;
+import com.kin.family.mapper.FamilyMapper;
+import com.kin.family.mapper.FamilyMemberMapper;
+import com.kin.family.mapper.MemberRelationMapper;
+import com.kin.family.service.FamilyExportService;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 家谱导出服务实现
+ * 在同一个只读事务内依次打开成员、关系游标逐行写出，导出内容是一致的快照；
+ * GEDCOM 的家庭分组和个人记录上的家庭指针由数据库排序、聚合后按行返回，应用端只保留当前一个家庭
+ *
+ * @author candong
+ */
+@Service
+public class FamilyExportServiceImpl implements FamilyExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_GEDCOM_TEXT = 200;
+    private static final DateTimeFormatter GEDCOM_DATE = DateTimeFormatter.ofPattern("d MMM uuuu", Locale.ENGLISH);
+
+    private final FamilyMapper familyMapper;
+    private final FamilyMemberMapper memberMapper;
+    private final MemberRelationMapper relationMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public FamilyExportServiceImpl(FamilyMapper familyMapper,
+                                   FamilyMemberMapper memberMapper,
+                                   MemberRelationMapper relationMapper,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager) {
+        this.familyMapper = familyMapper;
+        this.memberMapper = memberMapper;
+        this.relationMapper = relationMapper;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public StreamingResponseBody export(Long familyId, String format, boolean gzip) {
+        Family family = familyMapper.selectById(familyId);
+        if (family == null) {
+            throw new BusinessException("家谱不存在");
+        }
+        if (!FORMAT_GEDCOM.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new BusinessException("仅支持 gedcom、ndjson 格式");
+        }
+        return outputStream -> {
+            OutputStream out = StreamUtils.nonClosing(outputStream);
+            GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+            OutputStream target = gzipStream != null ? StreamUtils.nonClosing(gzipStream) : out;
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try {
+                        if (FORMAT_GEDCOM.equals(format)) {
+                            writeGedcom(family, target);
+                        } else {
+                            writeNdjson(family, target);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (gzipStream != null) {
+                gzipStream.finish();
+            }
+        };
+    }
+
+    private void writeNdjson(Family family, OutputStream out) throws IOException {
+        ObjectWriter memberWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            // 每行末尾自行写换行，不要默认的根值分隔空格
+            generator.setRootValueSeparator(null);
+            generator.writeStartObject();
+            generator.writeStringField("type", "family");
+            generator.writeObjectFieldStart("data");
+            generator.writeNumberField("id", family.getId());
+            generator.writeStringField("name", family.getName());
+            generator.writeStringField("description", family.getDescription());
+            generator.writeNumberField("dataVersion", familyMapper.selectDataVersion(family.getId()));
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+
+            try (Cursor<FamilyMember> members = memberMapper.selectCursorByFamily(family.getId())) {
+                for (FamilyMember member : members) {
+                    generator.writeStartObject();
+                    generator.writeStringField("type", "member");
+                    generator.writeFieldName("data");
+                    memberWriter.writeValue(generator, member);
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+            }
+            try (Cursor<MemberRelation> relations = relationMapper.selectCursorByFamily(family.getId())) {
+                for (MemberRelation relation : relations) {
+                    generator.writeStartObject();
+                    generator.writeStringField("type", "relation");
+                    generator.writeObjectFieldStart("data");
+                    generator.writeNumberField("id", relation.getId());
+                    generator.writeNumberField("fromMemberId", relation.getFromMemberId());
+                    generator.writeNumberField("toMemberId", relation.getToMemberId());
+                    generator.writeStringField("relationType", relation.getRelationType().getValue());
+                    generator.writeEndObject();
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+            }
+        }
+    }
+
+    private void writeGedcom(Family family, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        line(writer, 0, "HEAD", null);
+        line(writer, 1, "SOUR", "KIN_LEGACY");
+        line(writer, 1, "DATE", gedcomDate(LocalDate.now()));
+        line(writer, 1, "SUBM", "@U1@");
+        line(writer, 1, "GEDC", null);
+        line(writer, 2, "VERS", "5.5.1");
+        line(writer, 2, "FORM", "LINEAGE-LINKED");
+        line(writer, 1, "CHAR", "UTF-8");
+        line(writer, 0, "@U1@ SUBM", null);
+        line(writer, 1, "NAME", family.getName());
+
+        try (Cursor<GedcomIndividualDTO> individuals = memberMapper.selectGedcomIndividuals(family.getId())) {
+            for (GedcomIndividualDTO individual : individuals) {
+                writeIndividual(writer, individual);
+            }
+        }
+
+        try (Cursor<GedcomFamilyDTO> rows = memberMapper.selectGedcomFamilies(family.getId())) {
+            GedcomFamilyDTO current = null;
+            for (GedcomFamilyDTO row : rows) {
+                if (current == null || !Objects.equals(current.getFatherId(), row.getFatherId())
+                        || !Objects.equals(current.getMotherId(), row.getMotherId())) {
+                    current = row;
+                    line(writer, 0, "@F" + familyKey(row.getFatherId(), row.getMotherId()) + "@ FAM", null);
+                    if (row.getFatherId() != null) {
+                        line(writer, 1, "HUSB", "@I" + row.getFatherId() + "@");
+                    }
+                    if (row.getMotherId() != null) {
+                        line(writer, 1, "WIFE", "@I" + row.getMotherId() + "@");
+                    }
+                }
+                if (row.getChildId() != null) {
+                    line(writer, 1, "CHIL", "@I" + row.getChildId() + "@");
+                }
+            }
+        }
+
+        line(writer, 0, "TRLR", null);
+        writer.flush();
+    }
+
+    private void writeIndividual(Writer writer, GedcomIndividualDTO individual) throws IOException {
+        line(writer, 0, "@I" + individual.getId() + "@ INDI", null);
+        line(writer, 1, "NAME", escape(individual.getName()));
+        if (individual.getGender() != null) {
+            line(writer, 1, "SEX", individual.getGender() == GenderEnum.MALE ? "M" : "F");
+        }
+        if (individual.getBirthDate() != null || individual.getBirthPlace() != null) {
+            line(writer, 1, "BIRT", null);
+            if (individual.getBirthDate() != null) {
+                line(writer, 2, "DATE", gedcomDate(individual.getBirthDate()));
+            }
+            if (individual.getBirthPlace() != null) {
+                line(writer, 2, "PLAC", escape(individual.getBirthPlace()));
+            }
+        }
+        if (individual.getDeathDate() != null) {
+            line(writer, 1, "DEAT", null);
+            line(writer, 2, "DATE", gedcomDate(individual.getDeathDate()));
+        }
+        if (individual.getBio() != null && !individual.getBio().isBlank()) {
+            writeText(writer, "NOTE", individual.getBio());
+        }
+        if (individual.getFatherId() != null || individual.getMotherId() != null) {
+            line(writer, 1, "FAMC", "@F" + familyKey(individual.getFatherId(), individual.getMotherId()) + "@");
+        }
+        if (individual.getFamilyKeys() != null) {
+            for (String key : individual.getFamilyKeys().split(",")) {
+                line(writer, 1, "FAMS", "@F" + key + "@");
+            }
+        }
+    }
+
+    /**
+     * 多行文本：首行跟在标签后，换行用 CONT，过长的行用 CONC 续接
+     */
+    private void writeText(Writer writer, String tag, String text) throws IOException {
+        String[] lines = text.replace("\r", "").split("\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            String value = escape(lines[i]);
+            int end = splitPoint(value, 0);
+            line(writer, i == 0 ? 1 : 2, i == 0 ? tag : "CONT", value.substring(0, end));
+            while (end < value.length()) {
+                int next = splitPoint(value, end);
+                line(writer, 2, "CONC", value.substring(end, next));
+                end = next;
+            }
+        }
+    }
+
+    /**
+     * 从 start 起截取不超过 MAX_GEDCOM_TEXT 个字符，不拆开代理对，也不在空格前后断开（CONC 会吞掉首尾空格）
+     */
+    private static int splitPoint(String value, int start) {
+        int end = Math.min(value.length(), start + MAX_GEDCOM_TEXT);
+        if (end == value.length()) {
+            return end;
+        }
+        while (end > start + 1 && (Character.isHighSurrogate(value.charAt(end - 1))
+                || value.charAt(end - 1) == ' ' || value.charAt(end) == ' ')) {
+            end--;
+        }
+        return end;
+    }
+
+    private static void line(Writer writer, int level, String tag, String value) throws IOException {
+        writer.write(Integer.toString(level));
+        writer.write(' ');
+        writer.write(tag);
+        if (value != null && !value.isEmpty()) {
+            writer.write(' ');
+            writer.write(value);
+        }
+        writer.write('\n');
+    }
+
+    private static String escape(String value) {
+        return value == null ? null : value.replace("\r", "").replace("\n", " ").replace("@", "@@");
+    }
+
+    private static String familyKey(Long fatherId, Long motherId) {
+        return (fatherId != null ? fatherId : 0) + "_" + (motherId != null ? motherId : 0);
+    }
+
+    private static String gedcomDate(LocalDate date) {
+        return GEDCOM_DATE.format(date).toUpperCase(Locale.ENGLISH);
+    }
+}
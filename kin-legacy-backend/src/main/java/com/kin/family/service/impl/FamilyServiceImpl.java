@@ -3,6 +3,9 @@ package com.kin.family.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.kin.family.cache.FamilyGraphCache;
+import com.kin.family.cache.PendingApprovalCounter;
+import com.kin.family.dto.CursorPageResult;
 import com.kin.family.dto.FamilyCreateDTO;
 import com.kin.family.dto.FamilyDetailDTO;
 import com.kin.family.dto.FamilyJoinDTO;
@@ -14,14 +17,20 @@ import com.kin.family.entity.User;
 import com.kin.family.constant.GenderEnum;
 import com.kin.family.constant.RequestStatusEnum;
 import com.kin.family.exception.BusinessException;
+import com.kin.family.mapper.ApprovalInboxMapper;
+import com.kin.family.mapper.BatchMapper;
 import com.kin.family.mapper.FamilyMapper;
 import com.kin.family.mapper.FamilyMemberMapper;
 import com.kin.family.mapper.JoinRequestMapper;
+import com.kin.family.mapper.TableStatMapper;
 import com.kin.family.mapper.UserMapper;
 import com.kin.family.mapper.UserGenealogyMapper;
 import com.kin.family.service.FamilyService;
+import com.kin.family.service.MemberAncestryService;
 import com.kin.family.service.UserRoleService;
+import com.kin.family.util.CursorUtil;
 import com.kin.family.util.FamilyCodeUtil;
+import com.kin.family.vo.FamilyStatisticsVO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -40,9 +49,14 @@ public class FamilyServiceImpl implements FamilyService {
     private final FamilyMapper familyMapper;
     private final FamilyMemberMapper memberMapper;
     private final JoinRequestMapper joinRequestMapper;
+    private final ApprovalInboxMapper approvalInboxMapper;
     private final UserMapper userMapper;
     private final UserGenealogyMapper userGenealogyMapper;
     private final UserRoleService userRoleService;
+    private final FamilyGraphCache familyGraphCache;
+    private final PendingApprovalCounter pendingApprovalCounter;
+    private final MemberAncestryService memberAncestryService;
+    private final TableStatMapper tableStatMapper;
 
     @Override
     @Transactional
@@ -56,18 +70,19 @@ public class FamilyServiceImpl implements FamilyService {
             code = FamilyCodeUtil.generateCode();
         } while (familyMapper.selectCount(new LambdaQueryWrapper<Family>().eq(Family::getCode, code)) > 0);
 
+        User user = userMapper.selectById(userId);
+        boolean isAdmin = user != null && user.getGlobalRole().isAdmin();
+
         Family family = Family.builder()
                 .name(request.getName())
                 .code(code)
                 .description(request.getDescription())
                 .avatar(request.getAvatar())
                 .creatorId(userId)
+                .memberCount(isAdmin ? 0 : 1)
                 .build();
         familyMapper.insert(family);
 
-        User user = userMapper.selectById(userId);
-        boolean isAdmin = user != null && user.getGlobalRole().isAdmin();
-
         String creatorName = user != null && user.getName() != null && !user.getName().isEmpty() 
                 ? user.getName() 
                 : (user != null ? user.getNickname() : "创建者");
@@ -83,6 +98,8 @@ public class FamilyServiceImpl implements FamilyService {
                     .isCreator(1)
                     .build();
             memberMapper.insert(creatorMember);
+            memberAncestryService.addMember(family.getId(), creatorMember.getId());
+            familyGraphCache.putMember(creatorMember);
         }
 
         userRoleService.createUserGenealogy(userId, family.getId(), "ADMIN", 
@@ -124,6 +141,8 @@ public class FamilyServiceImpl implements FamilyService {
                 .status(RequestStatusEnum.PENDING)
                 .build();
         joinRequestMapper.insert(joinRequest);
+        approvalInboxMapper.syncJoinRequest(joinRequest.getId());
+        pendingApprovalCounter.increment(family.getId(), PendingApprovalCounter.JOIN);
     }
 
     @Override
@@ -135,6 +154,24 @@ public class FamilyServiceImpl implements FamilyService {
         return convertToDetailDTO(family);
     }
 
+    @Override
+    public Long getDataVersion(Long id) {
+        Long dataVersion = familyMapper.selectDataVersion(id);
+        if (dataVersion == null) {
+            throw new BusinessException("家谱不存在");
+        }
+        return dataVersion;
+    }
+
+    @Override
+    public FamilyStatisticsVO getFamilyStatistics(Long id) {
+        Family family = familyMapper.selectById(id);
+        if (family == null) {
+            throw new BusinessException("家谱不存在");
+        }
+        return familyGraphCache.get(id).getStatistics();
+    }
+
     @Override
     public List<FamilyDetailDTO> getMyFamilies(Long userId) {
         LambdaQueryWrapper<FamilyMember> wrapper = new LambdaQueryWrapper<>();
@@ -208,6 +245,7 @@ public class FamilyServiceImpl implements FamilyService {
         }
 
         familyMapper.deleteById(id);
+        familyGraphCache.removeFamily(id);
     }
 
     @Override
@@ -222,6 +260,28 @@ public class FamilyServiceImpl implements FamilyService {
         return PageResult.of(records, familyPage.getTotal(), page, size);
     }
 
+    @Override
+    public CursorPageResult<FamilyDetailDTO> getFamiliesByCursor(String cursor, Integer size, boolean withTotal) {
+        int limit = CursorUtil.size(size);
+        List<Family> rows = familyMapper.selectList(CursorUtil.seek(new LambdaQueryWrapper<>(),
+                CursorUtil.decode(cursor), limit, Family::getCreateTime, Family::getId));
+        return CursorPageResult.of(rows, limit, f -> CursorUtil.encode(f.getCreateTime(), f.getId()))
+                .map(this::convertToDetailDTO)
+                .withTotal(withTotal ? familyMapper.selectCount(null) : tableStatMapper.selectEstimatedRows("family"), !withTotal);
+    }
+
+    /**
+     * 先用一次不加锁的汇总找出成员数有偏差的家谱，再逐批按实际行数改写，改写语句只锁这些家谱
+     */
+    @Override
+    public int reconcileMemberCounts() {
+        List<Long> familyIds = familyMapper.selectMemberCountDrift();
+        for (int from = 0; from < familyIds.size(); from += BatchMapper.BATCH_SIZE) {
+            familyMapper.recountMembers(familyIds.subList(from, Math.min(familyIds.size(), from + BatchMapper.BATCH_SIZE)));
+        }
+        return familyIds.size();
+    }
+
     private FamilyDetailDTO convertToDetailDTO(Family family) {
         FamilyDetailDTO dto = new FamilyDetailDTO();
         dto.setId(family.getId());
@@ -231,12 +291,7 @@ public class FamilyServiceImpl implements FamilyService {
         dto.setDescription(family.getDescription());
         dto.setCreatorId(family.getCreatorId());
         dto.setCreateTime(family.getCreateTime());
-
-        Long count = memberMapper.selectCount(
-                new LambdaQueryWrapper<FamilyMember>().eq(FamilyMember::getFamilyId, family.getId())
-        );
-        dto.setMemberCount(count.intValue());
-
+        dto.setMemberCount(family.getMemberCount());
         return dto;
     }
 }
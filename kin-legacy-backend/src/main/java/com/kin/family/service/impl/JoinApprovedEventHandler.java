@@ -0,0 +1,45 @@
+package com.kin.family.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kin.family.dto.JoinApprovedEvent;
+import com.kin.family.entity.OutboxEvent;
+import com.kin.family.service.OutboxEventHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 加入申请通过事件处理器
+ * 只承接通知申请人等审批事务之外的副作用；收件箱、成员数、祖先索引、变更日志等数据库内的记录
+ * 仍在审批事务内同步写入，不经由发件箱
+ *
+ * @author candong
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JoinApprovedEventHandler implements OutboxEventHandler {
+
+    public static final String EVENT_TYPE = "join.approved";
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 以加入申请ID作为幂等键
+     */
+    public static String eventKey(Long joinRequestId) {
+        return EVENT_TYPE + ":" + joinRequestId;
+    }
+
+    @Override
+    public String getEventType() {
+        return EVENT_TYPE;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) throws Exception {
+        JoinApprovedEvent payload = objectMapper.readValue(event.getPayload(), JoinApprovedEvent.class);
+        log.info("加入申请已通过，通知申请人: familyId={}, userId={}, memberId={}",
+                payload.getFamilyId(), payload.getUserId(), payload.getMemberId());
+    }
+}
@@ -0,0 +1,99 @@
+package com.kin.family.service.impl;
+
+import com.kin.family.constant.RelationTypeEnum;
+import com.kin.family.entity.MemberRelation;
+import com.kin.family.mapper.FamilyMemberMapper;
+import com.kin.family.mapper.MemberClosureMapper;
+import com.kin.family.service.MemberAncestryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 成员祖先索引服务实现
+ *
+ * @author candong
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberAncestryServiceImpl implements MemberAncestryService {
+
+    private final MemberClosureMapper closureMapper;
+    private final FamilyMemberMapper memberMapper;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addMember(Long familyId, Long memberId) {
+        closureMapper.insertSelf(familyId, memberId);
+        memberMapper.updateSubtreeGenerations(memberId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addMembers(Long familyId, List<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return;
+        }
+        closureMapper.insertSelfBatch(familyId, memberIds);
+        memberMapper.updateGenerations(memberIds);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeMember(Long memberId) {
+        List<Long> descendantIds = closureMapper.selectDescendantIds(memberId);
+        closureMapper.deleteLinksThrough(memberId);
+        closureMapper.relinkDescendants(memberId);
+        closureMapper.deleteByMember(memberId);
+        if (!descendantIds.isEmpty()) {
+            memberMapper.updateGenerations(descendantIds);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void linkRelation(MemberRelation relation) {
+        if (!isParentRelation(relation)) {
+            return;
+        }
+        closureMapper.insertLinks(relation.getFamilyId(), relation.getFromMemberId(), relation.getToMemberId());
+        memberMapper.updateSubtreeGenerations(relation.getToMemberId());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void linkChildRelations(List<MemberRelation> relations) {
+        List<MemberRelation> parentRelations = relations.stream()
+                .filter(this::isParentRelation)
+                .toList();
+        if (parentRelations.isEmpty()) {
+            return;
+        }
+        closureMapper.insertChildLinksBatch(parentRelations.stream().map(MemberRelation::getId).toList());
+        memberMapper.updateGenerations(parentRelations.stream().map(MemberRelation::getToMemberId).distinct().toList());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void unlinkRelation(MemberRelation relation) {
+        if (!isParentRelation(relation)) {
+            return;
+        }
+        closureMapper.deleteLinks(relation.getFromMemberId(), relation.getToMemberId());
+        closureMapper.relinkDescendants(relation.getToMemberId());
+        memberMapper.updateSubtreeGenerations(relation.getToMemberId());
+    }
+
+    @Override
+    public boolean isAncestor(Long ancestorId, Long descendantId) {
+        return closureMapper.countLink(ancestorId, descendantId) > 0;
+    }
+
+    private boolean isParentRelation(MemberRelation relation) {
+        return relation.getRelationType() == RelationTypeEnum.FATHER_SON ||
+               relation.getRelationType() == RelationTypeEnum.MOTHER_SON;
+    }
+}
@@ -0,0 +1,198 @@
+package com.kin.family.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.kin.family.constant.DuplicateStatusEnum;
+import com.kin.family.dto.DuplicateCandidateVO;
+import com.kin.family.dto.DuplicateReportVO;
+import com.kin.family.entity.Family;
+import com.kin.family.entity.FamilyMember;
+import com.kin.family.entity.MemberDuplicateCandidate;
+import com.kin.family.exception.BusinessException;
+import com.kin.family.mapper.FamilyMapper;
+import com.kin.family.mapper.FamilyMemberMapper;
+import com.kin.family.mapper.MemberDuplicateCandidateMapper;
+import com.kin.family.service.MemberDuplicateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 重复成员检测服务实现
+ * 成员按ID分批读入后交给 {@link DuplicateDetector} 分块并行比较，结果按成员对写入候选表
+ *
+ * @author candong
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MemberDuplicateServiceImpl implements MemberDuplicateService {
+
+    private static final int MEMBER_BATCH_SIZE = 5000;
+    private static final int WRITE_BATCH_SIZE = 1000;
+
+    private final FamilyMapper familyMapper;
+    private final FamilyMemberMapper memberMapper;
+    private final MemberDuplicateCandidateMapper candidateMapper;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Override
+    public DuplicateReportVO detectAll() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("查重任务正在运行");
+        }
+        try {
+            long start = System.currentTimeMillis();
+            LocalDateTime detectTime = LocalDateTime.now().withNano(0);
+
+            DuplicateDetector detector = new DuplicateDetector(Math.toIntExact(memberMapper.selectCount(null)));
+            Long lastId = 0L;
+            while (true) {
+                List<FamilyMember> batch = memberMapper.selectList(
+                        new LambdaQueryWrapper<FamilyMember>()
+                                .select(FamilyMember::getId, FamilyMember::getFamilyId, FamilyMember::getName,
+                                        FamilyMember::getGender, FamilyMember::getBirthDate, FamilyMember::getBirthPlace,
+                                        FamilyMember::getDeathDate, FamilyMember::getUserId)
+                                .gt(FamilyMember::getId, lastId)
+                                .orderByAsc(FamilyMember::getId)
+                                .last("LIMIT " + MEMBER_BATCH_SIZE)
+                );
+                batch.forEach(detector::add);
+                if (batch.size() < MEMBER_BATCH_SIZE) {
+                    break;
+                }
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+            long loaded = System.currentTimeMillis();
+
+            List<MemberDuplicateCandidate> candidates = detector.detect(ForkJoinPool.commonPool());
+            long compared = System.currentTimeMillis();
+
+            for (int from = 0; from < candidates.size(); from += WRITE_BATCH_SIZE) {
+                candidateMapper.upsertBatch(
+                        candidates.subList(from, Math.min(from + WRITE_BATCH_SIZE, candidates.size())), detectTime);
+            }
+            int removed = candidateMapper.deleteStalePending(detectTime);
+
+            DuplicateReportVO report = DuplicateReportVO.builder()
+                    .memberCount(detector.size())
+                    .blockCount(detector.blockCount())
+                    .skippedBlockCount(detector.skippedBlockCount())
+                    .comparisonCount(detector.comparisonCount())
+                    .candidateCount(candidates.size())
+                    .removedCount(removed)
+                    .costMillis(System.currentTimeMillis() - start)
+                    .build();
+            log.info("成员查重完成: members={}, blocks={}, skipped={}, comparisons={}, candidates={}, removed={}, " +
+                            "load={}ms, compare={}ms, total={}ms",
+                    report.getMemberCount(), report.getBlockCount(), report.getSkippedBlockCount(),
+                    report.getComparisonCount(), report.getCandidateCount(), removed,
+                    loaded - start, compared - loaded, report.getCostMillis());
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    public List<DuplicateCandidateVO> getCandidates(Long familyId, String status) {
+        if (familyMapper.selectById(familyId) == null) {
+            throw new BusinessException("家谱不存在");
+        }
+        DuplicateStatusEnum statusEnum = status == null || status.isEmpty() ? null : parseStatus(status);
+        List<MemberDuplicateCandidate> candidates = candidateMapper.selectList(
+                new LambdaQueryWrapper<MemberDuplicateCandidate>()
+                        .and(w -> w.eq(MemberDuplicateCandidate::getFamilyId, familyId)
+                                .or().eq(MemberDuplicateCandidate::getOtherFamilyId, familyId))
+                        .eq(statusEnum != null, MemberDuplicateCandidate::getStatus, statusEnum)
+                        .orderByDesc(MemberDuplicateCandidate::getScore)
+                        .orderByAsc(MemberDuplicateCandidate::getId)
+        );
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> memberIds = new HashSet<>();
+        for (MemberDuplicateCandidate candidate : candidates) {
+            memberIds.add(candidate.getMemberId());
+            memberIds.add(candidate.getOtherMemberId());
+        }
+        Map<Long, FamilyMember> members = memberMapper.selectBatchIds(memberIds).stream()
+                .collect(Collectors.toMap(FamilyMember::getId, Function.identity()));
+        Set<Long> familyIds = members.values().stream().map(FamilyMember::getFamilyId).collect(Collectors.toSet());
+        Map<Long, String> familyNames = familyMapper.selectBatchIds(familyIds).stream()
+                .collect(Collectors.toMap(Family::getId, Family::getName));
+
+        List<DuplicateCandidateVO> result = new ArrayList<>(candidates.size());
+        for (MemberDuplicateCandidate candidate : candidates) {
+            FamilyMember member = members.get(candidate.getMemberId());
+            FamilyMember other = members.get(candidate.getOtherMemberId());
+            if (member == null || other == null) {
+                continue;
+            }
+            // 当前家谱的成员放在前面
+            boolean swap = !member.getFamilyId().equals(familyId) && other.getFamilyId().equals(familyId);
+            result.add(DuplicateCandidateVO.builder()
+                    .id(candidate.getId())
+                    .score(candidate.getScore())
+                    .reasons(candidate.getReasons())
+                    .status(candidate.getStatus())
+                    .updateTime(candidate.getUpdateTime())
+                    .member(toMember(swap ? other : member, familyNames))
+                    .otherMember(toMember(swap ? member : other, familyNames))
+                    .build());
+        }
+        result.sort(Comparator.comparing(DuplicateCandidateVO::getScore).reversed());
+        return result;
+    }
+
+    @Override
+    public void review(Long id, String status) {
+        DuplicateStatusEnum statusEnum = parseStatus(status);
+        if (statusEnum == DuplicateStatusEnum.PENDING) {
+            throw new BusinessException("审核状态无效");
+        }
+        MemberDuplicateCandidate candidate = candidateMapper.selectById(id);
+        if (candidate == null) {
+            throw new BusinessException("记录不存在");
+        }
+        candidate.setStatus(statusEnum);
+        candidate.setUpdateTime(LocalDateTime.now());
+        candidateMapper.updateById(candidate);
+    }
+
+    private DuplicateStatusEnum parseStatus(String status) {
+        for (DuplicateStatusEnum value : DuplicateStatusEnum.values()) {
+            if (value.getValue().equalsIgnoreCase(status) || value.name().equalsIgnoreCase(status)) {
+                return value;
+            }
+        }
+        throw new BusinessException("审核状态无效");
+    }
+
+    private DuplicateCandidateVO.Member toMember(FamilyMember member, Map<Long, String> familyNames) {
+        return DuplicateCandidateVO.Member.builder()
+                .id(member.getId())
+                .familyId(member.getFamilyId())
+                .familyName(familyNames.get(member.getFamilyId()))
+                .name(member.getName())
+                .gender(member.getGender())
+                .birthDate(member.getBirthDate())
+                .birthPlace(member.getBirthPlace())
+                .deathDate(member.getDeathDate())
+                .userId(member.getUserId())
+                .build();
+    }
+}
@@ -0,0 +1,434 @@
+package com.kin.family.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kin.family.cache.FamilyGraphCache;
+import com.kin.family.constant.ImportFormatEnum;
+import com.kin.family.constant.ImportStatusEnum;
+import com.kin.family.dto.MemberImportJobVO;
+import com.kin.family.dto.MemberImportJobVO.RowError;
+import com.kin.family.entity.FamilyMember;
+import com.kin.family.entity.MemberImportJob;
+import com.kin.family.entity.MemberImportRef;
+import com.kin.family.entity.MemberRelation;
+import com.kin.family.exception.BusinessException;
+import com.kin.family.importer.MemberImportPlan;
+import com.kin.family.importer.MemberImportReader;
+import com.kin.family.importer.MemberImportRow;
+import com.kin.family.mapper.FamilyMapper;
+import com.kin.family.mapper.FamilyMemberMapper;
+import com.kin.family.mapper.MemberImportJobMapper;
+import com.kin.family.mapper.MemberImportRefMapper;
+import com.kin.family.mapper.MemberRelationMapper;
+import com.kin.family.service.MemberAncestryService;
+import com.kin.family.service.MemberImportService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 成员批量导入服务实现
+ * 任务在后台线程执行：先读一遍文件生成 {@link MemberImportPlan} 完成校验，
+ * 再读一遍文件按块写入成员，最后按世代分块写入父母关系和配偶关系；
+ * 每块的数据、祖先索引、编号映射和任务进度在同一事务内提交，失败后续传时跳过已提交的条数
+ *
+ * @author candong
+ */
+@Slf4j
+@Service
+public class MemberImportServiceImpl implements MemberImportService {
+
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    private final FamilyMapper familyMapper;
+    private final FamilyMemberMapper memberMapper;
+    private final MemberRelationMapper relationMapper;
+    private final MemberImportJobMapper jobMapper;
+    private final MemberImportRefMapper refMapper;
+    private final MemberAncestryService memberAncestryService;
+    private final FamilyGraphCache familyGraphCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path workDir;
+    private final int chunkSize;
+    private final int maxMembers;
+    private final int maxErrors;
+    private final ThreadPoolExecutor executor;
+
+    public MemberImportServiceImpl(FamilyMapper familyMapper,
+                                   FamilyMemberMapper memberMapper,
+                                   MemberRelationMapper relationMapper,
+                                   MemberImportJobMapper jobMapper,
+                                   MemberImportRefMapper refMapper,
+                                   MemberAncestryService memberAncestryService,
+                                   FamilyGraphCache familyGraphCache,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${family.import.work-dir:${java.io.tmpdir}/kin-import}") String workDir,
+                                   @Value("${family.import.chunk-size:1000}") int chunkSize,
+                                   @Value("${family.import.max-members:100000}") int maxMembers,
+                                   @Value("${family.import.max-errors:100}") int maxErrors,
+                                   @Value("${family.import.workers:2}") int workers) {
+        this.familyMapper = familyMapper;
+        this.memberMapper = memberMapper;
+        this.relationMapper = relationMapper;
+        this.jobMapper = jobMapper;
+        this.refMapper = refMapper;
+        this.memberAncestryService = memberAncestryService;
+        this.familyGraphCache = familyGraphCache;
+        this.transactionTemplate = transactionTemplate;
+        this.workDir = Paths.get(workDir);
+        this.chunkSize = chunkSize;
+        this.maxMembers = maxMembers;
+        this.maxErrors = maxErrors;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(16),
+                r -> {
+                    Thread thread = new Thread(r, "member-import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public MemberImportJobVO submit(Long familyId, MultipartFile file, Long userId) {
+        if (familyMapper.selectById(familyId) == null) {
+            throw new BusinessException("家谱不存在");
+        }
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException("导入文件不能为空");
+        }
+        ImportFormatEnum format = ImportFormatEnum.fromFileName(file.getOriginalFilename());
+        if (format == null) {
+            throw new BusinessException("仅支持 csv、xlsx、ged 格式的文件");
+        }
+
+        Path path = workDir.resolve(UUID.randomUUID() + "." + format.getValue());
+        try {
+            Files.createDirectories(workDir);
+            file.transferTo(path);
+        } catch (IOException e) {
+            log.error("暂存导入文件失败: familyId={}", familyId, e);
+            throw new BusinessException("导入文件保存失败");
+        }
+
+        MemberImportJob job = MemberImportJob.builder()
+                .familyId(familyId)
+                .operatorId(userId)
+                .fileName(file.getOriginalFilename())
+                .fileFormat(format)
+                .filePath(path.toString())
+                .status(ImportStatusEnum.PENDING)
+                .totalMembers(0)
+                .importedMembers(0)
+                .totalRelations(0)
+                .importedRelations(0)
+                .errorCount(0)
+                .build();
+        jobMapper.insert(job);
+        dispatch(job.getId());
+        return convertToVO(jobMapper.selectById(job.getId()));
+    }
+
+    @Override
+    public MemberImportJobVO resume(Long familyId, Long jobId) {
+        MemberImportJob job = getFamilyJob(familyId, jobId);
+        if (!isResumable(job)) {
+            throw new BusinessException("该任务无法续传，请修正文件后重新导入");
+        }
+        int updated = jobMapper.update(null, new LambdaUpdateWrapper<MemberImportJob>()
+                .set(MemberImportJob::getStatus, ImportStatusEnum.PENDING)
+                .set(MemberImportJob::getErrorMessage, null)
+                .eq(MemberImportJob::getId, jobId)
+                .eq(MemberImportJob::getStatus, ImportStatusEnum.FAILED));
+        if (updated == 0) {
+            throw new BusinessException("任务已在执行中");
+        }
+        dispatch(jobId);
+        return convertToVO(jobMapper.selectById(jobId));
+    }
+
+    @Override
+    public MemberImportJobVO getJob(Long familyId, Long jobId) {
+        return convertToVO(getFamilyJob(familyId, jobId));
+    }
+
+    @Override
+    public void markInterrupted() {
+        int count = jobMapper.markInterrupted("服务重启导致导入中断，可续传");
+        if (count > 0) {
+            log.warn("标记中断的成员导入任务 {} 个", count);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void dispatch(Long jobId) {
+        try {
+            executor.execute(() -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            fail(jobId, "导入任务排队已满，请稍后续传");
+        }
+    }
+
+    private void run(Long jobId) {
+        MemberImportJob job = jobMapper.selectById(jobId);
+        long start = System.currentTimeMillis();
+        try {
+            updateStatus(jobId, ImportStatusEnum.VALIDATING);
+            MemberImportPlan plan = validate(job);
+            if (plan == null) {
+                return;
+            }
+            updateStatus(jobId, ImportStatusEnum.IMPORTING);
+
+            long[] memberIds = new long[plan.getMemberCount()];
+            for (MemberImportRef ref : refMapper.selectByJob(jobId)) {
+                Integer slot = plan.getSlot(ref.getRefKey());
+                if (slot != null) {
+                    memberIds[slot] = ref.getMemberId();
+                }
+            }
+            writeMembers(job, plan, memberIds);
+            writeRelations(job, plan, memberIds);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                refMapper.deleteByJob(jobId);
+                updateStatus(jobId, ImportStatusEnum.DONE);
+            });
+            deleteFile(job);
+            log.info("成员导入完成: jobId={}, familyId={}, members={}, relations={}, 耗时={}ms",
+                    jobId, job.getFamilyId(), plan.getMemberCount(), plan.getRelationCount(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("成员导入失败: jobId={}, familyId={}", jobId, job.getFamilyId(), e);
+            fail(jobId, e instanceof BusinessException ? e.getMessage() : "导入中断：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 校验文件并记录成员数、关系数；未通过时记录错误并删除文件，返回 null
+     */
+    private MemberImportPlan validate(MemberImportJob job) throws IOException {
+        MemberImportPlan plan;
+        try (MemberImportReader reader = MemberImportReader.open(job.getFileFormat(), Paths.get(job.getFilePath()))) {
+            plan = MemberImportPlan.build(reader, maxMembers, maxErrors);
+        } catch (BusinessException e) {
+            saveErrors(job.getId(), 1, List.of(new RowError(0, e.getMessage())), e.getMessage());
+            deleteFile(job);
+            return null;
+        }
+        if (!plan.isValid()) {
+            saveErrors(job.getId(), plan.getErrorCount(), plan.getErrors(),
+                    "文件校验未通过，共 " + plan.getErrorCount() + " 处错误");
+            deleteFile(job);
+            return null;
+        }
+        jobMapper.update(null, new LambdaUpdateWrapper<MemberImportJob>()
+                .set(MemberImportJob::getTotalMembers, plan.getMemberCount())
+                .set(MemberImportJob::getTotalRelations, plan.getRelationCount())
+                .eq(MemberImportJob::getId, job.getId()));
+        return plan;
+    }
+
+    /**
+     * 重新读取文件，从已提交的位置起按块写入成员
+     */
+    private void writeMembers(MemberImportJob job, MemberImportPlan plan, long[] memberIds) throws IOException {
+        int imported = jobMapper.selectById(job.getId()).getImportedMembers();
+        if (imported >= plan.getMemberCount()) {
+            return;
+        }
+        try (MemberImportReader reader = MemberImportReader.open(job.getFileFormat(), Paths.get(job.getFilePath()))) {
+            List<MemberImportRow> chunk = new ArrayList<>(chunkSize);
+            int slot = 0;
+            MemberImportRow row;
+            while ((row = reader.next()) != null) {
+                if (row.isLinkOnly()) {
+                    continue;
+                }
+                if (slot++ < imported) {
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    imported = flushMembers(job, plan, chunk, imported, memberIds);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                flushMembers(job, plan, chunk, imported, memberIds);
+            }
+        }
+    }
+
+    private int flushMembers(MemberImportJob job, MemberImportPlan plan, List<MemberImportRow> rows,
+                             int startSlot, long[] memberIds) {
+        List<FamilyMember> members = new ArrayList<>(rows.size());
+        for (MemberImportRow row : rows) {
+            members.add(MemberImportPlan.toMember(job.getFamilyId(), row));
+        }
+        int imported = startSlot + rows.size();
+        transactionTemplate.executeWithoutResult(status -> {
+            memberMapper.saveBatch(members);
+            memberAncestryService.addMembers(job.getFamilyId(), members.stream().map(FamilyMember::getId).toList());
+            familyMapper.addMemberCount(job.getFamilyId(), members.size());
+            List<MemberImportRef> refs = new ArrayList<>(members.size());
+            for (int i = 0; i < members.size(); i++) {
+                refs.add(new MemberImportRef(job.getId(), plan.getRef(startSlot + i), members.get(i).getId()));
+            }
+            refMapper.insertBatch(refs);
+            familyGraphCache.putMembers(members);
+            jobMapper.update(null, new LambdaUpdateWrapper<MemberImportJob>()
+                    .set(MemberImportJob::getImportedMembers, imported)
+                    .eq(MemberImportJob::getId, job.getId()));
+        });
+        for (int i = 0; i < members.size(); i++) {
+            memberIds[startSlot + i] = members.get(i).getId();
+        }
+        return imported;
+    }
+
+    /**
+     * 从已提交的位置起按块写入关系，每块只含同一分组的关系，保证父母的祖先索引先于子女建立
+     */
+    private void writeRelations(MemberImportJob job, MemberImportPlan plan, long[] memberIds) {
+        int imported = jobMapper.selectById(job.getId()).getImportedRelations();
+        int total = plan.getRelationCount();
+        while (imported < total) {
+            int group = plan.getRelationGroup(imported);
+            List<MemberRelation> relations = new ArrayList<>(chunkSize);
+            for (int i = imported; i < total && relations.size() < chunkSize && plan.getRelationGroup(i) == group; i++) {
+                relations.add(MemberRelation.builder()
+                        .familyId(job.getFamilyId())
+                        .fromMemberId(memberIds[plan.getRelationFrom(i)])
+                        .toMemberId(memberIds[plan.getRelationTo(i)])
+                        .relationType(plan.getRelationType(i))
+                        .build());
+            }
+            int next = imported + relations.size();
+            transactionTemplate.executeWithoutResult(status -> {
+                relationMapper.saveBatch(relations);
+                memberAncestryService.linkChildRelations(relations);
+                familyGraphCache.putRelations(relations);
+                jobMapper.update(null, new LambdaUpdateWrapper<MemberImportJob>()
+                        .set(MemberImportJob::getImportedRelations, next)
+                        .eq(MemberImportJob::getId, job.getId()));
+            });
+            imported = next;
+        }
+    }
+
+    private void updateStatus(Long jobId, ImportStatusEnum status) {
+        jobMapper.update(null, new LambdaUpdateWrapper<MemberImportJob>()
+                .set(MemberImportJob::getStatus, status)
+                .eq(MemberImportJob::getId, jobId));
+    }
+
+    private void saveErrors(Long jobId, int errorCount, List<RowError> errors, String message) {
+        String errorsJson;
+        try {
+            errorsJson = objectMapper.writeValueAsString(errors);
+        } catch (JsonProcessingException e) {
+            errorsJson = null;
+        }
+        jobMapper.update(null, new LambdaUpdateWrapper<MemberImportJob>()
+                .set(MemberImportJob::getStatus, ImportStatusEnum.FAILED)
+                .set(MemberImportJob::getErrorCount, errorCount)
+                .set(MemberImportJob::getErrors, errorsJson)
+                .set(MemberImportJob::getErrorMessage, truncate(message))
+                .eq(MemberImportJob::getId, jobId));
+    }
+
+    private void fail(Long jobId, String message) {
+        try {
+            jobMapper.update(null, new LambdaUpdateWrapper<MemberImportJob>()
+                    .set(MemberImportJob::getStatus, ImportStatusEnum.FAILED)
+                    .set(MemberImportJob::getErrorMessage, truncate(message))
+                    .eq(MemberImportJob::getId, jobId));
+        } catch (RuntimeException e) {
+            log.error("记录导入任务失败状态出错: jobId={}", jobId, e);
+        }
+    }
+
+    private void deleteFile(MemberImportJob job) {
+        try {
+            Files.deleteIfExists(Paths.get(job.getFilePath()));
+        } catch (IOException e) {
+            log.warn("删除导入文件失败: {}", job.getFilePath());
+        }
+    }
+
+    private MemberImportJob getFamilyJob(Long familyId, Long jobId) {
+        MemberImportJob job = jobMapper.selectById(jobId);
+        if (job == null || !job.getFamilyId().equals(familyId)) {
+            throw new BusinessException("导入任务不存在");
+        }
+        return job;
+    }
+
+    private boolean isResumable(MemberImportJob job) {
+        return job.getStatus() == ImportStatusEnum.FAILED && job.getErrorCount() == 0
+                && Files.exists(Paths.get(job.getFilePath()));
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    private MemberImportJobVO convertToVO(MemberImportJob job) {
+        int total = job.getTotalMembers() + job.getTotalRelations();
+        int done = job.getImportedMembers() + job.getImportedRelations();
+        List<RowError> errors = List.of();
+        if (job.getErrors() != null) {
+            try {
+                errors = objectMapper.readValue(job.getErrors(), new TypeReference<>() {});
+            } catch (JsonProcessingException e) {
+                log.warn("解析导入错误列表失败: jobId={}", job.getId());
+            }
+        }
+        return MemberImportJobVO.builder()
+                .id(job.getId())
+                .familyId(job.getFamilyId())
+                .fileName(job.getFileName())
+                .fileFormat(job.getFileFormat())
+                .status(job.getStatus())
+                .totalMembers(job.getTotalMembers())
+                .importedMembers(job.getImportedMembers())
+                .totalRelations(job.getTotalRelations())
+                .importedRelations(job.getImportedRelations())
+                .percent(job.getStatus() == ImportStatusEnum.DONE ? 100 : total == 0 ? 0 : done * 100 / total)
+                .resumable(isResumable(job))
+                .errorCount(job.getErrorCount())
+                .errors(errors)
+                .errorMessage(job.getErrorMessage())
+                .createTime(job.getCreateTime())
+                .updateTime(job.getUpdateTime())
+                .build();
+    }
+}
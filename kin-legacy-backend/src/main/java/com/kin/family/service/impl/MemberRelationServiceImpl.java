@@ -1,6 +1,14 @@
 package com.kin.family.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.kin.family.cache.FamilyGraph;
+import com.kin.family.cache.FamilyGraphCache;
+import com.kin.family.constant.GenderEnum;
+import com.kin.family.constant.RelationTypeEnum;
+import com.kin.family.dto.CommonAncestorQueryDTO;
+import com.kin.family.dto.CommonAncestorVO;
+import com.kin.family.dto.KinshipStepVO;
+import com.kin.family.dto.KinshipVO;
 import com.kin.family.dto.RelationCreateDTO;
 import com.kin.family.dto.RelationVO;
 import com.kin.family.entity.FamilyMember;
@@ -8,11 +16,15 @@ import com.kin.family.entity.MemberRelation;
 import com.kin.family.exception.BusinessException;
 import com.kin.family.mapper.FamilyMemberMapper;
 import com.kin.family.mapper.MemberRelationMapper;
+import com.kin.family.service.MemberAncestryService;
 import com.kin.family.service.MemberRelationService;
+import com.kin.family.util.KinshipTitleUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -25,8 +37,11 @@ public class MemberRelationServiceImpl implements MemberRelationService {
 
     private final MemberRelationMapper relationMapper;
     private final FamilyMemberMapper memberMapper;
+    private final FamilyGraphCache familyGraphCache;
+    private final MemberAncestryService memberAncestryService;
 
     @Override
+    @Transactional
     public RelationVO addRelation(Long familyId, RelationCreateDTO dto) {
         // 验证成员存在
         FamilyMember fromMember = memberMapper.selectById(dto.getFromMemberId());
@@ -35,6 +50,15 @@ public class MemberRelationServiceImpl implements MemberRelationService {
         if (fromMember == null || toMember == null) {
             throw new BusinessException("成员不存在");
         }
+        if (!familyId.equals(fromMember.getFamilyId()) || !familyId.equals(toMember.getFamilyId())) {
+            throw new BusinessException("成员不属于该家谱");
+        }
+
+        // 父子/母子关系不能指向自己的祖先，否则形成环
+        if ((dto.getRelationType() == RelationTypeEnum.FATHER_SON || dto.getRelationType() == RelationTypeEnum.MOTHER_SON)
+                && memberAncestryService.isAncestor(dto.getToMemberId(), dto.getFromMemberId())) {
+            throw new BusinessException("不能将祖先添加为子女");
+        }
 
         // 创建关系
         MemberRelation relation = MemberRelation.builder()
@@ -44,6 +68,8 @@ public class MemberRelationServiceImpl implements MemberRelationService {
                 .relationType(dto.getRelationType())
                 .build();
         relationMapper.insert(relation);
+        memberAncestryService.linkRelation(relation);
+        familyGraphCache.putRelation(relation);
 
         return RelationVO.builder()
                 .id(relation.getId())
@@ -103,11 +129,191 @@ public class MemberRelationServiceImpl implements MemberRelationService {
     }
 
     @Override
+    @Transactional
     public void deleteRelation(Long familyId, Long relationId) {
         MemberRelation relation = relationMapper.selectById(relationId);
         if (relation == null || !relation.getFamilyId().equals(familyId)) {
             throw new BusinessException("关系不存在");
         }
         relationMapper.deleteById(relationId);
+        memberAncestryService.unlinkRelation(relation);
+        familyGraphCache.removeRelation(familyId, relationId);
+    }
+
+    @Override
+    public KinshipVO getKinship(Long familyId, Long fromMemberId, Long toMemberId, Long currentUserId) {
+        FamilyGraph graph = familyGraphCache.get(familyId);
+        if (fromMemberId == null) {
+            fromMemberId = graph.getMemberIdByUser(currentUserId);
+            if (fromMemberId == null) {
+                throw new BusinessException("您尚未关联该家谱中的成员");
+            }
+        }
+
+        FamilyMember fromMember = graph.getMember(fromMemberId);
+        FamilyMember toMember = graph.getMember(toMemberId);
+        if (fromMember == null || toMember == null) {
+            throw new BusinessException("成员不存在");
+        }
+
+        List<FamilyGraph.PathStep> steps = graph.findPath(fromMemberId, toMemberId);
+        if (steps == null) {
+            throw new BusinessException("两位成员之间没有亲属关系");
+        }
+
+        List<KinshipStepVO> path = new ArrayList<>(steps.size() + 1);
+        path.add(KinshipStepVO.builder()
+                .memberId(fromMember.getId())
+                .name(fromMember.getName())
+                .gender(fromMember.getGender())
+                .relation("本人")
+                .build());
+
+        // 父母的子女合并为兄弟姐妹，子女的父母合并为配偶，其余按原样记入关系链
+        List<FamilyGraph.Link> links = new ArrayList<>();
+        List<FamilyMember> targets = new ArrayList<>();
+        List<FamilyMember> anchors = new ArrayList<>();
+        FamilyMember previous = fromMember;
+        int generationDiff = 0;
+        for (FamilyGraph.PathStep step : steps) {
+            FamilyMember current = graph.getMember(step.getMemberId());
+            FamilyGraph.Link link = step.getLink();
+            path.add(KinshipStepVO.builder()
+                    .memberId(current.getId())
+                    .name(current.getName())
+                    .gender(current.getGender())
+                    .relation(KinshipTitleUtil.describe(List.of(kinshipCode(link, current, previous))))
+                    .build());
+            if (link == FamilyGraph.Link.PARENT) {
+                generationDiff++;
+            } else if (link == FamilyGraph.Link.CHILD) {
+                generationDiff--;
+            }
+
+            int last = links.size() - 1;
+            if (last >= 0 && links.get(last) == FamilyGraph.Link.PARENT && link == FamilyGraph.Link.CHILD) {
+                links.set(last, FamilyGraph.Link.SIBLING);
+                targets.set(last, current);
+            } else if (last >= 0 && links.get(last) == FamilyGraph.Link.CHILD && link == FamilyGraph.Link.PARENT) {
+                links.set(last, FamilyGraph.Link.SPOUSE);
+                targets.set(last, current);
+            } else {
+                links.add(link);
+                targets.add(current);
+                anchors.add(previous);
+            }
+            previous = current;
+        }
+
+        List<String> chain = new ArrayList<>(links.size());
+        for (int i = 0; i < links.size(); i++) {
+            chain.add(kinshipCode(links.get(i), targets.get(i), anchors.get(i)));
+        }
+
+        String title;
+        String description;
+        if (chain.isEmpty()) {
+            title = "本人";
+            description = "本人";
+        } else {
+            description = KinshipTitleUtil.describe(chain);
+            title = KinshipTitleUtil.resolve(chain, isOlder(toMember, fromMember));
+            if (title == null) {
+                title = description;
+            }
+        }
+
+        return KinshipVO.builder()
+                .fromMemberId(fromMember.getId())
+                .fromMemberName(fromMember.getName())
+                .toMemberId(toMember.getId())
+                .toMemberName(toMember.getName())
+                .title(title)
+                .description(description)
+                .generationDiff(generationDiff)
+                .distance(steps.size())
+                .path(path)
+                .build();
+    }
+
+    @Override
+    public List<CommonAncestorVO> getCommonAncestors(Long familyId, CommonAncestorQueryDTO query) {
+        FamilyGraph graph = familyGraphCache.get(familyId);
+        List<CommonAncestorVO> result = new ArrayList<>(query.getPairs().size());
+        for (CommonAncestorQueryDTO.MemberPair pair : query.getPairs()) {
+            CommonAncestorVO vo = CommonAncestorVO.builder()
+                    .memberId(pair.getMemberId())
+                    .otherMemberId(pair.getOtherMemberId())
+                    .build();
+            FamilyGraph.CommonAncestor ancestor = graph.findCommonAncestor(pair.getMemberId(), pair.getOtherMemberId());
+            if (ancestor == null) {
+                vo.setDescription("无共同祖先");
+                result.add(vo);
+                continue;
+            }
+
+            int distance = ancestor.getDistance();
+            int otherDistance = ancestor.getOtherDistance();
+            int nearer = Math.min(distance, otherDistance);
+            int removal = Math.abs(distance - otherDistance);
+            vo.setAncestorId(ancestor.getAncestorId());
+            vo.setAncestorName(graph.getMember(ancestor.getAncestorId()).getName());
+            vo.setDistance(distance);
+            vo.setOtherDistance(otherDistance);
+            vo.setRemoval(removal);
+            if (nearer == 0) {
+                vo.setDescription(removal == 0 ? "本人" : "直系血亲，相差" + removal + "代");
+            } else {
+                vo.setCousinDegree(nearer - 1);
+                if (nearer == 1) {
+                    vo.setDescription(removal == 0 ? "兄弟姐妹" : "旁系血亲，相差" + removal + "代");
+                } else {
+                    String degree = (nearer - 1) + "代堂表亲";
+                    vo.setDescription(removal == 0 ? degree : degree + "，相差" + removal + "代");
+                }
+            }
+            result.add(vo);
+        }
+        return result;
+    }
+
+    /**
+     * 关系链代号，见 {@link KinshipTitleUtil}
+     */
+    private String kinshipCode(FamilyGraph.Link link, FamilyMember target, FamilyMember anchor) {
+        GenderEnum gender = target.getGender();
+        if (gender == null) {
+            return switch (link) {
+                case PARENT -> "p";
+                case CHILD -> "c";
+                case SPOUSE -> "sp";
+                case SIBLING -> "sib";
+            };
+        }
+        boolean male = gender == GenderEnum.MALE;
+        return switch (link) {
+            case PARENT -> male ? "f" : "m";
+            case CHILD -> male ? "s" : "d";
+            case SPOUSE -> male ? "h" : "w";
+            case SIBLING -> {
+                Boolean older = isOlder(target, anchor);
+                if (older == null) {
+                    yield male ? "b" : "z";
+                }
+                yield male ? (older ? "ob" : "lb") : (older ? "os" : "ls");
+            }
+        };
+    }
+
+    /**
+     * 按出生日期比较长幼，任一方日期缺失或同日出生时返回 null
+     */
+    private Boolean isOlder(FamilyMember member, FamilyMember other) {
+        LocalDate birthDate = member.getBirthDate();
+        LocalDate otherBirthDate = other.getBirthDate();
+        if (birthDate == null || otherBirthDate == null || birthDate.equals(otherBirthDate)) {
+            return null;
+        }
+        return birthDate.isBefore(otherBirthDate);
     }
 }
@@ -6,22 +6,40 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kin.family.cache.FamilyGraph;
+import com.kin.family.cache.FamilyGraphCache;
+import com.kin.family.cache.FamilyTreeJsonWriter;
+import com.kin.family.cache.MemberSearchIndex;
+import com.kin.family.cache.PendingApprovalCounter;
 import com.kin.family.dto.*;
+import com.kin.family.vo.CompactTreeVO;
+import com.kin.family.vo.FamilyDeltaVO;
+import com.kin.family.vo.SubtreeNodeVO;
+import com.kin.family.vo.TreeLayoutVO;
 import com.kin.family.vo.TreeNodeVO;
 import com.kin.family.entity.*;
 import com.kin.family.constant.*;
 import com.kin.family.exception.BusinessException;
 import com.kin.family.mapper.*;
+import com.kin.family.service.MemberAncestryService;
 import com.kin.family.service.MemberService;
+import com.kin.family.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -33,13 +51,28 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MemberServiceImpl implements MemberService {
 
+    private static final int DEFAULT_SUBTREE_DEPTH = 3;
+    private static final int MAX_SUBTREE_DEPTH = 10;
+    private static final int DEFAULT_SUBTREE_CHILDREN = 20;
+    private static final int MAX_SUBTREE_CHILDREN = 200;
+    private static final int MAX_PAGE_SEARCH_IDS = 1000;
+
     private final FamilyMapper familyMapper;
     private final FamilyMemberMapper memberMapper;
     private final MemberRelationMapper relationMapper;
     private final EditRequestMapper editRequestMapper;
     private final JoinRequestMapper joinRequestMapper;
+    private final ApprovalInboxMapper approvalInboxMapper;
     private final UserMapper userMapper;
     private final UserGenealogyMapper userGenealogyMapper;
+    private final FamilyChangeLogMapper changeLogMapper;
+    private final TableStatMapper tableStatMapper;
+    private final MemberDuplicateCandidateMapper duplicateCandidateMapper;
+    private final FamilyGraphCache familyGraphCache;
+    private final PendingApprovalCounter pendingApprovalCounter;
+    private final FamilyTreeJsonWriter familyTreeJsonWriter;
+    private final MemberSearchIndex memberSearchIndex;
+    private final MemberAncestryService memberAncestryService;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
@@ -75,6 +108,30 @@ public class MemberServiceImpl implements MemberService {
         return convertToDetailDTO(member);
     }
 
+    @Override
+    public List<MemberDetailDTO> getAncestors(Long familyId, Long memberId, Integer maxDepth) {
+        FamilyMember member = memberMapper.selectById(memberId);
+        if (member == null || !member.getFamilyId().equals(familyId)) {
+            throw new BusinessException("成员不存在");
+        }
+
+        return memberMapper.selectAncestors(memberId, maxDepth).stream()
+                .map(this::convertToDetailDTO)
+                .toList();
+    }
+
+    @Override
+    public List<MemberDetailDTO> getDescendants(Long familyId, Long memberId, Integer maxDepth) {
+        FamilyMember member = memberMapper.selectById(memberId);
+        if (member == null || !member.getFamilyId().equals(familyId)) {
+            throw new BusinessException("成员不存在");
+        }
+
+        return memberMapper.selectDescendants(memberId, maxDepth).stream()
+                .map(this::convertToDetailDTO)
+                .toList();
+    }
+
     @Override
     public MemberDetailDTO getMemberDetail(Long familyId, Long memberId) {
         Family family = familyMapper.selectById(familyId);
@@ -175,6 +232,8 @@ public class MemberServiceImpl implements MemberService {
                     .status(RequestStatusEnum.PENDING)
                     .build();
             joinRequestMapper.insert(joinRequest);
+            approvalInboxMapper.syncJoinRequest(joinRequest.getId());
+            pendingApprovalCounter.increment(familyId, PendingApprovalCounter.JOIN);
         } catch (JsonProcessingException e) {
             throw new BusinessException("序列化修改内容失败");
         }
@@ -227,6 +286,8 @@ public class MemberServiceImpl implements MemberService {
                     .status(RequestStatusEnum.PENDING)
                     .build();
             joinRequestMapper.insert(joinRequest);
+            approvalInboxMapper.syncJoinRequest(joinRequest.getId());
+            pendingApprovalCounter.increment(familyId, PendingApprovalCounter.JOIN);
         } catch (JsonProcessingException e) {
             throw new BusinessException("序列化修改内容失败");
         }
@@ -272,6 +333,9 @@ public class MemberServiceImpl implements MemberService {
                 .isCreator(0)
                 .build();
         memberMapper.insert(member);
+        memberAncestryService.addMember(familyId, member.getId());
+        familyMapper.addMemberCount(familyId, 1);
+        familyGraphCache.putMember(member);
 
         if (request.getParentId() != null) {
             MemberRelation relation = MemberRelation.builder()
@@ -282,6 +346,8 @@ public class MemberServiceImpl implements MemberService {
                             RelationTypeEnum.FATHER_SON : RelationTypeEnum.MOTHER_SON)
                     .build();
             relationMapper.insert(relation);
+            memberAncestryService.linkRelation(relation);
+            familyGraphCache.putRelation(relation);
         }
 
         return convertToDetailDTO(member);
@@ -316,6 +382,8 @@ public class MemberServiceImpl implements MemberService {
                     .status(RequestStatusEnum.PENDING)
                     .build();
             editRequestMapper.insert(editRequest);
+            approvalInboxMapper.syncEditRequest(editRequest.getId());
+            pendingApprovalCounter.increment(familyId, PendingApprovalCounter.EDIT);
         } catch (JsonProcessingException e) {
             throw new BusinessException("序列化修改内容失败");
         }
@@ -328,88 +396,300 @@ public class MemberServiceImpl implements MemberService {
             throw new BusinessException("家谱不存在");
         }
 
-        List<FamilyMember> members = memberMapper.selectList(
-                new LambdaQueryWrapper<FamilyMember>()
-                        .eq(FamilyMember::getFamilyId, familyId)
-        );
+        FamilyGraph graph = familyGraphCache.get(familyId);
+        Set<Long> markedIds = graph.findCurrentUserMembers(currentUserId);
+        String roleLabel = markedIds.isEmpty() ? null : getRoleLabel(family, currentUserId);
+        return graph.getForest(markedIds, roleLabel);
+    }
 
-        if (members.isEmpty()) {
-            return new ArrayList<>();
+    @Override
+    public StreamingResponseBody streamFamilyTree(Long familyId, Long currentUserId) {
+        Family family = familyMapper.selectById(familyId);
+        if (family == null) {
+            throw new BusinessException("家谱不存在");
         }
 
-        List<MemberRelation> relations = relationMapper.selectList(
-                new LambdaQueryWrapper<MemberRelation>()
-                        .eq(MemberRelation::getFamilyId, familyId)
-        );
+        FamilyGraph graph = familyGraphCache.get(familyId);
+        Set<Long> markedIds = graph.findCurrentUserMembers(currentUserId);
+        String roleLabel = markedIds.isEmpty() ? null : getRoleLabel(family, currentUserId);
+        return familyTreeJsonWriter.stream(graph, markedIds, roleLabel);
+    }
 
-        Map<Long, TreeNodeVO> memberMap = members.stream()
-                .map(this::convertToTreeNode)
-                .collect(Collectors.toMap(TreeNodeVO::getId, v -> v));
+    @Override
+    public CompactTreeVO getCompactFamilyTree(Long familyId, Long currentUserId) {
+        Family family = familyMapper.selectById(familyId);
+        if (family == null) {
+            throw new BusinessException("家谱不存在");
+        }
+
+        FamilyGraph graph = familyGraphCache.get(familyId);
+        Set<Long> markedIds = graph.findCurrentUserMembers(currentUserId);
+        String roleLabel = markedIds.isEmpty() ? null : getRoleLabel(family, currentUserId);
+        return graph.getCompactTree(markedIds, roleLabel);
+    }
+
+    @Override
+    public TreeLayoutVO getTreeLayout(Long familyId) {
+        Family family = familyMapper.selectById(familyId);
+        if (family == null) {
+            throw new BusinessException("家谱不存在");
+        }
+        return familyGraphCache.get(familyId).getLayout();
+    }
+
+    @Override
+    public FamilyDeltaVO getTreeDelta(Long familyId, Long since) {
+        Long version = familyMapper.selectDataVersion(familyId);
+        if (version == null) {
+            throw new BusinessException("家谱不存在");
+        }
 
-        for (MemberRelation r : relations) {
-            TreeNodeVO fromNode = memberMap.get(r.getFromMemberId());
-            TreeNodeVO toNode = memberMap.get(r.getToMemberId());
-            if (fromNode == null || toNode == null) continue;
+        // 没有同步过、版本超前（如数据已重建）或所需日志已被清理时返回完整快照
+        Long minVersion = since == null ? null : changeLogMapper.selectMinVersion(familyId);
+        if (since == null || since <= 0 || since > version
+                || (since < version && (minVersion == null || since < minVersion))) {
+            List<FamilyMember> members = memberMapper.selectList(
+                    new LambdaQueryWrapper<FamilyMember>()
+                            .eq(FamilyMember::getFamilyId, familyId)
+                            .orderByAsc(FamilyMember::getId)
+            );
+            List<MemberRelation> relations = relationMapper.selectList(
+                    new LambdaQueryWrapper<MemberRelation>()
+                            .eq(MemberRelation::getFamilyId, familyId)
+                            .orderByAsc(MemberRelation::getId)
+            );
+            return FamilyDeltaVO.builder()
+                    .version(version)
+                    .full(true)
+                    .members(members.stream().map(this::convertToDetailDTO).toList())
+                    .relations(relations.stream().map(this::convertToEdge).toList())
+                    .deletedMemberIds(Collections.emptyList())
+                    .deletedRelationIds(Collections.emptyList())
+                    .build();
+        }
 
-            if (r.getRelationType() == RelationTypeEnum.HUSBAND_WIFE) {
-                if (fromNode.getSpouse() == null) {
-                    fromNode.setSpouse(toNode);
+        // 同一对象多次变更只取其当前状态，日志之后又被删除的对象按删除处理
+        Set<Long> memberIds = new LinkedHashSet<>();
+        Set<Long> relationIds = new LinkedHashSet<>();
+        for (FamilyChangeLog change : changeLogMapper.selectBetween(familyId, since, version)) {
+            if (change.getEntityType() == ChangeEntityEnum.MEMBER) {
+                memberIds.add(change.getEntityId());
+            } else if (change.getEntityType() == ChangeEntityEnum.RELATION) {
+                relationIds.add(change.getEntityId());
+            }
+        }
+
+        List<MemberDetailDTO> members = new ArrayList<>();
+        List<Long> deletedMemberIds = new ArrayList<>();
+        if (!memberIds.isEmpty()) {
+            Map<Long, FamilyMember> current = memberMapper.selectBatchIds(memberIds).stream()
+                    .filter(m -> familyId.equals(m.getFamilyId()))
+                    .collect(Collectors.toMap(FamilyMember::getId, m -> m));
+            for (Long memberId : memberIds) {
+                FamilyMember member = current.get(memberId);
+                if (member == null) {
+                    deletedMemberIds.add(memberId);
+                } else {
+                    members.add(convertToDetailDTO(member));
                 }
-                if (toNode.getSpouse() == null) {
-                    toNode.setSpouse(fromNode);
+            }
+        }
+
+        List<FamilyDeltaVO.Edge> relations = new ArrayList<>();
+        List<Long> deletedRelationIds = new ArrayList<>();
+        if (!relationIds.isEmpty()) {
+            Map<Long, MemberRelation> current = relationMapper.selectBatchIds(relationIds).stream()
+                    .filter(r -> familyId.equals(r.getFamilyId()))
+                    .collect(Collectors.toMap(MemberRelation::getId, r -> r));
+            for (Long relationId : relationIds) {
+                MemberRelation relation = current.get(relationId);
+                if (relation == null) {
+                    deletedRelationIds.add(relationId);
+                } else {
+                    relations.add(convertToEdge(relation));
                 }
-            } else if (r.getRelationType() == RelationTypeEnum.FATHER_SON ||
-                       r.getRelationType() == RelationTypeEnum.MOTHER_SON) {
-                fromNode.getChildren().add(toNode);
             }
         }
 
-        List<TreeNodeVO> rootNodes = members.stream()
-                .filter(m -> !relations.stream()
-                        .filter(r -> r.getRelationType() == RelationTypeEnum.FATHER_SON ||
-                                     r.getRelationType() == RelationTypeEnum.MOTHER_SON)
-                        .map(MemberRelation::getToMemberId)
-                        .collect(Collectors.toSet())
-                        .contains(m.getId()))
-                .map(m -> memberMap.get(m.getId()))
-                .filter(node -> node != null)
-                .sorted((a, b) -> {
-                    if (Boolean.TRUE.equals(a.getIsCreator() == 1)) return -1;
-                    if (Boolean.TRUE.equals(b.getIsCreator() == 1)) return 1;
-                    return 0;
-                })
-                .toList();
+        return FamilyDeltaVO.builder()
+                .version(version)
+                .full(false)
+                .members(members)
+                .relations(relations)
+                .deletedMemberIds(deletedMemberIds)
+                .deletedRelationIds(deletedRelationIds)
+                .build();
+    }
 
-        calculateGeneration(rootNodes, 1);
+    private FamilyDeltaVO.Edge convertToEdge(MemberRelation relation) {
+        return FamilyDeltaVO.Edge.builder()
+                .id(relation.getId())
+                .fromMemberId(relation.getFromMemberId())
+                .toMemberId(relation.getToMemberId())
+                .relationType(relation.getRelationType().getValue())
+                .build();
+    }
 
-        if (currentUserId != null) {
-            markCurrentUser(rootNodes, family, currentUserId);
+    @Override
+    public List<MemberSearchVO> searchMembers(String query, Long familyId, Integer limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        if (familyId != null && familyMapper.selectById(familyId) == null) {
+            throw new BusinessException("家谱不存在");
         }
 
-        return rootNodes;
+        List<MemberSearchIndex.Hit> hits;
+        if (memberSearchIndex.isReady()) {
+            hits = memberSearchIndex.search(query, familyId, limit);
+        } else {
+            int size = limit == null ? MemberSearchIndex.DEFAULT_LIMIT
+                    : Math.min(Math.max(limit, 1), MemberSearchIndex.MAX_LIMIT);
+            hits = memberMapper.selectList(
+                    new LambdaQueryWrapper<FamilyMember>()
+                            .select(FamilyMember::getId, FamilyMember::getFamilyId, FamilyMember::getName)
+                            .eq(familyId != null, FamilyMember::getFamilyId, familyId)
+                            .like(FamilyMember::getName, query.strip())
+                            .last("LIMIT " + size)
+            ).stream().map(m -> new MemberSearchIndex.Hit(m.getId(), m.getFamilyId(), m.getName(), 0)).toList();
+        }
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, FamilyMember> members = memberMapper.selectBatchIds(
+                hits.stream().map(MemberSearchIndex.Hit::getMemberId).toList()
+        ).stream().collect(Collectors.toMap(FamilyMember::getId, m -> m));
+        Map<Long, String> familyNames = familyMapper.selectBatchIds(
+                hits.stream().map(MemberSearchIndex.Hit::getFamilyId).distinct().toList()
+        ).stream().collect(Collectors.toMap(Family::getId, Family::getName));
+
+        List<MemberSearchVO> result = new ArrayList<>(hits.size());
+        for (MemberSearchIndex.Hit hit : hits) {
+            FamilyMember member = members.get(hit.getMemberId());
+            if (member == null) {
+                continue;
+            }
+            result.add(MemberSearchVO.builder()
+                    .memberId(member.getId())
+                    .familyId(member.getFamilyId())
+                    .familyName(familyNames.get(member.getFamilyId()))
+                    .name(member.getName())
+                    .gender(member.getGender())
+                    .avatar(member.getAvatar())
+                    .birthDate(member.getBirthDate())
+                    .score(hit.getScore())
+                    .build());
+        }
+        return result;
     }
 
-    private void calculateGeneration(List<TreeNodeVO> nodes, int generation) {
-        for (TreeNodeVO node : nodes) {
-            node.setGeneration(generation);
-            if (node.getChildren() != null && !node.getChildren().isEmpty()) {
-                calculateGeneration(node.getChildren(), generation + 1);
+    @Override
+    public List<SubtreeNodeVO> getSubtree(Long familyId, Long rootId, Integer maxDepth, Integer maxChildren,
+                                          Integer childOffset, Long currentUserId) {
+        Family family = familyMapper.selectById(familyId);
+        if (family == null) {
+            throw new BusinessException("家谱不存在");
+        }
+
+        int depthLimit = Math.min(maxDepth != null && maxDepth >= 0 ? maxDepth : DEFAULT_SUBTREE_DEPTH, MAX_SUBTREE_DEPTH);
+        int childLimit = Math.min(maxChildren != null && maxChildren > 0 ? maxChildren : DEFAULT_SUBTREE_CHILDREN, MAX_SUBTREE_CHILDREN);
+        int offset = childOffset != null && childOffset > 0 ? childOffset : 0;
+
+        FamilyGraph graph = familyGraphCache.get(familyId);
+        String roleLabel = currentUserId != null && graph.containsUser(currentUserId)
+                ? getRoleLabel(family, currentUserId) : null;
+
+        // 指定根成员时返回该成员为根的子树，offset 作用于其子女；否则返回顶层根节点，offset 作用于根节点列表
+        long[] topIds;
+        List<SubtreeNodeVO> result = new ArrayList<>();
+        Deque<SubtreeNodeVO> queue = new ArrayDeque<>();
+        Map<Long, Integer> depths = new HashMap<>();
+        if (rootId != null) {
+            FamilyMember rootMember = graph.getMember(rootId);
+            if (rootMember == null) {
+                throw new BusinessException("成员不存在");
+            }
+            SubtreeNodeVO root = convertToSubtreeNode(graph, rootMember, currentUserId, roleLabel);
+            result.add(root);
+            depths.put(rootId, 0);
+            topIds = graph.getChildIds(rootId);
+            appendSubtreeChildren(graph, root, topIds, offset, childLimit, depthLimit, 0, queue, depths, currentUserId, roleLabel);
+        } else {
+            topIds = graph.getRootIds();
+            int end = (int) Math.min((long) offset + childLimit, topIds.length);
+            for (int i = offset; i < end; i++) {
+                SubtreeNodeVO node = convertToSubtreeNode(graph, graph.getMember(topIds[i]), currentUserId, roleLabel);
+                result.add(node);
+                depths.put(node.getId(), 0);
+                queue.add(node);
             }
         }
+
+        // 按层展开，超过深度或子女数上限的节点标记 hasMore
+        while (!queue.isEmpty()) {
+            SubtreeNodeVO node = queue.poll();
+            int depth = depths.get(node.getId());
+            appendSubtreeChildren(graph, node, graph.getChildIds(node.getId()), 0, childLimit, depthLimit, depth,
+                    queue, depths, currentUserId, roleLabel);
+        }
+
+        return result;
     }
 
-    private void markCurrentUser(List<TreeNodeVO> nodes, Family family, Long currentUserId) {
-        for (TreeNodeVO node : nodes) {
-            if (currentUserId.equals(node.getUserId())) {
-                String roleLabel = getRoleLabel(family, currentUserId);
-                node.setCurrentUser(true);
-                node.setCurrentUserLabel(roleLabel);
-                break;
-            }
-            if (node.getChildren() != null && !node.getChildren().isEmpty()) {
-                markCurrentUser(node.getChildren(), family, currentUserId);
+    private void appendSubtreeChildren(FamilyGraph graph, SubtreeNodeVO parent, long[] childIds, int offset,
+                                       int childLimit, int depthLimit, int depth, Deque<SubtreeNodeVO> queue,
+                                       Map<Long, Integer> depths, Long currentUserId, String roleLabel) {
+        if (depth >= depthLimit) {
+            parent.setHasMore(childIds.length > 0);
+            return;
+        }
+        int end = (int) Math.min((long) offset + childLimit, childIds.length);
+        for (int i = offset; i < end; i++) {
+            if (depths.containsKey(childIds[i])) {
+                continue;
             }
+            SubtreeNodeVO child = convertToSubtreeNode(graph, graph.getMember(childIds[i]), currentUserId, roleLabel);
+            depths.put(child.getId(), depth + 1);
+            parent.getChildren().add(child);
+            queue.add(child);
         }
+        parent.setHasMore(end < childIds.length);
+    }
+
+    private SubtreeNodeVO convertToSubtreeNode(FamilyGraph graph, FamilyMember member, Long currentUserId, String roleLabel) {
+        SubtreeNodeVO node = SubtreeNodeVO.builder()
+                .id(member.getId())
+                .name(member.getName())
+                .gender(member.getGender())
+                .birthDate(member.getBirthDate())
+                .isCreator(member.getIsCreator())
+                .userId(member.getUserId())
+                .generation(graph.getGeneration(member.getId()))
+                .childCount(graph.getChildCount(member.getId()))
+                .hasMore(false)
+                .build();
+        if (currentUserId != null && currentUserId.equals(member.getUserId())) {
+            node.setCurrentUser(true);
+            node.setCurrentUserLabel(roleLabel);
+        }
+
+        Long spouseId = graph.getSpouseId(member.getId());
+        FamilyMember spouse = spouseId != null ? graph.getMember(spouseId) : null;
+        if (spouse != null) {
+            node.setSpouse(SubtreeNodeVO.builder()
+                    .id(spouse.getId())
+                    .name(spouse.getName())
+                    .gender(spouse.getGender())
+                    .birthDate(spouse.getBirthDate())
+                    .isCreator(spouse.getIsCreator())
+                    .userId(spouse.getUserId())
+                    .generation(graph.getGeneration(spouse.getId()))
+                    .childCount(graph.getChildCount(spouse.getId()))
+                    .hasMore(graph.getChildCount(spouse.getId()) > 0)
+                    .build());
+        }
+        return node;
     }
 
     private String getRoleLabel(Family family, Long currentUserId) {
@@ -424,6 +704,7 @@ public class MemberServiceImpl implements MemberService {
     }
 
     @Override
+    @Transactional
     public MemberDetailDTO updateMember(Long familyId, Long memberId, MemberCreateDTO request, Long userId) {
         Family family = familyMapper.selectById(familyId);
         if (family == null) {
@@ -463,10 +744,12 @@ public class MemberServiceImpl implements MemberService {
         }
 
         memberMapper.updateById(member);
+        familyGraphCache.putMember(member);
         return convertToDetailDTO(member);
     }
 
     @Override
+    @Transactional
     public void deleteMember(Long familyId, Long memberId, Long userId, String globalRole) {
         Family family = familyMapper.selectById(familyId);
         if (family == null) {
@@ -488,12 +771,12 @@ public class MemberServiceImpl implements MemberService {
             throw new BusinessException("不能删除创建者");
         }
 
-        LambdaQueryWrapper<MemberRelation> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(MemberRelation::getFamilyId, familyId)
-                .and(w -> w.eq(MemberRelation::getFromMemberId, memberId).or().eq(MemberRelation::getToMemberId, memberId));
-        relationMapper.delete(wrapper);
+        deleteMemberRelations(familyId, memberId);
+        memberAncestryService.removeMember(memberId);
 
         memberMapper.deleteById(memberId);
+        familyMapper.addMemberCount(familyId, -1);
+        familyGraphCache.removeMember(familyId, memberId);
     }
 
     @Override
@@ -533,18 +816,24 @@ public class MemberServiceImpl implements MemberService {
         return PageResult.of(records, memberPage.getTotal(), page, size);
     }
 
-    private TreeNodeVO convertToTreeNode(FamilyMember member) {
-        return TreeNodeVO.builder()
-                .id(member.getId())
-                .name(member.getName())
-                .gender(member.getGender())
-                .avatar(member.getAvatar())
-                .birthDate(member.getBirthDate())
-                .bio(member.getBio())
-                .isCreator(member.getIsCreator())
-                .userId(member.getUserId())
-                .children(new ArrayList<>())
-                .build();
+    @Override
+    public CursorPageResult<MemberDetailDTO> getMembersByCursor(String cursor, Integer size, boolean withTotal) {
+        int limit = CursorUtil.size(size);
+        List<FamilyMember> rows = memberMapper.selectList(CursorUtil.seek(new LambdaQueryWrapper<>(),
+                CursorUtil.decode(cursor), limit, FamilyMember::getCreateTime, FamilyMember::getId));
+        CursorPageResult<FamilyMember> page = CursorPageResult.of(rows, limit,
+                m -> CursorUtil.encode(m.getCreateTime(), m.getId()));
+
+        List<Long> familyIds = page.getRecords().stream().map(FamilyMember::getFamilyId).distinct().toList();
+        Map<Long, String> familyMap = familyIds.isEmpty() ? Map.of() : familyMapper.selectBatchIds(familyIds).stream()
+                .collect(Collectors.toMap(Family::getId, Family::getName));
+
+        return page.map(m -> {
+                    MemberDetailDTO dto = convertToDetailDTO(m);
+                    dto.setFamilyName(familyMap.get(m.getFamilyId()));
+                    return dto;
+                })
+                .withTotal(withTotal ? memberMapper.selectCount(null) : tableStatMapper.selectEstimatedRows("family_member"), !withTotal);
     }
 
     private MemberDetailDTO convertToDetailDTO(FamilyMember member) {
@@ -571,6 +860,7 @@ public class MemberServiceImpl implements MemberService {
     }
 
     @Override
+    @Transactional
     public MemberDetailDTO addMemberByUser(Long familyId, Long userId, MemberCreateByAdminDTO request) {
         Family family = familyMapper.selectById(familyId);
         if (family == null) {
@@ -601,6 +891,9 @@ public class MemberServiceImpl implements MemberService {
                 .isCreator(0)
                 .build();
         memberMapper.insert(member);
+        memberAncestryService.addMember(familyId, member.getId());
+        familyMapper.addMemberCount(familyId, 1);
+        familyGraphCache.putMember(member);
 
         return convertToDetailDTO(member);
     }
@@ -608,10 +901,53 @@ public class MemberServiceImpl implements MemberService {
     @Override
     public PageResult<MemberVO> queryMembers(MemberQueryRequest query) {
         Page<MemberVO> pageParam = new Page<>(query.getPage(), query.getSize());
-        IPage<MemberVO> page = memberMapper.selectMemberPage(pageParam, query);
+        List<Long> memberIds = null;
+        if (query.getName() != null && !query.getName().isBlank() && memberSearchIndex.isReady()) {
+            memberIds = searchMemberIds(query);
+            if (memberIds != null && memberIds.isEmpty()) {
+                return PageResult.of(List.of(), 0L, query.getPage(), query.getSize());
+            }
+        }
+        IPage<MemberVO> page = memberMapper.selectMemberPage(pageParam, query, memberIds);
         return PageResult.of(page.getRecords(), page.getTotal(), query.getPage(), query.getSize());
     }
 
+    @Override
+    public CursorPageResult<MemberVO> queryMembersByCursor(MemberQueryRequest query, String cursor, boolean withTotal) {
+        if (query.getSortBy() != null && !query.getSortBy().isEmpty()) {
+            throw new BusinessException("游标分页仅支持按创建时间排序");
+        }
+        int limit = CursorUtil.size(query.getSize());
+        boolean filtered = query.getName() != null && !query.getName().isBlank() || query.getGenealogyId() != null
+                || query.getGeneration() != null || query.getGender() != null && !query.getGender().isEmpty()
+                || query.getBirthDateStart() != null && !query.getBirthDateStart().isEmpty()
+                || query.getBirthDateEnd() != null && !query.getBirthDateEnd().isEmpty()
+                || query.getCreateTimeStart() != null && !query.getCreateTimeStart().isEmpty()
+                || query.getCreateTimeEnd() != null && !query.getCreateTimeEnd().isEmpty();
+
+        List<Long> memberIds = null;
+        if (query.getName() != null && !query.getName().isBlank() && memberSearchIndex.isReady()) {
+            memberIds = searchMemberIds(query);
+            if (memberIds != null && memberIds.isEmpty()) {
+                return CursorPageResult.<MemberVO>of(List.of(), limit, v -> null).withTotal(0L, false);
+            }
+        }
+        List<MemberVO> rows = memberMapper.selectMemberSeek(query, memberIds, CursorUtil.decode(cursor), limit + 1);
+        CursorPageResult<MemberVO> result = CursorPageResult.of(rows, limit, v -> CursorUtil.encode(v.getCreatedAt(), v.getId()));
+        if (withTotal) {
+            return result.withTotal(memberMapper.countMembers(query, memberIds), false);
+        }
+        return filtered ? result : result.withTotal(tableStatMapper.selectEstimatedRows("family_member"), true);
+    }
+
+    /**
+     * 从搜索索引取候选成员ID；命中超过上限时返回 null，改走 SQL 姓名模糊匹配，保证结果和总数完整
+     */
+    private List<Long> searchMemberIds(MemberQueryRequest query) {
+        List<Long> memberIds = memberSearchIndex.searchIds(query.getName(), query.getGenealogyId(), MAX_PAGE_SEARCH_IDS + 1);
+        return memberIds.size() > MAX_PAGE_SEARCH_IDS ? null : memberIds;
+    }
+
     @Override
     @Transactional
     public MemberDetailDTO updateMemberByAdmin(Long memberId, MemberEditByAdminDTO request) {
@@ -621,6 +957,7 @@ public class MemberServiceImpl implements MemberService {
         }
 
         boolean isGenealogyChange = request.getGenealogyId() != null && !request.getGenealogyId().equals(member.getFamilyId());
+        Long originalFamilyId = member.getFamilyId();
 
         if (request.getName() != null) {
             member.setName(request.getName());
@@ -650,15 +987,20 @@ public class MemberServiceImpl implements MemberService {
                 throw new BusinessException("目标家谱不存在");
             }
 
-            LambdaQueryWrapper<MemberRelation> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(MemberRelation::getFamilyId, member.getFamilyId())
-                    .and(w -> w.eq(MemberRelation::getFromMemberId, memberId).or().eq(MemberRelation::getToMemberId, memberId));
-            relationMapper.delete(wrapper);
+            deleteMemberRelations(member.getFamilyId(), memberId);
+            memberAncestryService.removeMember(memberId);
 
             member.setFamilyId(request.getGenealogyId());
+            memberAncestryService.addMember(member.getFamilyId(), memberId);
+            familyMapper.addMemberCount(originalFamilyId, -1);
+            familyMapper.addMemberCount(member.getFamilyId(), 1);
         }
 
         memberMapper.updateById(member);
+        if (isGenealogyChange) {
+            familyGraphCache.removeMember(originalFamilyId, memberId);
+        }
+        familyGraphCache.putMember(member);
 
         if (request.getAccountRole() != null && member.getUserId() != null) {
             UserGenealogy ug = userGenealogyMapper.selectByUserAndGenealogy(member.getUserId(), member.getFamilyId());
@@ -701,6 +1043,26 @@ public class MemberServiceImpl implements MemberService {
             warnings.add("目标家谱存在同名成员");
         }
 
+        List<MemberDuplicateCandidate> duplicates = duplicateCandidateMapper.selectList(
+                new LambdaQueryWrapper<MemberDuplicateCandidate>()
+                        .ne(MemberDuplicateCandidate::getStatus, DuplicateStatusEnum.DISMISSED)
+                        .and(w -> w.nested(n -> n.eq(MemberDuplicateCandidate::getMemberId, memberId)
+                                        .eq(MemberDuplicateCandidate::getOtherFamilyId, targetGenealogyId))
+                                .or(n -> n.eq(MemberDuplicateCandidate::getOtherMemberId, memberId)
+                                        .eq(MemberDuplicateCandidate::getFamilyId, targetGenealogyId)))
+        );
+        if (!duplicates.isEmpty()) {
+            List<Long> duplicateIds = duplicates.stream()
+                    .map(d -> d.getMemberId().equals(memberId) ? d.getOtherMemberId() : d.getMemberId())
+                    .toList();
+            String names = memberMapper.selectBatchIds(duplicateIds).stream()
+                    .map(FamilyMember::getName)
+                    .collect(Collectors.joining("、"));
+            if (!names.isEmpty()) {
+                warnings.add("查重发现目标家谱中可能是同一人的成员：" + names);
+            }
+        }
+
         return MemberTransferCheckDTO.builder()
                 .canTransfer(true)
                 .warnings(warnings)
@@ -709,6 +1071,7 @@ public class MemberServiceImpl implements MemberService {
     }
 
     @Override
+    @Transactional
     public void deleteMemberByAdmin(Long familyId, Long memberId) {
         Family family = familyMapper.selectById(familyId);
         if (family == null) {
@@ -724,11 +1087,28 @@ public class MemberServiceImpl implements MemberService {
             throw new BusinessException("不能删除创建者");
         }
 
-        LambdaQueryWrapper<MemberRelation> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(MemberRelation::getFamilyId, familyId)
-                .and(w -> w.eq(MemberRelation::getFromMemberId, memberId).or().eq(MemberRelation::getToMemberId, memberId));
-        relationMapper.delete(wrapper);
+        deleteMemberRelations(familyId, memberId);
+        memberAncestryService.removeMember(memberId);
 
         memberMapper.deleteById(memberId);
+        familyMapper.addMemberCount(familyId, -1);
+        familyGraphCache.removeMember(familyId, memberId);
+    }
+
+    /**
+     * 删除成员的全部关系并逐条记录变更日志，增量同步才能得知这些关系已删除；按查出的ID删除，日志与实际删除一致
+     */
+    private void deleteMemberRelations(Long familyId, Long memberId) {
+        List<Long> relationIds = relationMapper.selectList(
+                new LambdaQueryWrapper<MemberRelation>()
+                        .select(MemberRelation::getId)
+                        .eq(MemberRelation::getFamilyId, familyId)
+                        .and(w -> w.eq(MemberRelation::getFromMemberId, memberId).or().eq(MemberRelation::getToMemberId, memberId))
+        ).stream().map(MemberRelation::getId).toList();
+        if (relationIds.isEmpty()) {
+            return;
+        }
+        relationMapper.deleteBatchIds(relationIds);
+        familyGraphCache.removeRelations(familyId, relationIds);
     }
 }
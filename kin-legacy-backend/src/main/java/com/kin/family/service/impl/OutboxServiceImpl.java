@@ -0,0 +1,133 @@
+package com.kin.family.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kin.family.constant.OutboxStatusEnum;
+import com.kin.family.entity.OutboxEvent;
+import com.kin.family.exception.BusinessException;
+import com.kin.family.mapper.OutboxEventMapper;
+import com.kin.family.service.OutboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 事务发件箱服务实现
+ *
+ * @author candong
+ */
+@Slf4j
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final int PURGE_BATCH_SIZE = 5000;
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final long RETRY_BASE_SECONDS = 10;
+    private static final long RETRY_MAX_SECONDS = 3600;
+
+    private final OutboxEventMapper outboxEventMapper;
+    private final ObjectMapper objectMapper;
+    private final int maxAttempts;
+    private final long leaseSeconds;
+    private final int retentionDays;
+
+    public OutboxServiceImpl(OutboxEventMapper outboxEventMapper,
+                             ObjectMapper objectMapper,
+                             @Value("${family.outbox.max-attempts:8}") int maxAttempts,
+                             @Value("${family.outbox.lease-seconds:300}") long leaseSeconds,
+                             @Value("${family.outbox.retention-days:7}") int retentionDays) {
+        this.outboxEventMapper = outboxEventMapper;
+        this.objectMapper = objectMapper;
+        this.maxAttempts = maxAttempts;
+        this.leaseSeconds = leaseSeconds;
+        this.retentionDays = retentionDays;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String eventType, String eventKey, Object payload) {
+        publishAll(eventType, Map.of(eventKey, payload));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(String eventType, Map<String, ?> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> events = new ArrayList<>(payloads.size());
+        try {
+            for (Map.Entry<String, ?> entry : payloads.entrySet()) {
+                events.add(OutboxEvent.builder()
+                        .eventType(eventType)
+                        .eventKey(entry.getKey())
+                        .payload(objectMapper.writeValueAsString(entry.getValue()))
+                        .build());
+            }
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("序列化事件内容失败");
+        }
+        outboxEventMapper.insertIgnoreBatch(events, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional
+    public List<OutboxEvent> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventMapper.selectDueForUpdate(now, limit);
+        if (!events.isEmpty()) {
+            outboxEventMapper.markProcessing(events.stream().map(OutboxEvent::getId).toList(),
+                    now.plusSeconds(leaseSeconds));
+            events.forEach(e -> e.setAttempts(e.getAttempts() + 1));
+        }
+        return events;
+    }
+
+    @Override
+    public void complete(Long id) {
+        outboxEventMapper.update(null, new LambdaUpdateWrapper<OutboxEvent>()
+                .set(OutboxEvent::getStatus, OutboxStatusEnum.DONE)
+                .set(OutboxEvent::getLastError, null)
+                .eq(OutboxEvent::getId, id));
+    }
+
+    @Override
+    public void fail(OutboxEvent event, Throwable error) {
+        boolean giveUp = event.getAttempts() >= maxAttempts;
+        long delay = Math.min(RETRY_MAX_SECONDS, RETRY_BASE_SECONDS << Math.min(event.getAttempts() - 1, 20));
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getName();
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        outboxEventMapper.update(null, new LambdaUpdateWrapper<OutboxEvent>()
+                .set(OutboxEvent::getStatus, giveUp ? OutboxStatusEnum.FAILED : OutboxStatusEnum.PENDING)
+                .set(OutboxEvent::getNextAttemptTime, LocalDateTime.now().plusSeconds(delay))
+                .set(OutboxEvent::getLastError, message)
+                .eq(OutboxEvent::getId, event.getId()));
+        if (giveUp) {
+            log.error("发件箱事件多次处理失败，已放弃: id={}, type={}, key={}",
+                    event.getId(), event.getEventType(), event.getEventKey(), error);
+        }
+    }
+
+    @Override
+    public int purgeDone() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = outboxEventMapper.deleteDoneBefore(before, PURGE_BATCH_SIZE);
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        return total;
+    }
+}
@@ -0,0 +1,416 @@
+package com.kin.family.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.kin.family.cache.FamilyGraphCache;
+import com.kin.family.constant.IntegrityIssueEnum;
+import com.kin.family.constant.RelationTypeEnum;
+import com.kin.family.dto.IntegrityReportVO;
+import com.kin.family.entity.Family;
+import com.kin.family.entity.FamilyMember;
+import com.kin.family.entity.MemberRelation;
+import com.kin.family.entity.RelationIntegrityIssue;
+import com.kin.family.exception.BusinessException;
+import com.kin.family.mapper.FamilyMapper;
+import com.kin.family.mapper.FamilyMemberMapper;
+import com.kin.family.mapper.MemberRelationMapper;
+import com.kin.family.mapper.RelationIntegrityIssueMapper;
+import com.kin.family.service.MemberAncestryService;
+import com.kin.family.service.RelationIntegrityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 关系完整性服务实现
+ * 家谱按ID分批遍历，每个家谱的关系按ID分批读入后在内存中检查；
+ * 每条关系只记一种问题，按自环、悬空/跨家谱、重复、多位父母、成环的顺序判定，成环检测只考虑此前未被判定的父母子女关系
+ *
+ * @author candong
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RelationIntegrityServiceImpl implements RelationIntegrityService {
+
+    private static final int FAMILY_BATCH_SIZE = 100;
+    private static final int RELATION_BATCH_SIZE = 2000;
+
+    private final FamilyMapper familyMapper;
+    private final FamilyMemberMapper memberMapper;
+    private final MemberRelationMapper relationMapper;
+    private final RelationIntegrityIssueMapper issueMapper;
+    private final MemberAncestryService memberAncestryService;
+    private final FamilyGraphCache familyGraphCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public IntegrityReportVO checkAll(boolean repair) {
+        long start = System.currentTimeMillis();
+        IntegrityReportVO total = emptyReport();
+        Long lastId = 0L;
+        while (true) {
+            List<Family> families = familyMapper.selectList(
+                    new LambdaQueryWrapper<Family>()
+                            .select(Family::getId)
+                            .gt(Family::getId, lastId)
+                            .orderByAsc(Family::getId)
+                            .last("LIMIT " + FAMILY_BATCH_SIZE)
+            );
+            for (Family family : families) {
+                try {
+                    merge(total, check(family.getId(), repair));
+                } catch (Exception e) {
+                    log.error("家谱关系完整性检查失败: familyId={}", family.getId(), e);
+                }
+            }
+            if (families.size() < FAMILY_BATCH_SIZE) {
+                break;
+            }
+            lastId = families.get(families.size() - 1).getId();
+        }
+        total.setCostMillis(System.currentTimeMillis() - start);
+        return total;
+    }
+
+    @Override
+    public IntegrityReportVO checkFamily(Long familyId, boolean repair) {
+        if (familyMapper.selectById(familyId) == null) {
+            throw new BusinessException("家谱不存在");
+        }
+        long start = System.currentTimeMillis();
+        IntegrityReportVO report = check(familyId, repair);
+        report.setCostMillis(System.currentTimeMillis() - start);
+        return report;
+    }
+
+    @Override
+    public List<RelationIntegrityIssue> getIssues(Long familyId) {
+        return issueMapper.selectList(
+                new LambdaQueryWrapper<RelationIntegrityIssue>()
+                        .eq(RelationIntegrityIssue::getFamilyId, familyId)
+                        .orderByAsc(RelationIntegrityIssue::getId)
+        );
+    }
+
+    private IntegrityReportVO check(Long familyId, boolean repair) {
+        Set<Long> memberIds = new HashSet<>();
+        for (FamilyMember member : memberMapper.selectList(
+                new LambdaQueryWrapper<FamilyMember>()
+                        .select(FamilyMember::getId)
+                        .eq(FamilyMember::getFamilyId, familyId))) {
+            memberIds.add(member.getId());
+        }
+
+        List<MemberRelation> relations = new ArrayList<>();
+        Long lastId = 0L;
+        while (true) {
+            List<MemberRelation> batch = relationMapper.selectList(
+                    new LambdaQueryWrapper<MemberRelation>()
+                            .eq(MemberRelation::getFamilyId, familyId)
+                            .gt(MemberRelation::getId, lastId)
+                            .orderByAsc(MemberRelation::getId)
+                            .last("LIMIT " + RELATION_BATCH_SIZE)
+            );
+            relations.addAll(batch);
+            if (batch.size() < RELATION_BATCH_SIZE) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+
+        List<RelationIntegrityIssue> detected = detect(familyId, memberIds, relations);
+        List<RelationIntegrityIssue> issues = transactionTemplate.execute(status -> saveIssues(familyId, detected, repair));
+
+        IntegrityReportVO report = emptyReport();
+        report.setFamilyCount(1);
+        report.setRelationCount(relations.size());
+        for (RelationIntegrityIssue issue : issues) {
+            report.setIssueCount(report.getIssueCount() + 1);
+            report.getIssueCounts().merge(issue.getIssueType().getValue(), 1, Integer::sum);
+            if (Integer.valueOf(1).equals(issue.getRepaired())) {
+                report.setRepairedCount(report.getRepairedCount() + 1);
+            }
+        }
+        if (!issues.isEmpty()) {
+            log.warn("家谱关系存在问题: familyId={}, relations={}, issues={}, repaired={}",
+                    familyId, relations.size(), issues.size(), report.getRepairedCount());
+        }
+        return report;
+    }
+
+    private List<RelationIntegrityIssue> detect(Long familyId, Set<Long> memberIds, List<MemberRelation> relations) {
+        Map<Long, RelationIntegrityIssue> issues = new LinkedHashMap<>();
+
+        List<MemberRelation> missing = new ArrayList<>();
+        for (MemberRelation r : relations) {
+            if (r.getFromMemberId() != null && r.getFromMemberId().equals(r.getToMemberId())) {
+                issues.put(r.getId(), issue(r, IntegrityIssueEnum.SELF_LOOP, null));
+            } else if (!memberIds.contains(r.getFromMemberId()) || !memberIds.contains(r.getToMemberId())) {
+                missing.add(r);
+            }
+        }
+        if (!missing.isEmpty()) {
+            classifyMissing(familyId, memberIds, missing, issues);
+        }
+
+        // 对称关系不区分方向；同一子女的父亲、母亲各保留最早录入的一条
+        Set<String> seen = new HashSet<>();
+        Map<Long, Long> fathers = new HashMap<>();
+        Map<Long, Long> mothers = new HashMap<>();
+        for (MemberRelation r : relations) {
+            if (issues.containsKey(r.getId()) || r.getRelationType() == null) {
+                continue;
+            }
+            long from = r.getFromMemberId();
+            long to = r.getToMemberId();
+            String key = isSymmetric(r.getRelationType())
+                    ? r.getRelationType().getValue() + ':' + Math.min(from, to) + ':' + Math.max(from, to)
+                    : r.getRelationType().getValue() + ':' + from + ':' + to;
+            if (!seen.add(key)) {
+                issues.put(r.getId(), issue(r, IntegrityIssueEnum.DUPLICATE, null));
+                continue;
+            }
+            Map<Long, Long> parents = isFather(r.getRelationType()) ? fathers
+                    : isMother(r.getRelationType()) ? mothers : null;
+            if (parents != null) {
+                Long existing = parents.putIfAbsent(to, from);
+                if (existing != null && existing != from) {
+                    issues.put(r.getId(), issue(r, IntegrityIssueEnum.MULTIPLE_PARENTS, "已有" + (parents == fathers ? "父亲" : "母亲") + "成员" + existing));
+                }
+            }
+        }
+
+        detectCycles(memberIds, relations, issues);
+        return new ArrayList<>(issues.values());
+    }
+
+    /**
+     * 端点不在本家谱的关系，端点仍存在时为跨家谱引用，否则为悬空引用
+     */
+    private void classifyMissing(Long familyId, Set<Long> memberIds, List<MemberRelation> missing,
+                                 Map<Long, RelationIntegrityIssue> issues) {
+        Set<Long> outsideIds = new HashSet<>();
+        for (MemberRelation r : missing) {
+            if (!memberIds.contains(r.getFromMemberId()) && r.getFromMemberId() != null) {
+                outsideIds.add(r.getFromMemberId());
+            }
+            if (!memberIds.contains(r.getToMemberId()) && r.getToMemberId() != null) {
+                outsideIds.add(r.getToMemberId());
+            }
+        }
+        Map<Long, Long> outsideFamilies = new HashMap<>();
+        List<Long> ids = new ArrayList<>(outsideIds);
+        for (int i = 0; i < ids.size(); i += RELATION_BATCH_SIZE) {
+            for (FamilyMember member : memberMapper.selectList(
+                    new LambdaQueryWrapper<FamilyMember>()
+                            .select(FamilyMember::getId, FamilyMember::getFamilyId)
+                            .in(FamilyMember::getId, ids.subList(i, Math.min(ids.size(), i + RELATION_BATCH_SIZE))))) {
+                outsideFamilies.put(member.getId(), member.getFamilyId());
+            }
+        }
+
+        for (MemberRelation r : missing) {
+            Long outside = memberIds.contains(r.getFromMemberId()) ? r.getToMemberId() : r.getFromMemberId();
+            boolean bothKnown = (memberIds.contains(r.getFromMemberId()) || outsideFamilies.containsKey(r.getFromMemberId()))
+                    && (memberIds.contains(r.getToMemberId()) || outsideFamilies.containsKey(r.getToMemberId()));
+            if (bothKnown) {
+                issues.put(r.getId(), issue(r, IntegrityIssueEnum.CROSS_FAMILY,
+                        "成员" + outside + "属于家谱" + outsideFamilies.get(outside)));
+            } else {
+                issues.put(r.getId(), issue(r, IntegrityIssueEnum.DANGLING, null));
+            }
+        }
+        log.debug("家谱存在指向外部成员的关系: familyId={}, count={}", familyId, missing.size());
+    }
+
+    /**
+     * 先按拓扑排序剔除不在环上、也不在环下游的成员，再对剩余成员深度优先遍历，
+     * 指向遍历栈中成员的回边记为成环；删除这些回边即可消除所有环
+     */
+    private void detectCycles(Set<Long> memberIds, List<MemberRelation> relations,
+                              Map<Long, RelationIntegrityIssue> issues) {
+        Map<Long, Integer> positions = new HashMap<>(memberIds.size() * 2);
+        for (Long id : memberIds) {
+            positions.put(id, positions.size());
+        }
+        int size = positions.size();
+        List<MemberRelation> edges = new ArrayList<>();
+        int[] offsets = new int[size + 1];
+        for (MemberRelation r : relations) {
+            if (!issues.containsKey(r.getId()) && isParent(r.getRelationType())) {
+                edges.add(r);
+                offsets[positions.get(r.getFromMemberId()) + 1]++;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] targets = new int[edges.size()];
+        MemberRelation[] edgeRelations = new MemberRelation[edges.size()];
+        int[] cursor = Arrays.copyOf(offsets, size);
+        int[] inDegrees = new int[size];
+        for (MemberRelation r : edges) {
+            int slot = cursor[positions.get(r.getFromMemberId())]++;
+            targets[slot] = positions.get(r.getToMemberId());
+            edgeRelations[slot] = r;
+            inDegrees[targets[slot]]++;
+        }
+
+        int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < size; i++) {
+            if (inDegrees[i] == 0) {
+                queue[tail++] = i;
+            }
+        }
+        while (head < tail) {
+            int current = queue[head++];
+            for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                if (--inDegrees[targets[e]] == 0) {
+                    queue[tail++] = targets[e];
+                }
+            }
+        }
+        if (tail == size) {
+            return;
+        }
+
+        // 0 未访问，1 在遍历栈中，2 已完成；拓扑排序已处理的成员视为已完成
+        byte[] states = new byte[size];
+        for (int i = 0; i < tail; i++) {
+            states[queue[i]] = 2;
+        }
+        int[] stack = new int[size];
+        int[] edgeCursor = new int[size];
+        for (int start = 0; start < size; start++) {
+            if (states[start] != 0) {
+                continue;
+            }
+            int depth = 0;
+            stack[depth++] = start;
+            states[start] = 1;
+            edgeCursor[start] = offsets[start];
+            while (depth > 0) {
+                int current = stack[depth - 1];
+                if (edgeCursor[current] == offsets[current + 1]) {
+                    states[current] = 2;
+                    depth--;
+                    continue;
+                }
+                int e = edgeCursor[current]++;
+                int next = targets[e];
+                if (states[next] == 1) {
+                    MemberRelation r = edgeRelations[e];
+                    issues.put(r.getId(), issue(r, IntegrityIssueEnum.CYCLE, null));
+                } else if (states[next] == 0) {
+                    states[next] = 1;
+                    edgeCursor[next] = offsets[next];
+                    stack[depth++] = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * 扫描在事务外进行，修复前在事务内加锁重读问题关系：已被删除或改动的关系跳过且不记录，留给下一轮检查
+     *
+     * @return 实际记录的问题
+     */
+    private List<RelationIntegrityIssue> saveIssues(Long familyId, List<RelationIntegrityIssue> issues, boolean repair) {
+        issueMapper.delete(new LambdaQueryWrapper<RelationIntegrityIssue>()
+                .eq(RelationIntegrityIssue::getFamilyId, familyId)
+                .eq(RelationIntegrityIssue::getRepaired, 0));
+        Map<Long, MemberRelation> current = new HashMap<>();
+        if (repair && !issues.isEmpty()) {
+            List<Long> ids = issues.stream().map(RelationIntegrityIssue::getRelationId).distinct().toList();
+            for (MemberRelation r : relationMapper.selectByIdsForUpdate(ids)) {
+                current.put(r.getId(), r);
+            }
+        }
+        List<RelationIntegrityIssue> saved = new ArrayList<>(issues.size());
+        Set<Long> deleted = new HashSet<>();
+        for (RelationIntegrityIssue issue : issues) {
+            if (repair) {
+                MemberRelation relation = current.get(issue.getRelationId());
+                if (relation == null || !unchanged(relation, issue)) {
+                    continue;
+                }
+                if (deleted.add(relation.getId())) {
+                    relationMapper.deleteById(relation.getId());
+                    memberAncestryService.unlinkRelation(relation);
+                    familyGraphCache.removeRelation(familyId, relation.getId());
+                }
+                issue.setRepaired(1);
+            }
+            issueMapper.insert(issue);
+            saved.add(issue);
+        }
+        return saved;
+    }
+
+    private static boolean unchanged(MemberRelation relation, RelationIntegrityIssue issue) {
+        return Objects.equals(relation.getFamilyId(), issue.getFamilyId())
+                && Objects.equals(relation.getFromMemberId(), issue.getFromMemberId())
+                && Objects.equals(relation.getToMemberId(), issue.getToMemberId())
+                && relation.getRelationType() == issue.getRelationType();
+    }
+
+    private RelationIntegrityIssue issue(MemberRelation r, IntegrityIssueEnum type, String detail) {
+        return RelationIntegrityIssue.builder()
+                .familyId(r.getFamilyId())
+                .relationId(r.getId())
+                .fromMemberId(r.getFromMemberId())
+                .toMemberId(r.getToMemberId())
+                .relationType(r.getRelationType())
+                .issueType(type)
+                .detail(detail != null ? detail : type.getDescription())
+                .repaired(0)
+                .build();
+    }
+
+    private IntegrityReportVO emptyReport() {
+        return IntegrityReportVO.builder()
+                .familyCount(0)
+                .relationCount(0)
+                .issueCount(0)
+                .repairedCount(0)
+                .issueCounts(new LinkedHashMap<>())
+                .build();
+    }
+
+    private void merge(IntegrityReportVO total, IntegrityReportVO report) {
+        total.setFamilyCount(total.getFamilyCount() + report.getFamilyCount());
+        total.setRelationCount(total.getRelationCount() + report.getRelationCount());
+        total.setIssueCount(total.getIssueCount() + report.getIssueCount());
+        total.setRepairedCount(total.getRepairedCount() + report.getRepairedCount());
+        report.getIssueCounts().forEach((type, count) -> total.getIssueCounts().merge(type, count, Integer::sum));
+    }
+
+    private static boolean isSymmetric(RelationTypeEnum type) {
+        return type == RelationTypeEnum.HUSBAND_WIFE || type == RelationTypeEnum.SIBLING;
+    }
+
+    private static boolean isFather(RelationTypeEnum type) {
+        return type == RelationTypeEnum.FATHER_SON || type == RelationTypeEnum.FATHER_DAUGHTER;
+    }
+
+    private static boolean isMother(RelationTypeEnum type) {
+        return type == RelationTypeEnum.MOTHER_SON || type == RelationTypeEnum.MOTHER_DAUGHTER;
+    }
+
+    private static boolean isParent(RelationTypeEnum type) {
+        return isFather(type) || isMother(type);
+    }
+}
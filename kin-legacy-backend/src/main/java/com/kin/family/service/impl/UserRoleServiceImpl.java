@@ -1,6 +1,7 @@
 package com.kin.family.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.kin.family.cache.FamilyGraphCache;
 import com.kin.family.constant.GenealogyRoleEnum;
 import com.kin.family.constant.UserRoleEnum;
 import com.kin.family.dto.UserGenealogyDTO;
@@ -36,6 +37,7 @@ public class UserRoleServiceImpl implements UserRoleService {
     private final UserGenealogyMapper userGenealogyMapper;
     private final UserMapper userMapper;
     private final FamilyMapper familyMapper;
+    private final FamilyGraphCache familyGraphCache;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -53,6 +55,7 @@ public class UserRoleServiceImpl implements UserRoleService {
         } else {
             createUserGenealogy(userId, genealogyId, role, null, null);
         }
+        familyGraphCache.touch(genealogyId);
 
         if (roleEnum == GenealogyRoleEnum.ADMIN) {
             checkAndUpgradeGlobalRole(userId);
@@ -175,6 +178,7 @@ public class UserRoleServiceImpl implements UserRoleService {
                 existing.setFamilyMemberId(familyMemberId);
             }
             userGenealogyMapper.updateById(existing);
+            familyGraphCache.touch(genealogyId);
             return;
         }
 
@@ -187,6 +191,7 @@ public class UserRoleServiceImpl implements UserRoleService {
                 .createdBy(createdBy)
                 .build();
         userGenealogyMapper.insert(ug);
+        familyGraphCache.touch(genealogyId);
 
         if (roleEnum == GenealogyRoleEnum.ADMIN) {
             checkAndUpgradeGlobalRole(userId);
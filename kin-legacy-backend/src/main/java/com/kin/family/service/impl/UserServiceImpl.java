@@ -3,9 +3,12 @@ package com.kin.family.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.kin.family.cache.FamilyGraphCache;
+import com.kin.family.cache.PendingApprovalCounter;
 import com.kin.family.config.jwt.JwtProperties;
 import com.kin.family.config.WeChatConfig;
 import com.kin.family.dto.AuthTokenDTO;
+import com.kin.family.dto.CursorPageResult;
 import com.kin.family.dto.PageResult;
 import com.kin.family.dto.UserDetailDTO;
 import com.kin.family.dto.AuthWxLoginDTO;
@@ -13,8 +16,10 @@ import com.kin.family.entity.User;
 import com.kin.family.constant.UserRoleEnum;
 import com.kin.family.constant.UserStatusEnum;
 import com.kin.family.exception.BusinessException;
+import com.kin.family.mapper.TableStatMapper;
 import com.kin.family.mapper.UserMapper;
 import com.kin.family.service.UserService;
+import com.kin.family.util.CursorUtil;
 import com.kin.family.util.PasswordUtil;
 import com.kin.family.util.JwtUtil;
 import com.kin.family.util.UserContextUtil;
@@ -42,10 +47,12 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final com.kin.family.mapper.FamilyMapper familyMapper;
     private final com.kin.family.mapper.FamilyMemberMapper memberMapper;
-    private final com.kin.family.mapper.JoinRequestMapper joinRequestMapper;
     private final WeChatConfig weChatConfig;
     private final JwtUtil jwtUtil;
     private final JwtProperties jwtProperties;
+    private final FamilyGraphCache familyGraphCache;
+    private final PendingApprovalCounter pendingApprovalCounter;
+    private final TableStatMapper tableStatMapper;
 
     @Override
     public AuthTokenDTO wxLogin(AuthWxLoginDTO request) {
@@ -215,6 +222,16 @@ public class UserServiceImpl implements UserService {
         return PageResult.of(records, userPage.getTotal(), page, size);
     }
 
+    @Override
+    public CursorPageResult<UserDetailDTO> getUsersByCursor(String cursor, Integer size, boolean withTotal) {
+        int limit = CursorUtil.size(size);
+        List<User> rows = userMapper.selectList(CursorUtil.seek(new LambdaQueryWrapper<>(),
+                CursorUtil.decode(cursor), limit, User::getCreateTime, User::getId));
+        return CursorPageResult.of(rows, limit, u -> CursorUtil.encode(u.getCreateTime(), u.getId()))
+                .map(this::convertToUserDetailDTO)
+                .withTotal(withTotal ? userMapper.selectCount(null) : tableStatMapper.selectEstimatedRows("user"), !withTotal);
+    }
+
     @Override
     public UserDetailDTO updateUser(Long userId, UserDetailDTO request) {
         User user = userMapper.selectById(userId);
@@ -275,12 +292,7 @@ public class UserServiceImpl implements UserService {
         long memberCount = memberMapper.selectCount(null);
         stats.put("memberCount", memberCount);
 
-        long pendingCount = joinRequestMapper.selectCount(
-                new LambdaQueryWrapper<com.kin.family.entity.JoinRequest>()
-                        .eq(com.kin.family.entity.JoinRequest::getStatus,
-                            com.kin.family.constant.RequestStatusEnum.PENDING)
-        );
-        stats.put("pendingApproval", pendingCount);
+        stats.put("pendingApproval", pendingApprovalCounter.getTotal().getJoinCount());
 
         return stats;
     }
@@ -354,10 +366,11 @@ public class UserServiceImpl implements UserService {
                         .eq(com.kin.family.entity.FamilyMember::getUserId, userId)
         );
 
+        memberMapper.updateNameByUser(userId, newName.trim());
         for (com.kin.family.entity.FamilyMember member : members) {
             member.setName(newName.trim());
-            memberMapper.updateById(member);
         }
+        familyGraphCache.putMembers(members);
 
         log.info("用户姓名修改：userId={}, {} -> {}, 同步更新了 {} 个成员", userId, oldName, newName, members.size());
     }
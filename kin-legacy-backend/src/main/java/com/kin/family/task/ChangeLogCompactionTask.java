@@ -0,0 +1,45 @@
+package com.kin.family.task;
+
+import com.kin.family.mapper.FamilyChangeLogMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 变更日志清理任务
+ * 定期删除超过保留期的家谱变更日志，版本早于剩余日志的客户端同步时改为拉取完整快照
+ *
+ * @author candong
+ */
+@Slf4j
+@Component
+public class ChangeLogCompactionTask {
+
+    private static final int BATCH_SIZE = 5000;
+
+    private final FamilyChangeLogMapper changeLogMapper;
+    private final int retentionDays;
+
+    public ChangeLogCompactionTask(FamilyChangeLogMapper changeLogMapper,
+                                   @Value("${family.change-log.retention-days:30}") int retentionDays) {
+        this.changeLogMapper = changeLogMapper;
+        this.retentionDays = retentionDays;
+    }
+
+    @Scheduled(cron = "${family.change-log.compact-cron:0 30 3 * * ?}")
+    public void compact() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = changeLogMapper.deleteBefore(before, BATCH_SIZE);
+            total += deleted;
+        } while (deleted == BATCH_SIZE);
+        if (total > 0) {
+            log.info("清理家谱变更日志 {} 条，保留 {} 天内的日志", total, retentionDays);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.kin.family.task;
+
+import com.kin.family.service.FamilyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 家谱成员数校准任务
+ * 定期按 family_member 的实际行数改写 family.member_count，修正绕过服务层的数据修改等造成的偏差
+ *
+ * @author candong
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FamilyMemberCountReconcileTask {
+
+    private final FamilyService familyService;
+
+    @Scheduled(cron = "${family.member-count.reconcile-cron:0 45 3 * * ?}")
+    public void reconcile() {
+        int fixed = familyService.reconcileMemberCounts();
+        if (fixed > 0) {
+            log.warn("家谱成员数校准完成，修正 {} 个家谱", fixed);
+        }
+    }
+}
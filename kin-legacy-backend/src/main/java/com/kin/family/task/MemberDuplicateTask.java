@@ -0,0 +1,24 @@
+package com.kin.family.task;
+
+import com.kin.family.service.MemberDuplicateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 重复成员检测任务
+ * 每晚对全部成员查重，刷新待审核的合并候选
+ *
+ * @author candong
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberDuplicateTask {
+
+    private final MemberDuplicateService memberDuplicateService;
+
+    @Scheduled(cron = "${family.dedup.cron:0 0 4 * * ?}")
+    public void detect() {
+        memberDuplicateService.detectAll();
+    }
+}
@@ -0,0 +1,108 @@
+package com.kin.family.task;
+
+import com.kin.family.entity.OutboxEvent;
+import com.kin.family.service.OutboxEventHandler;
+import com.kin.family.service.OutboxService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 发件箱分发任务
+ * 定时批量领取到期事件，交给有界线程池并发执行对应的处理器，
+ * 一批处理完再领取下一批；每轮最多领取若干批，避免长时间占用调度线程
+ *
+ * @author candong
+ */
+@Slf4j
+@Component
+public class OutboxDispatchTask {
+
+    private static final int MAX_BATCHES_PER_ROUND = 10;
+
+    private final OutboxService outboxService;
+    private final Map<String, OutboxEventHandler> handlers;
+    private final int batchSize;
+    private final ThreadPoolExecutor executor;
+
+    public OutboxDispatchTask(OutboxService outboxService,
+                              List<OutboxEventHandler> handlers,
+                              @Value("${family.outbox.batch-size:100}") int batchSize,
+                              @Value("${family.outbox.workers:4}") int workers) {
+        this.outboxService = outboxService;
+        this.handlers = handlers.stream()
+                .collect(Collectors.toMap(OutboxEventHandler::getEventType, Function.identity()));
+        this.batchSize = batchSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(batchSize),
+                r -> {
+                    Thread thread = new Thread(r, "outbox-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Scheduled(fixedDelayString = "${family.outbox.poll-millis:1000}")
+    public void dispatch() {
+        for (int round = 0; round < MAX_BATCHES_PER_ROUND; round++) {
+            List<OutboxEvent> events = outboxService.claim(batchSize);
+            if (events.isEmpty()) {
+                return;
+            }
+            CompletableFuture.allOf(events.stream()
+                    .map(event -> CompletableFuture.runAsync(() -> process(event), executor))
+                    .toArray(CompletableFuture[]::new)).join();
+            if (events.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(cron = "${family.outbox.purge-cron:0 15 3 * * ?}")
+    public void purge() {
+        int deleted = outboxService.purgeDone();
+        if (deleted > 0) {
+            log.info("清理已完成的发件箱事件 {} 条", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void process(OutboxEvent event) {
+        try {
+            OutboxEventHandler handler = handlers.get(event.getEventType());
+            if (handler == null) {
+                throw new IllegalStateException("未注册的事件类型: " + event.getEventType());
+            }
+            handler.handle(event);
+            outboxService.complete(event.getId());
+        } catch (Exception e) {
+            log.warn("发件箱事件处理失败: id={}, type={}, attempts={}, error={}",
+                    event.getId(), event.getEventType(), event.getAttempts(), e.getMessage());
+            try {
+                outboxService.fail(event, e);
+            } catch (RuntimeException ex) {
+                log.error("记录发件箱事件失败状态出错: id={}", event.getId(), ex);
+            }
+        }
+    }
+}
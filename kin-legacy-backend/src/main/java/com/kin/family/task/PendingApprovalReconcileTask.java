@@ -0,0 +1,24 @@
+package com.kin.family.task;
+
+import com.kin.family.service.ApprovalService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 待审批计数校准任务
+ * 定期按收件箱中的实际待审批数改写计数，修正 Redis 故障、并发校准等造成的偏差
+ *
+ * @author candong
+ */
+@Component
+@RequiredArgsConstructor
+public class PendingApprovalReconcileTask {
+
+    private final ApprovalService approvalService;
+
+    @Scheduled(cron = "${family.approval.reconcile-cron:0 */10 * * * ?}")
+    public void reconcile() {
+        approvalService.reconcilePendingCounts();
+    }
+}
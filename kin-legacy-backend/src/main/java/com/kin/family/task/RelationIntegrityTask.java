@@ -0,0 +1,36 @@
+package com.kin.family.task;
+
+import com.kin.family.dto.IntegrityReportVO;
+import com.kin.family.service.RelationIntegrityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 关系完整性检查任务
+ * 每晚逐个家谱检查成员关系，开启修复时删除有问题的关系
+ *
+ * @author candong
+ */
+@Slf4j
+@Component
+public class RelationIntegrityTask {
+
+    private final RelationIntegrityService relationIntegrityService;
+    private final boolean repair;
+
+    public RelationIntegrityTask(RelationIntegrityService relationIntegrityService,
+                                 @Value("${family.integrity.repair:false}") boolean repair) {
+        this.relationIntegrityService = relationIntegrityService;
+        this.repair = repair;
+    }
+
+    @Scheduled(cron = "${family.integrity.cron:0 0 2 * * ?}")
+    public void check() {
+        IntegrityReportVO report = relationIntegrityService.checkAll(repair);
+        log.info("关系完整性检查完成: families={}, relations={}, issues={}, repaired={}, detail={}, cost={}ms",
+                report.getFamilyCount(), report.getRelationCount(), report.getIssueCount(),
+                report.getRepairedCount(), report.getIssueCounts(), report.getCostMillis());
+    }
+}
@@ -0,0 +1,82 @@
+package com.kin.family.util;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.kin.family.exception.BusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 分页游标工具类
+ * 游标是排序键 (create_time, id) 及可选类型标记的 Base64URL 编码，对客户端不透明
+ *
+ * @author candong
+ */
+public class CursorUtil {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private CursorUtil() {
+    }
+
+    public static String encode(LocalDateTime createTime, Long id) {
+        return encode(createTime, id, null);
+    }
+
+    public static String encode(LocalDateTime createTime, Long id, String tag) {
+        String payload = createTime + "|" + id + (tag == null ? "" : "|" + tag);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，为空时返回 null 表示第一页
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = payload.split("\\|");
+            if (parts.length < 2 || parts.length > 3) {
+                throw new BusinessException("分页游标无效");
+            }
+            return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]), parts.length == 3 ? parts[2] : null);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("分页游标无效");
+        }
+    }
+
+    /**
+     * 按 (create_time, id) 倒序取游标之后的 limit + 1 条，多取的一条用于判断是否还有下一页
+     */
+    public static <T> LambdaQueryWrapper<T> seek(LambdaQueryWrapper<T> wrapper, Cursor cursor, int limit,
+                                                 SFunction<T, ?> createTime, SFunction<T, ?> id) {
+        if (cursor != null) {
+            wrapper.and(w -> w.lt(createTime, cursor.getCreateTime())
+                    .or(o -> o.eq(createTime, cursor.getCreateTime()).lt(id, cursor.getId())));
+        }
+        return wrapper.orderByDesc(createTime).orderByDesc(id).last("LIMIT " + (limit + 1));
+    }
+
+    /**
+     * 每页条数，为空时取默认值，最多 {@link #MAX_SIZE}
+     */
+    public static int size(Integer size) {
+        return size == null ? DEFAULT_SIZE : Math.min(Math.max(size, 1), MAX_SIZE);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Cursor {
+        private final LocalDateTime createTime;
+        private final Long id;
+        private final String tag;
+    }
+}
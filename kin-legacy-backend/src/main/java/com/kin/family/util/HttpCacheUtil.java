@@ -0,0 +1,45 @@
+package com.kin.family.util;
+
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * HTTP 缓存工具类
+ *
+ * @author candong
+ */
+public class HttpCacheUtil {
+
+    /**
+     * 设置 ETag 并与请求的 If-None-Match 比较，一致时响应已置为 304，调用方直接返回 null 即可
+     */
+    public static boolean checkNotModified(String etag) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes == null || attributes.getResponse() == null) {
+            return false;
+        }
+        return new ServletWebRequest(attributes.getRequest(), attributes.getResponse()).checkNotModified(etag);
+    }
+
+    /**
+     * 家谱数据的弱 ETag，内容随用户不同时附带用户ID
+     */
+    public static String familyETag(Long familyId, Long dataVersion, Long userId) {
+        return familyETag(familyId, dataVersion, userId, null);
+    }
+
+    /**
+     * 同一数据有多种表示格式时，以 variant 区分各格式的 ETag
+     */
+    public static String familyETag(Long familyId, Long dataVersion, Long userId, String variant) {
+        StringBuilder etag = new StringBuilder("W/\"").append(familyId).append('-').append(dataVersion);
+        if (userId != null) {
+            etag.append('-').append(userId);
+        }
+        if (variant != null) {
+            etag.append('-').append(variant);
+        }
+        return etag.append('"').toString();
+    }
+}
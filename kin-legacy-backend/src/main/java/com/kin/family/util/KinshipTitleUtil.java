@@ -0,0 +1,204 @@
+package com.kin.family.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 亲属称谓工具类
+ * 关系链由以下代号组成，表示链上每个人是前一个人的什么人：
+ * f 父亲、m 母亲、h 丈夫、w 妻子、s 儿子、d 女儿、ob 哥哥、lb 弟弟、os 姐姐、ls 妹妹、b 兄弟、z 姐妹，
+ * 长幼未知时兄弟姐妹记为 b、z
+ *
+ * @author candong
+ */
+public class KinshipTitleUtil {
+
+    private static final Map<String, String> NAMES = new HashMap<>();
+
+    private static final Map<String, String[]> TITLES = new HashMap<>();
+
+    static {
+        NAMES.put("f", "父亲");
+        NAMES.put("m", "母亲");
+        NAMES.put("h", "丈夫");
+        NAMES.put("w", "妻子");
+        NAMES.put("s", "儿子");
+        NAMES.put("d", "女儿");
+        NAMES.put("ob", "哥哥");
+        NAMES.put("lb", "弟弟");
+        NAMES.put("os", "姐姐");
+        NAMES.put("ls", "妹妹");
+        NAMES.put("b", "兄弟");
+        NAMES.put("z", "姐妹");
+        NAMES.put("p", "父母");
+        NAMES.put("c", "子女");
+        NAMES.put("sp", "配偶");
+        NAMES.put("sib", "兄弟姐妹");
+
+        // 本人、配偶、子女、兄弟姐妹
+        title("f", "父亲");
+        title("m", "母亲");
+        title("h", "丈夫");
+        title("w", "妻子");
+        title("s", "儿子");
+        title("d", "女儿");
+        title("ob", "哥哥");
+        title("lb", "弟弟");
+        title("os", "姐姐");
+        title("ls", "妹妹");
+        title("b", "哥哥", "弟弟", "兄弟");
+        title("z", "姐姐", "妹妹", "姐妹");
+
+        // 祖辈
+        title("f,f", "爷爷");
+        title("f,m", "奶奶");
+        title("m,f", "外公");
+        title("m,m", "外婆");
+        title("f,f,f", "曾祖父");
+        title("f,f,m", "曾祖母");
+        title("f,m,f", "曾外祖父");
+        title("f,m,m", "曾外祖母");
+        title("m,f,f", "外曾祖父");
+        title("m,f,m", "外曾祖母");
+        title("m,m,f", "外曾外祖父");
+        title("m,m,m", "外曾外祖母");
+        title("f,f,f,f", "高祖父");
+        title("f,f,f,m", "高祖母");
+        title("f,f,ob", "伯祖父");
+        title("f,f,lb", "叔祖父");
+        title("f,f,b", "叔伯祖父");
+        title("f,f,z", "姑奶奶");
+        title("m,f,b", "舅姥爷");
+        title("m,f,z", "姨姥姥");
+
+        // 孙辈
+        title("s,s", "孙子");
+        title("s,d", "孙女");
+        title("d,s", "外孙");
+        title("d,d", "外孙女");
+        title("s,s,s", "曾孙");
+        title("s,s,d", "曾孙女");
+        title("d,s,s", "外曾孙");
+        title("d,s,d", "外曾孙女");
+        title("s,w", "儿媳");
+        title("d,h", "女婿");
+        title("s,s,w", "孙媳");
+        title("s,d,h", "孙女婿");
+
+        // 父系旁支
+        title("f,ob", "伯父");
+        title("f,lb", "叔叔");
+        title("f,b", "叔伯");
+        title("f,ob,w", "伯母");
+        title("f,lb,w", "婶婶");
+        title("f,z", "姑妈");
+        title("f,z,h", "姑父");
+        title("f,b,s", "堂哥", "堂弟", "堂兄弟");
+        title("f,b,d", "堂姐", "堂妹", "堂姐妹");
+        title("f,z,s", "表哥", "表弟", "表兄弟");
+        title("f,z,d", "表姐", "表妹", "表姐妹");
+        title("f,b,s,s", "堂侄");
+        title("f,b,s,d", "堂侄女");
+        title("f,f,b,s", "堂叔伯");
+        title("f,f,b,s,s", "从堂兄弟");
+
+        // 母系旁支
+        title("m,b", "舅舅");
+        title("m,b,w", "舅妈");
+        title("m,z", "姨妈");
+        title("m,z,h", "姨父");
+        title("m,b,s", "表哥", "表弟", "表兄弟");
+        title("m,b,d", "表姐", "表妹", "表姐妹");
+        title("m,z,s", "表哥", "表弟", "表兄弟");
+        title("m,z,d", "表姐", "表妹", "表姐妹");
+
+        // 兄弟姐妹的家人
+        title("ob,w", "嫂子");
+        title("lb,w", "弟媳");
+        title("os,h", "姐夫");
+        title("ls,h", "妹夫");
+        title("b,s", "侄子");
+        title("b,d", "侄女");
+        title("z,s", "外甥");
+        title("z,d", "外甥女");
+        title("b,s,s", "侄孙");
+        title("b,s,d", "侄孙女");
+        title("z,s,s", "外甥孙");
+        title("z,s,d", "外甥孙女");
+        title("b,s,w", "侄媳");
+        title("b,d,h", "侄女婿");
+        title("z,s,w", "外甥媳妇");
+        title("z,d,h", "外甥女婿");
+
+        // 姻亲
+        title("w,f", "岳父");
+        title("w,m", "岳母");
+        title("h,f", "公公");
+        title("h,m", "婆婆");
+        title("w,ob", "大舅子");
+        title("w,lb", "小舅子");
+        title("w,os", "大姨子");
+        title("w,ls", "小姨子");
+        title("h,ob", "大伯子");
+        title("h,lb", "小叔子");
+        title("h,os", "大姑子");
+        title("h,ls", "小姑子");
+        title("w,b,s", "内侄");
+        title("w,z,s", "内甥");
+        title("s,w,f", "亲家公");
+        title("s,w,m", "亲家母");
+        title("d,h,f", "亲家公");
+        title("d,h,m", "亲家母");
+    }
+
+    private KinshipTitleUtil() {
+    }
+
+    /**
+     * 按关系链查称谓，先按原链精确匹配，再把兄弟姐妹的长幼抹去后匹配
+     *
+     * @param chain           关系链
+     * @param olderThanSelf   对方是否比本人年长，与本人同辈且称谓区分长幼时使用，未知为 null
+     * @return 称谓，没有对应的常用称谓时返回 null
+     */
+    public static String resolve(List<String> chain, Boolean olderThanSelf) {
+        String[] titles = TITLES.get(String.join(",", chain));
+        if (titles == null) {
+            titles = TITLES.get(String.join(",", chain.stream().map(KinshipTitleUtil::withoutSeniority).toList()));
+        }
+        if (titles == null) {
+            return null;
+        }
+        if (titles.length == 1) {
+            return titles[0];
+        }
+        if (olderThanSelf == null) {
+            return titles[2];
+        }
+        return olderThanSelf ? titles[0] : titles[1];
+    }
+
+    /**
+     * 把关系链描述为“父亲的哥哥的儿子”的形式
+     */
+    public static String describe(List<String> chain) {
+        return String.join("的", chain.stream().map(code -> NAMES.getOrDefault(code, code)).toList());
+    }
+
+    private static String withoutSeniority(String code) {
+        return switch (code) {
+            case "ob", "lb" -> "b";
+            case "os", "ls" -> "z";
+            default -> code;
+        };
+    }
+
+    private static void title(String chain, String title) {
+        TITLES.put(chain, new String[]{title});
+    }
+
+    private static void title(String chain, String older, String younger, String unknown) {
+        TITLES.put(chain, new String[]{older, younger, unknown});
+    }
+}
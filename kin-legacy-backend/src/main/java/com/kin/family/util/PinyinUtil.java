@@ -0,0 +1,74 @@
+package com.kin.family.util;
+
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+
+import java.util.Map;
+
+/**
+ * 拼音工具类
+ * 多音字取第一个读音，常见多音姓氏在首字时按姓氏读音；ü 记为 v
+ *
+ * @author candong
+ */
+public class PinyinUtil {
+
+    private static final HanyuPinyinOutputFormat FORMAT = new HanyuPinyinOutputFormat();
+
+    private static final Map<Character, String> SURNAMES = Map.ofEntries(
+            Map.entry('曾', "zeng"), Map.entry('单', "shan"), Map.entry('解', "xie"),
+            Map.entry('仇', "qiu"), Map.entry('朴', "piao"), Map.entry('查', "zha"),
+            Map.entry('区', "ou"), Map.entry('乐', "yue"), Map.entry('尉', "yu"),
+            Map.entry('盖', "ge"), Map.entry('翟', "zhai"), Map.entry('种', "chong"),
+            Map.entry('缪', "miao"), Map.entry('召', "shao"), Map.entry('覃', "qin"),
+            Map.entry('秘', "bi"), Map.entry('繁', "po"), Map.entry('长', "chang"),
+            Map.entry('柏', "bai"), Map.entry('重', "chong"), Map.entry('沈', "shen"));
+
+    static {
+        FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+    }
+
+    private PinyinUtil() {
+    }
+
+    /**
+     * 全拼与首字母，如“张三”返回 {"zhangsan", "zs"}；字母和数字原样保留（转小写），其余字符忽略
+     */
+    public static String[] toPinyin(String text) {
+        StringBuilder full = new StringBuilder(text.length() * 4);
+        StringBuilder initials = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String syllable = i == 0 ? SURNAMES.get(c) : null;
+            if (syllable == null && Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN) {
+                syllable = syllable(c);
+            }
+            if (syllable != null) {
+                full.append(syllable);
+                initials.append(syllable.charAt(0));
+            } else if (Character.isLetterOrDigit(c) && c < 128) {
+                char lower = Character.toLowerCase(c);
+                full.append(lower);
+                if (initials.length() == 0 || !Character.isLetterOrDigit(text.charAt(i - 1))) {
+                    initials.append(lower);
+                }
+            }
+        }
+        return new String[]{full.toString(), initials.toString()};
+    }
+
+    private static String syllable(char c) {
+        try {
+            String[] readings = PinyinHelper.toHanyuPinyinStringArray(c, FORMAT);
+            return readings == null || readings.length == 0 ? null : readings[0];
+        } catch (BadHanyuPinyinOutputFormatCombination e) {
+            return null;
+        }
+    }
+}
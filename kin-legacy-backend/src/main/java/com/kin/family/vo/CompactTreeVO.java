@@ -0,0 +1,51 @@
+package com.kin.family.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 列式家谱树视图对象
+ * 每个成员只出现一次，按成员ID升序占据各数组的同一下标；引用其他成员时使用下标，-1 表示没有。
+ * 家谱树结构由 roots、childOffsets、children 给出：成员 i 的子女为 children[childOffsets[i] .. childOffsets[i+1])，
+ * 与嵌套格式的 children 顺序一致；parents 为成员的第一个父母，便于只需单亲连线的客户端使用。
+ * 出生地、头像前缀等重复值存放在 strings 中，对应数组保存其下标
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactTreeVO {
+    private Integer size;
+    private long[] ids;
+    private String[] names;
+    /**
+     * 性别代码：0 未知、1 男、2 女
+     */
+    private int[] genders;
+    /**
+     * 出生日期，格式为 yyyyMMdd 的整数，0 表示未知
+     */
+    private int[] birthDates;
+    private int[] birthPlaces;
+    private int[] avatarPrefixes;
+    private String[] avatarSuffixes;
+    private String[] bios;
+    private Long[] userIds;
+    /**
+     * 世代，0 表示未知
+     */
+    private int[] generations;
+    private int[] parents;
+    private int[] spouses;
+    private int[] roots;
+    private int[] childOffsets;
+    private int[] children;
+    private int[] creators;
+    private int[] currentUsers;
+    private String currentUserLabel;
+    private String[] strings;
+}
@@ -0,0 +1,41 @@
+package com.kin.family.vo;
+
+import com.kin.family.dto.MemberDetailDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 家谱增量同步视图对象
+ * full 为 true 时 members/relations 是家谱的完整快照，客户端应整体替换本地副本；
+ * 否则只包含自 since 版本以来新增或更新的成员和关系，以及被删除的成员和关系ID。
+ * 删除成员时与其相连的关系一并删除，客户端需同步移除这些关系
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FamilyDeltaVO {
+    private Long version;
+    private Boolean full;
+    private List<MemberDetailDTO> members;
+    private List<Edge> relations;
+    private List<Long> deletedMemberIds;
+    private List<Long> deletedRelationIds;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Edge {
+        private Long id;
+        private Long fromMemberId;
+        private Long toMemberId;
+        private String relationType;
+    }
+}
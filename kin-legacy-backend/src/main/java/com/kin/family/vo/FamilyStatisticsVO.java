@@ -0,0 +1,40 @@
+package com.kin.family.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 家谱统计视图对象
+ * 分支指第二世成员及其后代，后代按家谱树中首次出现的位置归属，每个成员只计入一个分支
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FamilyStatisticsVO {
+    private Long familyId;
+    private Integer memberCount;
+    private Integer maleCount;
+    private Integer femaleCount;
+    private Integer unknownGenderCount;
+    /**
+     * 男女比例（男/女），没有女性成员时为 null
+     */
+    private Double genderRatio;
+    private Integer livingCount;
+    private Integer deceasedCount;
+    /**
+     * 平均寿命（岁），只统计出生和去世日期都已知的已故成员
+     */
+    private Double averageLifespan;
+    private Integer lifespanSampleCount;
+    private Integer generationCount;
+    private Integer branchCount;
+    private Long largestBranchMemberId;
+    private String largestBranchMemberName;
+    private Integer largestBranchSize;
+}
@@ -0,0 +1,40 @@
+package com.kin.family.vo;
+
+import com.kin.family.constant.GenderEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 子树节点视图对象
+ * 按深度和子女数截断的家谱树节点，不含简介和头像，hasMore 表示还有未返回的子女
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubtreeNodeVO {
+    private Long id;
+    private String name;
+    private GenderEnum gender;
+    private LocalDate birthDate;
+    private Integer isCreator;
+    private Long userId;
+    private Boolean currentUser;
+    private String currentUserLabel;
+    private Integer generation;
+    private Integer childCount;
+    private Boolean hasMore;
+
+    private SubtreeNodeVO spouse;
+
+    @Builder.Default
+    private List<SubtreeNodeVO> children = new ArrayList<>();
+}
@@ -0,0 +1,39 @@
+package com.kin.family.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 家谱树布局视图对象
+ * 坐标单位为像素，x/y 为节点左上角；每个成员只出现一次，parentId 为布局中连线的父成员，
+ * spouseId 为并排显示的配偶
+ *
+ * @author candong
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TreeLayoutVO {
+    private Integer width;
+    private Integer height;
+    private Integer nodeWidth;
+    private Integer nodeHeight;
+    private List<LayoutNode> nodes;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LayoutNode {
+        private Long id;
+        private Integer x;
+        private Integer y;
+        private Long parentId;
+        private Long spouseId;
+    }
+}
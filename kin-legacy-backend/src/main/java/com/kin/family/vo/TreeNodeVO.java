@@ -1,5 +1,6 @@
 package com.kin.family.vo;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.kin.family.constant.GenderEnum;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -32,6 +33,7 @@ public class TreeNodeVO {
     private String currentUserLabel;
     private Integer generation;
 
+    @JsonIgnoreProperties({"spouse", "children"})
     private TreeNodeVO spouse;
 
     @Builder.Default
@@ -0,0 +1,18 @@
+-- =============================================
+-- 家谱变更日志
+-- 每次成员、关系写入按家谱数据版本追加一行，客户端凭上次同步的版本号增量拉取
+-- =============================================
+
+DROP TABLE IF EXISTS `family_change_log`;
+CREATE TABLE `family_change_log` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `family_id` BIGINT NOT NULL COMMENT '家谱ID',
+    `version` BIGINT NOT NULL COMMENT '写入后的家谱数据版本',
+    `entity_type` VARCHAR(20) NOT NULL COMMENT '变更对象：member/relation/family',
+    `entity_id` BIGINT NOT NULL COMMENT '变更对象ID',
+    `operation` VARCHAR(20) NOT NULL COMMENT '操作：upsert/delete',
+    `create_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (`id`),
+    KEY `idx_family_version` (`family_id`, `version`),
+    KEY `idx_create_time` (`create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='家谱变更日志表';
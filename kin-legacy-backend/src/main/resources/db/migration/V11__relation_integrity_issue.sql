@@ -0,0 +1,21 @@
+-- =============================================
+-- 关系完整性检查结果
+-- 每次检查某个家谱时覆盖该家谱上一次的结果，已修复的问题保留记录
+-- =============================================
+
+DROP TABLE IF EXISTS `relation_integrity_issue`;
+CREATE TABLE `relation_integrity_issue` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `family_id` BIGINT NOT NULL COMMENT '家谱ID',
+    `relation_id` BIGINT NOT NULL COMMENT '关系ID',
+    `from_member_id` BIGINT DEFAULT NULL COMMENT '关系起点成员ID',
+    `to_member_id` BIGINT DEFAULT NULL COMMENT '关系终点成员ID',
+    `relation_type` VARCHAR(20) DEFAULT NULL COMMENT '关系类型',
+    `issue_type` VARCHAR(30) NOT NULL COMMENT '问题类型',
+    `detail` VARCHAR(255) DEFAULT NULL COMMENT '问题说明',
+    `repaired` TINYINT NOT NULL DEFAULT 0 COMMENT '是否已删除该关系修复：0-否，1-是',
+    `create_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '发现时间',
+    PRIMARY KEY (`id`),
+    KEY `idx_family_repaired` (`family_id`, `repaired`),
+    KEY `idx_issue_type` (`issue_type`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='关系完整性问题表';
@@ -0,0 +1,24 @@
+-- =============================================
+-- 疑似重复成员
+-- 查重任务按成员对写入，member_id < other_member_id；
+-- 重新查重时刷新待审核记录的得分，不再命中的待审核记录删除，已确认或已忽略的记录保留
+-- =============================================
+
+DROP TABLE IF EXISTS `member_duplicate_candidate`;
+CREATE TABLE `member_duplicate_candidate` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `family_id` BIGINT NOT NULL COMMENT '成员所属家谱ID',
+    `member_id` BIGINT NOT NULL COMMENT '成员ID',
+    `other_family_id` BIGINT NOT NULL COMMENT '另一成员所属家谱ID',
+    `other_member_id` BIGINT NOT NULL COMMENT '另一成员ID',
+    `score` INT NOT NULL COMMENT '相似得分',
+    `reasons` VARCHAR(255) DEFAULT NULL COMMENT '命中的相似项',
+    `status` VARCHAR(20) NOT NULL DEFAULT 'pending' COMMENT '审核状态：pending-待审核，confirmed-确认重复，dismissed-已忽略',
+    `create_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '首次发现时间',
+    `update_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '最近一次查重或审核时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_member_pair` (`member_id`, `other_member_id`),
+    KEY `idx_family_status` (`family_id`, `status`),
+    KEY `idx_other_family_status` (`other_family_id`, `status`),
+    KEY `idx_other_member` (`other_member_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='疑似重复成员表';
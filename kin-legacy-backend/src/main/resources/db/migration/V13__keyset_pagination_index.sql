@@ -0,0 +1,22 @@
+-- =============================================
+-- 游标分页索引
+-- 管理列表和审批按 (create_time, id) 倒序翻页，游标条件可直接在索引上定位
+-- =============================================
+
+ALTER TABLE `user`
+ADD KEY `idx_create_time` (`create_time`, `id`);
+
+ALTER TABLE `family`
+ADD KEY `idx_create_time` (`create_time`, `id`);
+
+ALTER TABLE `family_member`
+ADD KEY `idx_create_time` (`create_time`, `id`),
+ADD KEY `idx_family_create_time` (`family_id`, `create_time`, `id`);
+
+ALTER TABLE `join_request`
+ADD KEY `idx_create_time` (`create_time`, `id`),
+ADD KEY `idx_family_create_time` (`family_id`, `create_time`, `id`);
+
+ALTER TABLE `edit_request`
+ADD KEY `idx_create_time` (`create_time`, `id`),
+ADD KEY `idx_family_create_time` (`family_id`, `create_time`, `id`);
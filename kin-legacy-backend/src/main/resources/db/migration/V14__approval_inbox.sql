@@ -0,0 +1,48 @@
+-- =============================================
+-- 审批收件箱
+-- 加入申请和编辑申请在写入、审批时同步到同一张表，审批列表改为单表按索引范围扫描，
+-- 不再对两张申请表做 UNION ALL 后排序；request_type + request_id 指向原申请记录
+-- =============================================
+
+DROP TABLE IF EXISTS `approval_inbox`;
+CREATE TABLE `approval_inbox` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `request_type` VARCHAR(10) NOT NULL COMMENT '申请类型：join-加入申请，edit-编辑申请',
+    `request_id` BIGINT NOT NULL COMMENT '原申请ID',
+    `family_id` BIGINT NOT NULL COMMENT '家谱ID',
+    `applicant_user_id` BIGINT NOT NULL COMMENT '申请人用户ID',
+    `applicant_name` VARCHAR(64) DEFAULT NULL COMMENT '申请人姓名，编辑申请为空，查询时取用户姓名',
+    `relation_desc` VARCHAR(64) DEFAULT NULL COMMENT '关系描述',
+    `join_type` VARCHAR(20) DEFAULT NULL COMMENT '加入类型',
+    `member_id` BIGINT DEFAULT NULL COMMENT '编辑的成员ID',
+    `member_name` VARCHAR(64) DEFAULT NULL COMMENT '编辑的成员姓名',
+    `changes_json` TEXT DEFAULT NULL COMMENT '申请内容',
+    `status` VARCHAR(20) NOT NULL DEFAULT 'pending' COMMENT '状态: pending-待审批 approved-已同意 rejected-已拒绝',
+    `reject_reason` VARCHAR(255) DEFAULT NULL COMMENT '拒绝原因',
+    `reviewer_id` BIGINT DEFAULT NULL COMMENT '审批人ID',
+    `create_time` DATETIME NOT NULL COMMENT '申请时间',
+    `reviewed_at` DATETIME DEFAULT NULL COMMENT '审批时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_request` (`request_type`, `request_id`),
+    KEY `idx_family_status_time` (`family_id`, `status`, `create_time`),
+    KEY `idx_family_time` (`family_id`, `create_time`),
+    KEY `idx_status_time` (`status`, `create_time`),
+    KEY `idx_create_time` (`create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='审批收件箱表';
+
+-- 回填已有申请，按申请时间写入，保证同一时刻 id 与原顺序一致
+INSERT INTO `approval_inbox` (`request_type`, `request_id`, `family_id`, `applicant_user_id`, `applicant_name`,
+                              `relation_desc`, `join_type`, `changes_json`, `status`, `reviewer_id`,
+                              `create_time`, `reviewed_at`)
+SELECT 'join', `id`, `family_id`, `applicant_user_id`, `applicant_name`, `relation_desc`, `join_type`,
+       `changes_json`, LOWER(`status`), `reviewer_id`, `create_time`, `reviewed_at`
+FROM `join_request`
+ORDER BY `create_time`, `id`;
+
+INSERT INTO `approval_inbox` (`request_type`, `request_id`, `family_id`, `applicant_user_id`, `member_id`,
+                              `member_name`, `changes_json`, `status`, `reject_reason`, `reviewer_id`,
+                              `create_time`, `reviewed_at`)
+SELECT 'edit', `id`, `family_id`, `applicant_user_id`, `member_id`, `member_name`, `changes_json`,
+       LOWER(`status`), `reject_reason`, `reviewer_id`, `create_time`, `reviewed_at`
+FROM `edit_request`
+ORDER BY `create_time`, `id`;
@@ -0,0 +1,24 @@
+-- =============================================
+-- 事务发件箱
+-- 业务写入时在同一事务内登记副作用事件，后台任务批量领取并异步执行；
+-- 领取时把 next_attempt_time 推后作为租约，实例宕机后租约到期的事件会被重新领取，
+-- 因此事件至少执行一次，处理器需保证幂等；event_key 唯一，重复登记同一事件会被忽略
+-- =============================================
+
+DROP TABLE IF EXISTS `outbox_event`;
+CREATE TABLE `outbox_event` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `event_type` VARCHAR(50) NOT NULL COMMENT '事件类型',
+    `event_key` VARCHAR(100) NOT NULL COMMENT '幂等键',
+    `payload` TEXT DEFAULT NULL COMMENT '事件内容JSON',
+    `status` VARCHAR(20) NOT NULL DEFAULT 'pending' COMMENT '状态：pending-待处理，processing-处理中，done-已完成，failed-已放弃',
+    `attempts` INT NOT NULL DEFAULT 0 COMMENT '已尝试次数',
+    `next_attempt_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下次可领取时间，处理中时为租约到期时间',
+    `last_error` VARCHAR(500) DEFAULT NULL COMMENT '最近一次失败原因',
+    `create_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_event_key` (`event_key`),
+    KEY `idx_status_next_attempt` (`status`, `next_attempt_time`),
+    KEY `idx_status_update_time` (`status`, `update_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='事务发件箱表';
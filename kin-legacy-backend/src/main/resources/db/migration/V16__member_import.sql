@@ -0,0 +1,36 @@
+-- =============================================
+-- 成员批量导入
+-- 导入任务按块提交，每块与任务进度在同一事务内写入，失败后可从已提交的进度继续；
+-- member_import_ref 记录文件内编号到新成员ID的映射，用于续传时解析跨块的父母、配偶引用，任务完成后清理
+-- =============================================
+
+DROP TABLE IF EXISTS `member_import_job`;
+CREATE TABLE `member_import_job` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `family_id` BIGINT NOT NULL COMMENT '家谱ID',
+    `operator_id` BIGINT NOT NULL COMMENT '发起人用户ID',
+    `file_name` VARCHAR(255) NOT NULL COMMENT '原始文件名',
+    `file_format` VARCHAR(20) NOT NULL COMMENT '文件格式：csv、xlsx、gedcom',
+    `file_path` VARCHAR(500) NOT NULL COMMENT '服务端暂存路径',
+    `status` VARCHAR(20) NOT NULL DEFAULT 'pending' COMMENT '状态：pending-排队中，validating-校验中，importing-写入中，done-已完成，failed-失败',
+    `total_members` INT NOT NULL DEFAULT 0 COMMENT '文件中的成员数',
+    `imported_members` INT NOT NULL DEFAULT 0 COMMENT '已写入的成员数',
+    `total_relations` INT NOT NULL DEFAULT 0 COMMENT '文件中的关系数',
+    `imported_relations` INT NOT NULL DEFAULT 0 COMMENT '已写入的关系数',
+    `error_count` INT NOT NULL DEFAULT 0 COMMENT '校验错误数',
+    `errors` TEXT DEFAULT NULL COMMENT '前若干条校验错误JSON',
+    `error_message` VARCHAR(500) DEFAULT NULL COMMENT '失败原因',
+    `create_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    KEY `idx_family_id` (`family_id`),
+    KEY `idx_status` (`status`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='成员导入任务表';
+
+DROP TABLE IF EXISTS `member_import_ref`;
+CREATE TABLE `member_import_ref` (
+    `job_id` BIGINT NOT NULL COMMENT '导入任务ID',
+    `ref_key` VARCHAR(100) NOT NULL COMMENT '文件内编号',
+    `member_id` BIGINT NOT NULL COMMENT '成员ID',
+    PRIMARY KEY (`job_id`, `ref_key`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='成员导入编号映射表';
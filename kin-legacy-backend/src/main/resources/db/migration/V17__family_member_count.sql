@@ -0,0 +1,13 @@
+-- =============================================
+-- 家谱成员数
+-- member_count 此前未维护，按实际成员数回填；此后成员增删、迁移时在同一事务内增减，定时任务校准偏差
+-- =============================================
+
+ALTER TABLE `family`
+MODIFY COLUMN `member_count` INT NOT NULL DEFAULT 0 COMMENT '成员数量';
+
+UPDATE `family` f
+LEFT JOIN (
+    SELECT `family_id`, COUNT(*) AS `cnt` FROM `family_member` GROUP BY `family_id`
+) m ON m.`family_id` = f.`id`
+SET f.`member_count` = IFNULL(m.`cnt`, 0);
@@ -0,0 +1,36 @@
+-- =============================================
+-- 成员祖先闭包表
+-- 记录每对 (祖先, 后代) 及其相隔世代数，祖先/后代查询走索引范围扫描
+-- =============================================
+
+-- ----------------------------
+-- 1. 闭包表
+-- ----------------------------
+DROP TABLE IF EXISTS `member_closure`;
+CREATE TABLE `member_closure` (
+    `ancestor_id` BIGINT NOT NULL COMMENT '祖先成员ID',
+    `descendant_id` BIGINT NOT NULL COMMENT '后代成员ID',
+    `family_id` BIGINT NOT NULL COMMENT '家谱ID',
+    `depth` INT NOT NULL COMMENT '相隔世代数，成员自身为0',
+    PRIMARY KEY (`ancestor_id`, `descendant_id`),
+    KEY `idx_ancestor_depth` (`ancestor_id`, `depth`),
+    KEY `idx_descendant_depth` (`descendant_id`, `depth`),
+    KEY `idx_family_id` (`family_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='成员祖先闭包表';
+
+-- ----------------------------
+-- 2. 根据现有父子/母子关系回填（MySQL 8.0+）
+-- ----------------------------
+INSERT INTO `member_closure` (`family_id`, `ancestor_id`, `descendant_id`, `depth`)
+WITH RECURSIVE paths (`family_id`, `ancestor_id`, `descendant_id`, `depth`) AS (
+    SELECT `family_id`, `id`, `id`, 0 FROM `family_member`
+    UNION ALL
+    SELECT p.`family_id`, p.`ancestor_id`, r.`to_member_id`, p.`depth` + 1
+    FROM paths p
+    INNER JOIN `member_relation` r ON r.`from_member_id` = p.`descendant_id`
+    INNER JOIN `family_member` fm ON fm.`id` = r.`to_member_id`
+    WHERE r.`relation_type` IN ('father_son', 'mother_son') AND p.`depth` < 64
+)
+SELECT `family_id`, `ancestor_id`, `descendant_id`, MIN(`depth`)
+FROM paths
+GROUP BY `family_id`, `ancestor_id`, `descendant_id`;
@@ -0,0 +1,20 @@
+-- =============================================
+-- 成员世代持久化
+-- 世代 = 1 + 到最近一个无父母祖先的世代数，与家谱树展示一致，由闭包表回填
+-- =============================================
+
+ALTER TABLE `family_member`
+ADD COLUMN `generation` INT NOT NULL DEFAULT 1 COMMENT '世代，根成员为第1世' AFTER `is_creator`,
+ADD KEY `idx_family_generation` (`family_id`, `generation`),
+ADD KEY `idx_generation` (`generation`);
+
+UPDATE `family_member` fm
+INNER JOIN (
+    SELECT mc.`descendant_id` AS `member_id`, MIN(mc.`depth`) + 1 AS `generation`
+    FROM `member_closure` mc
+    WHERE NOT EXISTS (
+        SELECT 1 FROM `member_closure` p WHERE p.`descendant_id` = mc.`ancestor_id` AND p.`depth` > 0
+    )
+    GROUP BY mc.`descendant_id`
+) g ON g.`member_id` = fm.`id`
+SET fm.`generation` = g.`generation`;
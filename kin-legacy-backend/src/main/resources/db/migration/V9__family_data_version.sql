@@ -0,0 +1,7 @@
+-- =============================================
+-- 家谱数据版本
+-- 成员、关系及成员角色每次变化时在同一事务内递增，用作家谱树和成员列表的 ETag
+-- =============================================
+
+ALTER TABLE `family`
+ADD COLUMN `data_version` BIGINT NOT NULL DEFAULT 0 COMMENT '数据版本' AFTER `member_count`;
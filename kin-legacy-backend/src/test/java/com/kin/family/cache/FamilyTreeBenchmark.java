@@ -0,0 +1,121 @@
+package com.kin.family.cache;
+
+import com.kin.family.constant.GenderEnum;
+import com.kin.family.constant.RelationTypeEnum;
+import com.kin.family.entity.FamilyMember;
+import com.kin.family.entity.MemberRelation;
+import com.kin.family.vo.TreeNodeVO;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * 家谱树组装基准
+ * 生成 1k、10k、100k 成员的合成家谱，分别测量关系图建立加家谱树组装、查找当前用户成员、叠加当前用户标记的耗时和内存分配；
+ * 不是单元测试，surefire 不会执行，需手动运行：
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) com.kin.family.cache.FamilyTreeBenchmark
+ * </pre>
+ *
+ * @author candong
+ */
+public class FamilyTreeBenchmark {
+
+    private static final int[] SIZES = {1_000, 10_000, 100_000};
+    private static final int WARMUP = 5;
+    private static final int ROUNDS = 10;
+    private static final Long FAMILY_ID = 1L;
+    private static final Long CURRENT_USER_ID = 1L;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        System.out.printf("%-8s %-10s %12s %14s%n", "members", "case", "median(ms)", "alloc(KB)");
+        for (int size : SIZES) {
+            List<FamilyMember> members = new ArrayList<>(size);
+            List<MemberRelation> relations = new ArrayList<>(size);
+            generate(size, members, relations);
+
+            measure(size, "assemble", () -> new FamilyGraph(FAMILY_ID, members, relations).getForest());
+
+            FamilyGraph graph = new FamilyGraph(FAMILY_ID, members, relations);
+            graph.getForest();
+            measure(size, "find", () -> {
+                graph.findCurrentUserMembers(CURRENT_USER_ID);
+                return List.of();
+            });
+            Set<Long> markedIds = graph.findCurrentUserMembers(CURRENT_USER_ID);
+            measure(size, "mark", () -> graph.getForest(markedIds, "我"));
+        }
+    }
+
+    /**
+     * 成员1为创建者；其余成员的父亲从前一半成员中随机选取，每三人一对夫妻；当前用户绑定最后一名成员，位于最深的分支之一
+     */
+    private static void generate(int size, List<FamilyMember> members, List<MemberRelation> relations) {
+        Random random = new Random(42);
+        long relationId = 1;
+        for (long id = 1; id <= size; id++) {
+            members.add(FamilyMember.builder()
+                    .id(id)
+                    .familyId(FAMILY_ID)
+                    .name("成员" + id)
+                    .gender(id % 3 == 0 ? GenderEnum.FEMALE : GenderEnum.MALE)
+                    .isCreator(id == 1 ? 1 : 0)
+                    .userId(id == size ? CURRENT_USER_ID : null)
+                    .build());
+            if (id == 1) {
+                continue;
+            }
+            if (id % 3 == 0) {
+                relations.add(MemberRelation.builder()
+                        .id(relationId++)
+                        .familyId(FAMILY_ID)
+                        .fromMemberId(id - 1)
+                        .toMemberId(id)
+                        .relationType(RelationTypeEnum.HUSBAND_WIFE)
+                        .build());
+                continue;
+            }
+            long parentId = id / 2 + random.nextInt((int) Math.max(1, id / 2));
+            relations.add(MemberRelation.builder()
+                    .id(relationId++)
+                    .familyId(FAMILY_ID)
+                    .fromMemberId(Math.min(parentId, id - 1))
+                    .toMemberId(id)
+                    .relationType(RelationTypeEnum.FATHER_SON)
+                    .build());
+        }
+    }
+
+    private static void measure(int size, String name, Supplier<List<TreeNodeVO>> task) {
+        for (int i = 0; i < WARMUP; i++) {
+            consume(task.get());
+        }
+        long[] nanos = new long[ROUNDS];
+        long allocated = 0;
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < ROUNDS; i++) {
+            long bytes = THREADS.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            consume(task.get());
+            nanos[i] = System.nanoTime() - start;
+            allocated += THREADS.getThreadAllocatedBytes(threadId) - bytes;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-8d %-10s %12.2f %14d%n", size, name, nanos[ROUNDS / 2] / 1e6, allocated / ROUNDS / 1024);
+    }
+
+    private static int sink;
+
+    private static void consume(List<TreeNodeVO> roots) {
+        sink += roots.size();
+    }
+}
@@ -11,6 +11,7 @@ export default {
     create: (data) => post('/family/create', data),
     join: (data) => post('/family/join', data),
     getById: (id) => get(`/family/${id}`),
+    getStatistics: (id) => get(`/family/${id}/statistics`),
     getMine: () => get('/family/mine'),
     getByCode: (code) => get(`/family/code/${code}`),
     getAll: () => get('/family/list'),
@@ -21,6 +22,12 @@ export default {
   member: {
     getList: (familyId) => get(`/family/${familyId}/members`),
     getTree: (familyId) => get(`/family/${familyId}/tree`),
+    getCompactTree: (familyId) => get(`/family/${familyId}/tree`, { format: 'compact' }),
+    getTreeLayout: (familyId) => get(`/family/${familyId}/tree/layout`),
+    getTreeDelta: (familyId, since) => get(`/family/${familyId}/tree/delta`, { since }),
+    search: (familyId, q, limit) => get(`/family/${familyId}/members/search`, { q, limit }),
+    getSubtree: (familyId, params) => get(`/family/${familyId}/tree/subtree`, params),
+    getKinship: (familyId, params) => get(`/family/${familyId}/relation/kinship`, params),
     getById: (familyId, memberId) => get(`/family/${familyId}/member/${memberId}`),
     getDetail: (familyId, memberId) => get(`/family/${familyId}/member/${memberId}/detail`),
     add: (familyId, data) => post(`/family/${familyId}/member`, data),
@@ -34,8 +41,10 @@ export default {
   approval: {
     getList: (familyId, params) => get(`/approvals/family/${familyId}`, params),
     getAll: (params) => get('/approvals', params),
+    getBadge: () => get('/approvals/badge'),
     getFamilyApprovals: (familyId, params) => get('/approvals/family/' + familyId, params),
-    handle: (familyId, requestId, data) => post(`/approvals/${requestId}/handle?familyId=${familyId}`, data)
+    handle: (familyId, requestId, data) => post(`/approvals/${requestId}/handle?familyId=${familyId}`, data),
+    batchHandle: (familyId, data) => post(`/approvals/batch-handle?familyId=${familyId}`, data)
   },
 
   user: {
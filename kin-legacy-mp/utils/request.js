@@ -3,23 +3,36 @@ const BASE_URL = 'http://localhost:8080/api'
 let isRefreshing = false
 let requests = []
 
+// GET 请求的 ETag 与数据缓存，服务端返回 304 时直接复用
+const etagCache = {}
+
 const request = (options) => {
   return new Promise((resolve, reject) => {
     const accessToken = uni.getStorageSync('accessToken')
     const refreshToken = uni.getStorageSync('refreshToken')
+    const method = options.method || 'GET'
+    const cacheKey = method === 'GET' ? options.url + JSON.stringify(options.data || {}) : null
+    const cached = cacheKey ? etagCache[cacheKey] : null
     
     uni.request({
       url: BASE_URL + options.url,
-      method: options.method || 'GET',
+      method,
       data: options.data,
       header: {
         'Content-Type': 'application/json',
         'Authorization': accessToken ? `Bearer ${accessToken}` : '',
+        ...(cached ? { 'If-None-Match': cached.etag } : {}),
         ...options.header
       },
       success: async (res) => {
-        if (res.statusCode === 200) {
+        if (res.statusCode === 304 && cached) {
+          resolve(cached.data)
+        } else if (res.statusCode === 200) {
           if (res.data.code === 200) {
+            const etag = res.header && (res.header.ETag || res.header.etag)
+            if (cacheKey && etag) {
+              etagCache[cacheKey] = { etag, data: res.data.data }
+            }
             resolve(res.data.data)
           } else if (res.data.code === 401) {
             if (!isRefreshing && refreshToken) {
@@ -130,6 +143,7 @@ const refreshTokenApi = (refreshToken) => {
 }
 
 function clearAuth() {
+  Object.keys(etagCache).forEach(key => delete etagCache[key])
   uni.removeStorageSync('accessToken')
   uni.removeStorageSync('refreshToken')
   uni.removeStorageSync('userId')